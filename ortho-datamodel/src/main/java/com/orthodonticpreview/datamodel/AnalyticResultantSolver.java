@@ -0,0 +1,124 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Closed form alternative to the funicular polygon of PreviewCalculation.
+ *
+ * The line of action of the resultant R is the set of points p where
+ * cross(p, R) = M, M being the sum of the moments of the forces. Turning
+ * every force by the same angle t (around its own origin) turns R, and
+ * changes the moment to cos(t) M - sin(t) D, where D is the sum of
+ * dot(origin, force). So both lines of action (original and turned) come
+ * from one pass over the forces, and GR is their intersection.
+ *
+ * Moments are taken around the origin of the first force, to keep the
+ * numbers small.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class AnalyticResultantSolver {
+
+    private AnalyticResultantSolver() {
+    }
+
+    /**
+     * Finds the lines of action of the resultant, for the forces as they are
+     * and for the forces turned by an angle (as PreviewCalculation turns
+     * them, counterclockwise on the viewer).
+     *
+     * Each line has the lenght and direction of its resultant, and starts on
+     * the point of the line of action closest to the first force origin.
+     *
+     * @param forces Force vectors.
+     * @param turn Turn angle (degrees).
+     * @return Original and turned lines of action.
+     * @throws IllegalArgumentException If forces are empty or their sum is
+     * zero (there is no line of action).
+     */
+    public static List<Line2D> getLinesOfAction(final List<Line2D> forces,
+            final double turn) {
+        if (forces == null || forces.isEmpty()) {
+            throw new IllegalArgumentException("No forces.");
+        }
+        final double refX = forces.get(0).getX1();
+        final double refY = forces.get(0).getY1();
+        double sumX = 0;
+        double sumY = 0;
+        double moment = 0;
+        double dot = 0;
+        for (Line2D force : forces) {
+            final double posX = force.getX1() - refX;
+            final double posY = force.getY1() - refY;
+            final double dirX = force.getX2() - force.getX1();
+            final double dirY = force.getY2() - force.getY1();
+            sumX += dirX;
+            sumY += dirY;
+            moment += posX * dirY - posY * dirX;
+            dot += posX * dirX + posY * dirY;
+        }
+        if (sumX == 0 && sumY == 0) {
+            throw new IllegalArgumentException(
+                    "Forces sum is zero, there is no resultant.");
+        }
+
+        final double rad = Math.toRadians(turn);
+        final double cos = Math.cos(rad);
+        final double sin = Math.sin(rad);
+        final List<Line2D> lines = new ArrayList<Line2D>(2);
+        lines.add(lineOfAction(refX, refY, sumX, sumY, moment));
+        lines.add(lineOfAction(refX, refY, sumX * cos + sumY * sin,
+                -sumX * sin + sumY * cos, cos * moment - sin * dot));
+        return lines;
+    }
+
+    /**
+     * Finds GR: intersection of original and turned lines of action.
+     *
+     * @param forces Force vectors.
+     * @param turn Turn angle (degrees).
+     * @return The intersection.
+     * @throws IllegalArgumentException If forces are empty or their sum is
+     * zero.
+     */
+    public static LineIntersection getPointGr(final List<Line2D> forces,
+            final double turn) {
+        final List<Line2D> lines = getLinesOfAction(forces, turn);
+        return LineIntersection.intersect(lines.get(0), lines.get(1));
+    }
+
+    /**
+     * Line with points p where cross(p - ref, sum) = moment.
+     */
+    private static Line2D lineOfAction(final double refX, final double refY,
+            final double sumX, final double sumY, final double moment) {
+        final double factor = moment / (sumX * sumX + sumY * sumY);
+        final double startX = refX + factor * sumY;
+        final double startY = refY - factor * sumX;
+        return new Line2D.Double(startX, startY,
+                startX + sumX, startY + sumY);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.Rectangle;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.List;
+
+/**
+ * PreviewCalculationModel kept on plain fields, for calculations out of a
+ * viewer (batch, services).
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class BasicCalculationModel implements PreviewCalculationModel {
+
+    private final List<Line2D> vectorUnits;
+    private final GeneralPath arcPath;
+    private List<Line2D> debugVectorUnits;
+    private Point2D pointGr;
+    private Line2D resultant;
+    private Rectangle resultBounds;
+
+    /**
+     * Creates a model for given force vectors.
+     *
+     * @param units Force vector units.
+     * @param arc Arch path (may be null).
+     */
+    public BasicCalculationModel(final List<Line2D> units,
+            final GeneralPath arc) {
+        vectorUnits = units;
+        arcPath = arc;
+    }
+
+    @Override
+    public List<Line2D> getVectorUnits() {
+        return vectorUnits;
+    }
+
+    @Override
+    public void setDebugVectorUnits(final List<Line2D> debug) {
+        debugVectorUnits = debug;
+    }
+
+    /**
+     * @return Debug vectors of last calculation.
+     */
+    public List<Line2D> getDebugVectorUnits() {
+        return debugVectorUnits;
+    }
+
+    @Override
+    public void setPointGr(final Point2D point) {
+        pointGr = point;
+    }
+
+    @Override
+    public Point2D getPointGr() {
+        return pointGr;
+    }
+
+    @Override
+    public void setResultant(final Line2D result) {
+        resultant = result;
+    }
+
+    @Override
+    public GeneralPath getArcPath() {
+        return arcPath;
+    }
+
+    @Override
+    public Line2D getResultant() {
+        return resultant;
+    }
+
+    @Override
+    public void setResultBounds(final Rectangle bounds) {
+        resultBounds = bounds;
+    }
+
+    /**
+     * @return Bounds of calculation area.
+     */
+    public Rectangle getResultBounds() {
+        return resultBounds;
+    }
+}
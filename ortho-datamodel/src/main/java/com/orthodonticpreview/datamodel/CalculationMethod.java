@@ -0,0 +1,67 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+/**
+ * How PreviewCalculation finds the resultant line of action.
+ *
+ * The default can be changed with -Dortho.calculation=analytic.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public enum CalculationMethod {
+
+    /**
+     * Graphical method: funicular polygon, as done on paper (default).
+     */
+    FUNICULAR,
+    /**
+     * Closed form: line of action from the summed moments (see
+     * AnalyticResultantSolver).
+     */
+    ANALYTIC,
+    /**
+     * Funicular polygon for several turn angles, combined by least squares
+     * with outlier rejection (see MultiAngleGrEstimator).
+     */
+    MULTI_ANGLE;
+
+    /**
+     * System property to choose the default method.
+     */
+    public static final String PROPERTY = "ortho.calculation";
+
+    /**
+     * @return Method set on PROPERTY, or FUNICULAR.
+     */
+    public static CalculationMethod getDefault() {
+        final String value = System.getProperty(PROPERTY);
+        if (value != null) {
+            for (CalculationMethod method : values()) {
+                if (method.name().equalsIgnoreCase(value.trim())) {
+                    return method;
+                }
+            }
+        }
+        return FUNICULAR;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates numbered daemon threads ("prefix-1", "prefix-2", ...) for the
+ * worker pools, so they never keep the application from exiting.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final int priority;
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Factory of normal priority threads.
+     *
+     * @param prefix Thread name prefix.
+     */
+    public DaemonThreadFactory(final String prefix) {
+        this(prefix, Thread.NORM_PRIORITY);
+    }
+
+    /**
+     * @param prefix Thread name prefix.
+     * @param priority Thread priority.
+     */
+    public DaemonThreadFactory(final String prefix, final int priority) {
+        this.prefix = prefix;
+        this.priority = priority;
+    }
+
+    @Override
+    public Thread newThread(final Runnable task) {
+        final Thread thread
+                = new Thread(task, prefix + "-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(priority);
+        return thread;
+    }
+}
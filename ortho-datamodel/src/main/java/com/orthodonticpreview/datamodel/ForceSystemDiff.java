@@ -0,0 +1,277 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Differences between the force systems and results of two studies (a
+ * follow-up against an earlier one).
+ *
+ * Forces are matched by position (F1 to F12, see TagO.FORCE_VECTOR_UNITS).
+ * Angles are in degrees, counter clockwise on the viewer (see
+ * VectorMath.getAngle), and signed changes are in (-180, 180]. Values that
+ * can't be compared (a force or result missing on one of the studies) are
+ * NaN.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class ForceSystemDiff {
+
+    private final List<Line2D> before;
+    private final List<Line2D> after;
+    private final Point2D grBefore;
+    private final Point2D grAfter;
+    private final Line2D resultantBefore;
+    private final Line2D resultantAfter;
+    private String turningBefore;
+    private String turningAfter;
+    private Boolean projectionBefore;
+    private Boolean projectionAfter;
+
+    private ForceSystemDiff(final PreviewCalculationModel one,
+            final PreviewCalculationModel two) {
+        before = units(one);
+        after = units(two);
+        grBefore = one.getPointGr();
+        grAfter = two.getPointGr();
+        resultantBefore = one.getResultant();
+        resultantAfter = two.getResultant();
+    }
+
+    /**
+     * Compares two force systems (with their results, if calculated).
+     *
+     * @param before Earlier study.
+     * @param after Later study.
+     * @return The differences.
+     */
+    public static ForceSystemDiff compare(final PreviewCalculationModel before,
+            final PreviewCalculationModel after) {
+        return new ForceSystemDiff(before, after);
+    }
+
+    private static List<Line2D> units(final PreviewCalculationModel model) {
+        final List<Line2D> units = model.getVectorUnits();
+        return units == null ? Collections.<Line2D>emptyList() : units;
+    }
+
+    /**
+     * @return Number of forces of earlier study.
+     */
+    public int getForcesBefore() {
+        return before.size();
+    }
+
+    /**
+     * @return Number of forces of later study.
+     */
+    public int getForcesAfter() {
+        return after.size();
+    }
+
+    /**
+     * @param index Force index (0 for F1).
+     * @return Change of force direction (degrees).
+     */
+    public double getAngleChange(final int index) {
+        if (!isOnBoth(index)) {
+            return Double.NaN;
+        }
+        return angleChange(before.get(index), after.get(index));
+    }
+
+    /**
+     * @param index Force index (0 for F1).
+     * @return Change of force magnitude (later minus earlier length).
+     */
+    public double getMagnitudeChange(final int index) {
+        if (!isOnBoth(index)) {
+            return Double.NaN;
+        }
+        return length(after.get(index)) - length(before.get(index));
+    }
+
+    /**
+     * @param index Force index (0 for F1).
+     * @return Distance the point of application (start of force) moved.
+     */
+    public double getOriginShift(final int index) {
+        if (!isOnBoth(index)) {
+            return Double.NaN;
+        }
+        return before.get(index).getP1().distance(after.get(index).getP1());
+    }
+
+    private boolean isOnBoth(final int index) {
+        return index >= 0 && index < before.size() && index < after.size();
+    }
+
+    /**
+     * Counts forces changed more than given tolerances (forces present on
+     * only one study count as changed).
+     *
+     * @param angleTolerance Angle change tolerated (degrees).
+     * @param magnitudeTolerance Magnitude change tolerated.
+     * @return Number of changed forces.
+     */
+    public int getChangedForces(final double angleTolerance,
+            final double magnitudeTolerance) {
+        int changed = Math.abs(before.size() - after.size());
+        final int common = Math.min(before.size(), after.size());
+        for (int i = 0; i < common; i++) {
+            if (Math.abs(getAngleChange(i)) > angleTolerance
+                    || Math.abs(getMagnitudeChange(i)) > magnitudeTolerance) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return Largest absolute angle change among forces on both studies (0
+     * if there are none).
+     */
+    public double getMaxAngleChange() {
+        double max = 0;
+        final int common = Math.min(before.size(), after.size());
+        for (int i = 0; i < common; i++) {
+            max = Math.max(max, Math.abs(getAngleChange(i)));
+        }
+        return max;
+    }
+
+    public Point2D getGrBefore() {
+        return grBefore;
+    }
+
+    public Point2D getGrAfter() {
+        return grAfter;
+    }
+
+    /**
+     * @return Distance GR moved.
+     */
+    public double getGrShift() {
+        if (grBefore == null || grAfter == null) {
+            return Double.NaN;
+        }
+        return grBefore.distance(grAfter);
+    }
+
+    /**
+     * @return Change of resultant direction (degrees).
+     */
+    public double getResultantAngleChange() {
+        if (resultantBefore == null || resultantAfter == null) {
+            return Double.NaN;
+        }
+        return angleChange(resultantBefore, resultantAfter);
+    }
+
+    /**
+     * @return Change of resultant magnitude (later minus earlier length).
+     */
+    public double getResultantMagnitudeChange() {
+        if (resultantBefore == null || resultantAfter == null) {
+            return Double.NaN;
+        }
+        return length(resultantAfter) - length(resultantBefore);
+    }
+
+    /**
+     * Sets the turning tendencies (see Tendencies.turning).
+     *
+     * @param earlier Tendency of earlier study (may be null).
+     * @param later Tendency of later study (may be null).
+     */
+    public void setTurning(final String earlier, final String later) {
+        turningBefore = earlier;
+        turningAfter = later;
+    }
+
+    /**
+     * Sets the projection tendencies (see Tendencies.projection).
+     *
+     * @param earlier Tendency of earlier study (may be null).
+     * @param later Tendency of later study (may be null).
+     */
+    public void setProjection(final Boolean earlier, final Boolean later) {
+        projectionBefore = earlier;
+        projectionAfter = later;
+    }
+
+    public String getTurningBefore() {
+        return turningBefore;
+    }
+
+    public String getTurningAfter() {
+        return turningAfter;
+    }
+
+    public Boolean getProjectionBefore() {
+        return projectionBefore;
+    }
+
+    public Boolean getProjectionAfter() {
+        return projectionAfter;
+    }
+
+    /**
+     * @return True if a tendency conclusion differs between the studies.
+     */
+    public boolean isTendencyChanged() {
+        return !equal(turningBefore, turningAfter)
+                || !equal(projectionBefore, projectionAfter);
+    }
+
+    private static boolean equal(final Object one, final Object two) {
+        return one == null ? two == null : one.equals(two);
+    }
+
+    private static double angleChange(final Line2D one, final Line2D two) {
+        double change = VectorMath.getAngle(two) - VectorMath.getAngle(one);
+        if (change > 180) {
+            change -= 360;
+        } else if (change <= -180) {
+            change += 360;
+        }
+        return change;
+    }
+
+    private static double length(final Line2D line) {
+        return line.getP1().distance(line.getP2());
+    }
+
+    @Override
+    public String toString() {
+        return "forces " + before.size() + " -> " + after.size()
+                + ", max angle change " + getMaxAngleChange()
+                + ", GR shift " + getGrShift() + ", resultant angle change "
+                + getResultantAngleChange() + ", turning " + turningBefore
+                + " -> " + turningAfter + ", projection " + projectionBefore
+                + " -> " + projectionAfter;
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+
+/**
+ * Intersection of two (infinite) lines, safe for parallel and degenerate
+ * lines.
+ *
+ * When the lines are parallel (the sine of the angle between them is below
+ * epsilon) or one of them has zero lenght, there is no single intersection;
+ * the point closest to both lines (least squares) is used instead, and the
+ * result is marked as parallel. The point is always finite for finite lines.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class LineIntersection {
+
+    /**
+     * Default limit for the sine of the angle between lines to consider them
+     * parallel.
+     */
+    public static final double DEFAULT_EPSILON = 1e-7;
+
+    /**
+     * Relative rounding error of one operation.
+     */
+    private static final double ROUNDING = Math.ulp(1.0);
+
+    /**
+     * Factor for the rounding errors of the intersection formula.
+     */
+    private static final double ROUNDING_OPS = 8;
+
+    private final Point2D point;
+    private final boolean parallel;
+    private final double errorBound;
+
+    private LineIntersection(final Point2D point, final boolean parallel,
+            final double errorBound) {
+        this.point = point;
+        this.parallel = parallel;
+        this.errorBound = errorBound;
+    }
+
+    /**
+     * @return Intersection point, or the point closest to both lines if they
+     * are parallel.
+     */
+    public Point2D getPoint() {
+        return point;
+    }
+
+    /**
+     * @return True if lines are parallel (or degenerate), so the point is a
+     * least squares estimate.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Estimate of the maximum distance between the point and the exact
+     * answer: rounding error for crossing lines (grows as lines get closer
+     * to parallel), distance from the point to each line for parallel ones.
+     *
+     * @return Error bound (same unit as coordinates).
+     */
+    public double getErrorBound() {
+        return errorBound;
+    }
+
+    /**
+     * Intersects two lines with DEFAULT_EPSILON.
+     *
+     * @param line1 One line.
+     * @param line2 Other line.
+     * @return The intersection.
+     * @throws IllegalArgumentException If a coordinate is not finite.
+     */
+    public static LineIntersection intersect(final Line2D line1,
+            final Line2D line2) {
+        return intersect(line1, line2, DEFAULT_EPSILON);
+    }
+
+    /**
+     * Intersects two lines.
+     *
+     * @param line1 One line.
+     * @param line2 Other line.
+     * @param epsilon Limit for the sine of the angle between lines to
+     * consider them parallel.
+     * @return The intersection.
+     * @throws IllegalArgumentException If a coordinate is not finite.
+     */
+    public static LineIntersection intersect(final Line2D line1,
+            final Line2D line2, final double epsilon) {
+        checkFinite(line1);
+        checkFinite(line2);
+
+        final double dx1 = line1.getX2() - line1.getX1();
+        final double dy1 = line1.getY2() - line1.getY1();
+        final double dx2 = line2.getX2() - line2.getX1();
+        final double dy2 = line2.getY2() - line2.getY1();
+        final double len1 = Math.hypot(dx1, dy1);
+        final double len2 = Math.hypot(dx2, dy2);
+        final double cross = dx1 * dy2 - dy1 * dx2;
+
+        if (len1 == 0 || len2 == 0
+                || Math.abs(cross) <= epsilon * len1 * len2) {
+            return closest(line1, line2);
+        }
+
+        //line1.P1 + t * d1, with t from cross((line2.P1 - line1.P1), d2)
+        final double wx = line2.getX1() - line1.getX1();
+        final double wy = line2.getY1() - line1.getY1();
+        final double t = (wx * dy2 - wy * dx2) / cross;
+        final double sine = Math.abs(cross) / (len1 * len2);
+        final double size = Math.hypot(wx, wy) + Math.abs(t) * len1;
+        return new LineIntersection(new Point2D.Double(
+                line1.getX1() + t * dx1, line1.getY1() + t * dy1), false,
+                ROUNDING_OPS * ROUNDING * size / sine);
+    }
+
+    /**
+     * Point closest to two parallel lines (or points): the middle of the
+     * projections of the center of all end points on each line.
+     */
+    private static LineIntersection closest(final Line2D line1,
+            final Line2D line2) {
+        final Point2D center = new Point2D.Double(
+                (line1.getX1() + line1.getX2() + line2.getX1()
+                + line2.getX2()) / 4,
+                (line1.getY1() + line1.getY2() + line2.getY1()
+                + line2.getY2()) / 4);
+        final Point2D onOne = project(center, line1);
+        final Point2D onTwo = project(center, line2);
+        return new LineIntersection(new Point2D.Double(
+                (onOne.getX() + onTwo.getX()) / 2,
+                (onOne.getY() + onTwo.getY()) / 2), true,
+                onOne.distance(onTwo) / 2);
+    }
+
+    /**
+     * Projects a point on a line (a zero lenght line is its first point).
+     */
+    private static Point2D project(final Point2D point, final Line2D line) {
+        final double dx = line.getX2() - line.getX1();
+        final double dy = line.getY2() - line.getY1();
+        final double lenSq = dx * dx + dy * dy;
+        if (lenSq == 0) {
+            return line.getP1();
+        }
+        final double t = ((point.getX() - line.getX1()) * dx
+                + (point.getY() - line.getY1()) * dy) / lenSq;
+        return new Point2D.Double(line.getX1() + t * dx,
+                line.getY1() + t * dy);
+    }
+
+    private static void checkFinite(final Line2D line) {
+        if (!isFinite(line.getX1()) || !isFinite(line.getY1())
+                || !isFinite(line.getX2()) || !isFinite(line.getY2())) {
+            throw new IllegalArgumentException("Line is not finite: "
+                    + VectorMath.lineToString(line));
+        }
+    }
+
+    private static boolean isFinite(final double value) {
+        return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + point.getX() + ", " + point.getY() + ") +/- "
+                + errorBound + (parallel ? " parallel" : "");
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Estimates GR from the resultant line of the forces turned by several
+ * angles (funicular polygon for each one), instead of only 0 and TURN.
+ *
+ * All lines pass through GR for exact data, so GR is the point closest to
+ * all of them (least squares). Lines far from the others (more than
+ * OUTLIER_FACTOR robust deviations) are left out of the fit. The residual
+ * (root mean square distance from GR to the lines kept) tells how well the
+ * lines agree.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class MultiAngleGrEstimator {
+
+    /**
+     * Default angles (degrees); 0 is the forces as placed.
+     */
+    public static final int[] DEFAULT_ANGLES = {0, 30, 60, 90, 120, 150};
+
+    /**
+     * Lines with distance above this number of robust deviations are
+     * rejected.
+     */
+    public static final double OUTLIER_FACTOR = 3;
+
+    /**
+     * Scale from median absolute deviation to standard deviation.
+     */
+    private static final double MAD_SCALE = 1.4826;
+
+    /**
+     * Distances below this (pixels) are never rejected.
+     */
+    private static final double MIN_REJECT = 0.01;
+
+    /**
+     * Estimated GR.
+     */
+    public static final class Estimate {
+
+        private final Point2D point;
+        private final double residual;
+        private final List<Line2D> lines;
+        private final int rejected;
+
+        Estimate(final Point2D point, final double residual,
+                final List<Line2D> lines, final int rejected) {
+            this.point = point;
+            this.residual = residual;
+            this.lines = lines;
+            this.rejected = rejected;
+        }
+
+        public Point2D getPoint() {
+            return point;
+        }
+
+        /**
+         * @return Root mean square distance from point to the lines kept.
+         */
+        public double getResidual() {
+            return residual;
+        }
+
+        /**
+         * @return Resultant lines (kept and rejected).
+         */
+        public List<Line2D> getLines() {
+            return lines;
+        }
+
+        /**
+         * @return Number of lines rejected as outliers.
+         */
+        public int getRejected() {
+            return rejected;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + point.getX() + ", " + point.getY() + ") residual "
+                    + residual + ", " + rejected + " of " + lines.size()
+                    + " rejected";
+        }
+    }
+
+    private final int[] angles;
+
+    /**
+     * Creates an estimator with DEFAULT_ANGLES.
+     */
+    public MultiAngleGrEstimator() {
+        this(DEFAULT_ANGLES);
+    }
+
+    /**
+     * Creates an estimator.
+     *
+     * @param angles Turn angles (degrees), at least two not parallel (not
+     * 180 degrees apart).
+     */
+    public MultiAngleGrEstimator(final int[] angles) {
+        if (angles == null || angles.length < 2) {
+            throw new IllegalArgumentException("Needs at least two angles.");
+        }
+        this.angles = angles.clone();
+    }
+
+    /**
+     * Estimates GR.
+     *
+     * @param forces Force vectors.
+     * @return The estimate.
+     * @throws IllegalArgumentException If forces have no resultant.
+     */
+    public Estimate estimate(final List<Line2D> forces) {
+        final List<Line2D> lines = new ArrayList<Line2D>(angles.length);
+        for (int angle : angles) {
+            lines.add(PreviewCalculation.placeResultant(angle == 0 ? forces
+                    : PreviewCalculation.getTurnedLinesList(forces, angle)));
+        }
+        return fit(lines);
+    }
+
+    /**
+     * Least squares point of lines, with outlier rejection.
+     *
+     * Distances are measured from the median of the intersections of each
+     * pair of lines (not moved by outliers); lines far from it are left out
+     * of the least squares fit.
+     *
+     * @param lines Lines (at least two not parallel).
+     * @return The estimate.
+     * @throws IllegalArgumentException If lines are all parallel or have
+     * zero length.
+     */
+    static Estimate fit(final List<Line2D> lines) {
+        final Point2D start = medianIntersection(lines);
+        final double[] distances = new double[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            distances[i] = distance(lines.get(i), start);
+        }
+        final double limit = Math.max(MIN_REJECT,
+                OUTLIER_FACTOR * MAD_SCALE * median(distances.clone()));
+
+        final boolean[] kept = new boolean[lines.size()];
+        int rejected = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            kept[i] = distances[i] <= limit;
+            if (!kept[i]) {
+                rejected++;
+            }
+        }
+        Point2D point;
+        try {
+            point = solve(lines, kept);
+        } catch (IllegalArgumentException ex) {
+            //lines kept are parallel: use all
+            Arrays.fill(kept, true);
+            rejected = 0;
+            point = solve(lines, kept);
+        }
+
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            if (kept[i]) {
+                final double dist = distance(lines.get(i), point);
+                sum += dist * dist;
+                count++;
+            }
+        }
+        return new Estimate(point, Math.sqrt(sum / count),
+                Collections.unmodifiableList(lines), rejected);
+    }
+
+    /**
+     * Median (per coordinate) of the intersections of all pairs of lines
+     * that are not parallel.
+     */
+    private static Point2D medianIntersection(final List<Line2D> lines) {
+        final List<Double> xs = new ArrayList<Double>();
+        final List<Double> ys = new ArrayList<Double>();
+        for (int i = 0; i < lines.size(); i++) {
+            for (int j = i + 1; j < lines.size(); j++) {
+                final LineIntersection cross = LineIntersection.intersect(
+                        lines.get(i), lines.get(j));
+                if (!cross.isParallel()) {
+                    xs.add(cross.getPoint().getX());
+                    ys.add(cross.getPoint().getY());
+                }
+            }
+        }
+        if (xs.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Resultant lines are parallel (or forces sum zero).");
+        }
+        return new Point2D.Double(median(toArray(xs)), median(toArray(ys)));
+    }
+
+    private static double[] toArray(final List<Double> values) {
+        final double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Median (sorts the array).
+     */
+    private static double median(final double[] values) {
+        Arrays.sort(values);
+        final int mid = values.length / 2;
+        return values.length % 2 == 1 ? values[mid]
+                : (values[mid - 1] + values[mid]) / 2;
+    }
+
+    /**
+     * Point with least sum of squared distances to the kept lines: solves
+     * sum(n n') p = sum(n c), n being the unit normal of each line and c its
+     * offset.
+     */
+    private static Point2D solve(final List<Line2D> lines,
+            final boolean[] kept) {
+        double axx = 0;
+        double axy = 0;
+        double ayy = 0;
+        double bx = 0;
+        double by = 0;
+        int count = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            if (!kept[i]) {
+                continue;
+            }
+            final Line2D line = lines.get(i);
+            final double dx = line.getX2() - line.getX1();
+            final double dy = line.getY2() - line.getY1();
+            final double len = Math.hypot(dx, dy);
+            if (len == 0) {
+                continue;
+            }
+            final double nx = -dy / len;
+            final double ny = dx / len;
+            final double offset = nx * line.getX1() + ny * line.getY1();
+            axx += nx * nx;
+            axy += nx * ny;
+            ayy += ny * ny;
+            bx += nx * offset;
+            by += ny * offset;
+            count++;
+        }
+        final double det = axx * ayy - axy * axy;
+        if (count < 2 || det <= LineIntersection.DEFAULT_EPSILON * count) {
+            throw new IllegalArgumentException(
+                    "Resultant lines are parallel (or forces sum zero).");
+        }
+        return new Point2D.Double((bx * ayy - by * axy) / det,
+                (by * axx - bx * axy) / det);
+    }
+
+    private static double distance(final Line2D line, final Point2D point) {
+        return line.ptLineDist(point);
+    }
+}
@@ -20,32 +20,30 @@
  */
 package com.orthodonticpreview.datamodel;
 
-import java.awt.BasicStroke;
-import java.awt.Color;
-import java.awt.Graphics;
+import com.orthodonticpreview.datamodel.cache.RasterCache;
+import com.orthodonticpreview.datamodel.export.SvgReportWriter;
+import com.orthodonticpreview.datamodel.monitor.Metrics;
+import com.orthodonticpreview.datamodel.sensitivity.GrSensitivity;
+import com.orthodonticpreview.datamodel.sensitivity.GrSensitivityAnalysis;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
-import java.awt.RenderingHints;
-import java.awt.Stroke;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Ellipse2D;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.renderable.ParameterBlock;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 import javax.imageio.ImageIO;
-import javax.media.jai.InterpolationBilinear;
-import javax.media.jai.JAI;
 import javax.media.jai.PlanarImage;
-import javax.media.jai.operator.TransposeDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.weasis.core.api.gui.util.AppProperties;
 import org.weasis.core.api.media.data.ImageElement;
 import org.weasis.core.api.media.data.MediaElement;
 import org.weasis.core.api.media.data.MediaSeries;
 import org.weasis.core.api.media.data.Series;
+import org.weasis.core.api.media.data.TagW;
 
 /**
  * Utility to make the image and process all tags needed to the report to be
@@ -57,34 +55,15 @@ import org.weasis.core.api.media.data.Series;
 public class OrthoReport {
 
     /**
-     * Serie where the calculation was done.
-     */
-    private final Series dataSerie;
-
-    /**
-     * Color for some of the drawings.
-     */
-    private final Color basicColor = Color.black;
-
-    /**
-     * Blue color from Visual ID (R0 G152 e B218).
-     */
-    private final Color blueColor = new Color(0, 152, 218);
-    /**
-     * Basic (line) stroke.
+     * Class logger.
      */
-    private final Stroke basicStroke = new BasicStroke(2);
-    /**
-     * A dashed stroke.
-     */
-    private final Stroke dashedStroke
-            = new BasicStroke(2, BasicStroke.CAP_ROUND,
-                    BasicStroke.JOIN_ROUND, 10, new float[]{15, 15}, 0);
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(OrthoReport.class);
 
     /**
-     * Tolerance for turning tencence result.
+     * Serie where the calculation was done.
      */
-    private static final double TURNING_TOLERANCE = 0.1; //(mm)
+    private final Series dataSerie;
 
     /**
      * Builds a new OrthoReport utility.
@@ -105,67 +84,130 @@ public class OrthoReport {
      */
     public File createImageReport(final int rotation, final boolean flip)
             throws IOException {
-
-        final File file = getRepImgFile();
-        final Rectangle bounds
-                = (Rectangle) dataSerie.getTagValue(TagO.RESULT_BOUNDS);
-        if (bounds == null) { //was not calculated yet...
-            throw new IllegalStateException("No bounds found.");
-        }
-
-        PlanarImage image = getImageFromMedia(dataSerie);
-        if (rotation != 0) {
-            image = rotateImage(image, rotation);
-        }
-        if (flip) {
-            image = flipImage(image);
+        final long start = System.nanoTime();
+        try {
+            return writeImageReport(rotation, flip);
+        } finally {
+            Metrics.time(Metrics.IMAGE_REPORT, start);
         }
+    }
 
-        BufferedImage bufimage = null;
-        if (isOutOfBounds(image.getBounds(), bounds)) {
-            bufimage = new BufferedImage(bounds.width, bounds.height,
-                    BufferedImage.TYPE_INT_RGB);
-            final Graphics graph = bufimage.getGraphics();
+    private File writeImageReport(final int rotation, final boolean flip)
+            throws IOException {
 
-            graph.setColor(Color.white);
-            graph.fillRect(bufimage.getMinX(), bufimage.getMinY(),
-                    bufimage.getWidth(), bufimage.getHeight());
+        final File file = getRepImgFile(".png");
+        final Rectangle bounds = getBounds();
+        final BufferedImage bufimage = renderImage(rotation, flip, bounds);
 
-            final Rectangle imageBounds = image.getBounds();
+        final Graphics2D graphics = (Graphics2D) bufimage.getGraphics();
+        createDrawing(bounds).paint(graphics);
 
-            graph.drawImage(image.getAsBufferedImage(
-                    bounds, image.getColorModel()),
-                    calcNewImageOriginCoord(imageBounds.x, bounds.x),
-                    calcNewImageOriginCoord(imageBounds.y, bounds.y), null);
-        } else {
-            bufimage = image.getAsBufferedImage(bounds, image.getColorModel());
-        }
+        ImageIO.write(bufimage, "png", file);
 
-        final Graphics2D graphics = (Graphics2D) bufimage.getGraphics();
+        return file;
+    }
 
-        //delta between the original and the cuted image
-        final int dx = -bounds.x;
-        final int dy = -bounds.y;
+    /**
+     * Creates the report as SVG (image as JPEG, results as vectors) and
+     * saves it.
+     *
+     * @param rotation Rotation angle on viewer.
+     * @param flip True if the image has a flip operation.
+     * @return File with the SVG report (saves on temp).
+     * @throws IOException if cant create a temp file.
+     */
+    public File createSvgReport(final int rotation, final boolean flip)
+            throws IOException {
+        final File file = getRepImgFile(".svg");
+        createSvgReport(rotation, flip, file);
+        return file;
+    }
 
-        drawGraphics(graphics, dx, dy, bounds.height);
+    /**
+     * Creates the report as SVG (image as JPEG, results as vectors) on given
+     * file.
+     *
+     * @param rotation Rotation angle on viewer.
+     * @param flip True if the image has a flip operation.
+     * @param file File to write.
+     * @throws IOException if cant write the file.
+     */
+    public void createSvgReport(final int rotation, final boolean flip,
+            final File file) throws IOException {
+        final long start = System.nanoTime();
+        try {
+            final Rectangle bounds = getBounds();
+            new SvgReportWriter().write(renderImage(rotation, flip, bounds),
+                    createDrawing(bounds), file);
+        } finally {
+            Metrics.time(Metrics.SVG_REPORT, start);
+        }
+    }
 
-        ImageIO.write(bufimage, "png", file);
+    /**
+     * @return Report bounds (RESULT_BOUNDS).
+     */
+    private Rectangle getBounds() {
+        final Rectangle bounds
+                = (Rectangle) dataSerie.getTagValue(TagO.RESULT_BOUNDS);
+        if (bounds == null) { //was not calculated yet...
+            throw new IllegalStateException("No bounds found.");
+        }
+        return bounds;
+    }
 
-        return file;
+    /**
+     * Renders the report image, without results.
+     *
+     * @param rotation Rotation angle on viewer.
+     * @param flip True if the image has a flip operation.
+     * @param bounds Report bounds.
+     * @return The image.
+     */
+    private BufferedImage renderImage(final int rotation, final boolean flip,
+            final Rectangle bounds) {
+        final BufferedImage cached = renderCached(rotation, flip, bounds);
+        if (cached != null) {
+            return cached;
+        }
+        final PlanarImage image = getImageFromMedia(dataSerie);
+        if (image == null) {
+            throw new IllegalStateException("No calculation image found.");
+        }
+        //rotation, flip and crop in one transform; the results are already
+        //on display coordinates, so graphics only need the crop.
+        return ReportImageTransform.render(image, rotation, flip, bounds);
     }
 
     /**
-     * Extends a line until the point where Y = maxY.
+     * Renders the report image from the image file, through RasterCache (so
+     * it is decoded once for reports, batch and PDF export).
      *
-     * @param line Line to be extended.
-     * @param maxY Point Y the line has to be extended to.
-     * @return The new extended line.
+     * @param rotation Rotation angle on viewer.
+     * @param flip True if the image has a flip operation.
+     * @param bounds Report bounds.
+     * @return The image, or null if the file is unknown or ImageIO can't
+     * read it (the viewer image is used then).
      */
-    private Line2D extendResultant(final Line2D line, final int maxY) {
-        final Line2D lowLine = new Line2D.Double(0, maxY, 100, maxY);
-        final Point2D intersect
-                = VectorMath.getIntersectionPoint(line, lowLine);
-        return new Line2D.Double(intersect, line.getP1());
+    private BufferedImage renderCached(final int rotation, final boolean flip,
+            final Rectangle bounds) {
+        final Object path = dataSerie.getTagValue(TagW.FilePath);
+        final File file = path == null ? null : new File(path.toString());
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        final RasterCache.Handle source;
+        try {
+            source = RasterCache.getInstance().acquire(file);
+        } catch (IOException ex) {
+            LOGGER.debug("Report image from viewer: {}", ex.getMessage());
+            return null;
+        }
+        try {
+            return ReportImageTransform.render(source, rotation, flip, bounds);
+        } finally {
+            source.release();
+        }
     }
 
     /**
@@ -185,44 +227,40 @@ public class OrthoReport {
         } catch (IllegalStateException ex) {
             reportSerie.setTag(TagO.PROJECTION_TENDENCY, null);
         }
+
+        reportSerie.setTag(TagO.GR_SENSITIVITY, getSensitivity());
     }
 
     /**
-     * Finds out if bounds is extended to out of image area.
+     * Runs the sensitivity analysis of GR (see GrSensitivityAnalysis).
      *
-     * @param imageBounds bound or image.
-     * @param bounds bounds of draw.
-     * @return true if bounds are bigger than image.
+     * @return The result, or null if there are no force vectors.
      */
-    private boolean isOutOfBounds(final Rectangle imageBounds,
-            final Rectangle bounds) {
-        if (bounds.x < imageBounds.x || bounds.y < imageBounds.y) {
-            return true;
+    private GrSensitivity getSensitivity() {
+        final Object units = dataSerie.getTagValue(TagO.FORCE_VECTOR_UNITS);
+        if (!(units instanceof List) || ((List) units).isEmpty()) {
+            return null;
         }
-        if (bounds.x + bounds.width > imageBounds.x + imageBounds.width
-                || bounds.y + bounds.height
-                > imageBounds.y + imageBounds.height) {
-            return true;
+        final GrSensitivityAnalysis analysis
+                = GrSensitivityAnalysis.createDefault();
+        final Object midTag = dataSerie.getTagValue(TagO.MID_X);
+        if (midTag instanceof Double) {
+            analysis.setMidX((Double) midTag);
         }
-        return false;
-    }
-
-    /**
-     * Calculates coordinates to origin of the new image (report-image).
-     *
-     * @param imgCoord X or Y on image.
-     * @param drawCoord X or Y on old graphics layer.
-     * @return coordinate to use on new image.
-     */
-    private static int calcNewImageOriginCoord(final int imgCoord,
-            final int drawCoord) {
-        int result = 0;
-        if (drawCoord < imgCoord) {
-            result = imgCoord - drawCoord;
-        } else {
-            result = 0;
+        final Object scaleTag = dataSerie.getTagValue(TagO.VECTORS_SCALE);
+        if (scaleTag instanceof Double) {
+            analysis.setScale((Double) scaleTag);
+        }
+        final Object frontTag = dataSerie.getTagValue(TagO.FRONT_LIMIT);
+        if (frontTag instanceof Double) {
+            analysis.setFrontLimit((Double) frontTag);
+        }
+        try {
+            return analysis.run((List<Line2D>) units);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.warn("GR sensitivity not calculated: {}", ex.getMessage());
+            return null;
         }
-        return result;
     }
 
     /**
@@ -238,9 +276,8 @@ public class OrthoReport {
         final Object pointValue = dataSerie.getTagValue(TagO.POINT_GR);
         if (frontValue instanceof Double
                 && pointValue instanceof Point2D) {
-            final double front = (Double) frontValue;
-            final double yPoint = ((Point2D) pointValue).getY();
-            return (yPoint < front);
+            return Tendencies.projection(
+                    (Double) frontValue, (Point2D) pointValue);
         }
         throw new IllegalStateException("Tags ARC or FRONT_LIMIT invalid.");
     }
@@ -265,15 +302,8 @@ public class OrthoReport {
         }
 
         if (midTag instanceof Double && pointTag instanceof Point2D) {
-            final Double mid = (Double) midTag;
-            final double ptX = ((Point2D) pointTag).getX();
-            if ((Math.abs(mid - ptX) * scale) < TURNING_TOLERANCE) {
-                res = "none";
-            } else if (ptX >= mid) { //point at right, tendency to left
-                res = "left";
-            } else { //point at left, tendency to right
-                res = "right";
-            }
+            res = Tendencies.turning((Double) midTag, (Point2D) pointTag,
+                    scale, Tendencies.TURNING_TOLERANCE);
         }
         return res;
     }
@@ -281,12 +311,13 @@ public class OrthoReport {
     /**
      * Creates the image file for report.
      *
+     * @param suffix File extension.
      * @return The file.
      * @throws IOException If cant create it.
      */
-    private File getRepImgFile() throws IOException {
+    private File getRepImgFile(final String suffix) throws IOException {
         final File tempDir = AppProperties.APP_TEMP_DIR;
-        return File.createTempFile("imrep", ".png", tempDir);
+        return File.createTempFile("imrep", suffix, tempDir);
     }
 
     /**
@@ -306,95 +337,31 @@ public class OrthoReport {
     }
 
     /**
-     * Rotates image (uses JAI).
-     *
-     * @param source Source image.
-     * @param rotationAngle Angle (degrees).
-     * @return The rotated image.
-     */
-    private PlanarImage rotateImage(
-            final PlanarImage source, final int rotationAngle) {
-
-        final ParameterBlock pb = new ParameterBlock();
-        pb.addSource(source);
-        pb.add(source.getWidth() / 2.0f);
-        pb.add(source.getHeight() / 2.0f);
-        pb.add((float) (rotationAngle * Math.PI / 180.0));
-        pb.add(new InterpolationBilinear());
-        pb.add(new double[]{255, 255, 255});
-        final PlanarImage result = JAI.create("rotate", pb);
-
-        return result;
-    }
-
-    /**
-     * Flips one image (uses JAI).
+     * Creates the results drawing, on report image coordinates.
      *
-     * @param image Source image.
-     * @return new Fliped image.
+     * @param bounds Report bounds.
+     * @return The drawing.
      */
-    private PlanarImage flipImage(final PlanarImage image) {
-        final ParameterBlock param = new ParameterBlock();
-        param.addSource(image);
-        param.add(TransposeDescriptor.FLIP_HORIZONTAL);
-        return JAI.create("transpose", param);
-    }
-
-    /**
-     * Draw graphics on the report image.
-     *
-     * @param graphics Graphics object to draw on.
-     * @param dx Diference between old and new X-coord.
-     * @param dy Diference between old and new Y-coord.
-     * @param boundsHeight Height of image bounds.
-     */
-    private void drawGraphics(final Graphics2D graphics, final int dx,
-            final int dy, final int boundsHeight) {
-        final AffineTransform translate = AffineTransform.getTranslateInstance(
-                dx, dy);
-
-        graphics.setStroke(basicStroke);
-        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                RenderingHints.VALUE_ANTIALIAS_ON);
-        graphics.setPaint(blueColor);
-
-        //ponto GR
+    private ReportDrawing createDrawing(final Rectangle bounds) {
+        Point2D pointGr = null;
         Object tagValue = dataSerie.getTagValue(TagO.POINT_GR);
         if (tagValue instanceof Point2D) {
-            final Point2D centerOr = (Point2D) tagValue;
-            final Point2D center = new Point2D.Double(
-                    centerOr.getX() + dx, centerOr.getY() + dy);
-            int radio = 6;
-            graphics.draw(new Ellipse2D.Double(
-                    center.getX() - radio, center.getY() - radio,
-                    radio * 2, radio * 2));
+            pointGr = (Point2D) tagValue;
         }
-
-        //resultante
+        Line2D resultant = null;
         tagValue = dataSerie.getTagValue(TagO.RESULTANT);
         if (tagValue instanceof Line2D) {
-            final Line2D lineRes = (Line2D) tagValue;
-            final Line2D line = new Line2D.Double(lineRes.getX1() + dx,
-                    lineRes.getY1() + dy, lineRes.getX2() + dx,
-                    lineRes.getY2() + dy);
-            graphics.draw(line);
-
-            //prolongamento da resultante
-            graphics.setPaint(basicColor);
-            graphics.setStroke(dashedStroke);
-            graphics.draw(extendResultant(line, boundsHeight - 20));
+            resultant = (Line2D) tagValue;
         }
-
-        graphics.setStroke(basicStroke);
-        graphics.setPaint(basicColor);
-
-        //arco:
+        GeneralPath arc = null;
         tagValue = dataSerie.getTagValue(TagO.ARC);
         if (tagValue instanceof GeneralPath) {
-            final GeneralPath arc = new GeneralPath((GeneralPath) tagValue);
-            arc.transform(translate);
-            graphics.draw(arc);
+            arc = (GeneralPath) tagValue;
         }
+
+        //delta between the original and the cuted image
+        return ReportDrawing.create(pointGr, resultant, arc, -bounds.x,
+                -bounds.y, bounds.height);
     }
 
 }
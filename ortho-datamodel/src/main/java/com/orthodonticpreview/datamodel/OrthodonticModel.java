@@ -20,6 +20,9 @@
  */
 package com.orthodonticpreview.datamodel;
 
+import com.orthodonticpreview.datamodel.monitor.Metrics;
+import com.orthodonticpreview.datamodel.monitor.Trace;
+import java.awt.geom.Point2D;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.Calendar;
@@ -103,19 +106,32 @@ public class OrthodonticModel implements TreeModel, DataExplorerModel {
     public void firePropertyChange(final ObservableEvent event) {
         if (propertyChange != null) {
             if (SwingUtilities.isEventDispatchThread()) {
-                propertyChange.firePropertyChange(event);
+                dispatch(event);
             } else {
                 SwingUtilities.invokeLater(new Runnable() {
 
                     @Override
                     public void run() {
-                        propertyChange.firePropertyChange(event);
+                        dispatch(event);
                     }
                 });
             }
         }
     }
 
+    /**
+     * Sends the event to listeners, timing it.
+     *
+     * @param event Event to send.
+     */
+    private void dispatch(final ObservableEvent event) {
+        final long start = System.nanoTime();
+        propertyChange.firePropertyChange(event);
+        Metrics.time(Metrics.MODEL_EVENT, start);
+        Metrics.increment(
+                Metrics.MODEL_EVENT + "." + event.getActionCommand());
+    }
+
     @Override
     public TreeModelNode getTreeModelNodeForNewPlugin() {
         return null;
@@ -196,15 +212,20 @@ public class OrthodonticModel implements TreeModel, DataExplorerModel {
     public MediaSeriesGroup getHierarchyNode(final MediaSeriesGroup parent,
             final Object value) {
         if (parent != null || value != null) {
-            LOGGER.debug("Looking for value: " + value.toString());
+            int visited = 0;
             synchronized (model) {
                 for (MediaSeriesGroup node : model.getSuccessors(parent)) {
-                    LOGGER.debug("Found value: " + node.toString());
+                    visited++;
                     if (node.equals(value)) {
+                        Trace.debug(LOGGER, Trace.MODEL,
+                                "Found value {} after {} node(s)",
+                                value, visited);
                         return node;
                     }
                 }
             }
+            Trace.debug(LOGGER, Trace.MODEL,
+                    "Value {} not found on {} node(s)", value, visited);
         }
         return null;
     }
@@ -302,6 +323,48 @@ public class OrthodonticModel implements TreeModel, DataExplorerModel {
 
     }
 
+    /**
+     * Compares the force systems and results of two calculation series (of
+     * two studies of a patient, for follow-up).
+     *
+     * Tendencies are evaluated with Tendencies.TURNING_TOLERANCE, as on
+     * reports.
+     *
+     * @param before Calculation series of earlier study.
+     * @param after Calculation series of later study.
+     * @return The differences.
+     */
+    public static ForceSystemDiff compareSeries(final MediaSeriesGroup before,
+            final MediaSeriesGroup after) {
+        final ForceSystemDiff diff = ForceSystemDiff.compare(
+                new MediaSeriesCalculationModel(before),
+                new MediaSeriesCalculationModel(after));
+        diff.setTurning(getTurning(before), getTurning(after));
+        diff.setProjection(getProjection(before), getProjection(after));
+        return diff;
+    }
+
+    private static String getTurning(final MediaSeriesGroup series) {
+        final Object midX = series.getTagValue(TagO.MID_X);
+        final Object point = series.getTagValue(TagO.POINT_GR);
+        if (!(midX instanceof Double) || !(point instanceof Point2D)) {
+            return null;
+        }
+        final Object scale = series.getTagValue(TagO.VECTORS_SCALE);
+        return Tendencies.turning((Double) midX, (Point2D) point,
+                scale instanceof Double ? (Double) scale : 1,
+                Tendencies.TURNING_TOLERANCE);
+    }
+
+    private static Boolean getProjection(final MediaSeriesGroup series) {
+        final Object front = series.getTagValue(TagO.FRONT_LIMIT);
+        final Object point = series.getTagValue(TagO.POINT_GR);
+        if (!(front instanceof Double) || !(point instanceof Point2D)) {
+            return null;
+        }
+        return Tendencies.projection((Double) front, (Point2D) point);
+    }
+
     /**
      * Finds a patient with the given ID.
      *
@@ -20,6 +20,8 @@
  */
 package com.orthodonticpreview.datamodel;
 
+import com.orthodonticpreview.datamodel.monitor.Metrics;
+import com.orthodonticpreview.datamodel.monitor.Trace;
 import java.awt.Rectangle;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Line2D;
@@ -50,7 +52,7 @@ public class PreviewCalculation {
     /**
      * Turn angle.
      */
-    protected static final int TURN = 30;
+    public static final int TURN = 30;
     /**
      * Margin for the result bounds.
      */
@@ -61,6 +63,11 @@ public class PreviewCalculation {
      */
     private PreviewCalculationModel dataSeries;
 
+    /**
+     * How the resultant line of action is found.
+     */
+    private CalculationMethod method = CalculationMethod.getDefault();
+
     /**
      * Creates a new instance for calculation.
      *
@@ -73,6 +80,22 @@ public class PreviewCalculation {
         dataSeries = groupID;
     }
 
+    public CalculationMethod getMethod() {
+        return method;
+    }
+
+    /**
+     * Sets how the resultant line of action is found.
+     *
+     * @param method Calculation method (not null).
+     */
+    public void setMethod(final CalculationMethod method) {
+        if (method == null) {
+            throw new IllegalArgumentException("method cannot be null.");
+        }
+        this.method = method;
+    }
+
     /**
      * Calculates and stores all relevant results at tags on dataSeries.
      *
@@ -80,6 +103,15 @@ public class PreviewCalculation {
      * of vectors on TagO.FORCE_VECTOR_UNITS.
      */
     public void storeResults() {
+        final long start = System.nanoTime();
+        try {
+            calculateAndStore();
+        } finally {
+            Metrics.time(Metrics.CALCULATION, start);
+        }
+    }
+
+    private void calculateAndStore() {
 
         List<Line2D> forceList = dataSeries.getVectorUnits();
         if (forceList != null) {
@@ -89,57 +121,13 @@ public class PreviewCalculation {
             }
 
             if (forceList.get(0) instanceof Line2D) {
-
-                final Line2D result = VectorMath.sum(forceList);
-
-                final Point2D auxOrigin = getAuxOriginPoint(result);
-
-                Line2D f1 = (Line2D) (forceList).get(0);
-                Line2D firstS1 = placeFS1(f1, auxOrigin);
-                //System.out.println("f1 = " + VectorMath.lineToString(f1));
-
-                Point2D pointI = getPointI(forceList, auxOrigin, firstS1);
-                LOGGER.info("pointI = " + pointI);
-
-                VectorMath.move(result,
-                        pointI.getX() - result.getX2(),
-                        pointI.getY() - result.getY2());
-                //dataSeries.setTag(TagO.RESULTANT, result);
-                LOGGER.info("moved resultant = "
-                        + VectorMath.lineToString(result));
-
-                //Girar 30 graus as linhas F
-                final List<Line2D> debug = new ArrayList<Line2D>();
-                final List<Line2D> turnedFs = getTurnedLinesList(
-                        forceList, TURN);
-                //localizar turnedS1:
-                final Line2D result2 = VectorMath.sum(turnedFs);
-
-                final Point2D auxOrigin2 = getAuxOriginPoint(result2);
-                f1 = (Line2D) (turnedFs).get(0);
-                debug.add(f1);
-                firstS1 = placeFS1(f1, auxOrigin2);
-                debug.add(firstS1);
-
-                pointI = getPointI(turnedFs, auxOrigin2, firstS1);
-
-                VectorMath.move(result2,
-                        pointI.getX() - result2.getX2(),
-                        pointI.getY() - result2.getY2());
-                debug.add(result2);
-                dataSeries.setDebugVectorUnits(debug);
-                final Point2D pointGr = VectorMath.getIntersectionPoint(
-                        result, result2);
-                dataSeries.setPointGr(pointGr);
-                LOGGER.info("GR = " + pointGr);
-
-                //replace result to start on POINT_GR
-                // (requisito do relatorio: #1020)
-                VectorMath.move(result,
-                        pointGr.getX() - result.getX1(),
-                        pointGr.getY() - result.getY1());
-                dataSeries.setResultant(result);
-
+                if (method == CalculationMethod.ANALYTIC) {
+                    calculateAnalytic(forceList);
+                } else if (method == CalculationMethod.MULTI_ANGLE) {
+                    calculateMultiAngle(forceList);
+                } else {
+                    calculateFunicular(forceList);
+                }
                 storeBounds();
 
             } else {
@@ -154,6 +142,134 @@ public class PreviewCalculation {
         }
     }
 
+    /**
+     * Funicular polygon: finds a point on the resultant line, for the forces
+     * and for the forces turned by TURN; GR is where both resultants cross.
+     *
+     * @param forceList force vectors.
+     */
+    private void calculateFunicular(final List<Line2D> forceList) {
+        final Line2D result = placeResultant(forceList);
+        Trace.debug(LOGGER, Trace.CALCULATION,
+                "moved resultant = {}", result);
+
+        //Girar 30 graus as linhas F
+        final List<Line2D> debug = new ArrayList<Line2D>();
+        final List<Line2D> turnedFs = getTurnedLinesList(
+                forceList, TURN);
+        //localizar turnedS1:
+        final Line2D result2 = VectorMath.sum(turnedFs);
+
+        final Point2D auxOrigin2 = getAuxOriginPoint(result2);
+        final Line2D f1 = (Line2D) (turnedFs).get(0);
+        debug.add(f1);
+        final Line2D firstS1 = placeFS1(f1, auxOrigin2);
+        debug.add(firstS1);
+
+        final Point2D pointI = getPointI(turnedFs, auxOrigin2, firstS1);
+
+        VectorMath.move(result2,
+                pointI.getX() - result2.getX2(),
+                pointI.getY() - result2.getY2());
+        debug.add(result2);
+        dataSeries.setDebugVectorUnits(debug);
+        final LineIntersection grCross
+                = LineIntersection.intersect(result, result2);
+        if (grCross.isParallel()) {
+            LOGGER.warn("Resultants are parallel, GR estimated: {}",
+                    grCross);
+        }
+        final Point2D pointGr = grCross.getPoint();
+        dataSeries.setPointGr(pointGr);
+        Trace.debug(LOGGER, Trace.CALCULATION, "GR = {}", grCross);
+
+        //replace result to start on POINT_GR
+        // (requisito do relatorio: #1020)
+        VectorMath.move(result,
+                pointGr.getX() - result.getX1(),
+                pointGr.getY() - result.getY1());
+        dataSeries.setResultant(result);
+    }
+
+    /**
+     * Several turn angles, combined by least squares (see
+     * MultiAngleGrEstimator).
+     *
+     * @param forceList force vectors.
+     */
+    private void calculateMultiAngle(final List<Line2D> forceList) {
+        final MultiAngleGrEstimator.Estimate estimate
+                = new MultiAngleGrEstimator().estimate(forceList);
+        dataSeries.setDebugVectorUnits(estimate.getLines());
+        if (estimate.getRejected() > 0) {
+            LOGGER.warn("GR estimated without outlier lines: {}", estimate);
+        }
+        final Point2D pointGr = estimate.getPoint();
+        dataSeries.setPointGr(pointGr);
+        Trace.debug(LOGGER, Trace.CALCULATION, "GR (multi angle) = {}",
+                estimate);
+
+        final Line2D result = VectorMath.sum(forceList);
+        VectorMath.move(result,
+                pointGr.getX() - result.getX1(),
+                pointGr.getY() - result.getY1());
+        dataSeries.setResultant(result);
+    }
+
+    /**
+     * Closed form: lines of action from the summed moments (see
+     * AnalyticResultantSolver).
+     *
+     * @param forceList force vectors.
+     */
+    private void calculateAnalytic(final List<Line2D> forceList) {
+        final Line2D result = VectorMath.sum(forceList);
+        final List<Line2D> lines
+                = AnalyticResultantSolver.getLinesOfAction(forceList, TURN);
+        dataSeries.setDebugVectorUnits(lines);
+
+        final LineIntersection grCross
+                = LineIntersection.intersect(lines.get(0), lines.get(1));
+        if (grCross.isParallel()) {
+            LOGGER.warn("Resultants are parallel, GR estimated: {}",
+                    grCross);
+        }
+        final Point2D pointGr = grCross.getPoint();
+        dataSeries.setPointGr(pointGr);
+        Trace.debug(LOGGER, Trace.CALCULATION, "GR (analytic) = {}", grCross);
+
+        VectorMath.move(result,
+                pointGr.getX() - result.getX1(),
+                pointGr.getY() - result.getY1());
+        dataSeries.setResultant(result);
+    }
+
+    /**
+     * Places the resultant of the forces on its line of action (funicular
+     * polygon): the resultant ends on point I.
+     *
+     * @param forceList force vectors.
+     * @return the resultant, on its line of action.
+     */
+    protected static Line2D placeResultant(final List<Line2D> forceList) {
+        final Line2D result = VectorMath.sum(forceList);
+
+        final Point2D auxOrigin = getAuxOriginPoint(result);
+
+        final Line2D f1 = (Line2D) (forceList).get(0);
+        final Line2D firstS1 = placeFS1(f1, auxOrigin);
+        //System.out.println("f1 = " + VectorMath.lineToString(f1));
+
+        final Point2D pointI = getPointI(forceList, auxOrigin, firstS1);
+        Trace.debug(LOGGER, Trace.CALCULATION,
+                "pointI = {}", pointI);
+
+        VectorMath.move(result,
+                pointI.getX() - result.getX2(),
+                pointI.getY() - result.getY2());
+        return result;
+    }
+
     /**
      * Calcula o ponto das forças auxiliares. Distante 1/2 resultante da
      * resultante em um angulo de 90.
@@ -221,7 +337,7 @@ public class PreviewCalculation {
         //System.out.println("S13 = " + VectorMath.lineToString(firstS13));
 
         //calculo da interseccao entre s13 e s1 ou prolongamentos = pto I
-        return VectorMath.getIntersectionPoint(firstS1, firstS13);
+        return intersect(firstS1, firstS13);
     }
 
     /**
@@ -245,7 +361,25 @@ public class PreviewCalculation {
         VectorMath.move(s2, lastIntersection.getX() - s2.getX2(),
                 lastIntersection.getY() - s2.getY2());
 
-        return VectorMath.getIntersectionPoint(s2, nextF);
+        return intersect(s2, nextF);
+    }
+
+    /**
+     * Intersects two lines of the funicular polygon, tracing when they are
+     * parallel (the point is then the closest to both).
+     *
+     * @param line1 one line.
+     * @param line2 other line.
+     * @return the intersection point.
+     */
+    private static Point2D intersect(final Line2D line1, final Line2D line2) {
+        final LineIntersection cross
+                = LineIntersection.intersect(line1, line2);
+        if (cross.isParallel()) {
+            Trace.debug(LOGGER, Trace.CALCULATION,
+                    "parallel {} and {}: {}", line1, line2, cross);
+        }
+        return cross.getPoint();
     }
 
     /**
@@ -304,7 +438,8 @@ public class PreviewCalculation {
         Line2D res = dataSeries.getResultant();
         if (res != null) {
             resultant = ((Line2D) res).getBounds();
-            LOGGER.info("Resultant = " + resultant);
+            Trace.debug(LOGGER, Trace.CALCULATION,
+                    "Resultant = {}", resultant);
         }
 
         if (resultant != null) {
@@ -332,7 +467,7 @@ public class PreviewCalculation {
                 bounds.width + (2 * BOUND_BORDER),
                 bounds.height + (2 * BOUND_BORDER));
 
-        LOGGER.info("result bounds = " + bounds);
+        Trace.debug(LOGGER, Trace.CALCULATION, "result bounds = {}", bounds);
         dataSeries.setResultBounds(bounds);
     }
 
@@ -0,0 +1,188 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Calculation results drawn over the report image: GR point, resultant, its
+ * extension and the arch.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class ReportDrawing {
+
+    /**
+     * Blue color from Visual ID (R0 G152 e B218).
+     */
+    public static final Color BLUE_COLOR = new Color(0, 152, 218);
+    /**
+     * Color for some of the drawings.
+     */
+    public static final Color BASIC_COLOR = Color.black;
+    /**
+     * Basic (line) stroke.
+     */
+    public static final BasicStroke BASIC_STROKE = new BasicStroke(2);
+    /**
+     * A dashed stroke.
+     */
+    public static final BasicStroke DASHED_STROKE
+            = new BasicStroke(2, BasicStroke.CAP_ROUND,
+                    BasicStroke.JOIN_ROUND, 10, new float[]{15, 15}, 0);
+    /**
+     * Radius of GR point circle.
+     */
+    public static final int GR_RADIUS = 6;
+    /**
+     * Space left below the resultant extension.
+     */
+    private static final int EXTENSION_MARGIN = 20;
+
+    /**
+     * One shape to draw.
+     */
+    public static class Item {
+
+        private final Shape shape;
+        private final Color color;
+        private final BasicStroke stroke;
+
+        Item(final Shape shape, final Color color, final BasicStroke stroke) {
+            this.shape = shape;
+            this.color = color;
+            this.stroke = stroke;
+        }
+
+        public Shape getShape() {
+            return shape;
+        }
+
+        public Color getColor() {
+            return color;
+        }
+
+        public BasicStroke getStroke() {
+            return stroke;
+        }
+    }
+
+    /**
+     * Shapes, on drawing order.
+     */
+    private final List<Item> items = new ArrayList<Item>();
+
+    /**
+     * Builds the drawing for report image coordinates.
+     *
+     * @param pointGr GR point (may be null).
+     * @param resultant Resultant (may be null).
+     * @param arc Arch path (may be null).
+     * @param dx Diference between old and new X-coord.
+     * @param dy Diference between old and new Y-coord.
+     * @param boundsHeight Height of image bounds.
+     * @return The report drawing.
+     */
+    public static ReportDrawing create(final Point2D pointGr,
+            final Line2D resultant, final Shape arc, final int dx,
+            final int dy, final int boundsHeight) {
+        final ReportDrawing drawing = new ReportDrawing();
+
+        //ponto GR
+        if (pointGr != null) {
+            final Point2D center = new Point2D.Double(
+                    pointGr.getX() + dx, pointGr.getY() + dy);
+            drawing.items.add(new Item(new Ellipse2D.Double(
+                    center.getX() - GR_RADIUS, center.getY() - GR_RADIUS,
+                    GR_RADIUS * 2, GR_RADIUS * 2), BLUE_COLOR, BASIC_STROKE));
+        }
+
+        //resultante
+        if (resultant != null) {
+            final Line2D line = new Line2D.Double(resultant.getX1() + dx,
+                    resultant.getY1() + dy, resultant.getX2() + dx,
+                    resultant.getY2() + dy);
+            drawing.items.add(new Item(line, BLUE_COLOR, BASIC_STROKE));
+
+            //prolongamento da resultante
+            drawing.items.add(new Item(
+                    extendResultant(line, boundsHeight - EXTENSION_MARGIN),
+                    BASIC_COLOR, DASHED_STROKE));
+        }
+
+        //arco:
+        if (arc != null) {
+            final GeneralPath path = new GeneralPath(arc);
+            path.transform(AffineTransform.getTranslateInstance(dx, dy));
+            drawing.items.add(new Item(path, BASIC_COLOR, BASIC_STROKE));
+        }
+        return drawing;
+    }
+
+    /**
+     * Extends a line until the point where Y = maxY.
+     *
+     * @param line Line to be extended.
+     * @param maxY Point Y the line has to be extended to.
+     * @return The new extended line.
+     */
+    private static Line2D extendResultant(final Line2D line, final int maxY) {
+        final Line2D lowLine = new Line2D.Double(0, maxY, 100, maxY);
+        final Point2D intersect
+                = VectorMath.getIntersectionPoint(line, lowLine);
+        return new Line2D.Double(intersect, line.getP1());
+    }
+
+    /**
+     * Draws all shapes.
+     *
+     * @param graphics Graphics object to draw on.
+     */
+    public void paint(final Graphics2D graphics) {
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        for (Item item : items) {
+            graphics.setStroke(item.getStroke());
+            graphics.setPaint(item.getColor());
+            graphics.draw(item.getShape());
+        }
+    }
+
+    /**
+     * @return Shapes, on drawing order.
+     */
+    public List<Item> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+}
@@ -0,0 +1,326 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import com.orthodonticpreview.datamodel.cache.RasterCache;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
+
+/**
+ * Rotation, flip and crop of the calculation image to the report image,
+ * with plain Java2D (no JAI), for headless use.
+ *
+ * Same geometry as the viewer: rotation around the image center, then
+ * horizontal flip inside the rotated image bounds. Areas out of the image
+ * are white.
+ *
+ * Rotation, flip and crop are one AffineTransform, and only the source area
+ * under the crop is read. Multiples of 90 degrees are an exact pixel copy
+ * (no resampling).
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class ReportImageTransform {
+
+    /**
+     * RGB of areas out of the image.
+     */
+    private static final int WHITE = 0xffffff;
+    /**
+     * Tolerance for pixel centers that fall on pixel borders.
+     */
+    private static final double EPSILON = 1e-9;
+
+    private ReportImageTransform() {
+    }
+
+    /**
+     * Transform from image coordinates to the (rotated and flipped) display
+     * coordinates, where calculation results are.
+     *
+     * @param imageBounds Bounds of source image.
+     * @param rotation Rotation angle (degrees, clockwise).
+     * @param flip True for a horizontal flip.
+     * @return The transform.
+     */
+    public static AffineTransform imageToDisplay(final Rectangle imageBounds,
+            final int rotation, final boolean flip) {
+        final AffineTransform transform = AffineTransform.getRotateInstance(
+                Math.toRadians(rotation), imageBounds.getWidth() / 2.0,
+                imageBounds.getHeight() / 2.0);
+        if (flip) {
+            final Rectangle rotated = transform.createTransformedShape(
+                    imageBounds).getBounds();
+            transform.preConcatenate(new AffineTransform(
+                    -1, 0, 0, 1, 2.0 * rotated.x + rotated.width, 0));
+        }
+        return transform;
+    }
+
+    /**
+     * Renders the area of bounds (display coordinates) of a cached image.
+     *
+     * Only the source area under bounds (and its neighbor pixels, for the
+     * interpolation) is copied to the heap: Java2D is much slower on the
+     * off-heap image.
+     *
+     * @param source Calculation image.
+     * @param rotation Rotation angle (degrees, clockwise).
+     * @param flip True for a horizontal flip.
+     * @param bounds Area to render, on display coordinates.
+     * @return New RGB image, with bounds size.
+     */
+    public static BufferedImage render(final RasterCache.Handle source,
+            final int rotation, final boolean flip, final Rectangle bounds) {
+        final Rectangle imageBounds = new Rectangle(source.getWidth(),
+                source.getHeight());
+        final Rectangle crop = toImage(imageBounds, rotation, flip)
+                .createTransformedShape(bounds).getBounds();
+        crop.grow(2, 2);
+        final Rectangle area = crop.intersection(imageBounds);
+        if (area.isEmpty()) {
+            return createWhite(bounds);
+        }
+        return render(source.copy(area), area.getLocation(), imageBounds,
+                rotation, flip, bounds);
+    }
+
+    /**
+     * Renders the area of bounds (display coordinates) of the transformed
+     * image.
+     *
+     * @param source Calculation image.
+     * @param rotation Rotation angle (degrees, clockwise).
+     * @param flip True for a horizontal flip.
+     * @param bounds Area to render, on display coordinates.
+     * @return New RGB image, with bounds size.
+     */
+    public static BufferedImage render(final RenderedImage source,
+            final int rotation, final boolean flip, final Rectangle bounds) {
+        return render(source, new Point(), new Rectangle(source.getMinX(),
+                source.getMinY(), source.getWidth(), source.getHeight()),
+                rotation, flip, bounds);
+    }
+
+    /**
+     * Renders a part of the image.
+     *
+     * @param source Part of the image.
+     * @param offset Image coordinates of source (0, 0).
+     * @param imageBounds Bounds of the whole image (rotation and flip).
+     */
+    private static BufferedImage render(final RenderedImage source,
+            final Point offset, final Rectangle imageBounds,
+            final int rotation, final boolean flip, final Rectangle bounds) {
+        if (rotation % 90 == 0) {
+            return renderQuarterTurns(source, offset, imageBounds, rotation,
+                    flip, bounds);
+        }
+        return renderResampled(source, offset, imageBounds, rotation, flip,
+                bounds);
+    }
+
+    /**
+     * Transform from display coordinates to image coordinates.
+     */
+    private static AffineTransform toImage(final Rectangle imageBounds,
+            final int rotation, final boolean flip) {
+        try {
+            return imageToDisplay(imageBounds, rotation, flip)
+                    .createInverse();
+        } catch (NoninvertibleTransformException ex) {
+            //rotation and flip are always invertible
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Renders with Java2D (bilinear if rotation is not a multiple of 90).
+     */
+    static BufferedImage renderResampled(final RenderedImage source,
+            final int rotation, final boolean flip, final Rectangle bounds) {
+        return renderResampled(source, new Point(), new Rectangle(
+                source.getMinX(), source.getMinY(), source.getWidth(),
+                source.getHeight()), rotation, flip, bounds);
+    }
+
+    private static BufferedImage renderResampled(final RenderedImage source,
+            final Point offset, final Rectangle imageBounds,
+            final int rotation, final boolean flip, final Rectangle bounds) {
+        final BufferedImage result = new BufferedImage(bounds.width,
+                bounds.height, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g = result.createGraphics();
+        try {
+            g.setColor(Color.white);
+            g.fillRect(0, 0, bounds.width, bounds.height);
+
+            final AffineTransform transform = AffineTransform
+                    .getTranslateInstance(-bounds.x, -bounds.y);
+            transform.concatenate(imageToDisplay(imageBounds, rotation,
+                    flip));
+            transform.translate(offset.x, offset.y);
+            if (rotation % 90 != 0) {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            }
+            g.drawRenderedImage(source, transform);
+        } finally {
+            g.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * Renders a rotation multiple of 90 degrees as a pixel copy: each output
+     * pixel takes the source pixel under its center.
+     */
+    private static BufferedImage renderQuarterTurns(
+            final RenderedImage source, final Point offset,
+            final Rectangle imageBounds, final int rotation,
+            final boolean flip, final Rectangle bounds) {
+        final AffineTransform toImage = toImage(imageBounds, rotation, flip);
+        //source pixel of output (0, 0) and its steps on x and y (integers)
+        final Point2D origin = toImage.transform(
+                new Point2D.Double(bounds.x + 0.5, bounds.y + 0.5), null);
+        final Point2D stepX = toImage.deltaTransform(
+                new Point2D.Double(1, 0), null);
+        final Point2D stepY = toImage.deltaTransform(
+                new Point2D.Double(0, 1), null);
+        final int x0 = (int) Math.floor(origin.getX() + EPSILON);
+        final int y0 = (int) Math.floor(origin.getY() + EPSILON);
+        final int xx = (int) Math.round(stepX.getX());
+        final int xy = (int) Math.round(stepX.getY());
+        final int yx = (int) Math.round(stepY.getX());
+        final int yy = (int) Math.round(stepY.getY());
+
+        final BufferedImage result = createWhite(bounds);
+        final int[] out = ((DataBufferInt) result.getRaster()
+                .getDataBuffer()).getData();
+
+        final int x1 = x0 + xx * (bounds.width - 1) + yx * (bounds.height - 1);
+        final int y1 = y0 + xy * (bounds.width - 1) + yy * (bounds.height - 1);
+        final Rectangle area = new Rectangle(Math.min(x0, x1),
+                Math.min(y0, y1), Math.abs(x1 - x0) + 1,
+                Math.abs(y1 - y0) + 1).intersection(imageBounds)
+                .intersection(new Rectangle(source.getMinX() + offset.x,
+                        source.getMinY() + offset.y, source.getWidth(),
+                        source.getHeight()));
+        if (area.isEmpty()) {
+            return result;
+        }
+        final int[] rgb = toRgb(source, new Rectangle(area.x - offset.x,
+                area.y - offset.y, area.width, area.height));
+        //step on rgb for one output pixel
+        final int step = xy * area.width + xx;
+        for (int oy = 0; oy < bounds.height; oy++) {
+            final int sx = x0 + yx * oy - area.x;
+            final int sy = y0 + yy * oy - area.y;
+            //output pixels of this line that are on the area
+            final int start = Math.max(firstInside(sx, xx, area.width),
+                    firstInside(sy, xy, area.height));
+            final int end = Math.min(Math.min(
+                    endInside(sx, xx, area.width, bounds.width),
+                    endInside(sy, xy, area.height, bounds.width)),
+                    bounds.width);
+            if (start >= end) {
+                continue;
+            }
+            int src = (sy + xy * start) * area.width + sx + xx * start;
+            final int line = oy * bounds.width;
+            for (int ox = start; ox < end; ox++) {
+                out[line + ox] = rgb[src];
+                src += step;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a white RGB image with bounds size.
+     */
+    private static BufferedImage createWhite(final Rectangle bounds) {
+        final BufferedImage result = new BufferedImage(bounds.width,
+                bounds.height, BufferedImage.TYPE_INT_RGB);
+        Arrays.fill(((DataBufferInt) result.getRaster().getDataBuffer())
+                .getData(), WHITE);
+        return result;
+    }
+
+    /**
+     * First output pixel (0 or more) with coordinate inside [0, size).
+     *
+     * @param first Coordinate of output pixel 0.
+     * @param step Coordinate step per output pixel (-1, 0 or 1).
+     * @param size Area size on this coordinate.
+     */
+    private static int firstInside(final int first, final int step,
+            final int size) {
+        if (step > 0) {
+            return Math.max(0, -first);
+        } else if (step < 0) {
+            return Math.max(0, first - size + 1);
+        }
+        return first >= 0 && first < size ? 0 : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Output pixel after the last one with coordinate inside [0, size).
+     */
+    private static int endInside(final int first, final int step,
+            final int size, final int width) {
+        if (step > 0) {
+            return size - first;
+        } else if (step < 0) {
+            return first + 1;
+        }
+        return first >= 0 && first < size ? width : 0;
+    }
+
+    /**
+     * Gets an area of the source as RGB (converted as Java2D draws it).
+     */
+    private static int[] toRgb(final RenderedImage source,
+            final Rectangle area) {
+        final BufferedImage copy = new BufferedImage(area.width, area.height,
+                BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g = copy.createGraphics();
+        try {
+            g.setColor(Color.white);
+            g.fillRect(0, 0, area.width, area.height);
+            g.drawRenderedImage(source, AffineTransform.getTranslateInstance(
+                    -area.x, -area.y));
+        } finally {
+            g.dispose();
+        }
+        return ((DataBufferInt) copy.getRaster().getDataBuffer()).getData();
+    }
+}
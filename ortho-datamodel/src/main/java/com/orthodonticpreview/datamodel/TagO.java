@@ -189,4 +189,10 @@ public final class TagO {
      */
     public static final TagW VECTORS_SCALE = new TagW("Vectors Scale",
             TagW.TagType.Double, 3);
+
+    /**
+     * GR sensitivity to placement errors (GrSensitivity), on report series.
+     */
+    public static final TagW GR_SENSITIVITY = new TagW("GR Sensitivity",
+            TagW.TagType.Object, 3);
 }
@@ -0,0 +1,118 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Point2D;
+
+/**
+ * Turning and projection tendencies, from the GR point.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class Tendencies {
+
+    /**
+     * Tolerance for turning tencence result (mm).
+     */
+    public static final double TURNING_TOLERANCE = 0.1;
+
+    /** No turning tendency. */
+    public static final String NONE = "none";
+    /** Turning tendency to left. */
+    public static final String LEFT = "left";
+    /** Turning tendency to right. */
+    public static final String RIGHT = "right";
+
+    /**
+     * Current rules, with TURNING_TOLERANCE.
+     */
+    public static final TendencyRule DEFAULT_RULE = rule(TURNING_TOLERANCE);
+
+    private Tendencies() {
+    }
+
+    /**
+     * Rules of this class with another turning tolerance.
+     *
+     * @param tolerance Distance (mm) to middle line considered as none.
+     * @return The rules.
+     */
+    public static TendencyRule rule(final double tolerance) {
+        return new TendencyRule() {
+            @Override
+            public String getName() {
+                return "tolerance " + tolerance;
+            }
+
+            @Override
+            public String turning(final double midX, final Point2D pointGr,
+                    final double scale) {
+                return Tendencies.turning(midX, pointGr, scale, tolerance);
+            }
+
+            @Override
+            public boolean projection(final double frontLimit,
+                    final Point2D pointGr) {
+                return Tendencies.projection(frontLimit, pointGr);
+            }
+        };
+    }
+
+    /**
+     * Calculates turning dendency.
+     *
+     * Tendência de giro na arcada para a [direita / esquerda]. Lado contrário
+     * ao do centro de resistência.
+     *
+     * @param midX X of arch middle line.
+     * @param pointGr GR point.
+     * @param scale Scale (mm per pixel).
+     * @param tolerance Distance (mm) to middle line considered as none.
+     * @return "none", "left" or "right".
+     */
+    public static String turning(final double midX, final Point2D pointGr,
+            final double scale, final double tolerance) {
+        final double ptX = pointGr.getX();
+        if ((Math.abs(midX - ptX) * scale) < tolerance) {
+            return NONE;
+        } else if (ptX >= midX) { //point at right, tendency to left
+            return LEFT;
+        }
+        //point at left, tendency to right
+        return RIGHT;
+    }
+
+    /**
+     * Calculates projection dendency.
+     *
+     * Tendencia de projecao dos anteriores para anterior [quando o ponto cair
+     * fora da linha].
+     *
+     * @param frontLimit Y of front limit line.
+     * @param pointGr GR point.
+     * @return true if there is a projection tendency.
+     */
+    public static boolean projection(final double frontLimit,
+            final Point2D pointGr) {
+        return pointGr.getY() < frontLimit;
+    }
+}
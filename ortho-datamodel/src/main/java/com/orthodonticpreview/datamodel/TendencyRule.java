@@ -0,0 +1,57 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Point2D;
+
+/**
+ * A version of the tendency rules (tolerances and algorithm), so results of
+ * two versions can be compared.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public interface TendencyRule {
+
+    /**
+     * @return Name of this version, for reports.
+     */
+    String getName();
+
+    /**
+     * Calculates turning tendency.
+     *
+     * @param midX X of arch middle line.
+     * @param pointGr GR point.
+     * @param scale Scale (mm per pixel).
+     * @return Tendencies.NONE, LEFT or RIGHT.
+     */
+    String turning(double midX, Point2D pointGr, double scale);
+
+    /**
+     * Calculates projection tendency.
+     *
+     * @param frontLimit Y of front limit line.
+     * @param pointGr GR point.
+     * @return true if there is a projection tendency.
+     */
+    boolean projection(double frontLimit, Point2D pointGr);
+}
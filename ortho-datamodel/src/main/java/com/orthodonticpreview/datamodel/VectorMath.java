@@ -20,6 +20,7 @@
  */
 package com.orthodonticpreview.datamodel;
 
+import java.awt.geom.GeneralPath;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
@@ -143,8 +144,8 @@ public final class VectorMath {
     }
 
     /**
-     * Uses matrix algebra to calculate the point of intersection between two
-     * lines.
+     * Calculates the point of intersection between two lines. For parallel
+     * lines, gives the point closest to both (see LineIntersection).
      *
      * @param line1 one line
      * @param line2 other line.
@@ -152,35 +153,7 @@ public final class VectorMath {
      */
     public static Point2D getIntersectionPoint(
             final Line2D line1, final Line2D line2) {
-
-        final double detOne = det(
-                line1.getX1(), line1.getY1(), line1.getX2(), line1.getY2());
-        final double detTwo = det(
-                line2.getX1(), line2.getY1(), line2.getX2(), line2.getY2());
-        final double detDiv = det(line1.getX1() - line1.getX2(),
-                line1.getY1() - line1.getY2(), line2.getX1() - line2.getX2(),
-                line2.getY1() - line2.getY2());
-
-        final double ptX = det(detOne, line1.getX1() - line1.getX2(),
-                detTwo, line2.getX1() - line2.getX2()) / detDiv;
-        final double ptY = det(detOne, line1.getY1() - line1.getY2(),
-                detTwo, line2.getY1() - line2.getY2()) / detDiv;
-
-        return new Point2D.Double(ptX, ptY);
-    }
-
-    /**
-     * Calculates the determinant of a 2x2 matrix.
-     *
-     * @param topLeft the top left matrix value
-     * @param topRight the top right matrix value
-     * @param botLeft the bottom left matrix value
-     * @param botRight the bottom right matrix value
-     * @return the determinant.
-     */
-    private static double det(final double topLeft, final double topRight,
-            final double botLeft, final double botRight) {
-        return topLeft * botRight - topRight * botLeft;
+        return LineIntersection.intersect(line1, line2).getPoint();
     }
 
     /**
@@ -322,4 +295,27 @@ public final class VectorMath {
         return Math.sqrt(radPow - knownComp);
     }
 
+    /**
+     * Builds the arch path between two points, as drawn by the arch tool:
+     * a short vertical line up from each point, joined by a bezier curve.
+     *
+     * @param ptA First point.
+     * @param ptB Second point.
+     * @return The arch path.
+     */
+    public static GeneralPath archPath(final Point2D ptA, final Point2D ptB) {
+        final GeneralPath path = new GeneralPath();
+        final double hDist = ptB.getX() - ptA.getX();
+
+        path.moveTo((float) ptA.getX(), (float) ptA.getY());
+        path.lineTo((float) ptA.getX(), (float) (ptA.getY() - hDist / 5));
+
+        path.curveTo((float) ptA.getX(), (float) (ptA.getY() - hDist * 1.2),
+                (float) ptB.getX(), (float) (ptB.getY() - hDist * 1.2),
+                (float) ptB.getX(), (float) (ptB.getY() - hDist / 5));
+
+        path.lineTo((float) ptB.getX(), (float) ptB.getY());
+        return path;
+    }
+
 }
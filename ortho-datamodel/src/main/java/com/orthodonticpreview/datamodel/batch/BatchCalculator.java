@@ -0,0 +1,360 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.BasicCalculationModel;
+import com.orthodonticpreview.datamodel.CalculationMethod;
+import com.orthodonticpreview.datamodel.DaemonThreadFactory;
+import com.orthodonticpreview.datamodel.PreviewCalculation;
+import com.orthodonticpreview.datamodel.ReportDrawing;
+import com.orthodonticpreview.datamodel.ReportImageTransform;
+import com.orthodonticpreview.datamodel.Tendencies;
+import com.orthodonticpreview.datamodel.cache.RasterCache;
+import com.orthodonticpreview.datamodel.export.SvgReportWriter;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calculates cases in parallel, out of the viewer, and optionally renders
+ * their report images.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class BatchCalculator {
+
+    /**
+     * Class logger.
+     */
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(BatchCalculator.class);
+
+    /**
+     * Expected forces per case (one per tooth), to size the kernel.
+     */
+    private static final int EXPECTED_FORCES = 16;
+
+    private final ExecutorService executor;
+    private final int threads;
+    private File reportDir;
+    private boolean svgReports;
+    private CalculationMethod method = CalculationMethod.getDefault();
+
+    /**
+     * Creates a calculator with a fixed number of threads.
+     *
+     * @param threads Number of worker threads (at least 1).
+     */
+    public BatchCalculator(final int threads) {
+        this.threads = Math.max(1, threads);
+        executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                new DaemonThreadFactory("ortho-batch"));
+    }
+
+    /**
+     * Sets where report images are written.
+     *
+     * @param dir Directory for reports, or null to not render reports.
+     */
+    public void setReportDir(final File dir) {
+        reportDir = dir;
+    }
+
+    /**
+     * Sets the report format.
+     *
+     * @param svg True for SVG reports (image as JPEG and results as
+     * vectors), false for PNG (default).
+     */
+    public void setSvgReports(final boolean svg) {
+        svgReports = svg;
+    }
+
+    /**
+     * Sets how cases are calculated.
+     *
+     * @param method Calculation method.
+     */
+    public void setMethod(final CalculationMethod method) {
+        this.method = method;
+    }
+
+    /**
+     * Calculates all cases. One case failing does not stop others.
+     *
+     * @param cases Cases to calculate.
+     * @return Results, on the same order as cases.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public List<CaseResult> calculate(final List<CaseData> cases)
+            throws InterruptedException {
+        final List<Future<CaseResult>> futures
+                = new ArrayList<Future<CaseResult>>(cases.size());
+        for (final CaseData data : cases) {
+            futures.add(executor.submit(new Callable<CaseResult>() {
+                @Override
+                public CaseResult call() {
+                    return calculate(data);
+                }
+            }));
+        }
+
+        final List<CaseResult> results
+                = new ArrayList<CaseResult>(cases.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException ex) {
+                final CaseResult failed
+                        = new CaseResult(cases.get(i).getName());
+                failed.setError(String.valueOf(ex.getCause()));
+                results.add(failed);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Calculates GR, resultant and tendencies of all cases with the closed
+     * form on ForceBatchKernel, splitting cases among the threads. Faster
+     * than calculate for large batches, but gives no bounds nor reports.
+     *
+     * @param cases Cases to calculate.
+     * @return Results, on the same order as cases.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public List<CaseResult> reduce(final List<CaseData> cases)
+            throws InterruptedException {
+        final long start = System.nanoTime();
+        final ForceBatchKernel kernel = new ForceBatchKernel(cases.size(),
+                cases.size() * EXPECTED_FORCES);
+        final int[] indexes = new int[cases.size()];
+        for (int i = 0; i < cases.size(); i++) {
+            indexes[i] = cases.get(i).getForces().isEmpty()
+                    || cases.get(i).getError() != null
+                    ? -1 : kernel.add(cases.get(i).getForces());
+        }
+        kernel.prepare();
+
+        final int chunk = (kernel.size() + threads - 1) / threads;
+        final List<Future<?>> futures = new ArrayList<Future<?>>(threads);
+        for (int from = 0; from < kernel.size(); from += chunk) {
+            final int first = from;
+            final int last = Math.min(kernel.size(), from + chunk);
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    kernel.reduce(PreviewCalculation.TURN, first, last);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+
+        final long millis = cases.isEmpty() ? 0
+                : (System.nanoTime() - start) / 1000000L / cases.size();
+        final List<CaseResult> results
+                = new ArrayList<CaseResult>(cases.size());
+        for (int i = 0; i < cases.size(); i++) {
+            final CaseData data = cases.get(i);
+            final CaseResult result = new CaseResult(data.getName());
+            if (data.getError() != null) {
+                result.setError(data.getError());
+            } else if (indexes[i] < 0) {
+                result.setError("No force vectors.");
+            } else if (!kernel.isValid(indexes[i])) {
+                result.setError("Forces sum is zero, there is no resultant.");
+            } else {
+                result.setPointGr(kernel.getPointGr(indexes[i]));
+                result.setResultant(kernel.getResultant(indexes[i]));
+                setTendencies(result, data, result.getPointGr());
+            }
+            result.setMillis(millis);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static void setTendencies(final CaseResult result,
+            final CaseData data, final Point2D pointGr) {
+        if (data.getMidX() != null) {
+            result.setTurning(Tendencies.turning(data.getMidX(),
+                    pointGr, data.getScale(),
+                    Tendencies.TURNING_TOLERANCE));
+        }
+        if (data.getFrontLimit() != null) {
+            result.setProjection(Tendencies.projection(
+                    data.getFrontLimit(), pointGr));
+        }
+    }
+
+    /**
+     * Calculates one case, on the caller thread.
+     *
+     * @param data Case to calculate.
+     * @return Its result (with error set if it failed).
+     */
+    public CaseResult calculate(final CaseData data) {
+        final long start = System.nanoTime();
+        final CaseResult result = new CaseResult(data.getName());
+        if (data.getError() != null) {
+            result.setError(data.getError());
+            return result;
+        }
+        try {
+            final BasicCalculationModel model = data.toModel();
+            final PreviewCalculation calculation
+                    = new PreviewCalculation(model);
+            calculation.setMethod(method);
+            calculation.storeResults();
+
+            result.setPointGr(model.getPointGr());
+            result.setResultant(model.getResultant());
+            result.setBounds(model.getResultBounds());
+            setTendencies(result, data, model.getPointGr());
+
+            if (reportDir != null && svgReports) {
+                final File file = new File(reportDir,
+                        data.getName() + ".svg");
+                writeSvgReport(data, model, file);
+                result.setReport(file);
+            } else if (reportDir != null) {
+                final File file = new File(reportDir,
+                        data.getName() + ".png");
+                ImageIO.write(renderReport(data, model), "png", file);
+                result.setReport(file);
+            }
+        } catch (IOException ex) {
+            LOGGER.error("Case {} failed: {}", data.getName(), ex.toString());
+            result.setError(ex.toString());
+        } catch (RuntimeException ex) {
+            LOGGER.error("Case {} failed: {}", data.getName(), ex.toString());
+            result.setError(ex.toString());
+        }
+        result.setMillis((System.nanoTime() - start) / 1000000L);
+        return result;
+    }
+
+    /**
+     * Renders the report image of a calculated case (as OrthoReport does on
+     * the viewer).
+     *
+     * @param data Case.
+     * @param model Calculated model.
+     * @return Report image.
+     * @throws IOException If case image can't be read.
+     */
+    public static BufferedImage renderReport(final CaseData data,
+            final BasicCalculationModel model) throws IOException {
+        final BufferedImage report = renderImage(data, model);
+        final Graphics2D graphics = report.createGraphics();
+        try {
+            createDrawing(model).paint(graphics);
+        } finally {
+            graphics.dispose();
+        }
+        return report;
+    }
+
+    /**
+     * Writes the report of a calculated case as SVG (see SvgReportWriter).
+     *
+     * @param data Case.
+     * @param model Calculated model.
+     * @param file SVG file.
+     * @throws IOException If case image can't be read or SVG written.
+     */
+    public static void writeSvgReport(final CaseData data,
+            final BasicCalculationModel model, final File file)
+            throws IOException {
+        new SvgReportWriter().write(renderImage(data, model),
+                createDrawing(model), file);
+    }
+
+    /**
+     * Results of a calculated case, on report image coordinates.
+     */
+    private static ReportDrawing createDrawing(
+            final BasicCalculationModel model) {
+        final Rectangle bounds = model.getResultBounds();
+        return ReportDrawing.create(model.getPointGr(), model.getResultant(),
+                model.getArcPath(), -bounds.x, -bounds.y, bounds.height);
+    }
+
+    /**
+     * Report image of a calculated case, without results.
+     */
+    private static BufferedImage renderImage(final CaseData data,
+            final BasicCalculationModel model) throws IOException {
+        final Rectangle bounds = model.getResultBounds();
+        if (bounds == null) {
+            throw new IllegalStateException("No bounds found.");
+        }
+
+        BufferedImage report;
+        if (data.getImage() == null) {
+            report = new BufferedImage(bounds.width, bounds.height,
+                    BufferedImage.TYPE_INT_RGB);
+            final Graphics2D g = report.createGraphics();
+            g.setColor(Color.white);
+            g.fillRect(0, 0, bounds.width, bounds.height);
+            g.dispose();
+        } else {
+            final RasterCache.Handle source
+                    = RasterCache.getInstance().acquire(data.getImage());
+            try {
+                report = ReportImageTransform.render(source,
+                        data.getRotation(), data.isFlip(), bounds);
+            } finally {
+                source.release();
+            }
+        }
+
+        return report;
+    }
+
+    /**
+     * Stops worker threads.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
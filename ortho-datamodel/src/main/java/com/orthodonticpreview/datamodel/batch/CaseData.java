@@ -0,0 +1,166 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.BasicCalculationModel;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Input of one case to calculate out of the viewer: force vectors, arch and
+ * the values the report needs.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class CaseData {
+
+    private final String name;
+    private final List<Line2D> forces = new ArrayList<Line2D>();
+    private GeneralPath arc;
+    private Double midX;
+    private Double frontLimit;
+    private double scale = 1;
+    private File image;
+    private int rotation;
+    private boolean flip;
+    private String error;
+
+    /**
+     * Creates an empty case.
+     *
+     * @param name Case name (used on summary and report file name).
+     */
+    public CaseData(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Force vectors (live list).
+     */
+    public List<Line2D> getForces() {
+        return forces;
+    }
+
+    public GeneralPath getArc() {
+        return arc;
+    }
+
+    public void setArc(final GeneralPath arc) {
+        this.arc = arc;
+    }
+
+    public Double getMidX() {
+        return midX;
+    }
+
+    public void setMidX(final Double midX) {
+        this.midX = midX;
+    }
+
+    public Double getFrontLimit() {
+        return frontLimit;
+    }
+
+    public void setFrontLimit(final Double frontLimit) {
+        this.frontLimit = frontLimit;
+    }
+
+    /**
+     * @return Scale (mm per pixel), 1 if not known.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    public void setScale(final double scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * @return Calculation image, or null if there is none.
+     */
+    public File getImage() {
+        return image;
+    }
+
+    public void setImage(final File image) {
+        this.image = image;
+    }
+
+    /**
+     * @return Rotation angle (degrees) of image on viewer.
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    public void setRotation(final int rotation) {
+        this.rotation = rotation;
+    }
+
+    public boolean isFlip() {
+        return flip;
+    }
+
+    public void setFlip(final boolean flip) {
+        this.flip = flip;
+    }
+
+    /**
+     * @return Why the case could not be read (null if it was), see
+     * CaseFileReader.readAll.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Marks the case as not read: it is not calculated, its result has this
+     * error.
+     *
+     * @param error Why the case could not be read.
+     */
+    public void setError(final String error) {
+        this.error = error;
+    }
+
+    /**
+     * Builds a new calculation model for this case. Force vectors are copied,
+     * so a case can be calculated more than once.
+     *
+     * @return New calculation model.
+     */
+    public BasicCalculationModel toModel() {
+        final List<Line2D> units = new ArrayList<Line2D>(forces.size());
+        for (Line2D line : forces) {
+            units.add((Line2D) line.clone());
+        }
+        return new BasicCalculationModel(units, arc);
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.VectorMath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads cases from CSV files, one case per file. Each line is a key and its
+ * values, separated by commas; lines starting with '#' are comments.
+ *
+ * <pre>
+ * force,x1,y1,x2,y2     (one line per force vector, in arch order)
+ * arc,ax,ay,bx,by       (arch handle points, as on the viewer)
+ * midx,x
+ * front,y
+ * scale,mmPerPixel
+ * image,path            (relative to the case file)
+ * rotation,degrees
+ * flip,true|false
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class CaseFileReader {
+
+    /**
+     * Extension of case files.
+     */
+    public static final String EXTENSION = ".csv";
+
+    private CaseFileReader() {
+    }
+
+    /**
+     * Reads all cases of a file or directory (not recursive), sorted by name.
+     *
+     * A file that can't be read or is not valid does not stop the others: its
+     * case is returned empty, with the error set (see CaseData.getError), so
+     * it is reported as failed.
+     *
+     * @param input Case file or directory.
+     * @return Cases read.
+     */
+    public static List<CaseData> readAll(final File input) {
+        final List<CaseData> cases = new ArrayList<CaseData>();
+        if (input.isDirectory()) {
+            final File[] files = input.listFiles();
+            if (files != null) {
+                Arrays.sort(files);
+                for (File file : files) {
+                    if (file.isFile() && file.getName().toLowerCase()
+                            .endsWith(EXTENSION)) {
+                        cases.add(readOrFail(file));
+                    }
+                }
+            }
+        } else {
+            cases.add(readOrFail(input));
+        }
+        return cases;
+    }
+
+    private static CaseData readOrFail(final File file) {
+        try {
+            return read(file);
+        } catch (IOException ex) {
+            final CaseData failed = new CaseData(getCaseName(file));
+            failed.setError(ex.getMessage());
+            return failed;
+        }
+    }
+
+    private static String getCaseName(final File file) {
+        final String name = file.getName();
+        if (name.toLowerCase().endsWith(EXTENSION)) {
+            return name.substring(0, name.length() - EXTENSION.length());
+        }
+        return name;
+    }
+
+    /**
+     * Reads one case file.
+     *
+     * @param file Case file.
+     * @return The case (named as the file, without extension).
+     * @throws IOException If file can't be read or is not valid.
+     */
+    public static CaseData read(final File file) throws IOException {
+        final String name = getCaseName(file);
+        final Reader reader = new InputStreamReader(
+                new FileInputStream(file), "UTF-8");
+        try {
+            return read(name, reader, file.getAbsoluteFile().getParentFile());
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads one case.
+     *
+     * @param name Case name.
+     * @param source Case content.
+     * @param baseDir Directory of relative image paths (may be null).
+     * @return The case.
+     * @throws IOException If can't read or content is not valid.
+     */
+    public static CaseData read(final String name, final Reader source,
+            final File baseDir) throws IOException {
+        final CaseData data = new CaseData(name);
+        final BufferedReader reader = new BufferedReader(source);
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            final String[] parts = line.split("\\s*,\\s*");
+            try {
+                parseLine(data, parts, baseDir);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException(name + ", line " + lineNumber + ": "
+                        + ex.getMessage(), ex);
+            }
+        }
+        if (data.getForces().isEmpty()) {
+            throw new IOException(name + ": no force vectors.");
+        }
+        return data;
+    }
+
+    /**
+     * Parses one (non comment) line into data.
+     *
+     * @param data Case being read.
+     * @param parts Key and values.
+     * @param baseDir Directory of relative image paths.
+     */
+    private static void parseLine(final CaseData data, final String[] parts,
+            final File baseDir) {
+        final String key = parts[0].toLowerCase();
+        if ("force".equals(key)) {
+            final double[] val = numbers(parts, 4);
+            data.getForces().add(
+                    new Line2D.Double(val[0], val[1], val[2], val[3]));
+        } else if ("arc".equals(key)) {
+            final double[] val = numbers(parts, 4);
+            data.setArc(VectorMath.archPath(new Point2D.Double(val[0], val[1]),
+                    new Point2D.Double(val[2], val[3])));
+        } else if ("midx".equals(key)) {
+            data.setMidX(numbers(parts, 1)[0]);
+        } else if ("front".equals(key)) {
+            data.setFrontLimit(numbers(parts, 1)[0]);
+        } else if ("scale".equals(key)) {
+            data.setScale(numbers(parts, 1)[0]);
+        } else if ("rotation".equals(key)) {
+            data.setRotation((int) Math.round(numbers(parts, 1)[0]));
+        } else if ("flip".equals(key)) {
+            checkCount(parts, 1);
+            data.setFlip(Boolean.parseBoolean(parts[1]));
+        } else if ("image".equals(key)) {
+            checkCount(parts, 1);
+            File image = new File(parts[1]);
+            if (!image.isAbsolute() && baseDir != null) {
+                image = new File(baseDir, parts[1]);
+            }
+            data.setImage(image);
+        } else {
+            throw new IllegalArgumentException("unknown key " + parts[0]);
+        }
+    }
+
+    private static void checkCount(final String[] parts, final int count) {
+        if (parts.length != count + 1) {
+            throw new IllegalArgumentException(parts[0] + " needs " + count
+                    + " value(s).");
+        }
+    }
+
+    private static double[] numbers(final String[] parts, final int count) {
+        checkCount(parts, count);
+        final double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = Double.parseDouble(parts[i + 1]);
+        }
+        return values;
+    }
+}
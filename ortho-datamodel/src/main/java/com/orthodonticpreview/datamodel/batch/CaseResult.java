@@ -0,0 +1,196 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import java.awt.Rectangle;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * Result of one case calculated by BatchCalculator.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class CaseResult {
+
+    /**
+     * Header of summary CSV (same columns as toCsvLine).
+     */
+    public static final String CSV_HEADER = "case,grX,grY,resultantX1,"
+            + "resultantY1,resultantX2,resultantY2,turning,projection,"
+            + "millis,report,error";
+
+    private final String name;
+    private Point2D pointGr;
+    private Line2D resultant;
+    private Rectangle bounds;
+    private String turning;
+    private Boolean projection;
+    private File report;
+    private String error;
+    private long millis;
+
+    CaseResult(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Result of a case that could not be calculated.
+     *
+     * @param name Case name.
+     * @param error Why it failed.
+     * @return The result, with error set.
+     */
+    public static CaseResult failed(final String name, final String error) {
+        final CaseResult result = new CaseResult(name);
+        result.setError(error);
+        return result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Point2D getPointGr() {
+        return pointGr;
+    }
+
+    void setPointGr(final Point2D pointGr) {
+        this.pointGr = pointGr;
+    }
+
+    public Line2D getResultant() {
+        return resultant;
+    }
+
+    void setResultant(final Line2D resultant) {
+        this.resultant = resultant;
+    }
+
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    void setBounds(final Rectangle bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * @return Turning tendency, or null if case has no middle line.
+     */
+    public String getTurning() {
+        return turning;
+    }
+
+    void setTurning(final String turning) {
+        this.turning = turning;
+    }
+
+    /**
+     * @return Projection tendency, or null if case has no front limit.
+     */
+    public Boolean getProjection() {
+        return projection;
+    }
+
+    void setProjection(final Boolean projection) {
+        this.projection = projection;
+    }
+
+    /**
+     * @return Report image file, or null if not rendered.
+     */
+    public File getReport() {
+        return report;
+    }
+
+    void setReport(final File report) {
+        this.report = report;
+    }
+
+    /**
+     * @return Error message, or null if case was calculated.
+     */
+    public String getError() {
+        return error;
+    }
+
+    void setError(final String error) {
+        this.error = error;
+    }
+
+    public boolean isOk() {
+        return error == null;
+    }
+
+    /**
+     * @return Time spent on this case (ms).
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    void setMillis(final long millis) {
+        this.millis = millis;
+    }
+
+    /**
+     * @return One line for the summary CSV.
+     */
+    public String toCsvLine() {
+        final StringBuilder line = new StringBuilder(csv(name));
+        if (pointGr == null) {
+            line.append(",,");
+        } else {
+            line.append(',').append(num(pointGr.getX()))
+                    .append(',').append(num(pointGr.getY()));
+        }
+        if (resultant == null) {
+            line.append(",,,,");
+        } else {
+            line.append(',').append(num(resultant.getX1()))
+                    .append(',').append(num(resultant.getY1()))
+                    .append(',').append(num(resultant.getX2()))
+                    .append(',').append(num(resultant.getY2()));
+        }
+        line.append(',').append(turning == null ? "" : turning);
+        line.append(',').append(projection == null ? "" : projection);
+        line.append(',').append(millis);
+        line.append(',').append(report == null ? "" : csv(report.getName()));
+        line.append(',').append(error == null ? "" : csv(error));
+        return line.toString();
+    }
+
+    private static String num(final double value) {
+        return String.format(Locale.US, "%.2f", value);
+    }
+
+    static String csv(final String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,309 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Force vectors of many cases on flat arrays (one array per component,
+ * cases one after the other), reduced without creating objects per force.
+ *
+ * For each case it gives the component sums, the moment and GR, with the
+ * closed form of AnalyticResultantSolver: GR solves cross(g, R) = M and
+ * cross(g, R') = cos(t) M - sin(t) D, whose determinant is -sin(t) |R|^2.
+ *
+ * The inner loop keeps two independent sets of accumulators, so the JIT
+ * can pipeline (and vectorize) it. Not thread safe while adding; reduce
+ * can be called on disjoint ranges from several threads.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class ForceBatchKernel {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** Origin X, relative to the origin of the case first force. */
+    private double[] posX;
+    /** Origin Y, relative to the origin of the case first force. */
+    private double[] posY;
+    private double[] dirX;
+    private double[] dirY;
+    /** First force of each case; offsets[size] is the end of last case. */
+    private int[] offsets;
+    private double[] refX;
+    private double[] refY;
+    private int size;
+
+    private double[] sumX;
+    private double[] sumY;
+    private double[] moment;
+    private double[] grX;
+    private double[] grY;
+
+    /**
+     * Creates an empty kernel.
+     *
+     * @param cases Expected number of cases.
+     * @param forces Expected number of forces (all cases).
+     */
+    public ForceBatchKernel(final int cases, final int forces) {
+        final int caseCap = Math.max(1, cases);
+        final int forceCap = Math.max(1, forces);
+        posX = new double[forceCap];
+        posY = new double[forceCap];
+        dirX = new double[forceCap];
+        dirY = new double[forceCap];
+        offsets = new int[caseCap + 1];
+        refX = new double[caseCap];
+        refY = new double[caseCap];
+    }
+
+    /**
+     * Creates an empty kernel.
+     */
+    public ForceBatchKernel() {
+        this(DEFAULT_CAPACITY, DEFAULT_CAPACITY * 16);
+    }
+
+    /**
+     * Adds the forces of one case.
+     *
+     * @param forces Force vectors (not empty).
+     * @return Index of the case.
+     */
+    public int add(final List<Line2D> forces) {
+        if (forces == null || forces.isEmpty()) {
+            throw new IllegalArgumentException("No forces.");
+        }
+        ensureCapacity(forces.size());
+        int end = offsets[size];
+        final double originX = forces.get(0).getX1();
+        final double originY = forces.get(0).getY1();
+        refX[size] = originX;
+        refY[size] = originY;
+        for (Line2D force : forces) {
+            posX[end] = force.getX1() - originX;
+            posY[end] = force.getY1() - originY;
+            dirX[end] = force.getX2() - force.getX1();
+            dirY[end] = force.getY2() - force.getY1();
+            end++;
+        }
+        offsets[++size] = end;
+        return size - 1;
+    }
+
+    /**
+     * Adds the forces of one case, from end point arrays.
+     *
+     * @param x1 Origin X of each force.
+     * @param y1 Origin Y of each force.
+     * @param x2 End X of each force.
+     * @param y2 End Y of each force.
+     * @param count Number of forces (at least 1).
+     * @return Index of the case.
+     */
+    public int add(final double[] x1, final double[] y1, final double[] x2,
+            final double[] y2, final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("No forces.");
+        }
+        ensureCapacity(count);
+        final int start = offsets[size];
+        refX[size] = x1[0];
+        refY[size] = y1[0];
+        for (int i = 0; i < count; i++) {
+            posX[start + i] = x1[i] - x1[0];
+            posY[start + i] = y1[i] - y1[0];
+            dirX[start + i] = x2[i] - x1[i];
+            dirY[start + i] = y2[i] - y1[i];
+        }
+        offsets[++size] = start + count;
+        return size - 1;
+    }
+
+    /**
+     * Grows arrays for one more case with count forces.
+     */
+    private void ensureCapacity(final int count) {
+        if (size + 1 >= offsets.length) {
+            final int cap = offsets.length * 2;
+            offsets = Arrays.copyOf(offsets, cap + 1);
+            refX = Arrays.copyOf(refX, cap);
+            refY = Arrays.copyOf(refY, cap);
+        }
+        final int end = offsets[size];
+        if (end + count > posX.length) {
+            final int cap = Math.max(posX.length * 2, end + count);
+            posX = Arrays.copyOf(posX, cap);
+            posY = Arrays.copyOf(posY, cap);
+            dirX = Arrays.copyOf(dirX, cap);
+            dirY = Arrays.copyOf(dirY, cap);
+        }
+    }
+
+    /**
+     * Removes all cases (keeps the arrays, to be filled again).
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return Number of cases.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reduces all cases.
+     *
+     * @param turn Turn angle (degrees), as PreviewCalculation.TURN.
+     */
+    public void reduce(final double turn) {
+        prepare();
+        reduce(turn, 0, size);
+    }
+
+    /**
+     * Allocates result arrays for the cases added; must be called before
+     * reducing ranges.
+     */
+    public void prepare() {
+        if (grX == null || grX.length < size) {
+            sumX = new double[size];
+            sumY = new double[size];
+            moment = new double[size];
+            grX = new double[size];
+            grY = new double[size];
+        }
+    }
+
+    /**
+     * Reduces a range of cases (prepare must have been called).
+     *
+     * @param turn Turn angle (degrees).
+     * @param from First case.
+     * @param to Case after the last one.
+     */
+    public void reduce(final double turn, final int from, final int to) {
+        final double rad = Math.toRadians(turn);
+        final double cos = Math.cos(rad);
+        final double sin = Math.sin(rad);
+        for (int c = from; c < to; c++) {
+            final int end = offsets[c + 1];
+            double sx0 = 0;
+            double sy0 = 0;
+            double m0 = 0;
+            double d0 = 0;
+            double sx1 = 0;
+            double sy1 = 0;
+            double m1 = 0;
+            double d1 = 0;
+            int i = offsets[c];
+            for (; i + 1 < end; i += 2) {
+                sx0 += dirX[i];
+                sy0 += dirY[i];
+                m0 += posX[i] * dirY[i] - posY[i] * dirX[i];
+                d0 += posX[i] * dirX[i] + posY[i] * dirY[i];
+                sx1 += dirX[i + 1];
+                sy1 += dirY[i + 1];
+                m1 += posX[i + 1] * dirY[i + 1] - posY[i + 1] * dirX[i + 1];
+                d1 += posX[i + 1] * dirX[i + 1] + posY[i + 1] * dirY[i + 1];
+            }
+            if (i < end) {
+                sx0 += dirX[i];
+                sy0 += dirY[i];
+                m0 += posX[i] * dirY[i] - posY[i] * dirX[i];
+                d0 += posX[i] * dirX[i] + posY[i] * dirY[i];
+            }
+            final double rx = sx0 + sx1;
+            final double ry = sy0 + sy1;
+            final double mom = m0 + m1;
+            final double dot = d0 + d1;
+            sumX[c] = rx;
+            sumY[c] = ry;
+            moment[c] = mom;
+
+            final double tx = rx * cos + ry * sin;
+            final double ty = -rx * sin + ry * cos;
+            final double tm = cos * mom - sin * dot;
+            //zero resultant gives NaN (see isValid)
+            final double det = -sin * (rx * rx + ry * ry);
+            grX[c] = refX[c] + (rx * tm - tx * mom) / det;
+            grY[c] = refY[c] + (ry * tm - ty * mom) / det;
+        }
+    }
+
+    /**
+     * @param index Case index.
+     * @return True if the case has a GR (forces sum is not zero).
+     */
+    public boolean isValid(final int index) {
+        return !Double.isNaN(grX[index]) && !Double.isInfinite(grX[index])
+                && !Double.isNaN(grY[index]) && !Double.isInfinite(grY[index]);
+    }
+
+    public double getSumX(final int index) {
+        return sumX[index];
+    }
+
+    public double getSumY(final int index) {
+        return sumY[index];
+    }
+
+    /**
+     * @param index Case index.
+     * @return Sum of moments around the origin of the case first force.
+     */
+    public double getMoment(final int index) {
+        return moment[index];
+    }
+
+    public double getGrX(final int index) {
+        return grX[index];
+    }
+
+    public double getGrY(final int index) {
+        return grY[index];
+    }
+
+    /**
+     * @param index Case index.
+     * @return GR point.
+     */
+    public Point2D getPointGr(final int index) {
+        return new Point2D.Double(grX[index], grY[index]);
+    }
+
+    /**
+     * @param index Case index.
+     * @return Resultant starting on GR (as PreviewCalculation stores it).
+     */
+    public Line2D getResultant(final int index) {
+        return new Line2D.Double(grX[index], grY[index],
+                grX[index] + sumX[index], grY[index] + sumY[index]);
+    }
+}
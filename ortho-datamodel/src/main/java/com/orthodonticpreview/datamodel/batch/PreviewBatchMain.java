@@ -0,0 +1,201 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.CalculationMethod;
+import com.orthodonticpreview.datamodel.monitor.Trace;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command line entry point to calculate cases and render reports without a
+ * display.
+ *
+ * <pre>
+ * PreviewBatchMain &lt;case file or dir&gt; &lt;output dir&gt;
+ *     [-threads N] [-noreport] [-method funicular|analytic|multi_angle]
+ *     [-kernel] [-svg]
+ * </pre>
+ *
+ * -kernel calculates only GR, resultant and tendencies, on
+ * ForceBatchKernel (no bounds nor reports), for large archives.
+ *
+ * -svg writes reports as SVG (image as JPEG, results as vectors).
+ *
+ * Writes summary.csv (and one report per case) on output dir. Exit code
+ * is 1 if any case failed (trace.log then has the last traced events), 2 for
+ * usage errors.
+ *
+ * Runs from the self-contained ortho-service jar ("mvn -Pservice install"),
+ * which bundles this module and slf4j:
+ *
+ * <pre>
+ * java -cp ortho-service/target/ortho-service-1.0.2-SNAPSHOT.jar \
+ *     com.orthodonticpreview.datamodel.batch.PreviewBatchMain cases out
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class PreviewBatchMain {
+
+    /**
+     * Name of summary file, on output dir.
+     */
+    public static final String SUMMARY_FILE = "summary.csv";
+    /**
+     * Name of trace file, written on output dir when a case fails.
+     */
+    public static final String TRACE_FILE = "trace.log";
+
+    private PreviewBatchMain() {
+    }
+
+    /**
+     * Runs the batch.
+     *
+     * @param args Command line arguments.
+     * @throws Exception On IO errors or interruption.
+     */
+    public static void main(final String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        File input = null;
+        File output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean reports = true;
+        CalculationMethod method = CalculationMethod.getDefault();
+        boolean kernel = false;
+        boolean svg = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("-threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("-noreport".equals(args[i])) {
+                reports = false;
+            } else if ("-method".equals(args[i]) && i + 1 < args.length) {
+                method = CalculationMethod.valueOf(
+                        args[++i].toUpperCase(Locale.ENGLISH));
+            } else if ("-kernel".equals(args[i])) {
+                kernel = true;
+            } else if ("-svg".equals(args[i])) {
+                svg = true;
+            } else if (input == null) {
+                input = new File(args[i]);
+            } else if (output == null) {
+                output = new File(args[i]);
+            } else {
+                usage();
+                return;
+            }
+        }
+        if (input == null || output == null || !input.exists()) {
+            usage();
+            return;
+        }
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("Can't create " + output);
+        }
+
+        final List<CaseData> cases = CaseFileReader.readAll(input);
+        final BatchCalculator calculator = new BatchCalculator(threads);
+        calculator.setMethod(method);
+        calculator.setSvgReports(svg);
+        if (reports && !kernel) {
+            calculator.setReportDir(output);
+        }
+        final List<CaseResult> results;
+        try {
+            results = kernel ? calculator.reduce(cases)
+                    : calculator.calculate(cases);
+        } finally {
+            calculator.shutdown();
+        }
+
+        final int failed
+                = writeSummary(results, new File(output, SUMMARY_FILE));
+        System.out.println(results.size() + " case(s), " + failed
+                + " failed.");
+        if (failed > 0) {
+            writeLines(Trace.dump(), new File(output, TRACE_FILE));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Writes the summary CSV.
+     *
+     * @param results Results to write.
+     * @param file Summary file.
+     * @return Number of failed cases.
+     * @throws IOException If can't write.
+     */
+    public static int writeSummary(final List<CaseResult> results,
+            final File file) throws IOException {
+        int failed = 0;
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            writer.println(CaseResult.CSV_HEADER);
+            for (CaseResult result : results) {
+                writer.println(result.toCsvLine());
+                if (!result.isOk()) {
+                    failed++;
+                }
+            }
+        } finally {
+            writer.close();
+        }
+        return failed;
+    }
+
+    /**
+     * Writes lines to a text file.
+     *
+     * @param lines Lines to write.
+     * @param file Output file.
+     * @throws IOException If can't write.
+     */
+    private static void writeLines(final List<String> lines, final File file)
+            throws IOException {
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            for (String line : lines) {
+                writer.println(line);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: PreviewBatchMain <case file or dir>"
+                + " <output dir> [-threads N] [-noreport]"
+                + " [-method funicular|analytic|multi_angle] [-kernel]"
+                + " [-svg]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import java.awt.geom.Point2D;
+
+/**
+ * Values a case needs to have its tendencies recalculated (no image, no
+ * forces), and the tendencies stored on its report.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class TendencyCase {
+
+    private final String name;
+    private final Point2D pointGr;
+    private Double midX;
+    private Double frontLimit;
+    private double scale = 1;
+    private String storedTurning;
+    private Boolean storedProjection;
+
+    /**
+     * Creates a case.
+     *
+     * @param name Case name.
+     * @param pointGr GR point (null if not calculated).
+     */
+    public TendencyCase(final String name, final Point2D pointGr) {
+        this.name = name;
+        this.pointGr = pointGr;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Point2D getPointGr() {
+        return pointGr;
+    }
+
+    public Double getMidX() {
+        return midX;
+    }
+
+    public void setMidX(final Double midX) {
+        this.midX = midX;
+    }
+
+    public Double getFrontLimit() {
+        return frontLimit;
+    }
+
+    public void setFrontLimit(final Double frontLimit) {
+        this.frontLimit = frontLimit;
+    }
+
+    /**
+     * @return Scale (mm per pixel), 1 if unknown.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    public void setScale(final double scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * @return Turning tendency on the report, or null if no report.
+     */
+    public String getStoredTurning() {
+        return storedTurning;
+    }
+
+    public void setStoredTurning(final String storedTurning) {
+        this.storedTurning = storedTurning;
+    }
+
+    /**
+     * @return Projection tendency on the report, or null if no report.
+     */
+    public Boolean getStoredProjection() {
+        return storedProjection;
+    }
+
+    public void setStoredProjection(final Boolean storedProjection) {
+        this.storedProjection = storedProjection;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+/**
+ * Tendencies of one case by two rule versions.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class TendencyDiff {
+
+    /**
+     * Header of diff CSV (same columns as toCsvLine).
+     */
+    public static final String CSV_HEADER = "case,storedTurning,"
+            + "baseTurning,newTurning,storedProjection,baseProjection,"
+            + "newProjection,changed,error";
+
+    private final String name;
+    private String storedTurning;
+    private String baseTurning;
+    private String newTurning;
+    private Boolean storedProjection;
+    private Boolean baseProjection;
+    private Boolean newProjection;
+    private String error;
+
+    TendencyDiff(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBaseTurning() {
+        return baseTurning;
+    }
+
+    public String getNewTurning() {
+        return newTurning;
+    }
+
+    public Boolean getBaseProjection() {
+        return baseProjection;
+    }
+
+    public Boolean getNewProjection() {
+        return newProjection;
+    }
+
+    /**
+     * @return Error message, or null if the case was evaluated.
+     */
+    public String getError() {
+        return error;
+    }
+
+    void setTurning(final String stored, final String base,
+            final String candidate) {
+        storedTurning = stored;
+        baseTurning = base;
+        newTurning = candidate;
+    }
+
+    void setProjection(final Boolean stored, final Boolean base,
+            final Boolean candidate) {
+        storedProjection = stored;
+        baseProjection = base;
+        newProjection = candidate;
+    }
+
+    void setError(final String error) {
+        this.error = error;
+    }
+
+    /**
+     * @return True if a conclusion differs between the two versions.
+     */
+    public boolean isChanged() {
+        return !equal(baseTurning, newTurning)
+                || !equal(baseProjection, newProjection);
+    }
+
+    private static boolean equal(final Object one, final Object two) {
+        return one == null ? two == null : one.equals(two);
+    }
+
+    /**
+     * @return One line for the diff CSV.
+     */
+    public String toCsvLine() {
+        return CaseResult.csv(name) + "," + text(storedTurning) + ","
+                + text(baseTurning) + "," + text(newTurning) + ","
+                + text(storedProjection) + "," + text(baseProjection) + ","
+                + text(newProjection) + "," + (error == null && isChanged())
+                + "," + (error == null ? "" : CaseResult.csv(error));
+    }
+
+    private static String text(final Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
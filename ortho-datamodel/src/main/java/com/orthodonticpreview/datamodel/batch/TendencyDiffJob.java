@@ -0,0 +1,192 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.DaemonThreadFactory;
+import com.orthodonticpreview.datamodel.TendencyRule;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Recalculates turning and projection tendencies of archived cases with two
+ * rule versions (current and candidate), in parallel, to see which
+ * conclusions a change would alter.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class TendencyDiffJob {
+
+    /**
+     * Reads the cases of one archive file.
+     */
+    public interface CaseLoader {
+
+        /**
+         * @param file Archive file.
+         * @return Its cases.
+         * @throws IOException If file can't be read.
+         */
+        List<TendencyCase> load(File file) throws IOException;
+    }
+
+    private final ExecutorService executor;
+    private final TendencyRule base;
+    private final TendencyRule candidate;
+
+    /**
+     * Creates a job.
+     *
+     * @param threads Number of worker threads (at least 1).
+     * @param base Current rules.
+     * @param candidate Rules to compare with.
+     */
+    public TendencyDiffJob(final int threads, final TendencyRule base,
+            final TendencyRule candidate) {
+        this.base = base;
+        this.candidate = candidate;
+        executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                new DaemonThreadFactory("ortho-tendency"));
+    }
+
+    /**
+     * Loads and evaluates all files (each file on a worker). A file that
+     * can't be read gives one diff with its error.
+     *
+     * @param files Archive files.
+     * @param loader Reads cases of a file.
+     * @return Diffs of all cases, in files order.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public List<TendencyDiff> run(final List<File> files,
+            final CaseLoader loader) throws InterruptedException {
+        final List<Future<List<TendencyDiff>>> futures
+                = new ArrayList<Future<List<TendencyDiff>>>(files.size());
+        for (final File file : files) {
+            futures.add(executor.submit(new Callable<List<TendencyDiff>>() {
+                @Override
+                public List<TendencyDiff> call() throws IOException {
+                    final List<TendencyCase> cases = loader.load(file);
+                    final List<TendencyDiff> diffs
+                            = new ArrayList<TendencyDiff>(cases.size());
+                    for (TendencyCase data : cases) {
+                        diffs.add(evaluate(data));
+                    }
+                    return diffs;
+                }
+            }));
+        }
+
+        final List<TendencyDiff> diffs = new ArrayList<TendencyDiff>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                diffs.addAll(futures.get(i).get());
+            } catch (ExecutionException ex) {
+                final TendencyDiff failed
+                        = new TendencyDiff(files.get(i).getName());
+                failed.setError(String.valueOf(ex.getCause()));
+                diffs.add(failed);
+            }
+        }
+        return diffs;
+    }
+
+    /**
+     * Evaluates one case with both rule versions, on the caller thread.
+     *
+     * @param data Case.
+     * @return Its diff (with error set if it has no GR point).
+     */
+    public TendencyDiff evaluate(final TendencyCase data) {
+        final TendencyDiff diff = new TendencyDiff(data.getName());
+        if (data.getPointGr() == null) {
+            diff.setError("No GR point (not calculated).");
+            return diff;
+        }
+        if (data.getMidX() != null) {
+            diff.setTurning(data.getStoredTurning(),
+                    base.turning(data.getMidX(), data.getPointGr(),
+                    data.getScale()),
+                    candidate.turning(data.getMidX(), data.getPointGr(),
+                    data.getScale()));
+        } else {
+            diff.setTurning(data.getStoredTurning(), null, null);
+        }
+        if (data.getFrontLimit() != null) {
+            diff.setProjection(data.getStoredProjection(),
+                    base.projection(data.getFrontLimit(), data.getPointGr()),
+                    candidate.projection(data.getFrontLimit(),
+                    data.getPointGr()));
+        } else {
+            diff.setProjection(data.getStoredProjection(), null, null);
+        }
+        return diff;
+    }
+
+    /**
+     * Writes the diff CSV.
+     *
+     * @param diffs Diffs to write.
+     * @param file Output file.
+     * @param changedOnly True to write only changed cases and errors.
+     * @return Number of changed cases.
+     * @throws IOException If can't write.
+     */
+    public static int writeDiff(final List<TendencyDiff> diffs,
+            final File file, final boolean changedOnly) throws IOException {
+        int changed = 0;
+        final PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            writer.println(TendencyDiff.CSV_HEADER);
+            for (TendencyDiff diff : diffs) {
+                final boolean isChanged
+                        = diff.getError() == null && diff.isChanged();
+                if (isChanged) {
+                    changed++;
+                }
+                if (!changedOnly || isChanged || diff.getError() != null) {
+                    writer.println(diff.toCsvLine());
+                }
+            }
+        } finally {
+            writer.close();
+        }
+        return changed;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
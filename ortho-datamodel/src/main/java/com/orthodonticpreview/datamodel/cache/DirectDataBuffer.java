@@ -0,0 +1,81 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.cache;
+
+import java.awt.image.DataBuffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Read only DataBuffer over a direct (off-heap) ByteBuffer, so a
+ * BufferedImage can use cached pixels without copying them to the heap.
+ *
+ * Java2D reads it element by element (no native loops), so it is many times
+ * slower to draw than a heap image; it suits reading rows (getRGB), and
+ * RasterCache.Handle.copy suits drawing.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+final class DirectDataBuffer extends DataBuffer {
+
+    private final ByteBuffer bytes;
+    private final ShortBuffer shorts;
+    private final IntBuffer ints;
+
+    /**
+     * Creates a buffer.
+     *
+     * @param dataType TYPE_BYTE, TYPE_USHORT or TYPE_INT.
+     * @param pixels Pixel data (one element per sample).
+     * @param size Number of elements.
+     */
+    DirectDataBuffer(final int dataType, final ByteBuffer pixels,
+            final int size) {
+        super(dataType, size);
+        bytes = pixels.duplicate().order(pixels.order());
+        shorts = dataType == TYPE_USHORT ? bytes.asShortBuffer() : null;
+        ints = dataType == TYPE_INT ? bytes.asIntBuffer() : null;
+        if (dataType != TYPE_BYTE && shorts == null && ints == null) {
+            throw new IllegalArgumentException(
+                    "Unsupported data type: " + dataType);
+        }
+    }
+
+    @Override
+    public int getElem(final int bank, final int i) {
+        if (shorts != null) {
+            return shorts.get(i) & 0xffff;
+        } else if (ints != null) {
+            return ints.get(i);
+        }
+        return bytes.get(i) & 0xff;
+    }
+
+    /**
+     * Cached pixels are shared: writing is not allowed.
+     */
+    @Override
+    public void setElem(final int bank, final int i, final int val) {
+        throw new UnsupportedOperationException("Cached raster is read only.");
+    }
+}
@@ -0,0 +1,492 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.cache;
+
+import com.orthodonticpreview.datamodel.monitor.Metrics;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.DirectColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Application wide cache of decoded images, kept off the heap (direct
+ * ByteBuffers), so one radiograph is decoded once for reports, batch
+ * rendering and PDF export.
+ *
+ * Images are keyed by file path, modification time and length (a changed
+ * file is decoded again). Users acquire a Handle and release it when done;
+ * images not in use are evicted, least recently used first, when the cache
+ * is over its size. Images in use are never evicted, so the size can be
+ * exceeded while they are held.
+ *
+ * Pixels are kept as 8 or 16 bit gray, or 24 bit RGB (alpha is dropped).
+ * Size is -Dortho.rasterCache.mb (default 256); direct memory is also
+ * limited by -XX:MaxDirectMemorySize.
+ *
+ * <pre>
+ * final RasterCache.Handle handle = RasterCache.getInstance().acquire(file);
+ * try {
+ *     ... handle.copy(region) ...
+ * } finally {
+ *     handle.release();
+ * }
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class RasterCache {
+
+    /**
+     * Class logger.
+     */
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(RasterCache.class);
+
+    /**
+     * System property with cache size (MB).
+     */
+    public static final String PROPERTY = "ortho.rasterCache.mb";
+    /**
+     * Default cache size (MB).
+     */
+    public static final int DEFAULT_MAX_MB = 256;
+
+    /** Counter of images found on cache. */
+    public static final String HITS = "rasterCache.hits";
+    /** Counter of images decoded. */
+    public static final String MISSES = "rasterCache.misses";
+    /** Counter of images evicted. */
+    public static final String EVICTIONS = "rasterCache.evictions";
+
+    private static final RasterCache INSTANCE = new RasterCache(
+            Integer.getInteger(PROPERTY, DEFAULT_MAX_MB) * 1024L * 1024L);
+
+    /**
+     * Identity of an image file.
+     */
+    private static final class Key {
+
+        private final String path;
+        private final long modified;
+        private final long length;
+
+        Key(final File file) throws IOException {
+            path = file.getCanonicalPath();
+            modified = file.lastModified();
+            length = file.length();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return path.equals(other.path) && modified == other.modified
+                    && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + (int) (modified ^ length);
+        }
+
+        @Override
+        public String toString() {
+            return path;
+        }
+    }
+
+    /**
+     * One decoded image.
+     */
+    private static final class Entry {
+
+        private final Key key;
+        private final ByteBuffer pixels;
+        private final int width;
+        private final int height;
+        private final int dataType;
+        private int refs;
+        private BufferedImage view;
+
+        Entry(final Key key, final ByteBuffer pixels, final int width,
+                final int height, final int dataType) {
+            this.key = key;
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.dataType = dataType;
+        }
+
+        long getBytes() {
+            return pixels.capacity();
+        }
+
+        ByteBuffer getPixels() {
+            return pixels.duplicate().order(pixels.order());
+        }
+
+        synchronized BufferedImage getView() {
+            if (view == null) {
+                final WritableRaster raster = Raster.createWritableRaster(
+                        createSampleModel(dataType, width, height),
+                        new DirectDataBuffer(dataType, pixels,
+                                width * height), null);
+                view = new BufferedImage(createColorModel(dataType), raster,
+                        false, null);
+            }
+            return view;
+        }
+    }
+
+    /**
+     * Use of one cached image, until released.
+     */
+    public static final class Handle {
+
+        private final RasterCache cache;
+        private final Entry entry;
+        private boolean released;
+
+        private Handle(final RasterCache cache, final Entry entry) {
+            this.cache = cache;
+            this.entry = entry;
+        }
+
+        public int getWidth() {
+            return entry.width;
+        }
+
+        public int getHeight() {
+            return entry.height;
+        }
+
+        /**
+         * Gets the image, backed by the cached (off-heap) pixels. It is read
+         * only, slow to draw (see copy) and must not be used after release.
+         *
+         * @return The image.
+         */
+        public BufferedImage getImage() {
+            checkReleased();
+            return entry.getView();
+        }
+
+        /**
+         * Copies part of the image to a new (heap) image.
+         *
+         * @param region Region to copy (clipped to the image).
+         * @return New image with pixels of region: TYPE_BYTE_GRAY,
+         * TYPE_USHORT_GRAY or TYPE_INT_RGB.
+         * @throws IllegalArgumentException If region is out of the image.
+         */
+        public BufferedImage copy(final Rectangle region) {
+            checkReleased();
+            final Rectangle clip = region.intersection(
+                    new Rectangle(entry.width, entry.height));
+            if (clip.isEmpty()) {
+                throw new IllegalArgumentException("Region out of image: "
+                        + region);
+            }
+            final ByteBuffer pixels = entry.getPixels();
+            final BufferedImage image;
+            if (entry.dataType == DataBuffer.TYPE_BYTE) {
+                image = new BufferedImage(clip.width, clip.height,
+                        BufferedImage.TYPE_BYTE_GRAY);
+                final byte[] data = ((DataBufferByte) image.getRaster()
+                        .getDataBuffer()).getData();
+                for (int y = 0; y < clip.height; y++) {
+                    pixels.position((clip.y + y) * entry.width + clip.x);
+                    pixels.get(data, y * clip.width, clip.width);
+                }
+            } else if (entry.dataType == DataBuffer.TYPE_USHORT) {
+                image = new BufferedImage(clip.width, clip.height,
+                        BufferedImage.TYPE_USHORT_GRAY);
+                final short[] data = ((DataBufferUShort) image.getRaster()
+                        .getDataBuffer()).getData();
+                final ShortBuffer shorts = pixels.asShortBuffer();
+                for (int y = 0; y < clip.height; y++) {
+                    shorts.position((clip.y + y) * entry.width + clip.x);
+                    shorts.get(data, y * clip.width, clip.width);
+                }
+            } else {
+                image = new BufferedImage(clip.width, clip.height,
+                        BufferedImage.TYPE_INT_RGB);
+                final int[] data = ((DataBufferInt) image.getRaster()
+                        .getDataBuffer()).getData();
+                final IntBuffer ints = pixels.asIntBuffer();
+                for (int y = 0; y < clip.height; y++) {
+                    ints.position((clip.y + y) * entry.width + clip.x);
+                    ints.get(data, y * clip.width, clip.width);
+                }
+            }
+            return image;
+        }
+
+        /**
+         * Gives the image back to the cache (can be called more than once).
+         */
+        public void release() {
+            synchronized (cache) {
+                if (!released) {
+                    released = true;
+                    cache.release(entry);
+                }
+            }
+        }
+
+        private void checkReleased() {
+            synchronized (cache) {
+                if (released) {
+                    throw new IllegalStateException("Handle was released.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Entries, least recently used first.
+     */
+    private final Map<Key, Entry> entries
+            = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+    private long maxBytes;
+    private long bytes;
+
+    /**
+     * Creates a cache (the application uses getInstance).
+     *
+     * @param maxBytes Size (bytes).
+     */
+    public RasterCache(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return The application cache.
+     */
+    public static RasterCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets an image, decoding it if not on cache.
+     *
+     * @param file Image file (any format ImageIO reads).
+     * @return Handle to the image; release it when done.
+     * @throws IOException If file can't be read.
+     */
+    public Handle acquire(final File file) throws IOException {
+        final Key key = new Key(file);
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (entry != null) {
+                Metrics.increment(HITS);
+                entry.refs++;
+                return new Handle(this, entry);
+            }
+        }
+        Metrics.increment(MISSES);
+        //decoded out of the lock: other images can be used meanwhile.
+        final Entry decoded = decode(key, file);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                removeStale(key);
+                entry = decoded;
+                entries.put(key, entry);
+                bytes += entry.getBytes();
+            }
+            entry.refs++;
+            evict(0);
+            return new Handle(this, entry);
+        }
+    }
+
+    /**
+     * @return Bytes used by cached images.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return Number of cached images.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Changes the size, evicting images if needed.
+     *
+     * @param max Size (bytes).
+     */
+    public synchronized void setMaxBytes(final long max) {
+        maxBytes = max;
+        evict(0);
+    }
+
+    /**
+     * Evicts all images not in use.
+     */
+    public synchronized void clear() {
+        final long max = maxBytes;
+        maxBytes = 0;
+        evict(0);
+        maxBytes = max;
+    }
+
+    private synchronized void release(final Entry entry) {
+        entry.refs--;
+        evict(0);
+    }
+
+    /**
+     * Evicts images not in use until there is room for more bytes.
+     */
+    private synchronized void evict(final long more) {
+        final Iterator<Entry> iter = entries.values().iterator();
+        while (bytes + more > maxBytes && iter.hasNext()) {
+            final Entry entry = iter.next();
+            if (entry.refs == 0) {
+                iter.remove();
+                bytes -= entry.getBytes();
+                Metrics.increment(EVICTIONS);
+                LOGGER.debug("Evicted {}", entry.key);
+            }
+        }
+    }
+
+    /**
+     * Removes older versions (not in use) of a file.
+     */
+    private void removeStale(final Key key) {
+        final Iterator<Entry> iter = entries.values().iterator();
+        while (iter.hasNext()) {
+            final Entry entry = iter.next();
+            if (entry.refs == 0 && entry.key.path.equals(key.path)) {
+                iter.remove();
+                bytes -= entry.getBytes();
+            }
+        }
+    }
+
+    /**
+     * Decodes an image to direct memory.
+     */
+    private Entry decode(final Key key, final File file) throws IOException {
+        final BufferedImage image = ImageIO.read(file);
+        if (image == null) {
+            throw new IOException("Can't read image " + file);
+        }
+        final Raster raster = image.getRaster();
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int dataType;
+        if (raster.getNumBands() == 1
+                && !(image.getColorModel() instanceof IndexColorModel)) {
+            dataType = raster.getSampleModel().getSampleSize(0) > 8
+                    ? DataBuffer.TYPE_USHORT : DataBuffer.TYPE_BYTE;
+        } else {
+            dataType = DataBuffer.TYPE_INT;
+        }
+        final int size = width * height
+                * DataBuffer.getDataTypeSize(dataType) / 8;
+        synchronized (this) {
+            evict(size);
+        }
+        final ByteBuffer pixels = ByteBuffer.allocateDirect(size)
+                .order(ByteOrder.nativeOrder());
+
+        final int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            if (dataType == DataBuffer.TYPE_INT) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+            } else {
+                raster.getSamples(raster.getMinX(), raster.getMinY() + y,
+                        width, 1, 0, row);
+            }
+            for (int x = 0; x < width; x++) {
+                if (dataType == DataBuffer.TYPE_BYTE) {
+                    pixels.put((byte) row[x]);
+                } else if (dataType == DataBuffer.TYPE_USHORT) {
+                    pixels.putShort((short) row[x]);
+                } else {
+                    pixels.putInt(row[x] & 0xffffff);
+                }
+            }
+        }
+        pixels.clear();
+        LOGGER.debug("Decoded {} ({} bytes)", key, size);
+        return new Entry(key, pixels, width, height, dataType);
+    }
+
+    private static SampleModel createSampleModel(final int dataType,
+            final int width, final int height) {
+        if (dataType == DataBuffer.TYPE_INT) {
+            return new SinglePixelPackedSampleModel(dataType, width, height,
+                    new int[]{0xff0000, 0xff00, 0xff});
+        }
+        return new PixelInterleavedSampleModel(dataType, width, height, 1,
+                width, new int[]{0});
+    }
+
+    private static ColorModel createColorModel(final int dataType) {
+        if (dataType == DataBuffer.TYPE_INT) {
+            return new DirectColorModel(24, 0xff0000, 0xff00, 0xff);
+        }
+        return new ComponentColorModel(
+                ColorSpace.getInstance(ColorSpace.CS_GRAY),
+                new int[]{DataBuffer.getDataTypeSize(dataType)}, false, false,
+                Transparency.OPAQUE, dataType);
+    }
+}
@@ -0,0 +1,572 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.cache;
+
+import com.orthodonticpreview.datamodel.DaemonThreadFactory;
+import com.orthodonticpreview.datamodel.monitor.Metrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.SwingUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background service of small image previews, for the explorer and the
+ * wizard.
+ *
+ * Thumbnails are decoded on a small pool, reading only one of every N
+ * pixels (source subsampling), so a radiograph is never fully decoded for a
+ * preview. Decoding also validates the file: requests for files that can't
+ * be read fail with the reason; files of a format ImageIO does not know
+ * (that the viewer may still open with its own codecs) are only reported as
+ * unsupported. Thumbnails are kept in memory and as PNG files on disk
+ * (-Dortho.thumbnails.dir, default
+ * user.home/.orthodontic-preview/thumbnails), keyed by file path,
+ * modification time and length, so browsing studies again reads only the
+ * small files. The disk cache is pruned of its least recently used files
+ * when it grows over DISK_BYTES.
+ *
+ * All file work (including the key) is done on the pool; callbacks are
+ * called on the event dispatch thread.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class ThumbnailService {
+
+    /**
+     * Class logger.
+     */
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(ThumbnailService.class);
+
+    /**
+     * System property with disk cache directory.
+     */
+    public static final String DIR_PROPERTY = "ortho.thumbnails.dir";
+    /**
+     * Default size (pixels) of the larger side of thumbnails.
+     */
+    public static final int DEFAULT_SIZE = 128;
+
+    /** Counter of thumbnails found in memory. */
+    public static final String HITS = "thumbnails.hits";
+    /** Counter of thumbnails read from disk cache. */
+    public static final String DISK_HITS = "thumbnails.diskHits";
+    /** Counter of images decoded. */
+    public static final String DECODES = "thumbnails.decodes";
+
+    /**
+     * Thumbnails kept in memory.
+     */
+    private static final int MEMORY_ENTRIES = 256;
+    /**
+     * Default maximum size of the disk cache (bytes).
+     */
+    public static final long DISK_BYTES = 64L * 1024 * 1024;
+    /**
+     * Thumbnails written between two prunes of the disk cache.
+     */
+    private static final int PRUNE_WRITES = 64;
+    /**
+     * Age of a temporary file left by an interrupted write (ms).
+     */
+    private static final long STALE_TEMP = TimeUnit.HOURS.toMillis(1);
+
+    private static ThumbnailService instance;
+
+    /**
+     * Receives a requested thumbnail (on the event dispatch thread).
+     */
+    public interface Callback {
+
+        /**
+         * @param file Image file.
+         * @param thumbnail Its thumbnail.
+         */
+        void thumbnailReady(File file, BufferedImage thumbnail);
+
+        /**
+         * @param file Image file.
+         * @param reason Why it could not be read (missing or unreadable).
+         */
+        void thumbnailFailed(File file, String reason);
+
+        /**
+         * The file is readable, but ImageIO does not know its format, so
+         * there is no thumbnail. It is not an error: the viewer may still
+         * open it.
+         *
+         * @param file Image file.
+         */
+        void thumbnailUnsupported(File file);
+    }
+
+    /**
+     * Thrown by decode for a readable file of a format ImageIO does not know.
+     */
+    public static class UnsupportedFormatException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param file Image file.
+         */
+        public UnsupportedFormatException(final File file) {
+            super("Not a known image format: " + file);
+        }
+    }
+
+    private final File directory;
+    private final long diskBytes;
+    private final AtomicInteger writes = new AtomicInteger();
+    private final int size;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, BufferedImage> memory
+            = new LinkedHashMap<String, BufferedImage>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, BufferedImage> eldest) {
+                    return size() > MEMORY_ENTRIES;
+                }
+            };
+    /**
+     * Callbacks of thumbnails being loaded, by key (a file requested twice is
+     * decoded once).
+     */
+    private final Map<String, List<Callback>> waiting
+            = new HashMap<String, List<Callback>>();
+
+    /**
+     * Creates a service, with a disk cache of DISK_BYTES.
+     *
+     * @param directory Disk cache directory (null for no disk cache).
+     * @param size Size of the larger side of thumbnails.
+     * @param threads Number of decoding threads.
+     */
+    ThumbnailService(final File directory, final int size,
+            final int threads) {
+        this(directory, DISK_BYTES, size, threads);
+    }
+
+    /**
+     * Creates a service. The disk cache is pruned on the pool.
+     *
+     * @param directory Disk cache directory (null for no disk cache).
+     * @param diskBytes Maximum size of the disk cache (bytes).
+     * @param size Size of the larger side of thumbnails.
+     * @param threads Number of decoding threads.
+     */
+    ThumbnailService(final File directory, final long diskBytes,
+            final int size, final int threads) {
+        this.directory = directory;
+        this.diskBytes = diskBytes;
+        this.size = size;
+        executor = new ThreadPoolExecutor(threads, threads, 30,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new DaemonThreadFactory("ortho-thumbnail",
+                        Thread.MIN_PRIORITY));
+        executor.allowCoreThreadTimeOut(true);
+        if (directory != null) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    prune();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return The application service (created on first call).
+     */
+    public static synchronized ThumbnailService getInstance() {
+        if (instance == null) {
+            final String dir = System.getProperty(DIR_PROPERTY,
+                    System.getProperty("user.home") + File.separator
+                    + ".orthodontic-preview" + File.separator + "thumbnails");
+            final int threads = Math.max(1, Math.min(2,
+                    Runtime.getRuntime().availableProcessors() / 2));
+            instance = new ThumbnailService(new File(dir), DEFAULT_SIZE,
+                    threads);
+        }
+        return instance;
+    }
+
+    /**
+     * @return Size of the larger side of thumbnails.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Requests the thumbnail of an image file. Returns at once; the callback
+     * is called later, on the event dispatch thread.
+     *
+     * @param file Image file.
+     * @param callback Callback (null to only load it on caches).
+     */
+    public void request(final File file, final Callback callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                serve(file, callback);
+            }
+        });
+    }
+
+    /**
+     * Loads a requested thumbnail (on the pool) and delivers it to all
+     * callbacks waiting for the same file.
+     */
+    private void serve(final File file, final Callback callback) {
+        final String key;
+        try {
+            key = key(file);
+        } catch (IOException ex) {
+            deliver(callback, file, null, ex.getMessage(), false);
+            return;
+        }
+        final BufferedImage cached = getCached(key);
+        if (cached != null) {
+            Metrics.increment(HITS);
+            deliver(callback, file, cached, null, false);
+            return;
+        }
+        synchronized (waiting) {
+            final List<Callback> callbacks = waiting.get(key);
+            if (callbacks != null) {
+                //being loaded by another thread, that delivers it
+                callbacks.add(callback);
+                return;
+            }
+            final List<Callback> list = new ArrayList<Callback>(1);
+            list.add(callback);
+            waiting.put(key, list);
+        }
+        BufferedImage thumbnail = null;
+        String error = null;
+        boolean unsupported = false;
+        try {
+            thumbnail = load(file, key);
+        } catch (UnsupportedFormatException ex) {
+            unsupported = true;
+        } catch (IOException ex) {
+            error = ex.getMessage();
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Can't read thumbnail of {}", file, ex);
+            error = ex.toString();
+        }
+        final List<Callback> callbacks;
+        synchronized (waiting) {
+            callbacks = waiting.remove(key);
+        }
+        for (Callback one : callbacks) {
+            deliver(one, file, thumbnail, error, unsupported);
+        }
+    }
+
+    /**
+     * Gets the thumbnail of an image file, on calling thread.
+     *
+     * @param file Image file.
+     * @return Its thumbnail.
+     * @throws IOException If the file can't be read as an image.
+     */
+    public BufferedImage getThumbnail(final File file) throws IOException {
+        final String key = key(file);
+        final BufferedImage cached = getCached(key);
+        if (cached != null) {
+            Metrics.increment(HITS);
+            return cached;
+        }
+        return load(file, key);
+    }
+
+    private void deliver(final Callback callback, final File file,
+            final BufferedImage thumbnail, final String error,
+            final boolean unsupported) {
+        if (callback == null) {
+            return;
+        }
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                if (thumbnail != null) {
+                    callback.thumbnailReady(file, thumbnail);
+                } else if (unsupported) {
+                    callback.thumbnailUnsupported(file);
+                } else {
+                    callback.thumbnailFailed(file, error);
+                }
+            }
+        });
+    }
+
+    private BufferedImage getCached(final String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private BufferedImage load(final File file, final String key)
+            throws IOException {
+        BufferedImage thumbnail = readDisk(key);
+        if (thumbnail != null) {
+            Metrics.increment(DISK_HITS);
+        } else {
+            final long start = System.nanoTime();
+            thumbnail = decode(file, size);
+            Metrics.increment(DECODES);
+            Metrics.time(Metrics.THUMBNAIL, start);
+            writeDisk(key, thumbnail);
+        }
+        synchronized (memory) {
+            memory.put(key, thumbnail);
+        }
+        return thumbnail;
+    }
+
+    private BufferedImage readDisk(final String key) {
+        if (directory == null) {
+            return null;
+        }
+        final File cached = new File(directory, key + ".png");
+        if (!cached.isFile()) {
+            return null;
+        }
+        try {
+            //most recently used are kept when pruning
+            cached.setLastModified(System.currentTimeMillis());
+            return ImageIO.read(cached);
+        } catch (IOException ex) {
+            LOGGER.debug("Can't read cached thumbnail {}: {}", cached,
+                    ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeDisk(final String key, final BufferedImage thumbnail) {
+        if (directory == null
+                || (!directory.isDirectory() && !directory.mkdirs())) {
+            return;
+        }
+        final File cached = new File(directory, key + ".png");
+        try {
+            //written aside and renamed, so a partial file is never read
+            final File temp = File.createTempFile(key, ".tmp", directory);
+            if (!ImageIO.write(thumbnail, "png", temp)
+                    || !temp.renameTo(cached)) {
+                temp.delete();
+            }
+        } catch (IOException ex) {
+            LOGGER.debug("Can't write cached thumbnail {}: {}", cached,
+                    ex.getMessage());
+        }
+        if (writes.incrementAndGet() % PRUNE_WRITES == 0) {
+            prune();
+        }
+    }
+
+    /**
+     * Deletes the least recently used thumbnails of the disk cache while it
+     * is over its maximum size, and temporary files of interrupted writes.
+     * Synchronized: two prunes at once would both delete for the same excess.
+     */
+    synchronized void prune() {
+        final File[] files = directory == null ? null : directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final List<File> thumbnails = new ArrayList<File>(files.length);
+        final Map<File, Long> modified = new HashMap<File, Long>();
+        long total = 0;
+        for (File file : files) {
+            final String name = file.getName();
+            if (name.endsWith(".tmp")) {
+                if (now - file.lastModified() > STALE_TEMP) {
+                    file.delete();
+                }
+            } else if (name.endsWith(".png") && file.isFile()) {
+                thumbnails.add(file);
+                modified.put(file, file.lastModified());
+                total += file.length();
+            }
+        }
+        if (total <= diskBytes) {
+            return;
+        }
+        Collections.sort(thumbnails, new Comparator<File>() {
+            @Override
+            public int compare(final File f1, final File f2) {
+                return modified.get(f1).compareTo(modified.get(f2));
+            }
+        });
+        int deleted = 0;
+        for (File file : thumbnails) {
+            if (total <= diskBytes) {
+                break;
+            }
+            final long length = file.length();
+            if (file.delete()) {
+                total -= length;
+                deleted++;
+            }
+        }
+        LOGGER.debug("Pruned {} thumbnail(s) from {}", deleted, directory);
+    }
+
+    /**
+     * Decodes a reduced image, reading only the pixels needed.
+     *
+     * @param file Image file.
+     * @param size Size of the larger side of result.
+     * @return The thumbnail (RGB).
+     * @throws IOException If the file can't be read as an image
+     * (UnsupportedFormatException if ImageIO does not know its format).
+     */
+    public static BufferedImage decode(final File file, final int size)
+            throws IOException {
+        if (!file.isFile() || !file.canRead()) {
+            throw new IOException("Can't read " + file);
+        }
+        final ImageInputStream input = ImageIO.createImageInputStream(file);
+        if (input == null) {
+            throw new IOException("Can't read " + file);
+        }
+        try {
+            final Iterator<ImageReader> readers
+                    = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new UnsupportedFormatException(file);
+            }
+            final ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                final int width = reader.getWidth(0);
+                final int height = reader.getHeight(0);
+                //read at least twice the size, for a smooth scale down
+                final int step
+                        = Math.max(1, Math.max(width, height) / (2 * size));
+                final ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return scale(reader.read(0, param), size);
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            input.close();
+        }
+    }
+
+    private static BufferedImage scale(final BufferedImage image,
+            final int size) {
+        final double ratio = Math.min(1.0,
+                (double) size / Math.max(image.getWidth(), image.getHeight()));
+        final int width = Math.max(1,
+                (int) Math.round(image.getWidth() * ratio));
+        final int height = Math.max(1,
+                (int) Math.round(image.getHeight() * ratio));
+        final BufferedImage thumbnail
+                = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g2d = thumbnail.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g2d.dispose();
+        }
+        return thumbnail;
+    }
+
+    /**
+     * Name of cached thumbnail: hash of path, modification time and length.
+     */
+    private static String key(final File file) throws IOException {
+        if (!file.isFile() || !file.canRead()) {
+            throw new IOException("Can't read " + file);
+        }
+        final String identity = file.getCanonicalPath() + "|"
+                + file.lastModified() + "|" + file.length();
+        try {
+            final byte[] hash = MessageDigest.getInstance("SHA-1")
+                    .digest(identity.getBytes("UTF-8"));
+            final StringBuilder text = new StringBuilder(hash.length * 2);
+            for (byte value : hash) {
+                text.append(Character.forDigit((value >> 4) & 0xf, 16))
+                        .append(Character.forDigit(value & 0xf, 16));
+            }
+            return text.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Clears thumbnails kept in memory (disk cache is kept).
+     */
+    public void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    /**
+     * Stops decoding threads (requests waiting are dropped).
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stops the application service, if it was created.
+     */
+    public static synchronized void shutdownInstance() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.ceph;
+
+/**
+ * Norm of one cephalometric parameter for a population and age range: sorted
+ * thresholds and the conclusion of each interval between them.
+ *
+ * A value below thresholds[0] gets conclusions[0]; a value from thresholds[i]
+ * up to (not including) thresholds[i + 1] gets conclusions[i + 1].
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class CephNorm {
+
+    private final String parameter;
+    private final String population;
+    private final Double minAge;
+    private final Double maxAge;
+    private final double[] thresholds;
+    private final String[] conclusions;
+
+    /**
+     * Creates a norm.
+     *
+     * @param parameter Parameter name (as its tag name).
+     * @param population Population name.
+     * @param minAge Minimum age (inclusive), or null for no limit.
+     * @param maxAge Maximum age (exclusive), or null for no limit.
+     * @param thresholds Limits between conclusions, ascending.
+     * @param conclusions One more than thresholds.
+     */
+    public CephNorm(final String parameter, final String population,
+            final Double minAge, final Double maxAge,
+            final double[] thresholds, final String[] conclusions) {
+        if (conclusions.length != thresholds.length + 1) {
+            throw new IllegalArgumentException("Need "
+                    + (thresholds.length + 1) + " conclusions for "
+                    + thresholds.length + " limits");
+        }
+        for (int i = 1; i < thresholds.length; i++) {
+            if (!(thresholds[i - 1] < thresholds[i])) {
+                throw new IllegalArgumentException(
+                        "Limits must be ascending");
+            }
+        }
+        this.parameter = parameter;
+        this.population = population;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.thresholds = thresholds.clone();
+        this.conclusions = conclusions.clone();
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public String getPopulation() {
+        return population;
+    }
+
+    public Double getMinAge() {
+        return minAge;
+    }
+
+    public Double getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * @return True if this norm is limited to an age range.
+     */
+    public boolean isAgeSpecific() {
+        return minAge != null || maxAge != null;
+    }
+
+    /**
+     * @param age Patient age, or null if unknown.
+     * @return True if age is on this norm range (unknown age only matches
+     * norms without a range).
+     */
+    public boolean acceptsAge(final Double age) {
+        if (age == null) {
+            return !isAgeSpecific();
+        }
+        return (minAge == null || age >= minAge)
+                && (maxAge == null || age < maxAge);
+    }
+
+    /**
+     * Finds the interval of a value (binary search on thresholds).
+     *
+     * @param value Parameter value.
+     * @return Index of its conclusion.
+     */
+    public int indexOf(final double value) {
+        int low = 0;
+        int high = thresholds.length;
+        //first threshold greater than value.
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param value Parameter value.
+     * @return Conclusion for the value.
+     */
+    public String classify(final double value) {
+        return conclusions[indexOf(value)];
+    }
+
+    /**
+     * @return True if both norms are for the same parameter, population and
+     * age range.
+     */
+    boolean sameScope(final CephNorm other) {
+        return parameter.equals(other.parameter)
+                && population.equalsIgnoreCase(other.population)
+                && equal(minAge, other.minAge)
+                && equal(maxAge, other.maxAge);
+    }
+
+    private static boolean equal(final Double one, final Double two) {
+        return one == null ? two == null : one.equals(two);
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.ceph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cephalometric norms by parameter, read from norm files.
+ *
+ * Each line of a norm file is one norm, fields separated by ';' and lists by
+ * '|'; lines starting with '#' are comments:
+ *
+ * <pre>
+ * parameter;population;minAge;maxAge;limits;conclusions
+ * SNA;default;;;82|83;CephParameter.5c1|CephParameter.5c2|CephParameter.5c3
+ * SNA;default;6;12;80|82;...
+ * </pre>
+ *
+ * Empty ages mean no limit. A norm read later replaces one of the same
+ * parameter, population and ages (so a clinic file can override the
+ * defaults).
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class CephNormTable {
+
+    /**
+     * Population used when no other matches.
+     */
+    public static final String DEFAULT_POPULATION = "default";
+
+    /** Leading number of an age text ("12", "12,5 anos"...). */
+    private static final Pattern AGE = Pattern.compile(
+            "^\\s*(\\d+(?:[.,]\\d+)?)");
+
+    /** Norms by parameter, in reading order. */
+    private final Map<String, List<CephNorm>> norms
+            = new HashMap<String, List<CephNorm>>();
+
+    /**
+     * Adds a norm, replacing the one of same scope.
+     *
+     * @param norm Norm to add.
+     */
+    public void add(final CephNorm norm) {
+        List<CephNorm> list = norms.get(norm.getParameter());
+        if (list == null) {
+            list = new ArrayList<CephNorm>(2);
+            norms.put(norm.getParameter(), list);
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).sameScope(norm)) {
+                list.remove(i);
+                break;
+            }
+        }
+        list.add(norm);
+    }
+
+    /**
+     * Adds norms of a file.
+     *
+     * @param name Source name, for error messages.
+     * @param source File content.
+     * @throws IOException If can't read or a line is not valid.
+     */
+    public void read(final String name, final Reader source)
+            throws IOException {
+        final BufferedReader reader = new BufferedReader(source);
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                add(parseLine(line));
+            } catch (IllegalArgumentException ex) {
+                throw new IOException(name + ", line " + lineNumber + ": "
+                        + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    private static CephNorm parseLine(final String line) {
+        final String[] fields = line.split("\\s*;\\s*", -1);
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Expected 6 fields, found "
+                    + fields.length);
+        }
+        final String[] limitTexts = fields[4].split("\\s*\\|\\s*");
+        final double[] limits = new double[limitTexts.length];
+        for (int i = 0; i < limits.length; i++) {
+            limits[i] = Double.parseDouble(limitTexts[i]);
+        }
+        return new CephNorm(fields[0],
+                fields[1].isEmpty() ? DEFAULT_POPULATION : fields[1],
+                parseOptional(fields[2]), parseOptional(fields[3]),
+                limits, fields[5].split("\\s*\\|\\s*"));
+    }
+
+    private static Double parseOptional(final String text) {
+        return text.isEmpty() ? null : Double.valueOf(text);
+    }
+
+    /**
+     * Finds the norm for a patient: one of the population is preferred to a
+     * default one, and one for the age to one for any age.
+     *
+     * @param parameter Parameter name.
+     * @param population Population name (null for default).
+     * @param age Patient age, or null if unknown.
+     * @return The norm, or null if there is none.
+     */
+    public CephNorm find(final String parameter, final String population,
+            final Double age) {
+        final List<CephNorm> list = norms.get(parameter);
+        if (list == null) {
+            return null;
+        }
+        CephNorm best = null;
+        int bestScore = -1;
+        for (int i = list.size() - 1; i >= 0; i--) {
+            final CephNorm norm = list.get(i);
+            if (!norm.acceptsAge(age)) {
+                continue;
+            }
+            int score;
+            if (population != null
+                    && population.equalsIgnoreCase(norm.getPopulation())) {
+                score = 2;
+            } else if (DEFAULT_POPULATION.equalsIgnoreCase(
+                    norm.getPopulation())) {
+                score = 0;
+            } else {
+                continue;
+            }
+            if (norm.isAgeSpecific()) {
+                score++;
+            }
+            if (score > bestScore) {
+                best = norm;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Classifies a value.
+     *
+     * @param parameter Parameter name.
+     * @param population Population name (null for default).
+     * @param age Patient age, or null if unknown.
+     * @param value Parameter value.
+     * @return Conclusion, or null if there is no norm.
+     */
+    public String classify(final String parameter, final String population,
+            final Double age, final double value) {
+        final CephNorm norm = find(parameter, population, age);
+        return norm == null ? null : norm.classify(value);
+    }
+
+    /**
+     * @return True if there are no norms.
+     */
+    public boolean isEmpty() {
+        return norms.isEmpty();
+    }
+
+    /**
+     * Reads an age typed by the user.
+     *
+     * @param text Age text (its leading number is used).
+     * @return Age, or null if text does not start with a number.
+     */
+    public static Double parseAge(final Object text) {
+        if (!(text instanceof String)) {
+            return null;
+        }
+        final Matcher matcher = AGE.matcher((String) text);
+        if (!matcher.find()) {
+            return null;
+        }
+        return Double.valueOf(matcher.group(1).replace(',', '.'));
+    }
+}
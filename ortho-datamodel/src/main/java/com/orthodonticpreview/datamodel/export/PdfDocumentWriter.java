@@ -0,0 +1,260 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.export;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a PDF document page by page, so only the page being written is kept
+ * in memory. The page tree is written on close.
+ *
+ * Not thread safe: build pages (and their images) on any thread, but add them
+ * from one thread, in order.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class PdfDocumentWriter implements Closeable {
+
+    /** Resource name of the regular font. */
+    static final String FONT = "F1";
+    /** Resource name of the bold font. */
+    static final String BOLD_FONT = "F2";
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private static final int CATALOG_ID = 1;
+    private static final int PAGES_ID = 2;
+    private static final int FONT_ID = 3;
+    private static final int BOLD_FONT_ID = 4;
+
+    /**
+     * Counts bytes written (for the cross reference table).
+     */
+    private static final class CountingStream extends OutputStream {
+
+        private final OutputStream out;
+        private long count;
+
+        CountingStream(final OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len)
+                throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private final CountingStream out;
+    /** Offsets of objects, by object number - 1. */
+    private final List<Long> offsets = new ArrayList<Long>();
+    private final List<Integer> pageIds = new ArrayList<Integer>();
+    /** Images already written (shared by pages). */
+    private final Map<PdfImage, Integer> imageIds
+            = new WeakHashMap<PdfImage, Integer>();
+    private boolean closed;
+
+    /**
+     * Starts a document.
+     *
+     * @param stream Where to write (closed with the writer).
+     * @throws IOException If can't write.
+     */
+    public PdfDocumentWriter(final OutputStream stream) throws IOException {
+        out = new CountingStream(new BufferedOutputStream(stream, 1 << 16));
+        write("%PDF-1.4\n");
+        //binary marker, so transfer tools keep it binary.
+        out.write(new byte[] {'%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF,
+            (byte) 0xD3, '\n'});
+
+        for (int i = 0; i < BOLD_FONT_ID; i++) {
+            offsets.add(null);
+        }
+        startObject(CATALOG_ID);
+        write("<< /Type /Catalog /Pages " + PAGES_ID + " 0 R >>\nendobj\n");
+        startObject(FONT_ID);
+        write("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica"
+                + " /Encoding /WinAnsiEncoding >>\nendobj\n");
+        startObject(BOLD_FONT_ID);
+        write("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold"
+                + " /Encoding /WinAnsiEncoding >>\nendobj\n");
+    }
+
+    /**
+     * Writes a page (and its images not written yet).
+     *
+     * @param page Page to write.
+     * @throws IOException If can't write.
+     */
+    public void addPage(final PdfPage page) throws IOException {
+        if (closed) {
+            throw new IOException("Document is closed");
+        }
+        final StringBuilder xObjects = new StringBuilder();
+        final List<PdfImage> images = page.getImages();
+        for (int i = 0; i < images.size(); i++) {
+            xObjects.append(" /Im").append(i).append(' ')
+                    .append(writeImage(images.get(i))).append(" 0 R");
+        }
+
+        final byte[] content = deflate(page.getContent());
+        final int contentId = newObject();
+        startObject(contentId);
+        write("<< /Length " + content.length
+                + " /Filter /FlateDecode >>\nstream\n");
+        out.write(content);
+        write("\nendstream\nendobj\n");
+
+        final int pageId = newObject();
+        startObject(pageId);
+        write("<< /Type /Page /Parent " + PAGES_ID + " 0 R /MediaBox [0 0 "
+                + PdfPage.num(page.getWidth()) + " "
+                + PdfPage.num(page.getHeight()) + "] /Resources << /Font << /"
+                + FONT + " " + FONT_ID + " 0 R /" + BOLD_FONT + " "
+                + BOLD_FONT_ID + " 0 R >>"
+                + (xObjects.length() > 0
+                        ? " /XObject <<" + xObjects + " >>" : "")
+                + " >> /Contents " + contentId + " 0 R >>\nendobj\n");
+        pageIds.add(pageId);
+    }
+
+    /**
+     * @return Number of pages added.
+     */
+    public int getPageCount() {
+        return pageIds.size();
+    }
+
+    /**
+     * Writes the page tree and the cross reference table, and closes the
+     * stream.
+     *
+     * @throws IOException If can't write.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            final StringBuilder kids = new StringBuilder();
+            for (Integer id : pageIds) {
+                kids.append(id).append(" 0 R ");
+            }
+            startObject(PAGES_ID);
+            write("<< /Type /Pages /Kids [" + kids + "] /Count "
+                    + pageIds.size() + " >>\nendobj\n");
+
+            final long xref = out.count;
+            final StringBuilder table = new StringBuilder();
+            table.append("xref\n0 ").append(offsets.size() + 1)
+                    .append("\n0000000000 65535 f \n");
+            for (Long offset : offsets) {
+                final String number = Long.toString(offset);
+                for (int i = number.length(); i < 10; i++) {
+                    table.append('0');
+                }
+                table.append(number).append(" 00000 n \n");
+            }
+            table.append("trailer\n<< /Size ").append(offsets.size() + 1)
+                    .append(" /Root ").append(CATALOG_ID)
+                    .append(" 0 R >>\nstartxref\n").append(xref)
+                    .append("\n%%EOF\n");
+            write(table.toString());
+        } finally {
+            out.close();
+        }
+    }
+
+    private int writeImage(final PdfImage image) throws IOException {
+        Integer id = imageIds.get(image);
+        if (id == null) {
+            id = newObject();
+            startObject(id);
+            final byte[] data = image.getData();
+            write("<< /Type /XObject /Subtype /Image /Width "
+                    + image.getWidth() + " /Height " + image.getHeight()
+                    + " /ColorSpace /DeviceRGB /BitsPerComponent 8"
+                    + " /Filter /FlateDecode /Length " + data.length
+                    + " >>\nstream\n");
+            out.write(data);
+            write("\nendstream\nendobj\n");
+            imageIds.put(image, id);
+        }
+        return id;
+    }
+
+    private int newObject() {
+        offsets.add(null);
+        return offsets.size();
+    }
+
+    private void startObject(final int id) throws IOException {
+        offsets.set(id - 1, out.count);
+        write(id + " 0 obj\n");
+    }
+
+    private void write(final String text) throws IOException {
+        out.write(text.getBytes(ASCII));
+    }
+
+    private static byte[] deflate(final byte[] data) throws IOException {
+        final ByteArrayOutputStream bytes
+                = new ByteArrayOutputStream(data.length / 2 + 16);
+        final DeflaterOutputStream stream = new DeflaterOutputStream(bytes);
+        try {
+            stream.write(data);
+        } finally {
+            stream.close();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.export;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Image to be placed on PDF pages, kept as compressed RGB samples.
+ *
+ * Compression is done on creation, so images can be built on worker threads;
+ * the same instance can be drawn on many pages and is written once.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class PdfImage {
+
+    private final int width;
+    private final int height;
+    private final byte[] data;
+
+    /**
+     * Compresses an image (alpha is dropped).
+     *
+     * @param image Image to compress.
+     * @throws IOException If can't compress.
+     */
+    public PdfImage(final BufferedImage image) throws IOException {
+        width = image.getWidth();
+        height = image.getHeight();
+
+        final ByteArrayOutputStream bytes
+                = new ByteArrayOutputStream(width * height);
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        final DeflaterOutputStream out
+                = new DeflaterOutputStream(bytes, deflater, 1 << 16);
+        try {
+            final int[] rgb = new int[width];
+            final byte[] row = new byte[width * 3];
+            for (int y = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, rgb, 0, width);
+                for (int x = 0, i = 0; x < width; x++) {
+                    row[i++] = (byte) (rgb[x] >> 16);
+                    row[i++] = (byte) (rgb[x] >> 8);
+                    row[i++] = (byte) rgb[x];
+                }
+                out.write(row);
+            }
+            out.finish();
+        } finally {
+            out.close();
+            deflater.end();
+        }
+        data = bytes.toByteArray();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Deflated RGB samples, row by row.
+     */
+    byte[] getData() {
+        return data;
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.export;
+
+import java.awt.Color;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One PDF page: text, lines and images, in points (1/72 in), with origin on
+ * the top left corner (as in Java2D).
+ *
+ * Text uses the standard Helvetica fonts, so characters outside of
+ * Windows-1252 are written as '?'.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class PdfPage {
+
+    /** A4 width (pt). */
+    public static final float A4_WIDTH = 595;
+    /** A4 height (pt). */
+    public static final float A4_HEIGHT = 842;
+
+    /** Text encoding of the standard fonts (WinAnsiEncoding). */
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+
+    private final float width;
+    private final float height;
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    private final List<PdfImage> images = new ArrayList<PdfImage>();
+
+    /**
+     * Creates an A4 portrait page.
+     */
+    public PdfPage() {
+        this(A4_WIDTH, A4_HEIGHT);
+    }
+
+    /**
+     * Creates a page.
+     *
+     * @param width Page width (pt).
+     * @param height Page height (pt).
+     */
+    public PdfPage(final float width, final float height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * Sets the color of next text, lines and shapes.
+     *
+     * @param color New color.
+     */
+    public void setColor(final Color color) {
+        final String rgb = num(color.getRed() / 255.0) + " "
+                + num(color.getGreen() / 255.0) + " "
+                + num(color.getBlue() / 255.0);
+        append(rgb + " rg " + rgb + " RG\n");
+    }
+
+    /**
+     * Sets line width and dash of next lines and shapes.
+     *
+     * @param lineWidth Line width (pt).
+     * @param dash Dash lengths (pt), or null for a solid line.
+     */
+    public void setStroke(final float lineWidth, final float[] dash) {
+        final StringBuilder cmd = new StringBuilder();
+        cmd.append(num(lineWidth)).append(" w [");
+        if (dash != null) {
+            for (int i = 0; i < dash.length; i++) {
+                cmd.append(i == 0 ? "" : " ").append(num(dash[i]));
+            }
+        }
+        append(cmd.append("] 0 d\n").toString());
+    }
+
+    /**
+     * Writes one line of text.
+     *
+     * @param text Text.
+     * @param x Start x.
+     * @param y Baseline y.
+     * @param size Font size (pt).
+     * @param bold True for bold.
+     */
+    public void drawString(final String text, final float x, final float y,
+            final float size, final boolean bold) {
+        append("BT /" + (bold ? PdfDocumentWriter.BOLD_FONT
+                : PdfDocumentWriter.FONT) + " " + num(size) + " Tf "
+                + num(x) + " " + num(height - y) + " Td (");
+        final byte[] bytes = text.getBytes(WIN_ANSI);
+        for (byte b : bytes) {
+            if (b == '(' || b == ')' || b == '\\') {
+                content.write('\\');
+            } else if (b == '\n' || b == '\r') {
+                b = ' ';
+            }
+            content.write(b);
+        }
+        append(") Tj ET\n");
+    }
+
+    /**
+     * Draws a line.
+     *
+     * @param x1 Start x.
+     * @param y1 Start y.
+     * @param x2 End x.
+     * @param y2 End y.
+     */
+    public void drawLine(final float x1, final float y1, final float x2,
+            final float y2) {
+        append(num(x1) + " " + num(height - y1) + " m " + num(x2) + " "
+                + num(height - y2) + " l S\n");
+    }
+
+    /**
+     * Draws the outline of a shape.
+     *
+     * @param shape Shape, in page coordinates.
+     */
+    public void draw(final Shape shape) {
+        final AffineTransform toPdf = new AffineTransform(1, 0, 0, -1, 0,
+                height);
+        final PathIterator path = shape.getPathIterator(toPdf);
+        final double[] coords = new double[6];
+        double lastX = 0;
+        double lastY = 0;
+        final StringBuilder cmd = new StringBuilder();
+        for (; !path.isDone(); path.next()) {
+            switch (path.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    cmd.append(num(coords[0])).append(' ')
+                            .append(num(coords[1])).append(" m\n");
+                    lastX = coords[0];
+                    lastY = coords[1];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    cmd.append(num(coords[0])).append(' ')
+                            .append(num(coords[1])).append(" l\n");
+                    lastX = coords[0];
+                    lastY = coords[1];
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    //as a cubic: control points at 2/3 of the quad one.
+                    cmd.append(num(lastX + 2 * (coords[0] - lastX) / 3))
+                            .append(' ')
+                            .append(num(lastY + 2 * (coords[1] - lastY) / 3))
+                            .append(' ')
+                            .append(num(coords[2]
+                                    + 2 * (coords[0] - coords[2]) / 3))
+                            .append(' ')
+                            .append(num(coords[3]
+                                    + 2 * (coords[1] - coords[3]) / 3))
+                            .append(' ').append(num(coords[2])).append(' ')
+                            .append(num(coords[3])).append(" c\n");
+                    lastX = coords[2];
+                    lastY = coords[3];
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    for (int i = 0; i < 6; i++) {
+                        cmd.append(num(coords[i])).append(' ');
+                    }
+                    cmd.append("c\n");
+                    lastX = coords[4];
+                    lastY = coords[5];
+                    break;
+                default:
+                    cmd.append("h\n");
+                    break;
+            }
+        }
+        append(cmd.append("S\n").toString());
+    }
+
+    /**
+     * Draws an image.
+     *
+     * @param image Image (can be drawn on other pages too).
+     * @param x Left.
+     * @param y Top.
+     * @param w Width on page.
+     * @param h Height on page.
+     */
+    public void drawImage(final PdfImage image, final float x, final float y,
+            final float w, final float h) {
+        int index = images.indexOf(image);
+        if (index < 0) {
+            index = images.size();
+            images.add(image);
+        }
+        append("q " + num(w) + " 0 0 " + num(h) + " " + num(x) + " "
+                + num(height - y - h) + " cm /Im" + index + " Do Q\n");
+    }
+
+    /**
+     * @return Images used, by index of their names (Im0, Im1...).
+     */
+    List<PdfImage> getImages() {
+        return Collections.unmodifiableList(images);
+    }
+
+    /**
+     * @return Content stream (not compressed).
+     */
+    byte[] getContent() {
+        return content.toByteArray();
+    }
+
+    private void append(final String cmd) {
+        final byte[] bytes = cmd.getBytes(WIN_ANSI);
+        content.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Formats a number with up to two decimals, independent of locale.
+     *
+     * @param value Value.
+     * @return Number as PDF text.
+     */
+    static String num(final double value) {
+        final long hundredths = Math.round(value * 100);
+        final long abs = Math.abs(hundredths);
+        final StringBuilder text = new StringBuilder();
+        if (hundredths < 0) {
+            text.append('-');
+        }
+        text.append(abs / 100);
+        final long frac = abs % 100;
+        if (frac != 0) {
+            text.append('.');
+            if (frac < 10) {
+                text.append('0');
+            }
+            text.append(frac % 10 == 0 ? frac / 10 : frac);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,407 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.export;
+
+import com.orthodonticpreview.datamodel.ReportDrawing;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.util.Iterator;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Writes a report as SVG: the report image once, as JPEG (or PNG), and the
+ * calculation results (ReportDrawing) over it as vectors.
+ *
+ * Results stay sharp at any resolution, so the image can be compressed with
+ * loss; reports are much smaller than a full PNG, and faster to encode.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class SvgReportWriter {
+
+    /**
+     * Default JPEG quality (0 to 1).
+     */
+    public static final float DEFAULT_QUALITY = 0.85f;
+
+    private static final char[] BASE64 = ("ABCDEFGHIJKLMNOPQRSTUVWXYZ"
+            + "abcdefghijklmnopqrstuvwxyz0123456789+/").toCharArray();
+
+    private float quality = DEFAULT_QUALITY;
+    private boolean jpeg = true;
+    private boolean embedImage = true;
+
+    /**
+     * @param value JPEG quality (0 to 1).
+     */
+    public void setQuality(final float value) {
+        if (value < 0 || value > 1) {
+            throw new IllegalArgumentException("Quality out of 0..1: "
+                    + value);
+        }
+        quality = value;
+    }
+
+    /**
+     * @param value True for JPEG image (default), false for PNG.
+     */
+    public void setJpeg(final boolean value) {
+        jpeg = value;
+    }
+
+    /**
+     * @param value True (default) to embed the image on the SVG; false to
+     * write it beside the SVG (same name, image extension).
+     */
+    public void setEmbedImage(final boolean value) {
+        embedImage = value;
+    }
+
+    /**
+     * Writes a report.
+     *
+     * @param image Report image (without results drawn).
+     * @param drawing Results, on image coordinates.
+     * @param file SVG file.
+     * @throws IOException If can't write.
+     */
+    public void write(final BufferedImage image, final ReportDrawing drawing,
+            final File file) throws IOException {
+        final byte[] encoded = encodeImage(image);
+        final String href;
+        if (embedImage) {
+            href = "data:" + (jpeg ? "image/jpeg" : "image/png")
+                    + ";base64," + base64(encoded);
+        } else {
+            final File imageFile = getImageFile(file);
+            final OutputStream out = new FileOutputStream(imageFile);
+            try {
+                out.write(encoded);
+            } finally {
+                out.close();
+            }
+            href = encodeUri(imageFile.getName());
+        }
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            write(image.getWidth(), image.getHeight(), href, drawing, out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * @param svgFile SVG file.
+     * @return File of the image, when it is not embedded.
+     */
+    public File getImageFile(final File svgFile) {
+        String name = svgFile.getName();
+        final int dot = name.lastIndexOf('.');
+        if (dot > 0) {
+            name = name.substring(0, dot);
+        }
+        return new File(svgFile.getParentFile(),
+                name + (jpeg ? ".jpg" : ".png"));
+    }
+
+    /**
+     * Writes the SVG document.
+     *
+     * @param width Image width.
+     * @param height Image height.
+     * @param href Image reference.
+     * @param drawing Results.
+     * @param stream Where to write (not closed).
+     * @throws IOException If can't write.
+     */
+    static void write(final int width, final int height, final String href,
+            final ReportDrawing drawing, final OutputStream stream)
+            throws IOException {
+        final Writer out = new OutputStreamWriter(stream, "UTF-8");
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<svg xmlns=\"http://www.w3.org/2000/svg\""
+                + " xmlns:xlink=\"http://www.w3.org/1999/xlink\" width=\""
+                + width + "\" height=\"" + height + "\" viewBox=\"0 0 "
+                + width + " " + height + "\">\n");
+        out.write("<image x=\"0\" y=\"0\" width=\"" + width + "\" height=\""
+                + height + "\" xlink:href=\"");
+        out.write(escapeXml(href));
+        out.write("\"/>\n");
+        for (ReportDrawing.Item item : drawing.getItems()) {
+            out.write(toElement(item.getShape()));
+            out.write(" fill=\"none\"");
+            out.write(toStroke(item.getColor(), item.getStroke()));
+            out.write("/>\n");
+        }
+        out.write("</svg>\n");
+        out.flush();
+    }
+
+    /**
+     * Percent-encodes a file name as a relative URI reference: all but
+     * unreserved characters (RFC 3986) are encoded, as UTF-8.
+     *
+     * @param name File name.
+     * @return URI reference.
+     */
+    static String encodeUri(final String name) {
+        final StringBuilder uri = new StringBuilder(name.length());
+        final byte[] bytes;
+        try {
+            bytes = name.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException ex) {
+            throw new IllegalStateException(ex);
+        }
+        for (byte value : bytes) {
+            final char c = (char) (value & 0xff);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9') || "-._~".indexOf(c) >= 0) {
+                uri.append(c);
+            } else {
+                uri.append('%')
+                        .append(Character.toUpperCase(
+                                        Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(
+                                        Character.forDigit(c & 0xf, 16)));
+            }
+        }
+        return uri.toString();
+    }
+
+    /**
+     * @param text Text.
+     * @return Text escaped for an XML attribute value.
+     */
+    static String escapeXml(final String text) {
+        final StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                case '\'':
+                    escaped.append("&apos;");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Element (open, without style) for a shape.
+     */
+    private static String toElement(final Shape shape) {
+        if (shape instanceof Line2D) {
+            final Line2D line = (Line2D) shape;
+            return "<line x1=\"" + PdfPage.num(line.getX1()) + "\" y1=\""
+                    + PdfPage.num(line.getY1()) + "\" x2=\""
+                    + PdfPage.num(line.getX2()) + "\" y2=\""
+                    + PdfPage.num(line.getY2()) + "\"";
+        } else if (shape instanceof Ellipse2D) {
+            final Ellipse2D ellipse = (Ellipse2D) shape;
+            return "<ellipse cx=\"" + PdfPage.num(ellipse.getCenterX())
+                    + "\" cy=\"" + PdfPage.num(ellipse.getCenterY())
+                    + "\" rx=\"" + PdfPage.num(ellipse.getWidth() / 2)
+                    + "\" ry=\"" + PdfPage.num(ellipse.getHeight() / 2)
+                    + "\"";
+        }
+        return "<path d=\"" + toPathData(shape) + "\"";
+    }
+
+    /**
+     * SVG path data of a shape.
+     */
+    static String toPathData(final Shape shape) {
+        final StringBuilder data = new StringBuilder();
+        final double[] coords = new double[6];
+        for (PathIterator iter = shape.getPathIterator(null); !iter.isDone();
+                iter.next()) {
+            final int points;
+            switch (iter.currentSegment(coords)) {
+                case PathIterator.SEG_MOVETO:
+                    data.append('M');
+                    points = 1;
+                    break;
+                case PathIterator.SEG_LINETO:
+                    data.append('L');
+                    points = 1;
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    data.append('Q');
+                    points = 2;
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    data.append('C');
+                    points = 3;
+                    break;
+                default:
+                    data.append('Z');
+                    points = 0;
+                    break;
+            }
+            for (int i = 0; i < points * 2; i++) {
+                data.append(i == 0 ? "" : " ").append(PdfPage.num(coords[i]));
+            }
+            data.append(' ');
+        }
+        return data.toString().trim();
+    }
+
+    /**
+     * Stroke attributes.
+     */
+    private static String toStroke(final Color color,
+            final BasicStroke stroke) {
+        final StringBuilder attrs = new StringBuilder();
+        attrs.append(" stroke=\"").append(String.format("#%06x",
+                color.getRGB() & 0xffffff)).append('"');
+        if (color.getAlpha() < 255) {
+            attrs.append(" stroke-opacity=\"")
+                    .append(PdfPage.num(color.getAlpha() / 255.0))
+                    .append('"');
+        }
+        attrs.append(" stroke-width=\"")
+                .append(PdfPage.num(stroke.getLineWidth())).append('"');
+        if (stroke.getEndCap() == BasicStroke.CAP_ROUND) {
+            attrs.append(" stroke-linecap=\"round\"");
+        } else if (stroke.getEndCap() == BasicStroke.CAP_SQUARE) {
+            attrs.append(" stroke-linecap=\"square\"");
+        }
+        if (stroke.getLineJoin() == BasicStroke.JOIN_ROUND) {
+            attrs.append(" stroke-linejoin=\"round\"");
+        } else if (stroke.getLineJoin() == BasicStroke.JOIN_BEVEL) {
+            attrs.append(" stroke-linejoin=\"bevel\"");
+        }
+        final float[] dash = stroke.getDashArray();
+        if (dash != null) {
+            attrs.append(" stroke-dasharray=\"");
+            for (int i = 0; i < dash.length; i++) {
+                attrs.append(i == 0 ? "" : " ").append(PdfPage.num(dash[i]));
+            }
+            attrs.append('"');
+            if (stroke.getDashPhase() != 0) {
+                attrs.append(" stroke-dashoffset=\"")
+                        .append(PdfPage.num(stroke.getDashPhase()))
+                        .append('"');
+            }
+        }
+        return attrs.toString();
+    }
+
+    /**
+     * Encodes the image as JPEG (with quality) or PNG.
+     */
+    private byte[] encodeImage(final BufferedImage image) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                image.getWidth() * image.getHeight() / 4);
+        if (!jpeg) {
+            ImageIO.write(image, "png", bytes);
+            return bytes.toByteArray();
+        }
+        final Iterator<ImageWriter> writers
+                = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG writer.");
+        }
+        final ImageWriter writer = writers.next();
+        final ImageOutputStream out = ImageIO.createImageOutputStream(bytes);
+        try {
+            writer.setOutput(out);
+            final ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(toRgb(image), null, null),
+                    param);
+        } finally {
+            writer.dispose();
+            out.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * JPEG has no alpha: images with alpha are copied to RGB.
+     */
+    private static BufferedImage toRgb(final BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return image;
+        }
+        final BufferedImage rgb = new BufferedImage(image.getWidth(),
+                image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g = rgb.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, Color.white, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Base64 (RFC 4648, with padding, no line breaks).
+     */
+    static String base64(final byte[] data) {
+        final StringBuilder text = new StringBuilder((data.length + 2) / 3
+                * 4);
+        for (int i = 0; i < data.length; i += 3) {
+            final int b0 = data[i] & 0xff;
+            final int b1 = i + 1 < data.length ? data[i + 1] & 0xff : 0;
+            final int b2 = i + 2 < data.length ? data[i + 2] & 0xff : 0;
+            text.append(BASE64[b0 >> 2]);
+            text.append(BASE64[(b0 << 4 | b1 >> 4) & 0x3f]);
+            text.append(i + 1 < data.length
+                    ? BASE64[(b1 << 2 | b2 >> 6) & 0x3f] : '=');
+            text.append(i + 2 < data.length ? BASE64[b2 & 0x3f] : '=');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.monitor;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free latency histogram, with power of two buckets in microseconds
+ * (bucket i counts values from 2^(i-1) to 2^i us). Percentiles are
+ * approximated by the upper limit of their bucket.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Number of buckets (last one goes over 2^38 us, more than 3 days).
+     */
+    private static final int BUCKETS = 40;
+
+    private final String name;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param name Metric name.
+     */
+    public LatencyHistogram(final String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos Duration (ns).
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        final long micros = value / 1000L;
+        final int bucket = Math.min(BUCKETS - 1,
+                64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        totalNanos.addAndGet(value);
+
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * @return Number of recorded values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return Mean duration (ms), 0 if empty.
+     */
+    public double getMeanMillis() {
+        final long cnt = count.get();
+        return cnt == 0 ? 0 : totalNanos.get() / 1e6 / cnt;
+    }
+
+    /**
+     * @return Maximum duration (ms).
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * Approximated percentile.
+     *
+     * @param percent Percentile (0 to 100).
+     * @return Upper limit (ms) of bucket that has the percentile.
+     */
+    public double getPercentileMillis(final double percent) {
+        final long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percent / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min((1L << i) / 1000.0, getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Clears all values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        totalNanos.set(0);
+        maxNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "%s: count=%d mean=%.2fms p50=%.2fms p95=%.2fms"
+                + " p99=%.2fms max=%.2fms", name, getCount(),
+                getMeanMillis(), getPercentileMillis(50),
+                getPercentileMillis(95), getPercentileMillis(99),
+                getMaxMillis());
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.monitor;
+
+import com.orthodonticpreview.datamodel.DaemonThreadFactory;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Application wide registry of latency timers and counters.
+ *
+ * Usage on a hot path:
+ *
+ * <pre>
+ * final long start = System.nanoTime();
+ * ...
+ * Metrics.time(Metrics.CALCULATION, start);
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class Metrics implements MetricsMXBean {
+
+    /**
+     * Class logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(Metrics.class);
+
+    /** PreviewCalculation.storeResults. */
+    public static final String CALCULATION = "calculation.storeResults";
+    /** Transfer of teeth places between views. */
+    public static final String TRANSFER_PLACES = "teeth.transferPlaces";
+    /** OrthoReport.createImageReport. */
+    public static final String IMAGE_REPORT = "report.createImageReport";
+    /** OrthoReport.createSvgReport. */
+    public static final String SVG_REPORT = "report.createSvgReport";
+    /** Saving a patient file. */
+    public static final String SAVE_PATIENT = "persistence.savePatient";
+    /** Opening a patient file. */
+    public static final String OPEN_PATIENT = "persistence.openPatient";
+    /** Dispatch of one model event to listeners. */
+    public static final String MODEL_EVENT = "model.eventDispatch";
+    /** Paint of one view. */
+    public static final String REPAINT = "view.repaint";
+    /** Decode of one thumbnail (ThumbnailService). */
+    public static final String THUMBNAIL = "thumbnail.decode";
+    /** Prefix of startup phases (startup.shell, startup.explorers...). */
+    public static final String STARTUP = "startup.";
+
+    /**
+     * JMX name.
+     */
+    public static final String OBJECT_NAME
+            = "com.orthodonticpreview:type=Metrics";
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final ConcurrentMap<String, LatencyHistogram> timers
+            = new ConcurrentHashMap<String, LatencyHistogram>();
+    private final ConcurrentMap<String, AtomicLong> counters
+            = new ConcurrentHashMap<String, AtomicLong>();
+    private ScheduledExecutorService reporter;
+
+    private Metrics() {
+    }
+
+    /**
+     * @return The registry.
+     */
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets (or creates) a timer.
+     *
+     * @param name Timer name.
+     * @return The timer.
+     */
+    public static LatencyHistogram timer(final String name) {
+        LatencyHistogram timer = INSTANCE.timers.get(name);
+        if (timer == null) {
+            final LatencyHistogram created = new LatencyHistogram(name);
+            timer = INSTANCE.timers.putIfAbsent(name, created);
+            if (timer == null) {
+                timer = created;
+            }
+        }
+        return timer;
+    }
+
+    /**
+     * Records time elapsed since start on a timer.
+     *
+     * @param name Timer name.
+     * @param startNanos Start (System.nanoTime()).
+     */
+    public static void time(final String name, final long startNanos) {
+        timer(name).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Gets (or creates) a counter.
+     *
+     * @param name Counter name.
+     * @return The counter.
+     */
+    public static AtomicLong counter(final String name) {
+        AtomicLong counter = INSTANCE.counters.get(name);
+        if (counter == null) {
+            final AtomicLong created = new AtomicLong();
+            counter = INSTANCE.counters.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param name Counter name.
+     */
+    public static void increment(final String name) {
+        counter(name).incrementAndGet();
+    }
+
+    /**
+     * Registers the registry on the platform MBean server (once).
+     */
+    public static void registerMBean() {
+        try {
+            final MBeanServer server
+                    = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objName = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(objName)) {
+                server.registerMBean(INSTANCE, objName);
+            }
+        } catch (JMException ex) {
+            LOGGER.warn("Could not register metrics MBean: {}", ex.toString());
+        }
+    }
+
+    /**
+     * Unregisters the MBean and stops the periodic dump.
+     */
+    public static void shutdown() {
+        stopReporting();
+        try {
+            final MBeanServer server
+                    = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName objName = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(objName)) {
+                server.unregisterMBean(objName);
+            }
+        } catch (JMException ex) {
+            LOGGER.warn("Could not unregister metrics MBean: {}",
+                    ex.toString());
+        }
+    }
+
+    /**
+     * Starts logging all metrics periodically (replaces a previous period).
+     *
+     * @param periodSeconds Period (s).
+     */
+    public static synchronized void startReporting(final long periodSeconds) {
+        stopReporting();
+        INSTANCE.reporter = Executors.newSingleThreadScheduledExecutor(
+                new DaemonThreadFactory("ortho-metrics"));
+        INSTANCE.reporter.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                if (LOGGER.isInfoEnabled() && !INSTANCE.timers.isEmpty()) {
+                    LOGGER.info("Metrics:\n{}", INSTANCE.getSummary());
+                }
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the periodic dump.
+     */
+    public static synchronized void stopReporting() {
+        if (INSTANCE.reporter != null) {
+            INSTANCE.reporter.shutdownNow();
+            INSTANCE.reporter = null;
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        final Map<String, Long> map = new TreeMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().get());
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Long> getTimerCounts() {
+        final Map<String, Long> map = new TreeMap<String, Long>();
+        for (LatencyHistogram timer : timers.values()) {
+            map.put(timer.getName(), timer.getCount());
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Double> getTimerMeans() {
+        final Map<String, Double> map = new TreeMap<String, Double>();
+        for (LatencyHistogram timer : timers.values()) {
+            map.put(timer.getName(), timer.getMeanMillis());
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Double> getTimerP95() {
+        final Map<String, Double> map = new TreeMap<String, Double>();
+        for (LatencyHistogram timer : timers.values()) {
+            map.put(timer.getName(), timer.getPercentileMillis(95));
+        }
+        return map;
+    }
+
+    @Override
+    public Map<String, Double> getTimerMax() {
+        final Map<String, Double> map = new TreeMap<String, Double>();
+        for (LatencyHistogram timer : timers.values()) {
+            map.put(timer.getName(), timer.getMaxMillis());
+        }
+        return map;
+    }
+
+    @Override
+    public String getSummary() {
+        final StringBuilder text = new StringBuilder();
+        for (LatencyHistogram timer
+                : new TreeMap<String, LatencyHistogram>(timers).values()) {
+            text.append(timer).append('\n');
+        }
+        for (Map.Entry<String, Long> entry : getCounters().entrySet()) {
+            text.append(entry.getKey()).append(": ")
+                    .append(entry.getValue()).append('\n');
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String[] getTrace() {
+        final List<String> lines = Trace.dump();
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram timer : timers.values()) {
+            timer.reset();
+        }
+        for (AtomicLong counter : counters.values()) {
+            counter.set(0);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.monitor;
+
+import java.util.Map;
+
+/**
+ * JMX view of Metrics (registered as com.orthodonticpreview:type=Metrics).
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return Counters by name.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return Number of timed calls, by timer name.
+     */
+    Map<String, Long> getTimerCounts();
+
+    /**
+     * @return Mean duration (ms), by timer name.
+     */
+    Map<String, Double> getTimerMeans();
+
+    /**
+     * @return 95th percentile (ms), by timer name.
+     */
+    Map<String, Double> getTimerP95();
+
+    /**
+     * @return Maximum duration (ms), by timer name.
+     */
+    Map<String, Double> getTimerMax();
+
+    /**
+     * @return All metrics as text, one per line.
+     */
+    String getSummary();
+
+    /**
+     * @return Last traced events (see Trace), oldest first.
+     */
+    String[] getTrace();
+
+    /**
+     * Clears all metrics.
+     */
+    void reset();
+}
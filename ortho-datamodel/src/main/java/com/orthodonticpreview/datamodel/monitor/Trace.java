@@ -0,0 +1,278 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.monitor;
+
+import com.orthodonticpreview.datamodel.VectorMath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.RectangularShape;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * Trace of hot path events: kept on a ring buffer (last events only) and
+ * sent to the log at debug level.
+ *
+ * Events are parameterized as slf4j messages ("pointI = {}"); the message is
+ * built only when dumped or logged. Geometry arguments are copied, as
+ * calculations move their lines after tracing them. Each category can be
+ * sampled (one of every N events is kept).
+ *
+ * Tracing is on by default; -Dortho.trace=false turns it off.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class Trace {
+
+    /** Preview calculation steps. */
+    public static final String CALCULATION = "calculation";
+    /** Data model lookups and changes. */
+    public static final String MODEL = "model";
+
+    /**
+     * Default number of events kept.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * One traced event.
+     */
+    public static final class Event {
+
+        private final long time;
+        private final String thread;
+        private final String category;
+        private final String pattern;
+        private final Object[] args;
+
+        Event(final String category, final String pattern,
+                final Object[] args) {
+            time = System.currentTimeMillis();
+            thread = Thread.currentThread().getName();
+            this.category = category;
+            this.pattern = pattern;
+            this.args = args;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        /**
+         * @return Message with its arguments.
+         */
+        public String getMessage() {
+            final Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                values[i] = args[i] instanceof Line2D
+                        ? VectorMath.lineToString((Line2D) args[i]) : args[i];
+            }
+            return MessageFormatter.arrayFormat(pattern, values).getMessage();
+        }
+
+        @Override
+        public String toString() {
+            return new SimpleDateFormat("HH:mm:ss.SSS").format(new Date(time))
+                    + " [" + thread + "] " + category + ": " + getMessage();
+        }
+    }
+
+    /**
+     * Keeps one of every N events.
+     */
+    private static final class Sampler {
+
+        private final int every;
+        private final AtomicLong seen = new AtomicLong();
+
+        Sampler(final int every) {
+            this.every = every;
+        }
+
+        boolean sample() {
+            return every <= 1 || seen.getAndIncrement() % every == 0;
+        }
+    }
+
+    private static volatile boolean enabled
+            = !"false".equals(System.getProperty("ortho.trace"));
+    private static volatile AtomicReferenceArray<Event> ring
+            = new AtomicReferenceArray<Event>(DEFAULT_CAPACITY);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final ConcurrentMap<String, Sampler> SAMPLERS
+            = new ConcurrentHashMap<String, Sampler>();
+
+    private Trace() {
+    }
+
+    /**
+     * Traces one event, and logs it at debug level.
+     *
+     * @param logger Logger of caller class.
+     * @param category Event category.
+     * @param pattern Message pattern, slf4j style.
+     * @param args Message arguments.
+     */
+    public static void debug(final Logger logger, final String category,
+            final String pattern, final Object... args) {
+        final boolean logged = logger.isDebugEnabled();
+        final boolean kept = enabled && isSampled(category);
+        if (!logged && !kept) {
+            return;
+        }
+        final Event event = new Event(category, pattern, copy(args));
+        if (kept) {
+            final AtomicReferenceArray<Event> events = ring;
+            final long seq = SEQUENCE.getAndIncrement();
+            events.set((int) (seq % events.length()), event);
+        }
+        if (logged) {
+            logger.debug(event.getMessage());
+        }
+    }
+
+    private static boolean isSampled(final String category) {
+        final Sampler sampler = SAMPLERS.get(category);
+        return sampler == null || sampler.sample();
+    }
+
+    /**
+     * Copies mutable geometry arguments.
+     */
+    private static Object[] copy(final Object[] args) {
+        final Object[] values = args.clone();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof Line2D) {
+                values[i] = ((Line2D) values[i]).clone();
+            } else if (values[i] instanceof Point2D) {
+                values[i] = ((Point2D) values[i]).clone();
+            } else if (values[i] instanceof RectangularShape) {
+                values[i] = ((RectangularShape) values[i]).clone();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return Events on the buffer, oldest first.
+     */
+    public static List<Event> getEvents() {
+        final AtomicReferenceArray<Event> events = ring;
+        final int size = events.length();
+        final long end = SEQUENCE.get();
+        final List<Event> list = new ArrayList<Event>(size);
+        for (long seq = Math.max(0, end - size); seq < end; seq++) {
+            final Event event = events.get((int) (seq % size));
+            if (event != null) {
+                list.add(event);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @return Events on the buffer as text, oldest first.
+     */
+    public static List<String> dump() {
+        final List<Event> events = getEvents();
+        final List<String> lines = new ArrayList<String>(events.size());
+        for (Event event : events) {
+            lines.add(event.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Writes the buffer to a log, at info level.
+     *
+     * @param logger Logger to write to.
+     */
+    public static void dumpTo(final Logger logger) {
+        final StringBuilder text = new StringBuilder("Trace:");
+        for (String line : dump()) {
+            text.append('\n').append(line);
+        }
+        logger.info(text.toString());
+    }
+
+    /**
+     * Clears the buffer.
+     */
+    public static void clear() {
+        final AtomicReferenceArray<Event> events = ring;
+        for (int i = 0; i < events.length(); i++) {
+            events.set(i, null);
+        }
+    }
+
+    /**
+     * Changes the buffer size (events on buffer are dropped).
+     *
+     * @param capacity Number of events kept.
+     */
+    public static void setCapacity(final int capacity) {
+        ring = new AtomicReferenceArray<Event>(Math.max(1, capacity));
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the ring buffer on or off (debug logging is not affected).
+     *
+     * @param on True to keep events.
+     */
+    public static void setEnabled(final boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Keeps only one of every N events of a category.
+     *
+     * @param category Event category.
+     * @param every N (1 to keep all).
+     */
+    public static void setSampling(final String category, final int every) {
+        if (every <= 1) {
+            SAMPLERS.remove(category);
+        } else {
+            SAMPLERS.put(category, new Sampler(every));
+        }
+    }
+}
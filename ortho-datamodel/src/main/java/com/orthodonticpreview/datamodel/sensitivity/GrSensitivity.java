@@ -0,0 +1,206 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.sensitivity;
+
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Point2D;
+import java.io.Serializable;
+
+/**
+ * Result of GrSensitivityAnalysis: spread of GR (mean and covariance, in
+ * pixels) and how often each tendency kept its nominal value.
+ *
+ * Kept on the report series (TagO.GR_SENSITIVITY), so it is saved with the
+ * patient.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class GrSensitivity implements Serializable {
+
+    private static final long serialVersionUID = -1372859066480152093L;
+
+    private final int samples;
+    private final double noise;
+    private final double scale;
+    private final double nominalX;
+    private final double nominalY;
+    private final double meanX;
+    private final double meanY;
+    private final double varX;
+    private final double varY;
+    private final double covXY;
+    private final double turningStability;
+    private final double projectionStability;
+
+    /**
+     * Creates a result.
+     *
+     * @param samples Number of valid samples.
+     * @param noise Deviation of end point noise (pixels).
+     * @param scale Scale (mm per pixel).
+     * @param nominal GR without noise.
+     * @param moments Mean, variances and covariance of GR: meanX, meanY,
+     * varX, varY, covXY.
+     * @param turningStability Fraction of samples with the nominal turning
+     * tendency (NaN if not evaluated).
+     * @param projectionStability Fraction of samples with the nominal
+     * projection tendency (NaN if not evaluated).
+     */
+    GrSensitivity(final int samples, final double noise, final double scale,
+            final Point2D nominal, final double[] moments,
+            final double turningStability, final double projectionStability) {
+        this.samples = samples;
+        this.noise = noise;
+        this.scale = scale;
+        nominalX = nominal.getX();
+        nominalY = nominal.getY();
+        meanX = moments[0];
+        meanY = moments[1];
+        varX = moments[2];
+        varY = moments[3];
+        covXY = moments[4];
+        this.turningStability = turningStability;
+        this.projectionStability = projectionStability;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return Deviation of end point noise (pixels).
+     */
+    public double getNoise() {
+        return noise;
+    }
+
+    /**
+     * @return Scale (mm per pixel).
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * @return GR without noise.
+     */
+    public Point2D getNominal() {
+        return new Point2D.Double(nominalX, nominalY);
+    }
+
+    /**
+     * @return Mean GR of samples.
+     */
+    public Point2D getMean() {
+        return new Point2D.Double(meanX, meanY);
+    }
+
+    public double getVarianceX() {
+        return varX;
+    }
+
+    public double getVarianceY() {
+        return varY;
+    }
+
+    public double getCovariance() {
+        return covXY;
+    }
+
+    /**
+     * @return Fraction (0 to 1) of samples with the nominal turning
+     * tendency, or NaN if it was not evaluated.
+     */
+    public double getTurningStability() {
+        return turningStability;
+    }
+
+    /**
+     * @return Fraction (0 to 1) of samples with the nominal projection
+     * tendency, or NaN if it was not evaluated.
+     */
+    public double getProjectionStability() {
+        return projectionStability;
+    }
+
+    /**
+     * Scale of the covariance axes for a confidence level (two degrees of
+     * freedom: sqrt of the chi-square quantile).
+     */
+    private static double scale(final double confidence) {
+        return Math.sqrt(-2 * Math.log(1 - confidence));
+    }
+
+    private double[] eigenvalues() {
+        final double half = (varX + varY) / 2;
+        final double root = Math.hypot((varX - varY) / 2, covXY);
+        return new double[]{half + root, Math.max(0, half - root)};
+    }
+
+    /**
+     * @param confidence Confidence level (ex: 0.95).
+     * @return Semi major axis of the confidence ellipse (pixels).
+     */
+    public double getSemiMajor(final double confidence) {
+        return scale(confidence) * Math.sqrt(eigenvalues()[0]);
+    }
+
+    /**
+     * @param confidence Confidence level (ex: 0.95).
+     * @return Semi minor axis of the confidence ellipse (pixels).
+     */
+    public double getSemiMinor(final double confidence) {
+        return scale(confidence) * Math.sqrt(eigenvalues()[1]);
+    }
+
+    /**
+     * @return Angle of the major axis, from X axis (radians).
+     */
+    public double getAngle() {
+        return Math.atan2(2 * covXY, varX - varY) / 2;
+    }
+
+    /**
+     * @param confidence Confidence level (ex: 0.95).
+     * @return Confidence ellipse, centered on the mean GR.
+     */
+    public Shape getEllipse(final double confidence) {
+        final double major = getSemiMajor(confidence);
+        final double minor = getSemiMinor(confidence);
+        final AffineTransform transform
+                = AffineTransform.getTranslateInstance(meanX, meanY);
+        transform.rotate(getAngle());
+        return transform.createTransformedShape(new Ellipse2D.Double(
+                -major, -minor, 2 * major, 2 * minor));
+    }
+
+    @Override
+    public String toString() {
+        return "GR " + meanX + ", " + meanY + " (" + samples
+                + " samples, noise " + noise + "): 95% ellipse "
+                + getSemiMajor(0.95) + " x " + getSemiMinor(0.95)
+                + ", turning " + turningStability + ", projection "
+                + projectionStability;
+    }
+}
@@ -0,0 +1,310 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.sensitivity;
+
+import com.orthodonticpreview.datamodel.AnalyticResultantSolver;
+import com.orthodonticpreview.datamodel.PreviewCalculation;
+import com.orthodonticpreview.datamodel.Tendencies;
+import com.orthodonticpreview.datamodel.TendencyRule;
+import com.orthodonticpreview.datamodel.batch.ForceBatchKernel;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo sensitivity of GR to placement errors: force end points get
+ * gaussian noise, GR is calculated again for each sample (closed form, on
+ * ForceBatchKernel), and the spread of GR and of the tendencies is
+ * measured.
+ *
+ * Samples are split in blocks on a fork/join pool; each block has its own
+ * SplitMix64 stream, so results depend only on the seed. The defaults
+ * (4000 samples) run in a few milliseconds for a 12 teeth arch.
+ *
+ * Defaults can be changed with -Dortho.sensitivity.noise (pixels) and
+ * -Dortho.sensitivity.samples.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class GrSensitivityAnalysis {
+
+    /** Default deviation of end point noise (pixels). */
+    public static final double DEFAULT_NOISE = 2;
+    /** Default number of samples. */
+    public static final int DEFAULT_SAMPLES = 4000;
+    /** Default seed (same seed, same result). */
+    public static final long DEFAULT_SEED = 20121011L;
+    /** System property for noise. */
+    public static final String NOISE_PROPERTY = "ortho.sensitivity.noise";
+    /** System property for number of samples. */
+    public static final String SAMPLES_PROPERTY = "ortho.sensitivity.samples";
+
+    /**
+     * Samples calculated by one task.
+     */
+    private static final int BLOCK = 256;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool();
+
+    private double noise = DEFAULT_NOISE;
+    private int samples = DEFAULT_SAMPLES;
+    private long seed = DEFAULT_SEED;
+    private TendencyRule rule = Tendencies.DEFAULT_RULE;
+    private Double midX;
+    private Double frontLimit;
+    private double scale = 1;
+
+    /**
+     * @return An analysis with noise and samples from system properties.
+     */
+    public static GrSensitivityAnalysis createDefault() {
+        final GrSensitivityAnalysis analysis = new GrSensitivityAnalysis();
+        try {
+            analysis.setNoise(Double.parseDouble(System.getProperty(
+                    NOISE_PROPERTY, String.valueOf(DEFAULT_NOISE))));
+            analysis.setSamples(Integer.parseInt(System.getProperty(
+                    SAMPLES_PROPERTY, String.valueOf(DEFAULT_SAMPLES))));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid sensitivity property: " + ex.getMessage(), ex);
+        }
+        return analysis;
+    }
+
+    /**
+     * @param noise Deviation of end point noise, on X and Y (pixels).
+     */
+    public void setNoise(final double noise) {
+        this.noise = noise;
+    }
+
+    /**
+     * @param samples Number of samples (at least 2).
+     */
+    public void setSamples(final int samples) {
+        this.samples = Math.max(2, samples);
+    }
+
+    public void setSeed(final long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param rule Tendency rules to evaluate samples with.
+     */
+    public void setRule(final TendencyRule rule) {
+        this.rule = rule;
+    }
+
+    /**
+     * @param midX X of arch middle line, or null to not evaluate turning.
+     */
+    public void setMidX(final Double midX) {
+        this.midX = midX;
+    }
+
+    /**
+     * @param scale Scale (mm per pixel).
+     */
+    public void setScale(final double scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * @param frontLimit Y of front limit, or null to not evaluate
+     * projection.
+     */
+    public void setFrontLimit(final Double frontLimit) {
+        this.frontLimit = frontLimit;
+    }
+
+    /**
+     * Runs the analysis.
+     *
+     * @param forces Force vectors, as placed.
+     * @return The spread of GR and tendencies.
+     * @throws IllegalArgumentException If forces are empty or sum zero.
+     */
+    public GrSensitivity run(final List<Line2D> forces) {
+        final Point2D nominal = AnalyticResultantSolver.getPointGr(
+                forces, PreviewCalculation.TURN).getPoint();
+        final int count = forces.size();
+        final double[] ends = new double[count * 4];
+        for (int i = 0; i < count; i++) {
+            final Line2D force = forces.get(i);
+            ends[i * 4] = force.getX1();
+            ends[i * 4 + 1] = force.getY1();
+            ends[i * 4 + 2] = force.getX2();
+            ends[i * 4 + 3] = force.getY2();
+        }
+
+        final String turning = midX == null ? null
+                : rule.turning(midX, nominal, scale);
+        final Boolean projection = frontLimit == null ? null
+                : rule.projection(frontLimit, nominal);
+        final Moments moments = POOL.invoke(new Block(ends, count,
+                turning, projection, 0, samples, new SplitMix64(seed)));
+
+        if (moments.count < 2) {
+            throw new IllegalArgumentException(
+                    "Too few valid samples: " + moments.count);
+        }
+        return new GrSensitivity(moments.count, noise, scale, nominal,
+                new double[]{moments.meanX, moments.meanY,
+                    moments.m2x / (moments.count - 1),
+                    moments.m2y / (moments.count - 1),
+                    moments.cxy / (moments.count - 1)},
+                turning == null ? Double.NaN
+                : (double) moments.turningSame / moments.count,
+                projection == null ? Double.NaN
+                : (double) moments.projectionSame / moments.count);
+    }
+
+    /**
+     * Mean, sums of squares and tendency counts of GR samples (mergeable).
+     */
+    private static final class Moments {
+
+        private int count;
+        private double meanX;
+        private double meanY;
+        private double m2x;
+        private double m2y;
+        private double cxy;
+        private int turningSame;
+        private int projectionSame;
+
+        void add(final double x, final double y) {
+            count++;
+            final double dx = x - meanX;
+            final double dy = y - meanY;
+            meanX += dx / count;
+            meanY += dy / count;
+            m2x += dx * (x - meanX);
+            m2y += dy * (y - meanY);
+            cxy += dx * (y - meanY);
+        }
+
+        void merge(final Moments other) {
+            if (other.count == 0) {
+                return;
+            }
+            final int total = count + other.count;
+            final double dx = other.meanX - meanX;
+            final double dy = other.meanY - meanY;
+            final double weight = (double) count * other.count / total;
+            meanX += dx * other.count / total;
+            meanY += dy * other.count / total;
+            m2x += other.m2x + dx * dx * weight;
+            m2y += other.m2y + dy * dy * weight;
+            cxy += other.cxy + dx * dy * weight;
+            count = total;
+            turningSame += other.turningSame;
+            projectionSame += other.projectionSame;
+        }
+    }
+
+    /**
+     * Samples from..to; splits itself until BLOCK samples.
+     */
+    private final class Block extends RecursiveTask<Moments> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] ends;
+        private final int count;
+        private final String turning;
+        private final Boolean projection;
+        private final int from;
+        private final int to;
+        private final SplitMix64 random;
+
+        Block(final double[] ends, final int count, final String turning,
+                final Boolean projection, final int from, final int to,
+                final SplitMix64 random) {
+            this.ends = ends;
+            this.count = count;
+            this.turning = turning;
+            this.projection = projection;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Moments compute() {
+            if (to - from <= BLOCK) {
+                return sample();
+            }
+            final int mid = (from + to) >>> 1;
+            final Block right = new Block(ends, count, turning, projection,
+                    mid, to, random.split());
+            right.fork();
+            final Moments moments = new Block(ends, count, turning,
+                    projection, from, mid, random).compute();
+            moments.merge(right.join());
+            return moments;
+        }
+
+        private Moments sample() {
+            final int size = to - from;
+            final ForceBatchKernel kernel
+                    = new ForceBatchKernel(size, size * count);
+            final double[] x1 = new double[count];
+            final double[] y1 = new double[count];
+            final double[] x2 = new double[count];
+            final double[] y2 = new double[count];
+            for (int s = 0; s < size; s++) {
+                for (int i = 0; i < count; i++) {
+                    x1[i] = ends[i * 4] + noise * random.nextGaussian();
+                    y1[i] = ends[i * 4 + 1] + noise * random.nextGaussian();
+                    x2[i] = ends[i * 4 + 2] + noise * random.nextGaussian();
+                    y2[i] = ends[i * 4 + 3] + noise * random.nextGaussian();
+                }
+                kernel.add(x1, y1, x2, y2, count);
+            }
+            kernel.reduce(PreviewCalculation.TURN);
+
+            final Moments moments = new Moments();
+            for (int s = 0; s < size; s++) {
+                if (!kernel.isValid(s)) {
+                    continue;
+                }
+                moments.add(kernel.getGrX(s), kernel.getGrY(s));
+                if (turning != null || projection != null) {
+                    final Point2D point = kernel.getPointGr(s);
+                    if (turning != null && turning.equals(
+                            rule.turning(midX, point, scale))) {
+                        moments.turningSame++;
+                    }
+                    if (projection != null && projection.booleanValue()
+                            == rule.projection(frontLimit, point)) {
+                        moments.projectionSame++;
+                    }
+                }
+            }
+            return moments;
+        }
+    }
+}
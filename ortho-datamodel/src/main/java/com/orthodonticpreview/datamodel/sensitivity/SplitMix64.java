@@ -0,0 +1,117 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.sensitivity;
+
+/**
+ * Small splittable random generator (SplitMix64): each split gives an
+ * independent stream, so parallel tasks get reproducible numbers whatever
+ * thread runs them.
+ *
+ * Not thread safe; each task uses its own instance.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class SplitMix64 {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+    private long seed;
+    private final long gamma;
+    private double nextGaussian;
+    private boolean hasNextGaussian;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed Initial seed.
+     */
+    public SplitMix64(final long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplitMix64(final long seed, final long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    private static long mix64(final long value) {
+        long z = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long mixGamma(final long value) {
+        long z = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        final int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+
+    /**
+     * @return Next random long.
+     */
+    public long nextLong() {
+        seed += gamma;
+        return mix64(seed);
+    }
+
+    /**
+     * @return Next random double on [0, 1).
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    /**
+     * @return Next normally distributed double (mean 0, deviation 1).
+     */
+    public double nextGaussian() {
+        if (hasNextGaussian) {
+            hasNextGaussian = false;
+            return nextGaussian;
+        }
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        final double multiplier = Math.sqrt(-2 * Math.log(s) / s);
+        nextGaussian = v2 * multiplier;
+        hasNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+    /**
+     * Creates a new generator, independent from this one (this one
+     * advances).
+     *
+     * @return The new generator.
+     */
+    public SplitMix64 split() {
+        return new SplitMix64(nextLong(), mixGamma(nextLong()));
+    }
+}
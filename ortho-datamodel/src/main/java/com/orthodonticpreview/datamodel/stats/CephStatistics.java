@@ -0,0 +1,201 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.stats;
+
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statistics of cephalometric values by group (age band, study role...) and
+ * parameter. Only running stats, a sketch and a histogram are kept per
+ * group and parameter, never the values.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class CephStatistics {
+
+    /** Group of values without age. */
+    public static final String UNKNOWN = "unknown";
+
+    /** Quantiles written on summary. */
+    private static final double[] QUANTILES = {0.05, 0.25, 0.5, 0.75, 0.95};
+
+    /** Summary columns. */
+    public static final String CSV_HEADER = "group,parameter,count,mean,"
+            + "stddev,min,p5,p25,median,p75,p95,max";
+    /** Histogram columns. */
+    public static final String HISTOGRAM_HEADER
+            = "group,parameter,bin_start,bin_end,count";
+
+    /**
+     * Statistics of one parameter on one group.
+     */
+    public static final class ParameterStats {
+
+        private final RunningStats running = new RunningStats();
+        private final QuantileSketch sketch = new QuantileSketch();
+        private final Histogram histogram;
+
+        ParameterStats(final double binWidth) {
+            histogram = new Histogram(binWidth);
+        }
+
+        void add(final double value) {
+            running.add(value);
+            sketch.add(value);
+            histogram.add(value);
+        }
+
+        public RunningStats getRunning() {
+            return running;
+        }
+
+        public QuantileSketch getSketch() {
+            return sketch;
+        }
+
+        public Histogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    private final double binWidth;
+    /** Stats by group, then parameter (sorted, for output). */
+    private final Map<String, Map<String, ParameterStats>> groups
+            = new TreeMap<String, Map<String, ParameterStats>>();
+
+    /**
+     * Creates empty statistics.
+     *
+     * @param binWidth Histogram bin width (same unit as values).
+     */
+    public CephStatistics(final double binWidth) {
+        this.binWidth = binWidth;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param group Group name.
+     * @param parameter Parameter name.
+     * @param value Value.
+     */
+    public void add(final String group, final String parameter,
+            final double value) {
+        Map<String, ParameterStats> byParameter = groups.get(group);
+        if (byParameter == null) {
+            byParameter = new TreeMap<String, ParameterStats>();
+            groups.put(group, byParameter);
+        }
+        ParameterStats stats = byParameter.get(parameter);
+        if (stats == null) {
+            stats = new ParameterStats(binWidth);
+            byParameter.put(parameter, stats);
+        }
+        stats.add(value);
+    }
+
+    /**
+     * @param group Group name.
+     * @param parameter Parameter name.
+     * @return Its stats, or null if no value was added.
+     */
+    public ParameterStats get(final String group, final String parameter) {
+        final Map<String, ParameterStats> byParameter = groups.get(group);
+        return byParameter == null ? null : byParameter.get(parameter);
+    }
+
+    /**
+     * Group name of an age: bands with given limits ("6-12"), open on the
+     * last one ("18+").
+     *
+     * @param age Age, or null.
+     * @param limits Band limits, ascending.
+     * @return Band name, or UNKNOWN.
+     */
+    public static String ageGroup(final Double age, final int[] limits) {
+        if (age == null) {
+            return UNKNOWN;
+        }
+        int low = 0;
+        for (int limit : limits) {
+            if (age < limit) {
+                return low + "-" + limit;
+            }
+            low = limit;
+        }
+        return low + "+";
+    }
+
+    /**
+     * Writes the summary: one line by group and parameter.
+     *
+     * @param writer Where to write.
+     */
+    public void writeSummary(final PrintWriter writer) {
+        writer.println(CSV_HEADER);
+        for (Map.Entry<String, Map<String, ParameterStats>> group
+                : groups.entrySet()) {
+            for (Map.Entry<String, ParameterStats> entry
+                    : group.getValue().entrySet()) {
+                final RunningStats running = entry.getValue().running;
+                final double[] q
+                        = entry.getValue().sketch.getQuantiles(QUANTILES);
+                writer.println(group.getKey() + "," + entry.getKey() + ","
+                        + running.getCount() + "," + num(running.getMean())
+                        + "," + num(running.getStdDev()) + ","
+                        + num(running.getMin()) + "," + num(q[0]) + ","
+                        + num(q[1]) + "," + num(q[2]) + "," + num(q[3]) + ","
+                        + num(q[4]) + "," + num(running.getMax()));
+            }
+        }
+    }
+
+    /**
+     * Writes histograms: one line by group, parameter and bin.
+     *
+     * @param writer Where to write.
+     */
+    public void writeHistograms(final PrintWriter writer) {
+        writer.println(HISTOGRAM_HEADER);
+        for (Map.Entry<String, Map<String, ParameterStats>> group
+                : groups.entrySet()) {
+            for (Map.Entry<String, ParameterStats> entry
+                    : group.getValue().entrySet()) {
+                for (Map.Entry<Double, Long> bin : entry.getValue()
+                        .histogram.getBins().entrySet()) {
+                    writer.println(group.getKey() + "," + entry.getKey()
+                            + "," + num(bin.getKey()) + ","
+                            + num(bin.getKey() + binWidth) + ","
+                            + bin.getValue());
+                }
+            }
+        }
+    }
+
+    private static String num(final double value) {
+        return Double.isNaN(value)
+                ? "" : String.format(Locale.US, "%.3f", value);
+    }
+}
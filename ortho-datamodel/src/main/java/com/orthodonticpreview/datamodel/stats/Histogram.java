@@ -0,0 +1,80 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.stats;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Histogram with fixed width bins, created as values arrive (no range needs
+ * to be known in advance).
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class Histogram {
+
+    private final double binWidth;
+    /** Counts by bin index (bin i holds [i * width, (i + 1) * width)). */
+    private final TreeMap<Long, Long> bins = new TreeMap<Long, Long>();
+
+    /**
+     * Creates a histogram.
+     *
+     * @param binWidth Bin width (positive).
+     */
+    public Histogram(final double binWidth) {
+        if (!(binWidth > 0)) {
+            throw new IllegalArgumentException("Bin width must be positive");
+        }
+        this.binWidth = binWidth;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value Value (NaN is ignored).
+     */
+    public void add(final double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        final long bin = (long) Math.floor(value / binWidth);
+        final Long count = bins.get(bin);
+        bins.put(bin, count == null ? 1L : count + 1);
+    }
+
+    public double getBinWidth() {
+        return binWidth;
+    }
+
+    /**
+     * @return Counts by bin start value, ascending (empty bins left out).
+     */
+    public Map<Double, Long> getBins() {
+        final Map<Double, Long> map = new TreeMap<Double, Long>();
+        for (Map.Entry<Long, Long> entry : bins.entrySet()) {
+            map.put(entry.getKey() * binWidth, entry.getValue());
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.stats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Approximate quantiles of a stream of values in bounded memory.
+ *
+ * Values are kept on levels of at most K values; a full level is sorted and
+ * every other value goes to the next level, where each value stands for twice
+ * as many. Exact while fewer than K values were added; the rank error is
+ * about (levels / K) of the count.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class QuantileSketch {
+
+    /** Default values kept per level. */
+    public static final int DEFAULT_K = 256;
+
+    private final int k;
+    private final List<double[]> levels = new ArrayList<double[]>();
+    private final List<Integer> sizes = new ArrayList<Integer>();
+    private long count;
+    /** Alternates the kept half on compaction, so errors do not add up. */
+    private boolean keepOdd;
+
+    /**
+     * Creates a sketch with DEFAULT_K values per level.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Creates a sketch.
+     *
+     * @param k Values kept per level (even, at least 2).
+     */
+    public QuantileSketch(final int k) {
+        if (k < 2 || k % 2 != 0) {
+            throw new IllegalArgumentException("k must be even and >= 2");
+        }
+        this.k = k;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value Value (NaN is ignored).
+     */
+    public void add(final double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        insert(0, value);
+    }
+
+    private void insert(final int level, final double value) {
+        if (levels.size() == level) {
+            levels.add(new double[k]);
+            sizes.add(0);
+        }
+        final double[] values = levels.get(level);
+        int size = sizes.get(level);
+        values[size++] = value;
+        if (size < k) {
+            sizes.set(level, size);
+            return;
+        }
+        //compact: half of the values go up, with double weight.
+        Arrays.sort(values);
+        sizes.set(level, 0);
+        final int start = keepOdd ? 1 : 0;
+        keepOdd = !keepOdd;
+        for (int i = start; i < k; i += 2) {
+            insert(level + 1, values[i]);
+        }
+    }
+
+    /**
+     * @return Number of values added.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets a quantile.
+     *
+     * @param quantile Quantile, from 0 to 1.
+     * @return Value at quantile (approximate), or NaN if empty.
+     */
+    public double getQuantile(final double quantile) {
+        return getQuantiles(new double[] {quantile})[0];
+    }
+
+    /**
+     * Gets many quantiles with one sort.
+     *
+     * @param quantiles Quantiles, from 0 to 1.
+     * @return Values at quantiles (NaN if empty).
+     */
+    public double[] getQuantiles(final double[] quantiles) {
+        final double[] result = new double[quantiles.length];
+        int total = 0;
+        for (Integer size : sizes) {
+            total += size;
+        }
+        if (total == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        //all values with their weights, sorted by value.
+        final double[] values = new double[total];
+        final long[] weights = new long[total];
+        final Integer[] order = new Integer[total];
+        int n = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            final double[] data = levels.get(level);
+            for (int i = 0; i < sizes.get(level); i++) {
+                values[n] = data[i];
+                weights[n] = 1L << level;
+                order[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer one, final Integer two) {
+                return Double.compare(values[one], values[two]);
+            }
+        });
+        long weightSum = 0;
+        for (long weight : weights) {
+            weightSum += weight;
+        }
+
+        for (int q = 0; q < quantiles.length; q++) {
+            final double rank = Math.max(0, Math.min(1, quantiles[q]))
+                    * (weightSum - 1);
+            long cumulative = 0;
+            result[q] = values[order[total - 1]];
+            for (int i = 0; i < total; i++) {
+                cumulative += weights[order[i]];
+                if (cumulative > rank) {
+                    result[q] = values[order[i]];
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class AnalyticResultantSolverTest {
+
+    private static List<Line2D> units;
+
+    public AnalyticResultantSolverTest() {
+    }
+
+    @BeforeClass
+    public static void setup() {
+        units = new ArrayList<Line2D>();
+        units.add(new Line2D.Double(247.31, 690.76, 205.51, 647.27));
+        units.add(new Line2D.Double(271.03, 613.94, 217.94, 570.45));
+        units.add(new Line2D.Double(282.89, 556.90, 234.88, 515.10));
+        units.add(new Line2D.Double(304.36, 498.16, 264.82, 462.57));
+        units.add(new Line2D.Double(311.13, 451.28, 303.79, 425.30));
+        units.add(new Line2D.Double(360.27, 449.58, 358.58, 398.19));
+        units.add(new Line2D.Double(425.79, 445.06, 430.31, 395.36));
+        units.add(new Line2D.Double(473.80, 438.29, 490.74, 415.13));
+        units.add(new Line2D.Double(495.26, 480.08, 540.45, 455.23));
+        units.add(new Line2D.Double(518.42, 529.79, 572.64, 501.55));
+        units.add(new Line2D.Double(542.71, 585.70, 595.23, 563.11));
+        units.add(new Line2D.Double(573.77, 643.88, 615.00, 637.10));
+    }
+
+    private static BasicCalculationModel calculate(final List<Line2D> forces,
+            final CalculationMethod method) {
+        final BasicCalculationModel model
+                = new BasicCalculationModel(forces, null);
+        final PreviewCalculation calculation = new PreviewCalculation(model);
+        calculation.setMethod(method);
+        calculation.storeResults();
+        return model;
+    }
+
+    /**
+     * Test of getPointGr method, of class AnalyticResultantSolver.
+     */
+    @Test
+    public void testGetPointGr() {
+        System.out.println("getPointGr");
+        LineIntersection result
+                = AnalyticResultantSolver.getPointGr(units, 30);
+        assertFalse(result.isParallel());
+        assertEquals(360.12, result.getPoint().getX(), 0.01);
+        assertEquals(398.69, result.getPoint().getY(), 0.01);
+    }
+
+    /**
+     * Test of storeResults method with ANALYTIC, against FUNICULAR, of
+     * class PreviewCalculation.
+     */
+    @Test
+    public void testSameAsFunicular() {
+        System.out.println("same as funicular");
+        final Random random = new Random(7);
+        for (int test = 0; test < 50; test++) {
+            final List<Line2D> forces = new ArrayList<Line2D>();
+            for (int i = 0; i < 12; i++) {
+                final double angle = Math.PI * i / 11;
+                final double x = 400 - 180 * Math.cos(angle);
+                final double y = 650 - 250 * Math.sin(angle);
+                final double len = 30 + 30 * random.nextDouble();
+                final double dir = Math.PI / 2 + (angle - Math.PI / 2) * 0.5
+                        + random.nextGaussian() * 0.2;
+                forces.add(new Line2D.Double(x, y,
+                        x - len * Math.cos(dir), y - len * Math.sin(dir)));
+            }
+            final BasicCalculationModel funicular
+                    = calculate(forces, CalculationMethod.FUNICULAR);
+            final BasicCalculationModel analytic
+                    = calculate(forces, CalculationMethod.ANALYTIC);
+
+            final Point2D expected = funicular.getPointGr();
+            final Point2D result = analytic.getPointGr();
+            assertEquals(expected.getX(), result.getX(), 1e-6);
+            assertEquals(expected.getY(), result.getY(), 1e-6);
+            assertEquals(funicular.getResultant().getX2(),
+                    analytic.getResultant().getX2(), 1e-6);
+            assertEquals(funicular.getResultant().getY2(),
+                    analytic.getResultant().getY2(), 1e-6);
+        }
+    }
+
+    /**
+     * Test of getLinesOfAction method with zero sum, of class
+     * AnalyticResultantSolver.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetLinesOfActionZero() {
+        System.out.println("getLinesOfAction zero");
+        final List<Line2D> forces = new ArrayList<Line2D>();
+        forces.add(new Line2D.Double(0, 0, 10, 0));
+        forces.add(new Line2D.Double(0, 5, -10, 5));
+        AnalyticResultantSolver.getLinesOfAction(forces, 30);
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class ForceSystemDiffTest {
+
+    public ForceSystemDiffTest() {
+    }
+
+    private static BasicCalculationModel model(final Line2D... lines) {
+        final List<Line2D> units = new ArrayList<Line2D>();
+        for (Line2D line : lines) {
+            units.add(line);
+        }
+        return new BasicCalculationModel(units, null);
+    }
+
+    /**
+     * Test of compare method, of class ForceSystemDiff.
+     */
+    @Test
+    public void testCompare() {
+        System.out.println("compare");
+        final BasicCalculationModel before = model(
+                new Line2D.Double(0, 0, 10, 0),
+                new Line2D.Double(5, 5, 5, -5),
+                new Line2D.Double(0, 0, -10, 0));
+        final BasicCalculationModel after = model(
+                new Line2D.Double(0, 0, 0, -20),
+                new Line2D.Double(5, 8, 5, -2));
+        before.setPointGr(new Point2D.Double(1, 1));
+        after.setPointGr(new Point2D.Double(4, 5));
+        before.setResultant(new Line2D.Double(0, 0, 0, -10));
+        after.setResultant(new Line2D.Double(0, 0, -10, -10));
+
+        final ForceSystemDiff diff = ForceSystemDiff.compare(before, after);
+        System.out.println(diff);
+        assertEquals(3, diff.getForcesBefore());
+        assertEquals(2, diff.getForcesAfter());
+        assertEquals(90, diff.getAngleChange(0), 1e-9);
+        assertEquals(10, diff.getMagnitudeChange(0), 1e-9);
+        assertEquals(0, diff.getOriginShift(0), 1e-9);
+        assertEquals(0, diff.getAngleChange(1), 1e-9);
+        assertEquals(3, diff.getOriginShift(1), 1e-9);
+        assertTrue(Double.isNaN(diff.getAngleChange(2)));
+        assertEquals(90, diff.getMaxAngleChange(), 1e-9);
+        assertEquals(2, diff.getChangedForces(1, 1));
+        assertEquals(5, diff.getGrShift(), 1e-9);
+        assertEquals(45, diff.getResultantAngleChange(), 1e-9);
+        assertEquals(Math.sqrt(200) - 10,
+                diff.getResultantMagnitudeChange(), 1e-9);
+    }
+
+    /**
+     * Test of getAngleChange method, of class ForceSystemDiff.
+     */
+    @Test
+    public void testGetAngleChangeAcrossZero() {
+        System.out.println("getAngleChange");
+        final ForceSystemDiff diff = ForceSystemDiff.compare(
+                model(new Line2D.Double(0, 0, 10, 1)),
+                model(new Line2D.Double(0, 0, 10, -1)));
+        assertEquals(2 * Math.toDegrees(Math.atan(0.1)),
+                diff.getAngleChange(0), 1e-9);
+        assertTrue(Double.isNaN(diff.getGrShift()));
+        assertTrue(Double.isNaN(diff.getResultantAngleChange()));
+    }
+
+    /**
+     * Test of isTendencyChanged method, of class ForceSystemDiff.
+     */
+    @Test
+    public void testIsTendencyChanged() {
+        System.out.println("isTendencyChanged");
+        final ForceSystemDiff diff
+                = ForceSystemDiff.compare(model(), model());
+        assertFalse(diff.isTendencyChanged());
+        diff.setTurning(Tendencies.LEFT, Tendencies.LEFT);
+        diff.setProjection(Boolean.TRUE, Boolean.TRUE);
+        assertFalse(diff.isTendencyChanged());
+        diff.setProjection(Boolean.TRUE, null);
+        assertTrue(diff.isTendencyChanged());
+        diff.setProjection(null, null);
+        diff.setTurning(Tendencies.LEFT, Tendencies.NONE);
+        assertTrue(diff.isTendencyChanged());
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class LineIntersectionTest {
+
+    public LineIntersectionTest() {
+    }
+
+    /**
+     * Test of intersect method, of class LineIntersection.
+     */
+    @Test
+    public void testIntersect() {
+        System.out.println("intersect");
+        Line2D line1 = new Line2D.Double(266.49, 406.66, 80.10, 516.8);
+        Line2D line2 = new Line2D.Double(271.03, 613.94, 58.67, 439.98);
+        LineIntersection result = LineIntersection.intersect(line1, line2);
+
+        assertFalse(result.isParallel());
+        assertEquals(122.13, result.getPoint().getX(), 0.01);
+        assertEquals(491.96, result.getPoint().getY(), 0.01);
+        assertTrue(result.getErrorBound() < 1e-9);
+    }
+
+    /**
+     * Test of intersect method with parallel lines, of class
+     * LineIntersection.
+     */
+    @Test
+    public void testIntersectParallel() {
+        System.out.println("intersect parallel");
+        LineIntersection result = LineIntersection.intersect(
+                new Line2D.Double(0, 0, 10, 0),
+                new Line2D.Double(20, 2, 30, 2));
+        assertTrue(result.isParallel());
+        assertEquals(15, result.getPoint().getX(), 1e-9);
+        assertEquals(1, result.getPoint().getY(), 1e-9);
+        assertEquals(1, result.getErrorBound(), 1e-9);
+
+        // same line:
+        result = LineIntersection.intersect(new Line2D.Double(0, 0, 2, 2),
+                new Line2D.Double(4, 4, 6, 6));
+        assertTrue(result.isParallel());
+        assertEquals(0, result.getErrorBound(), 1e-9);
+        assertEquals(3, result.getPoint().getX(), 1e-9);
+
+        // zero lenght:
+        result = LineIntersection.intersect(new Line2D.Double(5, 5, 5, 5),
+                new Line2D.Double(0, 0, 10, 0));
+        assertTrue(result.isParallel());
+        assertEquals(new Point2D.Double(5, 2.5), result.getPoint());
+    }
+
+    /**
+     * Test of intersect method with non finite lines, of class
+     * LineIntersection.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntersectNaN() {
+        System.out.println("intersect NaN");
+        LineIntersection.intersect(new Line2D.Double(0, 0, Double.NaN, 1),
+                new Line2D.Double(0, 1, 1, 0));
+    }
+}
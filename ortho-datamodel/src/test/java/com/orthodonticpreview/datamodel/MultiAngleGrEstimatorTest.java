@@ -0,0 +1,114 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class MultiAngleGrEstimatorTest {
+
+    private static List<Line2D> units;
+
+    public MultiAngleGrEstimatorTest() {
+    }
+
+    @BeforeClass
+    public static void setup() {
+        units = new ArrayList<Line2D>();
+        units.add(new Line2D.Double(247.31, 690.76, 205.51, 647.27));
+        units.add(new Line2D.Double(271.03, 613.94, 217.94, 570.45));
+        units.add(new Line2D.Double(282.89, 556.90, 234.88, 515.10));
+        units.add(new Line2D.Double(304.36, 498.16, 264.82, 462.57));
+        units.add(new Line2D.Double(311.13, 451.28, 303.79, 425.30));
+        units.add(new Line2D.Double(360.27, 449.58, 358.58, 398.19));
+        units.add(new Line2D.Double(425.79, 445.06, 430.31, 395.36));
+        units.add(new Line2D.Double(473.80, 438.29, 490.74, 415.13));
+        units.add(new Line2D.Double(495.26, 480.08, 540.45, 455.23));
+        units.add(new Line2D.Double(518.42, 529.79, 572.64, 501.55));
+        units.add(new Line2D.Double(542.71, 585.70, 595.23, 563.11));
+        units.add(new Line2D.Double(573.77, 643.88, 615.00, 637.10));
+    }
+
+    /**
+     * Test of estimate method, of class MultiAngleGrEstimator.
+     */
+    @Test
+    public void testEstimate() {
+        System.out.println("estimate");
+        MultiAngleGrEstimator.Estimate result
+                = new MultiAngleGrEstimator().estimate(units);
+        System.out.println(result);
+        assertEquals(360.12, result.getPoint().getX(), 0.01);
+        assertEquals(398.69, result.getPoint().getY(), 0.01);
+        assertEquals(0, result.getResidual(), 1e-4);
+        assertEquals(0, result.getRejected());
+        assertEquals(6, result.getLines().size());
+
+        BasicCalculationModel model = new BasicCalculationModel(units, null);
+        PreviewCalculation calculation = new PreviewCalculation(model);
+        calculation.setMethod(CalculationMethod.MULTI_ANGLE);
+        calculation.storeResults();
+        assertEquals(result.getPoint(), model.getPointGr());
+        assertEquals(383.27, model.getResultant().getX2(), 0.01);
+    }
+
+    /**
+     * Test of fit method with an outlier, of class MultiAngleGrEstimator.
+     */
+    @Test
+    public void testFitOutlier() {
+        System.out.println("fit outlier");
+        List<Line2D> lines = new ArrayList<Line2D>();
+        lines.add(new Line2D.Double(0, 10, 20, 10));
+        lines.add(new Line2D.Double(10, 0, 10, 20));
+        lines.add(new Line2D.Double(0, 0, 20, 20));
+        lines.add(new Line2D.Double(0, 20.001, 20, 0));
+        lines.add(new Line2D.Double(0, 40, 20, 35));
+        MultiAngleGrEstimator.Estimate result
+                = MultiAngleGrEstimator.fit(lines);
+        assertEquals(1, result.getRejected());
+        assertEquals(10, result.getPoint().getX(), 0.001);
+        assertEquals(10, result.getPoint().getY(), 0.001);
+        assertTrue(result.getResidual() < 0.001);
+    }
+
+    /**
+     * Test of fit method with parallel lines, of class
+     * MultiAngleGrEstimator.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFitParallel() {
+        System.out.println("fit parallel");
+        List<Line2D> lines = new ArrayList<Line2D>();
+        lines.add(new Line2D.Double(0, 10, 20, 10));
+        lines.add(new Line2D.Double(0, 12, 20, 12));
+        MultiAngleGrEstimator.fit(lines);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel;
+
+import com.orthodonticpreview.datamodel.cache.RasterCache;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class ReportImageTransformTest {
+
+    public ReportImageTransformTest() {
+    }
+
+    private static BufferedImage createImage(final int width,
+            final int height) {
+        final Random random = new Random(7);
+        final BufferedImage image = new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Test of render method for multiples of 90 degrees, of class
+     * ReportImageTransform.
+     */
+    @Test
+    public void testRenderQuarterTurns() {
+        System.out.println("render (90 degrees)");
+        final BufferedImage source = createImage(60, 40);
+        //partly out of image
+        final Rectangle bounds = new Rectangle(-5, 3, 50, 70);
+        for (int rotation : new int[]{0, 90, 180, 270, -90, 360}) {
+            for (boolean flip : new boolean[]{false, true}) {
+                final BufferedImage fast = ReportImageTransform.render(
+                        source, rotation, flip, bounds);
+                final BufferedImage resampled = ReportImageTransform
+                        .renderResampled(source, rotation, flip, bounds);
+                for (int y = 0; y < bounds.height; y++) {
+                    for (int x = 0; x < bounds.width; x++) {
+                        assertEquals("rotation " + rotation + " flip "
+                                + flip + " at " + x + "," + y,
+                                resampled.getRGB(x, y), fast.getRGB(x, y));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test of render method, of class ReportImageTransform: a pixel goes
+     * where imageToDisplay takes it.
+     */
+    @Test
+    public void testRenderPixel() {
+        System.out.println("render (pixel)");
+        final BufferedImage source = createImage(30, 20);
+        final Rectangle imageBounds = new Rectangle(0, 0, 30, 20);
+        final Rectangle bounds = new Rectangle(-10, -10, 60, 60);
+        final AffineTransform transform = ReportImageTransform
+                .imageToDisplay(imageBounds, 90, true);
+        final Point2D center = transform.transform(
+                new Point2D.Double(4.5, 7.5), null);
+        final BufferedImage result = ReportImageTransform.render(source, 90,
+                true, bounds);
+        assertEquals(source.getRGB(4, 7), result.getRGB(
+                (int) Math.floor(center.getX()) - bounds.x,
+                (int) Math.floor(center.getY()) - bounds.y));
+        //white out of image
+        assertEquals(0xffffffff, result.getRGB(0, 0));
+    }
+
+    /**
+     * Test of render method with a cached image, of class
+     * ReportImageTransform: copying only the area under bounds gives the
+     * same pixels as the whole image.
+     */
+    @Test
+    public void testRenderHandle() throws IOException {
+        System.out.println("render (cached image)");
+        final BufferedImage source = createImage(60, 40);
+        final File file = File.createTempFile("transform", ".png");
+        final RasterCache.Handle handle;
+        try {
+            ImageIO.write(source, "png", file);
+            handle = new RasterCache(1 << 20).acquire(file);
+        } finally {
+            file.delete();
+        }
+        try {
+            final Rectangle[] areas = {new Rectangle(10, 5, 20, 15),
+                new Rectangle(-5, 3, 50, 70), new Rectangle(200, 200, 5, 5)};
+            for (Rectangle bounds : areas) {
+                for (int rotation : new int[]{0, 90, 270, 30, -45}) {
+                    for (boolean flip : new boolean[]{false, true}) {
+                        final BufferedImage expected = ReportImageTransform
+                                .render(source, rotation, flip, bounds);
+                        final BufferedImage result = ReportImageTransform
+                                .render(handle, rotation, flip, bounds);
+                        for (int y = 0; y < bounds.height; y++) {
+                            for (int x = 0; x < bounds.width; x++) {
+                                assertEquals(bounds + " rotation " + rotation
+                                        + " flip " + flip + " at " + x + ","
+                                        + y, expected.getRGB(x, y),
+                                        result.getRGB(x, y));
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            handle.release();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.BasicCalculationModel;
+import com.orthodonticpreview.datamodel.PreviewCalculation;
+import com.orthodonticpreview.datamodel.ReportImageTransform;
+import java.awt.Rectangle;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.imageio.ImageIO;
+import static org.junit.Assert.*;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class BatchCalculatorTest {
+
+    private static final String CASE = "# test case\n"
+            + "force,247.31,690.76,205.51,647.27\n"
+            + "force,271.03,613.94,217.94,570.45\n"
+            + "force,282.89,556.90,234.88,515.10\n"
+            + "force,304.36,498.16,264.82,462.57\n"
+            + "force,311.13,451.28,303.79,425.30\n"
+            + "force,360.27,449.58,358.58,398.19\n"
+            + "force,425.79,445.06,430.31,395.36\n"
+            + "force,473.80,438.29,490.74,415.13\n"
+            + "force,495.26,480.08,540.45,455.23\n"
+            + "force,518.42,529.79,572.64,501.55\n"
+            + "force,542.71,585.70,595.23,563.11\n"
+            + "force,573.77,643.88,615.00,637.10\n"
+            + "arc,200,700,620,700\n"
+            + "midx,420\n"
+            + "front,420\n"
+            + "scale,0.1\n";
+
+    private static BatchCalculator calculator;
+
+    public BatchCalculatorTest() {
+    }
+
+    @BeforeClass
+    public static void setup() {
+        calculator = new BatchCalculator(2);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        calculator.shutdown();
+    }
+
+    /**
+     * Test of read method, of class CaseFileReader.
+     */
+    @Test
+    public void testRead() throws IOException {
+        System.out.println("read");
+        CaseData data = CaseFileReader.read("case",
+                new StringReader(CASE), null);
+        assertEquals(12, data.getForces().size());
+        assertNotNull(data.getArc());
+        assertEquals(420, data.getMidX(), 0.001);
+        assertEquals(0.1, data.getScale(), 0.001);
+        assertNull(data.getImage());
+    }
+
+    /**
+     * Test of read method, of class CaseFileReader, with an invalid line.
+     */
+    @Test(expected = IOException.class)
+    public void testReadInvalid() throws IOException {
+        System.out.println("read - invalid");
+        CaseFileReader.read("case", new StringReader("force,1,2,3\n"), null);
+    }
+
+    /**
+     * Test of calculate method, of class BatchCalculator.
+     */
+    @Test
+    public void testCalculate() throws Exception {
+        System.out.println("calculate");
+        List<CaseData> cases = new ArrayList<CaseData>();
+        for (int i = 0; i < 4; i++) {
+            cases.add(CaseFileReader.read("case" + i,
+                    new StringReader(CASE), null));
+        }
+        cases.add(new CaseData("empty"));
+
+        List<CaseResult> results = calculator.calculate(cases);
+        assertEquals(5, results.size());
+        for (int i = 0; i < 4; i++) {
+            CaseResult result = results.get(i);
+            assertEquals("case" + i, result.getName());
+            assertTrue(result.isOk());
+            Point2D gr = result.getPointGr();
+            assertEquals(360.12, gr.getX(), 0.01);
+            assertEquals(398.69, gr.getY(), 0.01);
+            assertEquals("right", result.getTurning());
+            assertEquals(Boolean.TRUE, result.getProjection());
+        }
+        assertFalse(results.get(4).isOk());
+    }
+
+    /**
+     * Test of readAll method, of class CaseFileReader, with a malformed file.
+     */
+    @Test
+    public void testReadAllMalformed() throws Exception {
+        System.out.println("readAll - malformed");
+        File dir = File.createTempFile("cases", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        File good = new File(dir, "a" + CaseFileReader.EXTENSION);
+        File bad = new File(dir, "b" + CaseFileReader.EXTENSION);
+        try {
+            write(good, CASE);
+            write(bad, "force,1,2,3\n");
+
+            List<CaseData> cases = CaseFileReader.readAll(dir);
+            assertEquals(2, cases.size());
+            assertNull(cases.get(0).getError());
+            assertEquals("b", cases.get(1).getName());
+            assertNotNull(cases.get(1).getError());
+
+            List<CaseResult> results = calculator.calculate(cases);
+            assertTrue(results.get(0).isOk());
+            assertFalse(results.get(1).isOk());
+            assertEquals(cases.get(1).getError(), results.get(1).getError());
+
+            results = calculator.reduce(cases);
+            assertTrue(results.get(0).isOk());
+            assertEquals(cases.get(1).getError(), results.get(1).getError());
+        } finally {
+            good.delete();
+            bad.delete();
+            dir.delete();
+        }
+    }
+
+    private static void write(final File file, final String text)
+            throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+                "UTF-8");
+        try {
+            writer.write(text);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Test of renderReport method, of class BatchCalculator.
+     */
+    @Test
+    public void testRenderReport() throws IOException {
+        System.out.println("renderReport");
+        CaseData data = CaseFileReader.read("case",
+                new StringReader(CASE), null);
+        BasicCalculationModel model = data.toModel();
+        new PreviewCalculation(model).storeResults();
+        BufferedImage image = BatchCalculator.renderReport(data, model);
+        assertEquals(model.getResultBounds().width, image.getWidth());
+        assertEquals(model.getResultBounds().height, image.getHeight());
+    }
+
+    /**
+     * Test of renderReport method with a case image, of class
+     * BatchCalculator.
+     */
+    @Test
+    public void testRenderReportImage() throws IOException {
+        System.out.println("renderReport (image)");
+        BufferedImage source = new BufferedImage(800, 800,
+                BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < 800; y++) {
+            for (int x = 0; x < 800; x++) {
+                source.getRaster().setSample(x, y, 0, (x + y) % 256);
+            }
+        }
+        File file = File.createTempFile("case", ".png");
+        try {
+            ImageIO.write(source, "png", file);
+            CaseData data = CaseFileReader.read("case", new StringReader(
+                    CASE + "image," + file.getAbsolutePath() + "\n"), null);
+            BasicCalculationModel model = data.toModel();
+            new PreviewCalculation(model).storeResults();
+            Rectangle bounds = model.getResultBounds();
+
+            BufferedImage image = BatchCalculator.renderReport(data, model);
+            BufferedImage expected = ReportImageTransform.render(source, 0,
+                    false, bounds);
+            assertEquals(expected.getRGB(0, 0), image.getRGB(0, 0));
+            assertEquals(expected.getRGB(bounds.width - 1, bounds.height - 1),
+                    image.getRGB(bounds.width - 1, bounds.height - 1));
+        } finally {
+            file.delete();
+        }
+    }
+}
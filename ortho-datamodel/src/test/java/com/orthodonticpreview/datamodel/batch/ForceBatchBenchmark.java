@@ -0,0 +1,111 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.BasicCalculationModel;
+import com.orthodonticpreview.datamodel.CalculationMethod;
+import com.orthodonticpreview.datamodel.PreviewCalculation;
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares ForceBatchKernel with PreviewCalculation (funicular and
+ * analytic), one thread, on random force sets. Not a unit test; run with
+ *
+ * <pre>
+ * java ForceBatchBenchmark [cases] [rounds]
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class ForceBatchBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    /**
+     * Keeps results alive, so the JIT does not drop the work.
+     */
+    private static double sink;
+
+    private ForceBatchBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Number of cases (default 100000) and rounds (default 5).
+     */
+    public static void main(final String[] args) {
+        final int size = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        final Random random = new Random(1);
+        final List<List<Line2D>> cases = new ArrayList<List<Line2D>>(size);
+        for (int i = 0; i < size; i++) {
+            cases.add(ForceBatchKernelTest.createForces(random, 12));
+        }
+
+        for (int round = -WARMUP_ROUNDS; round < rounds; round++) {
+            final long funicular = time(cases, CalculationMethod.FUNICULAR);
+            final long analytic = time(cases, CalculationMethod.ANALYTIC);
+
+            long start = System.nanoTime();
+            final ForceBatchKernel kernel
+                    = new ForceBatchKernel(size, size * 12);
+            for (List<Line2D> forces : cases) {
+                kernel.add(forces);
+            }
+            final long load = System.nanoTime() - start;
+            start = System.nanoTime();
+            kernel.reduce(PreviewCalculation.TURN);
+            final long reduce = System.nanoTime() - start;
+            for (int i = 0; i < size; i++) {
+                sink += kernel.getGrX(i);
+            }
+
+            if (round >= 0) {
+                System.out.printf("round %d: funicular %.1f ns/case,"
+                        + " analytic %.1f ns/case, kernel load %.1f"
+                        + " + reduce %.1f ns/case%n", round,
+                        (double) funicular / size, (double) analytic / size,
+                        (double) load / size, (double) reduce / size);
+            }
+        }
+        System.out.println("(" + sink + ")");
+    }
+
+    private static long time(final List<List<Line2D>> cases,
+            final CalculationMethod method) {
+        final long start = System.nanoTime();
+        for (List<Line2D> forces : cases) {
+            final BasicCalculationModel model
+                    = new BasicCalculationModel(forces, null);
+            final PreviewCalculation calculation
+                    = new PreviewCalculation(model);
+            calculation.setMethod(method);
+            calculation.storeResults();
+            sink += model.getPointGr().getX();
+        }
+        return System.nanoTime() - start;
+    }
+}
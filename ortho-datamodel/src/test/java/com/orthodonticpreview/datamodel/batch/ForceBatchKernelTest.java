@@ -0,0 +1,143 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.BasicCalculationModel;
+import com.orthodonticpreview.datamodel.PreviewCalculation;
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class ForceBatchKernelTest {
+
+    public ForceBatchKernelTest() {
+    }
+
+    /**
+     * Random arch with n forces, pointing roughly to the front.
+     */
+    static List<Line2D> createForces(final Random random, final int n) {
+        final List<Line2D> forces = new ArrayList<Line2D>(n);
+        for (int i = 0; i < n; i++) {
+            final double angle = Math.PI * i / (n - 1);
+            final double x = 400 - 180 * Math.cos(angle);
+            final double y = 650 - 250 * Math.sin(angle);
+            final double len = 30 + 30 * random.nextDouble();
+            final double dir = Math.PI / 2 + (angle - Math.PI / 2) * 0.5
+                    + random.nextGaussian() * 0.2;
+            forces.add(new Line2D.Double(x, y,
+                    x - len * Math.cos(dir), y - len * Math.sin(dir)));
+        }
+        return forces;
+    }
+
+    /**
+     * Test of reduce method, of class ForceBatchKernel.
+     */
+    @Test
+    public void testReduce() {
+        System.out.println("reduce");
+        final Random random = new Random(11);
+        //small capacity, to test growing:
+        final ForceBatchKernel kernel = new ForceBatchKernel(1, 1);
+        final List<List<Line2D>> cases = new ArrayList<List<Line2D>>();
+        for (int i = 0; i < 40; i++) {
+            cases.add(createForces(random, 7 + i % 8));
+            assertEquals(i, kernel.add(cases.get(i)));
+        }
+        kernel.reduce(PreviewCalculation.TURN);
+
+        for (int i = 0; i < cases.size(); i++) {
+            final BasicCalculationModel model
+                    = new BasicCalculationModel(cases.get(i), null);
+            new PreviewCalculation(model).storeResults();
+            assertTrue(kernel.isValid(i));
+            assertEquals(model.getPointGr().getX(), kernel.getGrX(i), 1e-6);
+            assertEquals(model.getPointGr().getY(), kernel.getGrY(i), 1e-6);
+            assertEquals(model.getResultant().getX2(),
+                    kernel.getResultant(i).getX2(), 1e-6);
+            assertEquals(model.getResultant().getY2(),
+                    kernel.getResultant(i).getY2(), 1e-6);
+        }
+    }
+
+    /**
+     * Test of isValid method, of class ForceBatchKernel.
+     */
+    @Test
+    public void testIsValid() {
+        System.out.println("isValid");
+        final List<Line2D> forces = new ArrayList<Line2D>();
+        forces.add(new Line2D.Double(0, 0, 10, 0));
+        forces.add(new Line2D.Double(0, 5, -10, 5));
+        final ForceBatchKernel kernel = new ForceBatchKernel();
+        kernel.add(forces);
+        kernel.reduce(PreviewCalculation.TURN);
+        assertFalse(kernel.isValid(0));
+        assertEquals(0, kernel.getSumX(0), 1e-9);
+        assertEquals(50, kernel.getMoment(0), 1e-9);
+    }
+
+    /**
+     * Test of reduce method, of class BatchCalculator.
+     */
+    @Test
+    public void testBatchReduce() throws InterruptedException {
+        System.out.println("batch reduce");
+        final Random random = new Random(3);
+        final List<CaseData> cases = new ArrayList<CaseData>();
+        for (int i = 0; i < 10; i++) {
+            final CaseData data = new CaseData("case" + i);
+            data.getForces().addAll(createForces(random, 12));
+            data.setMidX(400.0);
+            data.setFrontLimit(420.0);
+            cases.add(data);
+        }
+        cases.add(new CaseData("empty"));
+
+        final BatchCalculator calculator = new BatchCalculator(3);
+        try {
+            final List<CaseResult> expected = calculator.calculate(cases);
+            final List<CaseResult> results = calculator.reduce(cases);
+            assertEquals(expected.size(), results.size());
+            for (int i = 0; i < 10; i++) {
+                assertTrue(results.get(i).isOk());
+                assertEquals(expected.get(i).getPointGr().getX(),
+                        results.get(i).getPointGr().getX(), 1e-6);
+                assertEquals(expected.get(i).getTurning(),
+                        results.get(i).getTurning());
+                assertEquals(expected.get(i).getProjection(),
+                        results.get(i).getProjection());
+            }
+            assertFalse(results.get(10).isOk());
+        } finally {
+            calculator.shutdown();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.batch;
+
+import com.orthodonticpreview.datamodel.Tendencies;
+import java.awt.geom.Point2D;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class TendencyDiffJobTest {
+
+    private static TendencyDiffJob job;
+
+    public TendencyDiffJobTest() {
+    }
+
+    @BeforeClass
+    public static void setup() {
+        job = new TendencyDiffJob(2, Tendencies.DEFAULT_RULE,
+                Tendencies.rule(1.0));
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        job.shutdown();
+    }
+
+    private static TendencyCase createCase(final String name,
+            final double grX) {
+        final TendencyCase data
+                = new TendencyCase(name, new Point2D.Double(grX, 400));
+        data.setMidX(420.0);
+        data.setFrontLimit(420.0);
+        data.setScale(0.1);
+        return data;
+    }
+
+    /**
+     * Test of evaluate method, of class TendencyDiffJob.
+     */
+    @Test
+    public void testEvaluate() {
+        System.out.println("evaluate");
+        // 0.5 mm to the right: left by 0.1 mm, none by 1 mm.
+        TendencyDiff diff = job.evaluate(createCase("near", 425));
+        assertEquals(Tendencies.LEFT, diff.getBaseTurning());
+        assertEquals(Tendencies.NONE, diff.getNewTurning());
+        assertTrue(diff.isChanged());
+
+        // 3 mm to the left: right by both.
+        diff = job.evaluate(createCase("far", 390));
+        assertEquals(Tendencies.RIGHT, diff.getNewTurning());
+        assertFalse(diff.isChanged());
+
+        diff = job.evaluate(new TendencyCase("empty", null));
+        assertNotNull(diff.getError());
+    }
+
+    /**
+     * Test of run method, of class TendencyDiffJob.
+     */
+    @Test
+    public void testRun() throws InterruptedException {
+        System.out.println("run");
+        final List<File> files = Arrays.asList(new File("a.orp"),
+                new File("bad.orp"), new File("c.orp"));
+        final List<TendencyDiff> diffs = job.run(files,
+                new TendencyDiffJob.CaseLoader() {
+                    @Override
+                    public List<TendencyCase> load(final File file)
+                            throws IOException {
+                        if (file.getName().startsWith("bad")) {
+                            throw new IOException("corrupted");
+                        }
+                        final List<TendencyCase> cases
+                                = new ArrayList<TendencyCase>();
+                        cases.add(createCase(file.getName() + " 1", 425));
+                        cases.add(createCase(file.getName() + " 2", 390));
+                        return cases;
+                    }
+                });
+        assertEquals(5, diffs.size());
+        assertEquals("a.orp 1", diffs.get(0).getName());
+        assertEquals("bad.orp", diffs.get(2).getName());
+        assertNotNull(diffs.get(2).getError());
+        assertEquals("c.orp 2", diffs.get(4).getName());
+        assertTrue(diffs.get(3).isChanged());
+    }
+}
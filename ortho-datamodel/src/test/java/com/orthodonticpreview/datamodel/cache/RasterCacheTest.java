@@ -0,0 +1,148 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.cache;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class RasterCacheTest {
+
+    private File gray;
+    private File rgb;
+
+    public RasterCacheTest() {
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        final BufferedImage image16 = new BufferedImage(40, 30,
+                BufferedImage.TYPE_USHORT_GRAY);
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 40; x++) {
+                image16.getRaster().setSample(x, y, 0, x * 1000 + y);
+            }
+        }
+        gray = File.createTempFile("raster", ".png");
+        ImageIO.write(image16, "png", gray);
+
+        final BufferedImage imageRgb = new BufferedImage(20, 10,
+                BufferedImage.TYPE_INT_RGB);
+        imageRgb.setRGB(3, 4, 0x123456);
+        rgb = File.createTempFile("raster", ".png");
+        ImageIO.write(imageRgb, "png", rgb);
+    }
+
+    @After
+    public void tearDown() {
+        gray.delete();
+        rgb.delete();
+    }
+
+    /**
+     * Test of acquire method, of class RasterCache.
+     */
+    @Test
+    public void testAcquire() throws IOException {
+        System.out.println("acquire");
+        RasterCache cache = new RasterCache(1 << 20);
+        RasterCache.Handle first = cache.acquire(gray);
+        RasterCache.Handle second = cache.acquire(gray);
+        assertEquals(1, cache.size());
+        assertEquals(40 * 30 * 2, cache.getBytes());
+        assertSame(first.getImage(), second.getImage());
+
+        BufferedImage view = first.getImage();
+        assertEquals(40, view.getWidth());
+        assertEquals(7 * 1000 + 5, view.getRaster().getSample(7, 5, 0));
+
+        BufferedImage crop = first.copy(new Rectangle(5, 3, 100, 2));
+        assertEquals(BufferedImage.TYPE_USHORT_GRAY, crop.getType());
+        assertEquals(35, crop.getWidth());
+        assertEquals(2, crop.getHeight());
+        assertEquals(7 * 1000 + 4, crop.getRaster().getSample(2, 1, 0));
+
+        RasterCache.Handle color = cache.acquire(rgb);
+        assertEquals(0x123456, color.getImage().getRGB(3, 4) & 0xffffff);
+        assertEquals(0x123456, color.copy(new Rectangle(3, 4, 1, 1))
+                .getRGB(0, 0) & 0xffffff);
+        first.release();
+        second.release();
+        color.release();
+    }
+
+    /**
+     * Test of eviction, of class RasterCache.
+     */
+    @Test
+    public void testEvict() throws IOException {
+        System.out.println("evict");
+        RasterCache cache = new RasterCache(40 * 30 * 2);
+        RasterCache.Handle first = cache.acquire(gray);
+        RasterCache.Handle second = cache.acquire(rgb);
+        //both in use: over size
+        assertEquals(2, cache.size());
+        first.release();
+        first.release();
+        assertEquals(1, cache.size());
+        assertEquals(20 * 10 * 4, cache.getBytes());
+        try {
+            first.getImage();
+            fail("Released handle must not be used.");
+        } catch (IllegalStateException ex) {
+            //ok
+        }
+        second.release();
+        assertEquals(1, cache.size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+
+    /**
+     * Test of acquire method for a changed file, of class RasterCache.
+     */
+    @Test
+    public void testChangedFile() throws IOException {
+        System.out.println("changedFile");
+        RasterCache cache = new RasterCache(1 << 20);
+        cache.acquire(rgb).release();
+        ImageIO.write(new BufferedImage(5, 5, BufferedImage.TYPE_BYTE_GRAY),
+                "png", rgb);
+        assertTrue(rgb.setLastModified(rgb.lastModified() + 2000));
+        RasterCache.Handle handle = cache.acquire(rgb);
+        assertEquals(5, handle.getWidth());
+        assertEquals(1, cache.size());
+        assertEquals(25, cache.getBytes());
+        handle.release();
+    }
+}
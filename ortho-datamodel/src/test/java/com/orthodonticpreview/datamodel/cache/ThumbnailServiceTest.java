@@ -0,0 +1,229 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.cache;
+
+import com.orthodonticpreview.datamodel.monitor.Metrics;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class ThumbnailServiceTest {
+
+    private File image;
+    private File directory;
+
+    public ThumbnailServiceTest() {
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        final BufferedImage big = new BufferedImage(1000, 600,
+                BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 600; y++) {
+            for (int x = 500; x < 1000; x++) {
+                big.setRGB(x, y, 0xffffff);
+            }
+        }
+        image = File.createTempFile("thumb", ".png");
+        ImageIO.write(big, "png", image);
+        directory = File.createTempFile("thumbs", "");
+        directory.delete();
+    }
+
+    @After
+    public void tearDown() {
+        image.delete();
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    /**
+     * Test of getThumbnail method, of class ThumbnailService.
+     */
+    @Test
+    public void testGetThumbnail() throws IOException {
+        System.out.println("getThumbnail");
+        ThumbnailService service = new ThumbnailService(directory, 100, 1);
+        BufferedImage thumbnail = service.getThumbnail(image);
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(60, thumbnail.getHeight());
+        assertEquals(0, thumbnail.getRGB(10, 30) & 0xffffff);
+        assertEquals(0xffffff, thumbnail.getRGB(90, 30) & 0xffffff);
+        assertSame(thumbnail, service.getThumbnail(image));
+        assertEquals(1, directory.listFiles().length);
+        service.shutdown();
+
+        //other service reads disk cache
+        final long diskHits
+                = Metrics.counter(ThumbnailService.DISK_HITS).get();
+        service = new ThumbnailService(directory, 100, 1);
+        thumbnail = service.getThumbnail(image);
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(diskHits + 1,
+                Metrics.counter(ThumbnailService.DISK_HITS).get());
+        service.shutdown();
+    }
+
+    /**
+     * Test of request method, of class ThumbnailService.
+     */
+    @Test
+    public void testRequest() throws Exception {
+        System.out.println("request");
+        final File text = File.createTempFile("thumb", ".txt");
+        final FileOutputStream out = new FileOutputStream(text);
+        out.write("not an image".getBytes("UTF-8"));
+        out.close();
+        final File missing = new File(directory, "missing.png");
+
+        final ThumbnailService service = new ThumbnailService(null, 50, 2);
+        final CountDownLatch done = new CountDownLatch(4);
+        final BufferedImage[] results = new BufferedImage[2];
+        final String[] errors = new String[1];
+        final File[] unsupported = new File[1];
+        final boolean[] onEdt = {true};
+        for (int i = 0; i < 2; i++) {
+            final int index = i;
+            service.request(image, new ThumbnailService.Callback() {
+                @Override
+                public void thumbnailReady(final File file,
+                        final BufferedImage thumbnail) {
+                    onEdt[0] &= SwingUtilities.isEventDispatchThread();
+                    results[index] = thumbnail;
+                    done.countDown();
+                }
+
+                @Override
+                public void thumbnailFailed(final File file,
+                        final String reason) {
+                    done.countDown();
+                }
+
+                @Override
+                public void thumbnailUnsupported(final File file) {
+                    done.countDown();
+                }
+            });
+        }
+        service.request(text, new ThumbnailService.Callback() {
+            @Override
+            public void thumbnailReady(final File file,
+                    final BufferedImage thumbnail) {
+                done.countDown();
+            }
+
+            @Override
+            public void thumbnailFailed(final File file,
+                    final String reason) {
+                done.countDown();
+            }
+
+            @Override
+            public void thumbnailUnsupported(final File file) {
+                onEdt[0] &= SwingUtilities.isEventDispatchThread();
+                unsupported[0] = file;
+                done.countDown();
+            }
+        });
+        service.request(missing, new ThumbnailService.Callback() {
+            @Override
+            public void thumbnailReady(final File file,
+                    final BufferedImage thumbnail) {
+                done.countDown();
+            }
+
+            @Override
+            public void thumbnailFailed(final File file,
+                    final String reason) {
+                onEdt[0] &= SwingUtilities.isEventDispatchThread();
+                errors[0] = reason;
+                done.countDown();
+            }
+
+            @Override
+            public void thumbnailUnsupported(final File file) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        text.delete();
+        service.shutdown();
+
+        assertTrue(onEdt[0]);
+        assertNotNull(results[0]);
+        //same file is decoded once
+        assertSame(results[0], results[1]);
+        assertEquals(50, results[0].getWidth());
+        //unknown format is not an error, missing file is
+        assertEquals(text, unsupported[0]);
+        assertNotNull(errors[0]);
+    }
+
+    /**
+     * Test of prune method, of class ThumbnailService.
+     */
+    @Test
+    public void testPrune() throws IOException {
+        System.out.println("prune");
+        assertTrue(directory.mkdir());
+        final long now = System.currentTimeMillis();
+        for (int i = 0; i < 4; i++) {
+            final File file = new File(directory, "t" + i + ".png");
+            final FileOutputStream out = new FileOutputStream(file);
+            out.write(new byte[1000]);
+            out.close();
+            file.setLastModified(now - (4 - i) * 60000L);
+        }
+        final File temp = new File(directory, "t.tmp");
+        temp.createNewFile();
+        temp.setLastModified(now - TimeUnit.HOURS.toMillis(2));
+
+        final ThumbnailService service
+                = new ThumbnailService(directory, 2500, 50, 1);
+        service.prune();
+        service.shutdown();
+        //oldest are deleted, until under maximum
+        assertFalse(new File(directory, "t0.png").exists());
+        assertFalse(new File(directory, "t1.png").exists());
+        assertTrue(new File(directory, "t2.png").exists());
+        assertTrue(new File(directory, "t3.png").exists());
+        assertFalse(temp.exists());
+    }
+}
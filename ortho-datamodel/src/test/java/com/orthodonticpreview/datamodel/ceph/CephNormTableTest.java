@@ -0,0 +1,126 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.ceph;
+
+import java.io.IOException;
+import java.io.StringReader;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class CephNormTableTest {
+
+    private static final String NORMS = "# test norms\n"
+            + "SNA;default;;;82|83;low|normal|high\n"
+            + "SNA;default;6;12;80|82;child low|child normal|child high\n"
+            + "SNA;asian;;;81|82.5;a low|a normal|a high\n"
+            + "ANB;;;;-1|2|3|5;c3|c3 light|c1|c2 light|c2\n";
+
+    public CephNormTableTest() {
+    }
+
+    private static CephNormTable read(final String text) throws IOException {
+        final CephNormTable table = new CephNormTable();
+        table.read("test", new StringReader(text));
+        return table;
+    }
+
+    /**
+     * Test of classify method, of class CephNormTable.
+     */
+    @Test
+    public void testClassify() throws IOException {
+        System.out.println("classify");
+        final CephNormTable table = read(NORMS);
+        //limits are inclusive on the upper interval, as before.
+        assertEquals("low", table.classify("SNA", null, null, 81.9));
+        assertEquals("normal", table.classify("SNA", null, null, 82));
+        assertEquals("high", table.classify("SNA", null, null, 83));
+
+        assertEquals("c3", table.classify("ANB", null, null, -2));
+        assertEquals("c3 light", table.classify("ANB", null, null, -1));
+        assertEquals("c1", table.classify("ANB", null, null, 2.5));
+        assertEquals("c2 light", table.classify("ANB", null, null, 4));
+        assertEquals("c2", table.classify("ANB", null, null, 5));
+
+        assertNull(table.classify("SNB", null, null, 80));
+    }
+
+    /**
+     * Test of find method, of class CephNormTable.
+     */
+    @Test
+    public void testFind() throws IOException {
+        System.out.println("find");
+        final CephNormTable table = read(NORMS);
+        //age range preferred when age is known.
+        assertEquals("child normal", table.classify("SNA", null, 8.0, 81));
+        assertEquals("normal", table.classify("SNA", null, 12.0, 82));
+        //population preferred to default, even with age.
+        assertEquals("a normal", table.classify("SNA", "Asian", 8.0, 82));
+        //unknown population uses default.
+        assertEquals("low", table.classify("SNA", "other", null, 81));
+
+        //later file replaces same scope.
+        table.read("clinic", new StringReader(
+                "SNA;default;;;84|85;L|N|H\n"));
+        assertEquals("L", table.classify("SNA", null, null, 83));
+        assertEquals("child normal", table.classify("SNA", null, 8.0, 81));
+    }
+
+    /**
+     * Test of read method, of class CephNormTable.
+     */
+    @Test
+    public void testReadErrors() {
+        System.out.println("read errors");
+        final String[] invalid = {
+            "SNA;default;;;82|83;low|high\n",
+            "SNA;default;;;83|82;low|normal|high\n",
+            "SNA;default;;82|83;low|normal|high\n",
+            "SNA;default;x;;82|83;low|normal|high\n"
+        };
+        for (String text : invalid) {
+            try {
+                read("\n" + text);
+                fail("Accepted " + text);
+            } catch (IOException ex) {
+                assertTrue(ex.getMessage().startsWith("test, line 2"));
+            }
+        }
+    }
+
+    /**
+     * Test of parseAge method, of class CephNormTable.
+     */
+    @Test
+    public void testParseAge() {
+        System.out.println("parseAge");
+        assertEquals(12.0, CephNormTable.parseAge("12"), 0);
+        assertEquals(12.5, CephNormTable.parseAge(" 12,5 anos"), 0);
+        assertNull(CephNormTable.parseAge("doze"));
+        assertNull(CephNormTable.parseAge(null));
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.export;
+
+import java.awt.Color;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class PdfDocumentWriterTest {
+
+    public PdfDocumentWriterTest() {
+    }
+
+    /**
+     * Test of addPage method, of class PdfDocumentWriter.
+     */
+    @Test
+    public void testAddPage() throws Exception {
+        System.out.println("addPage");
+        final BufferedImage img
+                = new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB);
+        final PdfImage shared = new PdfImage(img);
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final PdfDocumentWriter instance = new PdfDocumentWriter(bytes);
+        for (int i = 0; i < 3; i++) {
+            final PdfPage page = new PdfPage();
+            page.setColor(Color.BLUE);
+            page.setStroke(2, null);
+            page.drawLine(10, 10, 100, 10);
+            page.draw(new Ellipse2D.Double(10, 20, 8, 8));
+            page.drawString("Página (" + i + ")", 10, 50, 10, i == 0);
+            page.drawImage(shared, 10, 100, 200, 100);
+            page.drawImage(new PdfImage(img), 10, 300, 200, 100);
+            instance.addPage(page);
+        }
+        assertEquals(3, instance.getPageCount());
+        instance.close();
+
+        final String pdf = new String(bytes.toByteArray(), "ISO-8859-1");
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertTrue(pdf.endsWith("%%EOF\n"));
+        assertEquals(3, count(pdf, "/Type /Page "));
+        assertTrue(pdf.contains("/Count 3"));
+        //shared image is written once.
+        assertEquals(4, count(pdf, "/Subtype /Image"));
+
+        //every xref entry points to its object.
+        final int xref = Integer.parseInt(pdf.substring(
+                pdf.lastIndexOf("startxref\n") + 10,
+                pdf.lastIndexOf("\n%%EOF")));
+        assertTrue(pdf.startsWith("xref\n", xref));
+        final String[] table = pdf.substring(xref, pdf.indexOf("trailer"))
+                .split("\n");
+        final int size = Integer.parseInt(table[1].substring(2));
+        for (int id = 1; id < size; id++) {
+            final int offset = Integer.parseInt(
+                    table[2 + id].substring(0, 10));
+            assertTrue(pdf.startsWith(id + " 0 obj\n", offset));
+        }
+    }
+
+    /**
+     * Test of num method, of class PdfPage.
+     */
+    @Test
+    public void testNum() {
+        System.out.println("num");
+        assertEquals("0", PdfPage.num(0));
+        assertEquals("12", PdfPage.num(12.001));
+        assertEquals("1.5", PdfPage.num(1.5));
+        assertEquals("0.05", PdfPage.num(0.05));
+        assertEquals("-3.25", PdfPage.num(-3.25));
+    }
+
+    private static int count(final String text, final String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0;
+                i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.export;
+
+import com.orthodonticpreview.datamodel.ReportDrawing;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class SvgReportWriterTest {
+
+    public SvgReportWriterTest() {
+    }
+
+    private static ReportDrawing createDrawing() {
+        final GeneralPath arc = new GeneralPath();
+        arc.moveTo(10, 90);
+        arc.quadTo(50, 10, 90, 90);
+        return ReportDrawing.create(new Point2D.Double(50, 40),
+                new Line2D.Double(40, 60, 50, 40), arc, -5, -5, 100);
+    }
+
+    /**
+     * Test of write method, of class SvgReportWriter.
+     */
+    @Test
+    public void testWrite() throws IOException {
+        System.out.println("write");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SvgReportWriter.write(120, 100, "report.jpg", createDrawing(), bytes);
+        final String svg = bytes.toString("UTF-8");
+
+        assertTrue(svg.contains("viewBox=\"0 0 120 100\""));
+        assertEquals(1, count(svg, "<image "));
+        assertTrue(svg.contains("xlink:href=\"report.jpg\""));
+        //GR
+        assertTrue(svg.contains("<ellipse cx=\"45\" cy=\"35\" rx=\"6\""));
+        //resultant and its dashed extension
+        assertTrue(svg.contains("<line x1=\"35\" y1=\"55\" x2=\"45\""));
+        assertEquals(1, count(svg, "stroke-dasharray=\"15 15\""));
+        assertTrue(svg.contains("stroke=\"#0098da\""));
+        //arc
+        assertTrue(svg.contains("<path d=\"M5 85 Q45 5 85 85\""));
+    }
+
+    /**
+     * Test of write method with the image beside, of class SvgReportWriter.
+     */
+    @Test
+    public void testWriteFile() throws IOException {
+        System.out.println("write (file)");
+        final File file = File.createTempFile("report", ".svg");
+        final SvgReportWriter writer = new SvgReportWriter();
+        writer.setEmbedImage(false);
+        final File imageFile = writer.getImageFile(file);
+        try {
+            writer.write(new BufferedImage(120, 100,
+                    BufferedImage.TYPE_INT_RGB), createDrawing(), file);
+            final BufferedImage image = ImageIO.read(imageFile);
+            assertEquals(120, image.getWidth());
+            assertTrue(file.length() < 4096);
+        } finally {
+            file.delete();
+            imageFile.delete();
+        }
+    }
+
+    /**
+     * Test of write method with the image beside, of class SvgReportWriter,
+     * for a case name with XML and URI special characters.
+     */
+    @Test
+    public void testWriteFileSpecialName() throws Exception {
+        System.out.println("write (file, special name)");
+        final File dir = File.createTempFile("reports", "");
+        assertTrue(dir.delete() && dir.mkdir());
+        final File file = new File(dir, "a&b <\"c\"> 100%.svg");
+        final SvgReportWriter writer = new SvgReportWriter();
+        writer.setEmbedImage(false);
+        final File imageFile = writer.getImageFile(file);
+        try {
+            writer.write(new BufferedImage(120, 100,
+                    BufferedImage.TYPE_INT_RGB), createDrawing(), file);
+            //valid XML, and href resolves to the image file
+            final Element image = (Element) DocumentBuilderFactory
+                    .newInstance().newDocumentBuilder().parse(file)
+                    .getElementsByTagName("image").item(0);
+            final String href = image.getAttribute("xlink:href");
+            assertEquals("a%26b%20%3C%22c%22%3E%20100%25.jpg", href);
+            assertEquals(imageFile,
+                    new File(dir.toURI().resolve(href)));
+        } finally {
+            file.delete();
+            imageFile.delete();
+            dir.delete();
+        }
+    }
+
+    /**
+     * Test of escapeXml method, of class SvgReportWriter.
+     */
+    @Test
+    public void testEscapeXml() {
+        System.out.println("escapeXml");
+        assertEquals("a&amp;b&lt;&quot;c&quot;&gt;&apos;",
+                SvgReportWriter.escapeXml("a&b<\"c\">'"));
+    }
+
+    /**
+     * Test of base64 method, of class SvgReportWriter.
+     */
+    @Test
+    public void testBase64() throws IOException {
+        System.out.println("base64");
+        assertEquals("", SvgReportWriter.base64(new byte[0]));
+        assertEquals("TQ==", SvgReportWriter.base64("M".getBytes("UTF-8")));
+        assertEquals("TWE=", SvgReportWriter.base64("Ma".getBytes("UTF-8")));
+        assertEquals("TWFu", SvgReportWriter.base64("Man".getBytes("UTF-8")));
+        assertEquals("/w==", SvgReportWriter.base64(new byte[]{-1}));
+    }
+
+    private static int count(final String text, final String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0;
+                i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
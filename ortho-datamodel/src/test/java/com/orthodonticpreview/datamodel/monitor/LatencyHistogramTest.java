@@ -0,0 +1,83 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.monitor;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class LatencyHistogramTest {
+
+    public LatencyHistogramTest() {
+    }
+
+    /**
+     * Test of record method, of class LatencyHistogram.
+     */
+    @Test
+    public void testRecord() {
+        System.out.println("record");
+        LatencyHistogram instance = new LatencyHistogram("test");
+        for (int i = 1; i <= 100; i++) {
+            instance.record(i * 1000000L);
+        }
+        assertEquals(100, instance.getCount());
+        assertEquals(50.5, instance.getMeanMillis(), 0.001);
+        assertEquals(100, instance.getMaxMillis(), 0.001);
+    }
+
+    /**
+     * Test of getPercentileMillis method, of class LatencyHistogram.
+     */
+    @Test
+    public void testGetPercentileMillis() {
+        System.out.println("getPercentileMillis");
+        LatencyHistogram instance = new LatencyHistogram("test");
+        assertEquals(0, instance.getPercentileMillis(50), 0.001);
+        for (int i = 0; i < 90; i++) {
+            instance.record(1500000L);
+        }
+        for (int i = 0; i < 10; i++) {
+            instance.record(300000000L);
+        }
+        //1.5 ms is on bucket up to 2.048 ms
+        assertEquals(2.048, instance.getPercentileMillis(50), 0.001);
+        //p99 is limited to max
+        assertEquals(300, instance.getPercentileMillis(99), 0.001);
+    }
+
+    /**
+     * Test of reset method, of class LatencyHistogram.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("reset");
+        LatencyHistogram instance = new LatencyHistogram("test");
+        instance.record(1000);
+        instance.reset();
+        assertEquals(0, instance.getCount());
+        assertEquals(0, instance.getMaxMillis(), 0.001);
+    }
+}
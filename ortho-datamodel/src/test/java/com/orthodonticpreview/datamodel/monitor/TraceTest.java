@@ -0,0 +1,99 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.monitor;
+
+import java.awt.geom.Line2D;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class TraceTest {
+
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(TraceTest.class);
+
+    public TraceTest() {
+    }
+
+    @After
+    public void tearDown() {
+        Trace.setCapacity(Trace.DEFAULT_CAPACITY);
+        Trace.setSampling("test", 1);
+    }
+
+    /**
+     * Test of debug method, of class Trace.
+     */
+    @Test
+    public void testDebug() {
+        System.out.println("debug");
+        Trace.setCapacity(4);
+        Line2D line = new Line2D.Double(1, 2, 3, 4);
+        Trace.debug(LOGGER, "test", "line = {}", line);
+        //traced values are copies
+        line.setLine(0, 0, 0, 0);
+
+        List<Trace.Event> events = Trace.getEvents();
+        assertEquals(1, events.size());
+        assertEquals("line = Line (1.0, 2.0, 3.0, 4.0)",
+                events.get(0).getMessage());
+    }
+
+    /**
+     * Test of getEvents method, of class Trace, when the buffer wraps.
+     */
+    @Test
+    public void testGetEventsWrap() {
+        System.out.println("getEvents - wrap");
+        Trace.setCapacity(3);
+        for (int i = 0; i < 5; i++) {
+            Trace.debug(LOGGER, "test", "event {}", i);
+        }
+        List<Trace.Event> events = Trace.getEvents();
+        assertEquals(3, events.size());
+        assertEquals("event 2", events.get(0).getMessage());
+        assertEquals("event 4", events.get(2).getMessage());
+    }
+
+    /**
+     * Test of setSampling method, of class Trace.
+     */
+    @Test
+    public void testSetSampling() {
+        System.out.println("setSampling");
+        Trace.setCapacity(100);
+        Trace.setSampling("test", 10);
+        for (int i = 0; i < 30; i++) {
+            Trace.debug(LOGGER, "test", "event {}", i);
+        }
+        List<Trace.Event> events = Trace.getEvents();
+        assertEquals(3, events.size());
+        assertEquals("event 10", events.get(1).getMessage());
+    }
+}
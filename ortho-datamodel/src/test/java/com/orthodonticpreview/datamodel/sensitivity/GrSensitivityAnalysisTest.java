@@ -0,0 +1,132 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.sensitivity;
+
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class GrSensitivityAnalysisTest {
+
+    private static List<Line2D> units;
+
+    public GrSensitivityAnalysisTest() {
+    }
+
+    @BeforeClass
+    public static void setup() {
+        units = new ArrayList<Line2D>();
+        units.add(new Line2D.Double(247.31, 690.76, 205.51, 647.27));
+        units.add(new Line2D.Double(271.03, 613.94, 217.94, 570.45));
+        units.add(new Line2D.Double(282.89, 556.90, 234.88, 515.10));
+        units.add(new Line2D.Double(304.36, 498.16, 264.82, 462.57));
+        units.add(new Line2D.Double(311.13, 451.28, 303.79, 425.30));
+        units.add(new Line2D.Double(360.27, 449.58, 358.58, 398.19));
+        units.add(new Line2D.Double(425.79, 445.06, 430.31, 395.36));
+        units.add(new Line2D.Double(473.80, 438.29, 490.74, 415.13));
+        units.add(new Line2D.Double(495.26, 480.08, 540.45, 455.23));
+        units.add(new Line2D.Double(518.42, 529.79, 572.64, 501.55));
+        units.add(new Line2D.Double(542.71, 585.70, 595.23, 563.11));
+        units.add(new Line2D.Double(573.77, 643.88, 615.00, 637.10));
+    }
+
+    /**
+     * Test of run method, of class GrSensitivityAnalysis.
+     */
+    @Test
+    public void testRun() {
+        System.out.println("run");
+        final GrSensitivityAnalysis analysis = new GrSensitivityAnalysis();
+        analysis.setSamples(10000);
+        analysis.setMidX(420.0);
+        analysis.setScale(0.1);
+        analysis.setFrontLimit(420.0);
+
+        final long start = System.nanoTime();
+        final GrSensitivity result = analysis.run(units);
+        final long millis = (System.nanoTime() - start) / 1000000L;
+        System.out.println(result + " (" + millis + " ms)");
+
+        assertEquals(10000, result.getSamples());
+        assertEquals(360.12, result.getNominal().getX(), 0.01);
+        assertEquals(398.69, result.getNominal().getY(), 0.01);
+        //mean near nominal, some pixels of spread:
+        assertEquals(result.getNominal().getX(), result.getMean().getX(), 2);
+        assertEquals(result.getNominal().getY(), result.getMean().getY(), 2);
+        assertTrue(result.getSemiMajor(0.95) > 1);
+        assertTrue(result.getSemiMajor(0.95) >= result.getSemiMinor(0.95));
+        //GR is 6 mm from middle line, turning does not change:
+        assertEquals(1, result.getTurningStability(), 0.001);
+        assertEquals(1, result.getProjectionStability(), 0.01);
+        assertTrue(millis < 1000);
+
+        //same seed, same result:
+        final GrSensitivity again = analysis.run(units);
+        assertEquals(result.getMean(), again.getMean());
+        assertEquals(result.getCovariance(), again.getCovariance(), 0);
+    }
+
+    /**
+     * Test of run method without noise, of class GrSensitivityAnalysis.
+     */
+    @Test
+    public void testRunNoNoise() {
+        System.out.println("run no noise");
+        final GrSensitivityAnalysis analysis = new GrSensitivityAnalysis();
+        analysis.setNoise(0);
+        analysis.setSamples(500);
+        final GrSensitivity result = analysis.run(units);
+        assertEquals(result.getNominal().getX(), result.getMean().getX(),
+                1e-9);
+        assertEquals(0, result.getSemiMajor(0.95), 1e-6);
+        assertTrue(Double.isNaN(result.getTurningStability()));
+    }
+
+    /**
+     * Test of nextGaussian method, of class SplitMix64.
+     */
+    @Test
+    public void testNextGaussian() {
+        System.out.println("nextGaussian");
+        final SplitMix64 random = new SplitMix64(1);
+        final SplitMix64 other = random.split();
+        double sum = 0;
+        double squares = 0;
+        for (int i = 0; i < 100000; i++) {
+            final double value = random.nextGaussian();
+            sum += value;
+            squares += value * value;
+        }
+        assertEquals(0, sum / 100000, 0.02);
+        assertEquals(1, squares / 100000, 0.02);
+        assertTrue(other.nextLong() != random.nextLong());
+        assertEquals(new SplitMix64(5).nextLong(),
+                new SplitMix64(5).nextLong());
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.datamodel.stats;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class CephStatisticsTest {
+
+    public CephStatisticsTest() {
+    }
+
+    /**
+     * Test of add and merge methods, of class RunningStats.
+     */
+    @Test
+    public void testRunningStats() {
+        System.out.println("RunningStats");
+        final RunningStats one = new RunningStats();
+        final RunningStats two = new RunningStats();
+        final RunningStats all = new RunningStats();
+        final double[] values = {80, 82, 83, 79.5, 84, 81, 82.5};
+        for (int i = 0; i < values.length; i++) {
+            (i < 3 ? one : two).add(values[i]);
+            all.add(values[i]);
+        }
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        final double mean = sum / values.length;
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        assertEquals(mean, all.getMean(), 1e-12);
+        assertEquals(squares / (values.length - 1), all.getVariance(), 1e-12);
+        assertEquals(79.5, all.getMin(), 0);
+        assertEquals(84, all.getMax(), 0);
+
+        one.merge(two);
+        assertEquals(all.getCount(), one.getCount());
+        assertEquals(all.getMean(), one.getMean(), 1e-12);
+        assertEquals(all.getVariance(), one.getVariance(), 1e-12);
+        assertTrue(Double.isNaN(new RunningStats().getMean()));
+    }
+
+    /**
+     * Test of getQuantiles method, of class QuantileSketch.
+     */
+    @Test
+    public void testQuantileSketch() {
+        System.out.println("QuantileSketch");
+        final QuantileSketch small = new QuantileSketch(16);
+        for (int i = 1; i <= 9; i++) {
+            small.add(i);
+        }
+        //exact while not compacted.
+        assertEquals(5, small.getQuantile(0.5), 0);
+        assertEquals(1, small.getQuantile(0), 0);
+        assertEquals(9, small.getQuantile(1), 0);
+
+        final QuantileSketch sketch = new QuantileSketch();
+        final Random random = new Random(7);
+        final int count = 100000;
+        for (int i = 0; i < count; i++) {
+            sketch.add(random.nextDouble());
+        }
+        assertEquals(count, sketch.getCount());
+        final double[] q = sketch.getQuantiles(
+                new double[] {0.05, 0.5, 0.95});
+        assertEquals(0.05, q[0], 0.02);
+        assertEquals(0.5, q[1], 0.02);
+        assertEquals(0.95, q[2], 0.02);
+    }
+
+    /**
+     * Test of add method, of class Histogram.
+     */
+    @Test
+    public void testHistogram() {
+        System.out.println("Histogram");
+        final Histogram histogram = new Histogram(2);
+        histogram.add(-0.5);
+        histogram.add(0);
+        histogram.add(1.9);
+        histogram.add(6);
+        final Map<Double, Long> bins = histogram.getBins();
+        assertEquals(3, bins.size());
+        assertEquals(Long.valueOf(1), bins.get(-2.0));
+        assertEquals(Long.valueOf(2), bins.get(0.0));
+        assertEquals(Long.valueOf(1), bins.get(6.0));
+    }
+
+    /**
+     * Test of writeSummary method, of class CephStatistics.
+     */
+    @Test
+    public void testWriteSummary() {
+        System.out.println("writeSummary");
+        final CephStatistics instance = new CephStatistics(1);
+        final String group = CephStatistics.ageGroup(10.0,
+                new int[] {6, 12, 18});
+        assertEquals("6-12", group);
+        assertEquals("18+", CephStatistics.ageGroup(40.0, new int[] {18}));
+        assertEquals(CephStatistics.UNKNOWN,
+                CephStatistics.ageGroup(null, new int[] {18}));
+
+        instance.add(group, "SNA", 80);
+        instance.add(group, "SNA", 84);
+        instance.add("18+", "ANB", 2);
+        final StringWriter text = new StringWriter();
+        instance.writeSummary(new PrintWriter(text));
+        final String[] lines = text.toString().split("\r?\n");
+        assertEquals(CephStatistics.CSV_HEADER, lines[0]);
+        assertEquals("18+,ANB,1,2.000,,2.000,2.000,2.000,2.000,2.000,"
+                + "2.000,2.000", lines[1]);
+        assertTrue(lines[2].startsWith("6-12,SNA,2,82.000,2.828,80.000,"));
+    }
+}
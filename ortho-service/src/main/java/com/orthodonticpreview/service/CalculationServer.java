@@ -0,0 +1,211 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.service;
+
+import com.orthodonticpreview.datamodel.batch.BatchCalculator;
+import com.orthodonticpreview.datamodel.batch.CaseData;
+import com.orthodonticpreview.datamodel.batch.CaseFileReader;
+import com.orthodonticpreview.datamodel.batch.CaseResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP service for preview calculations, on the JDK HttpServer.
+ *
+ * <ul>
+ * <li>POST /calculate: body is one case in CaseFileReader format (image lines
+ * are not accepted); answers the result as JSON. With query "bounds=false"
+ * the result has no bounds, and the case is reduced with the others of its
+ * batch, which is cheaper.</li>
+ * <li>GET /health: answers "ok".</li>
+ * </ul>
+ *
+ * Requests are handled on a fixed pool and their cases are grouped by a
+ * MicroBatcher.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class CalculationServer {
+
+    /**
+     * Class logger.
+     */
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(CalculationServer.class);
+
+    /**
+     * Maximum wait for a calculation (ms).
+     */
+    private static final long TIMEOUT = 30000;
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final BatchCalculator calculator;
+    private final MicroBatcher batcher;
+    private final AtomicLong requestCount = new AtomicLong();
+
+    /**
+     * Creates the server (not started).
+     *
+     * @param address Address to listen on (port 0 for any free port).
+     * @param threads Threads for requests and for calculations.
+     * @param maxBatch Maximum cases per batch.
+     * @param maxDelayMillis Maximum wait for a batch to fill (ms).
+     * @throws IOException If can't bind.
+     */
+    public CalculationServer(final InetSocketAddress address,
+            final int threads, final int maxBatch, final long maxDelayMillis)
+            throws IOException {
+        server = HttpServer.create(address, 0);
+        handlers = Executors.newFixedThreadPool(Math.max(1, threads));
+        calculator = new BatchCalculator(threads);
+        batcher = new MicroBatcher(calculator, maxBatch, maxDelayMillis);
+
+        server.setExecutor(handlers);
+        server.createContext("/calculate", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange)
+                    throws IOException {
+                handleCalculate(exchange);
+            }
+        });
+        server.createContext("/health", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange)
+                    throws IOException {
+                send(exchange, 200, "text/plain", "ok");
+            }
+        });
+    }
+
+    /**
+     * Starts listening.
+     */
+    public void start() {
+        server.start();
+        LOGGER.info("Calculation service listening on {}", getAddress());
+    }
+
+    /**
+     * @return Address the server is bound to.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops server and worker threads.
+     */
+    public void stop() {
+        server.stop(0);
+        batcher.stop();
+        calculator.shutdown();
+        handlers.shutdown();
+    }
+
+    /**
+     * Handles one calculation request.
+     *
+     * @param exchange HTTP exchange.
+     * @throws IOException If can't answer.
+     */
+    private void handleCalculate(final HttpExchange exchange)
+            throws IOException {
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            send(exchange, 405, "application/json",
+                    ResultJson.error("POST only."));
+            return;
+        }
+
+        final CaseData data;
+        try {
+            data = CaseFileReader.read(
+                    "request-" + requestCount.incrementAndGet(),
+                    new InputStreamReader(exchange.getRequestBody(), "UTF-8"),
+                    null);
+        } catch (IOException ex) {
+            send(exchange, 400, "application/json",
+                    ResultJson.error(ex.getMessage()));
+            return;
+        }
+        if (data.getImage() != null) {
+            send(exchange, 400, "application/json",
+                    ResultJson.error("Images are not accepted."));
+            return;
+        }
+
+        try {
+            final CaseResult result = batcher.calculate(data,
+                    !"bounds=false".equals(exchange.getRequestURI().getQuery()),
+                    TIMEOUT);
+            if (result == null) {
+                send(exchange, 503, "application/json",
+                        ResultJson.error("Service is stopping."));
+            } else {
+                send(exchange, result.isOk() ? 200 : 422,
+                        "application/json", ResultJson.toJson(result));
+            }
+        } catch (TimeoutException ex) {
+            send(exchange, 503, "application/json",
+                    ResultJson.error(ex.getMessage()));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            send(exchange, 503, "application/json",
+                    ResultJson.error("Interrupted."));
+        }
+    }
+
+    /**
+     * Sends a response and closes the exchange.
+     *
+     * @param exchange HTTP exchange.
+     * @param status HTTP status.
+     * @param type Content type.
+     * @param body Response body.
+     * @throws IOException If can't send.
+     */
+    private static void send(final HttpExchange exchange, final int status,
+            final String type, final String body) throws IOException {
+        final byte[] bytes = body.getBytes("UTF-8");
+        exchange.getResponseHeaders().set("Content-Type",
+                type + "; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        final OutputStream out = exchange.getResponseBody();
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+}
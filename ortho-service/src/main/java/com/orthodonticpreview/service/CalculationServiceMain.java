@@ -0,0 +1,89 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.service;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Starts the calculation service.
+ *
+ * <pre>
+ * CalculationServiceMain [-port 8085] [-bind 127.0.0.1] [-threads N]
+ *     [-batch 16] [-delay 5]
+ * </pre>
+ *
+ * "mvn -Pservice install" builds a self-contained jar (ortho-datamodel and
+ * slf4j included), launched with:
+ *
+ * <pre>
+ * java -jar ortho-service/target/ortho-service-1.0.2-SNAPSHOT.jar -port 8085
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class CalculationServiceMain {
+
+    private CalculationServiceMain() {
+    }
+
+    /**
+     * Runs the service until the process is stopped.
+     *
+     * @param args Command line arguments.
+     * @throws Exception If can't start.
+     */
+    public static void main(final String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+
+        int port = 8085;
+        String bind = "127.0.0.1";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batch = 16;
+        long delay = 5;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("-port".equals(args[i])) {
+                port = Integer.parseInt(args[i + 1]);
+            } else if ("-bind".equals(args[i])) {
+                bind = args[i + 1];
+            } else if ("-threads".equals(args[i])) {
+                threads = Integer.parseInt(args[i + 1]);
+            } else if ("-batch".equals(args[i])) {
+                batch = Integer.parseInt(args[i + 1]);
+            } else if ("-delay".equals(args[i])) {
+                delay = Long.parseLong(args[i + 1]);
+            } else {
+                System.err.println("Unknown option " + args[i]);
+                System.exit(2);
+            }
+        }
+
+        final CalculationServer server = new CalculationServer(
+                new InetSocketAddress(bind, port), threads, batch, delay);
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                server.stop();
+            }
+        });
+        server.start();
+    }
+}
@@ -0,0 +1,302 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.service;
+
+import com.orthodonticpreview.datamodel.batch.BatchCalculator;
+import com.orthodonticpreview.datamodel.batch.CaseData;
+import com.orthodonticpreview.datamodel.batch.CaseResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Groups cases submitted by concurrent callers into batches for a
+ * BatchCalculator.
+ *
+ * A batch is sent when it has maxBatch cases or when maxDelay has passed
+ * since its first case arrived. Cases that don't need bounds go together
+ * through BatchCalculator.reduce, where one kernel serves the whole batch;
+ * the others go through BatchCalculator.calculate.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class MicroBatcher {
+
+    /**
+     * Class logger.
+     */
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(MicroBatcher.class);
+
+    /**
+     * One submitted case, waiting for its result.
+     */
+    private static class Pending {
+
+        private final CaseData data;
+        private final boolean bounds;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile CaseResult result;
+
+        Pending(final CaseData data, final boolean bounds) {
+            this.data = data;
+            this.bounds = bounds;
+        }
+    }
+
+    private final BatchCalculator calculator;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final BlockingQueue<Pending> queue
+            = new LinkedBlockingQueue<Pending>();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts a batcher.
+     *
+     * @param calculator Calculator that runs the batches.
+     * @param maxBatch Maximum cases per batch.
+     * @param maxDelayMillis Maximum wait for a batch to fill (ms).
+     */
+    public MicroBatcher(final BatchCalculator calculator, final int maxBatch,
+            final long maxDelayMillis) {
+        this.calculator = calculator;
+        this.maxBatch = Math.max(1, maxBatch);
+        maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        dispatcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatchLoop();
+            }
+        }, "ortho-batcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Calculates one case, with bounds, waiting for the batch it goes in.
+     *
+     * @param data Case to calculate.
+     * @param timeoutMillis Maximum wait (ms).
+     * @return The case result, or null if the batcher was stopped first.
+     * @throws InterruptedException If interrupted while waiting.
+     * @throws TimeoutException If result did not come in time.
+     */
+    public CaseResult calculate(final CaseData data, final long timeoutMillis)
+            throws InterruptedException, TimeoutException {
+        return calculate(data, true, timeoutMillis);
+    }
+
+    /**
+     * Calculates one case, waiting for the batch it goes in.
+     *
+     * @param data Case to calculate.
+     * @param bounds If false, result has no bounds (case is reduced).
+     * @param timeoutMillis Maximum wait (ms).
+     * @return The case result, or null if the batcher was stopped first.
+     * @throws InterruptedException If interrupted while waiting.
+     * @throws TimeoutException If result did not come in time.
+     */
+    public CaseResult calculate(final CaseData data, final boolean bounds,
+            final long timeoutMillis)
+            throws InterruptedException, TimeoutException {
+        if (!running) {
+            throw new IllegalStateException("Batcher is stopped.");
+        }
+        final Pending pending = new Pending(data, bounds);
+        queue.add(pending);
+        if (!running) {
+            // stop() may have drained the queue before this add.
+            releaseQueued();
+        }
+        if (!pending.done.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("No result for " + data.getName());
+        }
+        return pending.result;
+    }
+
+    /**
+     * Takes batches from queue and calculates them, until stopped.
+     */
+    private void dispatchLoop() {
+        final List<Pending> batch = new ArrayList<Pending>(maxBatch);
+        while (running) {
+            try {
+                final Pending first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                final long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    final long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        queue.drainTo(batch, maxBatch - batch.size());
+                        break;
+                    }
+                    final Pending next
+                            = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                runBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+                release(batch);
+            } catch (RuntimeException ex) {
+                //never let one batch stop the only dispatcher
+                LOGGER.error("Batch failed", ex);
+                fail(batch, ex);
+                release(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+        releaseQueued();
+    }
+
+    /**
+     * Calculates one batch and releases its callers.
+     *
+     * @param batch Pending cases.
+     * @throws InterruptedException If interrupted while calculating.
+     */
+    private void runBatch(final List<Pending> batch)
+            throws InterruptedException {
+        final List<Pending> full = new ArrayList<Pending>(batch.size());
+        final List<Pending> reduced = new ArrayList<Pending>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.bounds) {
+                full.add(pending);
+            } else {
+                reduced.add(pending);
+            }
+        }
+        LOGGER.debug("Calculating batch of {} case(s), {} reduced",
+                batch.size(), reduced.size());
+        try {
+            if (!reduced.isEmpty()) {
+                calculate(reduced, true);
+            }
+            if (!full.isEmpty()) {
+                calculate(full, false);
+            }
+        } finally {
+            release(batch);
+        }
+    }
+
+    /**
+     * Calculates part of a batch; if the calculator fails, its callers get
+     * an error result.
+     *
+     * @param pendings Pending cases.
+     * @param reduce True to use BatchCalculator.reduce.
+     * @throws InterruptedException If interrupted while calculating.
+     */
+    private void calculate(final List<Pending> pendings, final boolean reduce)
+            throws InterruptedException {
+        try {
+            final List<CaseData> cases = getCases(pendings);
+            setResults(pendings, reduce
+                    ? calculator.reduce(cases) : calculator.calculate(cases));
+        } catch (RuntimeException ex) {
+            LOGGER.error("Batch of " + pendings.size() + " case(s) failed",
+                    ex);
+            fail(pendings, ex);
+        }
+    }
+
+    /**
+     * Gives an error result to callers without result.
+     *
+     * @param pendings Pending cases.
+     * @param error Why they failed.
+     */
+    private static void fail(final List<Pending> pendings,
+            final Exception error) {
+        for (Pending pending : pendings) {
+            if (pending.result == null) {
+                pending.result = CaseResult.failed(pending.data.getName(),
+                        "Calculation failed: " + error);
+            }
+        }
+    }
+
+    private static List<CaseData> getCases(final List<Pending> pendings) {
+        final List<CaseData> cases = new ArrayList<CaseData>(pendings.size());
+        for (Pending pending : pendings) {
+            cases.add(pending.data);
+        }
+        return cases;
+    }
+
+    private static void setResults(final List<Pending> pendings,
+            final List<CaseResult> results) {
+        for (int i = 0; i < pendings.size(); i++) {
+            pendings.get(i).result = results.get(i);
+        }
+    }
+
+    /**
+     * Releases callers; those without result get null.
+     *
+     * @param pendings Pending cases.
+     */
+    private static void release(final List<Pending> pendings) {
+        for (Pending pending : pendings) {
+            pending.done.countDown();
+        }
+    }
+
+    /**
+     * Releases all cases still queued, without calculating them.
+     */
+    private void releaseQueued() {
+        final List<Pending> left = new ArrayList<Pending>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            LOGGER.debug("Releasing {} queued case(s) on stop", left.size());
+            release(left);
+        }
+    }
+
+    /**
+     * Stops the dispatcher. Cases still queued are not calculated: their
+     * callers get a null result.
+     */
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        releaseQueued();
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.service;
+
+import com.orthodonticpreview.datamodel.batch.CaseResult;
+import java.awt.Rectangle;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.Locale;
+
+/**
+ * Writes calculation results as JSON (hand written, the service has no JSON
+ * library).
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+final class ResultJson {
+
+    private ResultJson() {
+    }
+
+    /**
+     * @param result Case result.
+     * @return JSON object for it.
+     */
+    static String toJson(final CaseResult result) {
+        final StringBuilder json = new StringBuilder("{");
+        json.append("\"case\":").append(string(result.getName()));
+        if (!result.isOk()) {
+            json.append(",\"error\":").append(string(result.getError()));
+            return json.append('}').toString();
+        }
+
+        final Point2D gr = result.getPointGr();
+        json.append(",\"gr\":{\"x\":").append(num(gr.getX()))
+                .append(",\"y\":").append(num(gr.getY())).append('}');
+
+        final Line2D res = result.getResultant();
+        json.append(",\"resultant\":{\"x1\":").append(num(res.getX1()))
+                .append(",\"y1\":").append(num(res.getY1()))
+                .append(",\"x2\":").append(num(res.getX2()))
+                .append(",\"y2\":").append(num(res.getY2())).append('}');
+
+        final Rectangle bounds = result.getBounds();
+        if (bounds != null) {
+            json.append(",\"bounds\":{\"x\":").append(bounds.x)
+                    .append(",\"y\":").append(bounds.y)
+                    .append(",\"width\":").append(bounds.width)
+                    .append(",\"height\":").append(bounds.height)
+                    .append('}');
+        }
+
+        json.append(",\"turning\":").append(result.getTurning() == null
+                ? "null" : string(result.getTurning()));
+        json.append(",\"projection\":").append(result.getProjection());
+        json.append(",\"millis\":").append(result.getMillis());
+        return json.append('}').toString();
+    }
+
+    /**
+     * @param message Error message.
+     * @return JSON object with the error.
+     */
+    static String error(final String message) {
+        return "{\"error\":" + string(message) + "}";
+    }
+
+    private static String num(final double value) {
+        return String.format(Locale.US, "%.2f", value);
+    }
+
+    private static String string(final String value) {
+        final StringBuilder out = new StringBuilder(value.length() + 2);
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char chr = value.charAt(i);
+            if (chr == '"' || chr == '\\') {
+                out.append('\\').append(chr);
+            } else if (chr < 0x20) {
+                out.append(String.format("\\u%04x", (int) chr));
+            } else {
+                out.append(chr);
+            }
+        }
+        return out.append('"').toString();
+    }
+}
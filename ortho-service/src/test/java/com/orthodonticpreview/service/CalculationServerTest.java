@@ -0,0 +1,158 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.*;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class CalculationServerTest {
+
+    private static final String CASE = "force,247.31,690.76,205.51,647.27\n"
+            + "force,271.03,613.94,217.94,570.45\n"
+            + "force,282.89,556.90,234.88,515.10\n"
+            + "force,304.36,498.16,264.82,462.57\n"
+            + "force,311.13,451.28,303.79,425.30\n"
+            + "force,360.27,449.58,358.58,398.19\n"
+            + "force,425.79,445.06,430.31,395.36\n"
+            + "force,473.80,438.29,490.74,415.13\n"
+            + "force,495.26,480.08,540.45,455.23\n"
+            + "force,518.42,529.79,572.64,501.55\n"
+            + "force,542.71,585.70,595.23,563.11\n"
+            + "force,573.77,643.88,615.00,637.10\n"
+            + "midx,420\n"
+            + "front,420\n";
+
+    private static CalculationServer server;
+    private static String base;
+
+    public CalculationServerTest() {
+    }
+
+    @BeforeClass
+    public static void setup() throws IOException {
+        server = new CalculationServer(
+                new InetSocketAddress("127.0.0.1", 0), 4, 8, 20);
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        server.stop();
+    }
+
+    /**
+     * Test of calculate context, of class CalculationServer.
+     */
+    @Test
+    public void testCalculate() throws Exception {
+        System.out.println("calculate");
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> answers = new ArrayList<Future<String>>();
+            for (int i = 0; i < 16; i++) {
+                answers.add(clients.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws IOException {
+                        return post("/calculate", CASE, 200);
+                    }
+                }));
+            }
+            for (Future<String> answer : answers) {
+                String json = answer.get();
+                assertTrue(json, json.contains("\"gr\":{\"x\":360.12"));
+                assertTrue(json, json.contains("\"turning\":\"right\""));
+                assertTrue(json, json.contains("\"projection\":true"));
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    /**
+     * Test of calculate context, of class CalculationServer, with an invalid
+     * body.
+     */
+    @Test
+    public void testCalculateInvalid() throws IOException {
+        System.out.println("calculate - invalid");
+        String json = post("/calculate", "force,1,2\n", 400);
+        assertTrue(json, json.contains("\"error\""));
+    }
+
+    /**
+     * Test of calculate context, of class CalculationServer, without bounds.
+     */
+    @Test
+    public void testCalculateReduced() throws IOException {
+        System.out.println("calculate - reduced");
+        String json = post("/calculate?bounds=false", CASE, 200);
+        assertTrue(json, json.contains("\"gr\":{\"x\":360.12"));
+        assertTrue(json, json.contains("\"turning\":\"right\""));
+        assertFalse(json, json.contains("\"bounds\""));
+    }
+
+    /**
+     * Posts a body and checks the response status.
+     */
+    private static String post(final String path, final String body,
+            final int status) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(
+                base + path).openConnection();
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        OutputStream out = conn.getOutputStream();
+        out.write(body.getBytes("UTF-8"));
+        out.close();
+
+        assertEquals(status, conn.getResponseCode());
+        InputStream in = status < 400
+                ? conn.getInputStream() : conn.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buf = new byte[1024];
+        int read;
+        while ((read = in.read(buf)) > 0) {
+            bytes.write(buf, 0, read);
+        }
+        in.close();
+        return new String(bytes.toByteArray(), "UTF-8");
+    }
+}
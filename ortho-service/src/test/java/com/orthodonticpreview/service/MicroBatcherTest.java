@@ -0,0 +1,129 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.service;
+
+import com.orthodonticpreview.datamodel.batch.BatchCalculator;
+import com.orthodonticpreview.datamodel.batch.CaseData;
+import com.orthodonticpreview.datamodel.batch.CaseResult;
+import java.awt.geom.Line2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class MicroBatcherTest {
+
+    public MicroBatcherTest() {
+    }
+
+    /**
+     * Test of calculate method, of class MicroBatcher, without bounds.
+     */
+    @Test
+    public void testCalculateReduced() throws Exception {
+        System.out.println("calculate - reduced");
+        BatchCalculator calculator = new BatchCalculator(2);
+        MicroBatcher batcher = new MicroBatcher(calculator, 4, 10);
+        try {
+            CaseData data = new CaseData("case");
+            data.getForces().add(new Line2D.Double(0, 0, 0, 10));
+            CaseResult result = batcher.calculate(data, false, 5000);
+            assertTrue(result.isOk());
+            assertNull(result.getBounds());
+            assertEquals(0, result.getPointGr().getX(), 0.001);
+        } finally {
+            batcher.stop();
+            calculator.shutdown();
+        }
+    }
+
+    /**
+     * Test of calculate method, of class MicroBatcher, when the calculator
+     * fails.
+     */
+    @Test
+    public void testCalculateFailure() throws Exception {
+        System.out.println("calculate - failure");
+        final BatchCalculator calculator = new BatchCalculator(1) {
+            @Override
+            public List<CaseResult> reduce(final List<CaseData> cases) {
+                throw new IllegalStateException("worker failed");
+            }
+        };
+        MicroBatcher batcher = new MicroBatcher(calculator, 4, 10);
+        try {
+            CaseData data = new CaseData("case");
+            data.getForces().add(new Line2D.Double(0, 0, 0, 10));
+            CaseResult result = batcher.calculate(data, false, 5000);
+            assertFalse(result.isOk());
+            assertTrue(result.getError(),
+                    result.getError().contains("worker failed"));
+            //dispatcher is still running
+            result = batcher.calculate(data, true, 5000);
+            assertTrue(result.isOk());
+        } finally {
+            batcher.stop();
+            calculator.shutdown();
+        }
+    }
+
+    /**
+     * Test of stop method, of class MicroBatcher.
+     */
+    @Test
+    public void testStop() throws Exception {
+        System.out.println("stop");
+        BatchCalculator calculator = new BatchCalculator(1);
+        // A batch that never fills: cases wait until stop.
+        final MicroBatcher batcher = new MicroBatcher(calculator, 100, 60000);
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CaseResult>> answers
+                    = new ArrayList<Future<CaseResult>>();
+            for (int i = 0; i < 4; i++) {
+                final CaseData data = new CaseData("case" + i);
+                answers.add(clients.submit(new Callable<CaseResult>() {
+                    @Override
+                    public CaseResult call() throws Exception {
+                        return batcher.calculate(data, 60000);
+                    }
+                }));
+            }
+            Thread.sleep(200);
+            batcher.stop();
+            for (Future<CaseResult> answer : answers) {
+                assertNull(answer.get());
+            }
+        } finally {
+            clients.shutdown();
+            calculator.shutdown();
+        }
+    }
+}
@@ -70,6 +70,10 @@ class OrthoInfoLayer implements AnnotationsLayer {
      * Info layer margin.
      */
     private int border = 10;
+    /**
+     * Pre-rendered outlined strings.
+     */
+    private final OutlinedTextCache textCache = new OutlinedTextCache();
 
     /**
      * Mid Line name.
@@ -255,18 +259,16 @@ class OrthoInfoLayer implements AnnotationsLayer {
         }
     }
 
+    /**
+     * Paints a white string with black outline.
+     *
+     * @param g2 graphics.
+     * @param str text.
+     * @param x text x.
+     * @param y text baseline.
+     */
     public void paintFontOutline(Graphics2D g2, String str, float x, float y) {
-        g2.setPaint(Color.BLACK);
-        g2.drawString(str, x - 1f, y - 1f);
-        g2.drawString(str, x - 1f, y);
-        g2.drawString(str, x - 1f, y + 1f);
-        g2.drawString(str, x, y - 1f);
-        g2.drawString(str, x, y + 1f);
-        g2.drawString(str, x + 1f, y - 1f);
-        g2.drawString(str, x + 1f, y);
-        g2.drawString(str, x + 1f, y + 1f);
-        g2.setPaint(Color.WHITE);
-        g2.drawString(str, x, y);
+        textCache.paint(g2, str, x, y);
     }
 
     @Override
@@ -22,19 +22,22 @@ package com.orthodonticpreview.view;
 
 import com.orthodonticpreview.datamodel.OrthodonticModel;
 import com.orthodonticpreview.datamodel.TagO;
-import com.orthodonticpreview.ui.cephalometrics.CephParameter;
 import com.orthodonticpreview.ui.explorer.OrthoExplorerView;
 import com.orthodonticpreview.view.internal.Messages;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsDevice;
 import java.awt.Image;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import javax.imageio.ImageIO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,19 +80,34 @@ public class OrthoReportLayer implements AnnotationsLayer {
     /** Footer name. */
     public static final String REPORT_FOOTER = "Footer";
 
-    /** Cephalometric tags for results. */
-    private static final TagW[] CEPH_TAGS = new TagW[] {
-        TagO.ANB, TagO.FAC_ANGLE, //Mandibula: usar somente FacAngle.
-        TagO.SNA, //maxila normal, protruida, retruida
+    /** Patient tags shown on report. */
+    private static final TagW[] PATIENT_REPORT_TAGS = new TagW[] {
+        TagW.PatientName, TagO.PATIENT_AGE, TagW.PatientSex,
+        TagO.ANB, TagO.FAC_ANGLE, TagO.SNA,
+        TagO.HIF_NA, TagO.DOT_NA, TagO.HIF_NB, TagO.DOT_NB,
+        TagO.MED_LINE_SUP, TagO.MED_LINE_INF
     };
 
-    private static final String MANDIBLE = "Mandible";
+    /** Series tags shown on report. */
+    private static final TagW[] SERIES_REPORT_TAGS = new TagW[] {
+        TagW.SeriesDate, TagO.STUDY_ROLE,
+        TagO.TURNING_TENDENCY, TagO.PROJECTION_TENDENCY
+    };
 
     /** OP image for header. */
     public static final URL LOGO_IMAGE =
             OrthoReportLayer.class.getResource("/image/ortho-logo.png");
     /** Cor azul de acordo com a ID visual (R0 G152 e B218). */
     private static final Color opBlueColor = new Color(0, 152, 218);
+    /** Logo read from LOGO_IMAGE (read once). */
+    private static Image logo;
+    /** True after trying to read the logo. */
+    private static boolean logoRead = false;
+
+    /** Report text and lines, rendered for the current key. */
+    private BufferedImage reportImage;
+    /** What reportImage was rendered from (size, font, prefs and tags). */
+    private List<Object> reportImageKey;
 
     /**
      * Creates a new report-layer for given view
@@ -177,12 +195,46 @@ public class OrthoReportLayer implements AnnotationsLayer {
         MediaSeriesGroup patient = model.getParent(
                 view2DPane.getSeries(), OrthodonticModel.patient);
 
+        if (g2d.getDeviceConfiguration().getDevice().getType()
+                != GraphicsDevice.TYPE_RASTER_SCREEN) {
+            //printing: keep it vectorial.
+            paintReport(g2d, fontHeight, patient);
+            return;
+        }
+
+        final List<Object> key = buildReportKey(g2d, bound, patient);
+        if (reportImage == null || !key.equals(reportImageKey)) {
+            reportImage = new BufferedImage(Math.max(1, bound.width),
+                    Math.max(1, bound.height), BufferedImage.TYPE_INT_ARGB);
+            final Graphics2D g = reportImage.createGraphics();
+            try {
+                g.setRenderingHints(g2d.getRenderingHints());
+                g.setFont(g2d.getFont());
+                paintReport(g, FontTools.getAccurateFontHeight(g), patient);
+            } finally {
+                g.dispose();
+            }
+            reportImageKey = key;
+        }
+        g2d.drawImage(reportImage, 0, 0, null);
+    }
+
+    /**
+     * Paints all report parts chosen on display preferences.
+     *
+     * @param g2d Graphics to draw on.
+     * @param fontHeight height of font.
+     * @param patient Patient of the report series.
+     */
+    private void paintReport(final Graphics2D g2d, final float fontHeight,
+            final MediaSeriesGroup patient) {
+        final Rectangle bound = view2DPane.getBounds();
+
         if (getDisplayPreferences(REPORT_HEAD)) {
             drawReportHead(g2d, fontHeight, patient);
         }
 
-        final int resultFirstY = (int) (view2DPane.getBounds().height
-                / (double) 4 * 2.4F);
+        final int resultFirstY = (int) (bound.height / (double) 4 * 2.4F);
         int captionHeight = bound.height / 5; //chute, por enquanto
         final int captionFirstY = resultFirstY - captionHeight;
 
@@ -197,7 +249,76 @@ public class OrthoReportLayer implements AnnotationsLayer {
         if (getDisplayPreferences(REPORT_FOOTER)) {
             drawFooter(g2d, fontHeight);
         }
+    }
+
+    /**
+     * Builds the key of everything the painted report depends on: view size,
+     * font, display preferences and the tag values shown.
+     *
+     * @param g2d Graphics to be drawn on.
+     * @param bound View bounds.
+     * @param patient Patient of the report series.
+     * @return Key to compare with the one of the cached image.
+     */
+    private List<Object> buildReportKey(final Graphics2D g2d,
+            final Rectangle bound, final MediaSeriesGroup patient) {
+        final List<Object> key = new ArrayList<Object>();
+        key.add(bound.width);
+        key.add(bound.height);
+        key.add(g2d.getFont());
+        key.add(g2d.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING));
+        key.addAll(buildContentKey(patient));
+        return key;
+    }
+
+    /**
+     * Builds the key of what the report shows, whatever the size it is
+     * painted: display preferences and the tag values shown.
+     *
+     * @return Key to compare with the one of a rendered report.
+     */
+    public List<Object> getContentKey() {
+        final OrthodonticModel model = (OrthodonticModel) OrthoExplorerView
+                .getService().getDataExplorerModel();
+        return buildContentKey(model.getParent(
+                view2DPane.getSeries(), OrthodonticModel.patient));
+    }
+
+    private List<Object> buildContentKey(final MediaSeriesGroup patient) {
+        final List<Object> key = new ArrayList<Object>();
+        key.add(getDisplayPreferences(REPORT_HEAD));
+        key.add(getDisplayPreferences(REPORT_RESULT));
+        key.add(getDisplayPreferences(CAPTION));
+        key.add(getDisplayPreferences(REPORT_FOOTER));
+
+        key.add(patient);
+        if (patient != null) {
+            for (TagW tag : PATIENT_REPORT_TAGS) {
+                key.add(patient.getTagValue(tag));
+            }
+        }
+        final MediaSeries series = view2DPane.getSeries();
+        for (TagW tag : SERIES_REPORT_TAGS) {
+            key.add(series.getTagValue(tag));
+        }
+        return key;
+    }
 
+    /**
+     * Gets the header logo, reading it on first call.
+     *
+     * @return Logo image, or null if it could not be read.
+     */
+    private static synchronized Image getLogo() {
+        if (!logoRead) {
+            logoRead = true;
+            try {
+                logo = ImageIO.read(LOGO_IMAGE);
+            } catch (IOException ex) {
+                LOGGER.error("Can't print logo: " + ex);
+            }
+        }
+        return logo;
     }
 
     /**
@@ -213,41 +334,28 @@ public class OrthoReportLayer implements AnnotationsLayer {
         final MediaSeries series = view2DPane.getSeries();
         g2d.setPaint(Color.BLACK);
 
-        String str = Messages.getString("OrthoInfoLayer.Patient")
-                + " " + patient.getTagValue(TagW.PatientName);
-        g2d.drawString(str, border, line);
+        g2d.drawString(ReportText.getPatientLine(patient), border, line);
 
-        //a data é da série
-        str = Messages.getString("OrthoInfoLayer.Date")
-                + " " + TagW.formatDate(
-                (Date) series.getTagValue(TagW.SeriesDate));
         line += lineStep;
-        g2d.drawString(str, border, line);
+        g2d.drawString(ReportText.getDateLine(series), border, line);
         
         final Rectangle bound = view2DPane.getBounds();
 
-        str = Messages.getString("OrthoReportLayer."
-                + getReportRole(view2DPane.getSeries()));
-        g2d.drawString(str, bound.width / 3, line);
+        g2d.drawString(ReportText.getRoleLine(series), bound.width / 3, line);
 
-        Object ageValue = patient.getTagValue(TagO.PATIENT_AGE);
-        if (ageValue instanceof String) {
-            str = Messages.getString("OrthoReportLayer.Age")
-                    + " " + ((String) ageValue);
+        String str = ReportText.getAgeLine(patient);
+        if (str != null) {
             line += lineStep;
             g2d.drawString(str, border, line);
         }
-        
 
-        Object sexValue = patient.getTagValue(TagW.PatientSex);
-        if (sexValue instanceof String && !"".equals(sexValue)) {
-            str = Messages.getString("OrthoReportLayer.Sex")
-                    + " " + ((String) sexValue);
+        str = ReportText.getSexLine(patient);
+        if (str != null) {
             g2d.drawString(str, bound.width / 3, line);
         }      
         
-        try {
-            Image logo = ImageIO.read(LOGO_IMAGE);
+        final Image logo = getLogo();
+        if (logo != null) {
             double logoReductionFactor = (bound.width / (double) 3)
                     / (double) logo.getWidth(null);
             double logoWid = logo.getWidth(null) * logoReductionFactor;
@@ -255,8 +363,6 @@ public class OrthoReportLayer implements AnnotationsLayer {
                     bound.width - border - logoWid, border);
             aff.scale(logoReductionFactor, logoReductionFactor);
             g2d.drawImage(logo, aff, null);
-        } catch (IOException ex) {
-            LOGGER.error("Can't print logo: " + ex);
         }
 
     }
@@ -308,172 +414,21 @@ public class OrthoReportLayer implements AnnotationsLayer {
 
         float lineStep = fontHeight * 1.2F;
         g2d.setPaint(Color.BLACK);
-        g2d.drawString(Messages.getString("OrthoReportLayer.CephResults"),
-                border, firstY);
 
-        boolean showNoInfo = true;
         float line = firstY;
-
-        //tags unicas
-        for (TagW tagW : CEPH_TAGS) {
-            Object value = patient.getTagValue(tagW);
-            if (value instanceof Double) {
-                CephParameter parameter = CephParameter.getCephParByTag(tagW);
-                String concl = parameter.getConclusionFor((Double) value);
-
-                line = line + lineStep;
-                g2d.drawString(concl, border, line);
-                showNoInfo = false;
-            }
-        }
-
-        //tags combinadas
-        //TODO se estas contas todas forem feitas junto com a digitação
-        // (ou em OrthoReport!) elas serao feitas menos vezes!
-        Object valTag1 = patient.getTagValue(TagO.HIF_NA);
-        Object valTag2 = patient.getTagValue(TagO.DOT_NA);
-        String result = "";
-        if (valTag1 instanceof Double && valTag2 instanceof Double) {
-            double val1 = (Double) valTag1;
-            double val2 = (Double) valTag2;
-            if (4 < val1 && val1 < 5 && 22 < val2 && val2 < 23) {
-                result = "Incisivos superiores Dentro da Norma";
-            } else {
-                result = "Incisivos superiores ";
-                boolean putE = false;
-                if (val1 <= 4) {
-                    result += "retruídos";
-                    putE = true;
-                } else if (val1 >= 5) {
-                    result += "protruídos";
-                    putE = true;
-                }
-                if (val2 <= 22) {
-                    if (putE) {
-                        result += " e ";
-                    }
-                    result += "linguarizados";
-                } else if (val2 >= 23) {
-                    if (putE) {
-                        result += " e ";
-                    }
-                    result += "vestibularizados";
-                }
-                result += ".";
-            }
-            line = line + lineStep;
-            g2d.drawString(result, border, line);
-            showNoInfo = false;
-        }
-
-        valTag1 = patient.getTagValue(TagO.HIF_NB);
-        valTag2 = patient.getTagValue(TagO.DOT_NB);
-        result = "";
-        if (valTag1 instanceof Double && valTag2 instanceof Double) {
-            double val1 = (Double) valTag1;
-            double val2 = (Double) valTag2;
-            if (4 < val1 && val1 < 5 && 25 < val2 && val2 < 26) {
-                result = "Incisivos inferiores Dentro da Norma";
-            } else {
-                result = "Incisivos inferiores ";
-                boolean putE = false;
-                if (val1 <= 4) {
-                    result += "retruídos";
-                    putE = true;
-                } else if (val1 >= 5) {
-                    result += "protruídos";
-                    putE = true;
-                }
-                if (val2 <= 25) {
-                    if (putE) {
-                        result += " e ";
-                    }
-                    result += "linguarizados";
-                } else if (val2 >= 26) {
-                    if (putE) {
-                        result += " e ";
-                    }
-                    result += "vestibularizados";
-                }
-                result += ".";
-            }
-            line = line + lineStep;
-            g2d.drawString(result, border, line);
-            showNoInfo = false;
-        }
-
-        if (showNoInfo) {
-            line = line + lineStep;
-            g2d.drawString(Messages.getString("OrthoReportLayer.noData"),
-                    border, line);
-        }
-        
-        String reportRole = getReportRole(view2DPane.getSeries());
-
-        line = line + (lineStep * 1.7F);
-        String title = Messages.getString("OrthoReportLayer.MedLineResults")
-                + " (" + Messages.getString("OrthoReportLayer." + reportRole)
-                + ")";
-        g2d.drawString(title, border, line);
-
-        TagW lineTag = TagO.MED_LINE_SUP;
-        if (MANDIBLE.equals(reportRole)) {
-            lineTag = TagO.MED_LINE_INF;
-        }
-        Object tagValue = patient.getTagValue(lineTag);
-        String lineText = "Linha média correta.";
-        if (tagValue instanceof Double) {
-            double value = Math.abs((Double) tagValue);
-            if (value == 0) {
-                lineText = "Linha média correta.";
-            } else {
-                String side = "direita.";
-                if (value > 0) {
-                    side = "esquerda.";
-                }
-                lineText = "Desviada " + value + "mm para a " + side;
+        boolean first = true;
+        for (ReportText.Section section
+                : ReportText.getResults(patient, view2DPane.getSeries())) {
+            if (!first) {
+                line = line + (lineStep * 1.7F);
             }
-        }
-        line = line + lineStep;
-        g2d.drawString(lineText, border, line);
-
-
-        line = line + (lineStep * 1.7F);
-        g2d.drawString(Messages.getString("OrthoReportLayer.BMResults")
-                + " (" + Messages.getString("OrthoReportLayer." + reportRole)
-                + ")",
-                border, line);
-
-        MediaSeries series = view2DPane.getSeries();
-
-        line = line + lineStep;
-        String str = "";
-        Object twistSide = series.getTagValue(TagO.TURNING_TENDENCY);
-        if (twistSide instanceof String) {
-            if ("none".equalsIgnoreCase((String) twistSide)) {
-                str = Messages.getString(
-                    "OrthoReportLayer.TwistTendencyText.none");
-            } else {
-            str = Messages.getString(
-                    "OrthoReportLayer.TwistTendencyText")
-                    + " " + Messages.getString("OrthoReportLayer." + twistSide)
-                    + ".";
+            first = false;
+            g2d.drawString(section.getTitle(), border, line);
+            for (String text : section.getLines()) {
+                line = line + lineStep;
+                g2d.drawString(text, border, line);
             }
-            g2d.drawString(str, border, line);
-            line = line + lineStep;
-        }
-
-        Object projValue = series.getTagValue(TagO.PROJECTION_TENDENCY);
-        if (projValue instanceof Boolean) {
-            String call = ((Boolean) projValue).toString();
-            str = Messages.getString(
-                    "OrthoReportLayer.ProjTenText." + call);
-        } else {
-            str = "Tendência de projeção dos incisicos: não calculada"
-                    + " (Posição dos incisivos não informada).";
         }
-        g2d.drawString(str, border, line);
-
     }
 
     private void drawFooter(Graphics2D g2d, float fontHeight) {
@@ -533,14 +488,6 @@ public class OrthoReportLayer implements AnnotationsLayer {
     public void setShowBottomScale(boolean showBottomScale) {
         //empty
     }
-    
-    private String getReportRole(MediaSeries series) {
-        Object roleValue = series.getTagValue(TagO.STUDY_ROLE);
-        if (roleValue instanceof String && !"".equals(roleValue)) {
-            return (String) roleValue;
-        }
-        return null;
-    }
 
     @Override
     public PixelInfo getPixelInfo() {
@@ -21,15 +21,22 @@
 package com.orthodonticpreview.view;
 
 import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.monitor.Metrics;
 import com.orthodonticpreview.ui.explorer.OrthoExplorerView;
 import com.orthodonticpreview.ui.persistence.GraphicPack;
+import com.orthodonticpreview.ui.persistence.PortableGraphic;
+import com.orthodonticpreview.ui.persistence.PortableGraphicSource;
 import com.orthodonticpreview.view.graphics.ArcGraphic;
 import com.orthodonticpreview.view.graphics.DotGraphic;
+import com.orthodonticpreview.view.graphics.GraphicIndex;
 import com.orthodonticpreview.view.graphics.VectorGraphic;
 import java.awt.Font;
+import java.awt.Graphics;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.MouseEvent;
 import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.beans.PropertyChangeEvent;
 import java.util.HashMap;
@@ -48,7 +55,7 @@ import org.weasis.core.api.media.data.ImageElement;
 import org.weasis.core.api.media.data.MediaSeries;
 import org.weasis.core.ui.editor.image.ImageViewerEventManager;
 import org.weasis.core.ui.editor.image.SynchEvent;
-import org.weasis.core.ui.graphic.model.AbstractLayer;
+import org.weasis.core.ui.graphic.Graphic;
 import org.weasis.core.ui.graphic.model.DefaultViewModel;
 
 /**
@@ -56,11 +63,15 @@ import org.weasis.core.ui.graphic.model.DefaultViewModel;
  * @author Gabriela Bauermann (gabriela@animati.com.br)
  * @version 2012, 12 Oct.
  */
-public class OrthoView extends View2d {
+public class OrthoView extends View2d implements PortableGraphicSource {
 
     private static final String defaultFamily = "Dialog";
+    /** Hit tolerance of the mouse, in screen pixels. */
+    private static final double HIT_TOLERANCE = 6;
     private String contentRole;
     private double middleX;
+    /** Index of the graphics on measure layer. */
+    private GraphicIndex graphicIndex;
 
     /**
      * Creates the viewer and changes infoLayer.
@@ -73,6 +84,57 @@ public class OrthoView extends View2d {
         infoLayer = new OrthoInfoLayer(this);
     }
 
+    /**
+     * Gets the index of the graphics on measure layer, built on first call.
+     *
+     * @return Graphic index of this view.
+     */
+    public GraphicIndex getGraphicIndex() {
+        if (graphicIndex == null) {
+            graphicIndex = new GraphicIndex(getLayerModel());
+        }
+        return graphicIndex;
+    }
+
+    @Override
+    public List<PortableGraphic> getPortableGraphics() {
+        return getGraphicIndex().getPortable();
+    }
+
+    /**
+     * Overriden to look for a graphic under the mouse on the graphic index:
+     * weasis looks at the graphics only if there is one.
+     *
+     * @param event Mouse event.
+     * @return Tooltip text, or null.
+     */
+    @Override
+    public String getToolTipText(final MouseEvent event) {
+        final ViewModel viewModel = getViewModel();
+        final double scale = viewModel.getViewScale();
+        final Point2D point = new Point2D.Double(
+                event.getX() / scale + viewModel.getModelOffsetX(),
+                event.getY() / scale + viewModel.getModelOffsetY());
+        final Graphic graphic = getGraphicIndex().getGraphicAt(point,
+                HIT_TOLERANCE / scale);
+        if (graphic == null) {
+            return null;
+        }
+        return super.getToolTipText(event);
+    }
+
+    /**
+     * Overriden to time repaints.
+     *
+     * @param g Graphics to paint on.
+     */
+    @Override
+    public void paintComponent(final Graphics g) {
+        final long start = System.nanoTime();
+        super.paintComponent(g);
+        Metrics.time(Metrics.REPAINT, start);
+    }
+
     /**
      * Init action state map. Overriden to recover actions stored as tag.
      */
@@ -141,6 +203,7 @@ public class OrthoView extends View2d {
             imageLayer.setImage(null, null);
             if (getLayerModel() != null) { //prevents NullPointerEx
                 getLayerModel().deleteAllGraphics();
+                getGraphicIndex().rebuild();
             }
 
         } else {
@@ -156,6 +219,7 @@ public class OrthoView extends View2d {
             imageLayer.fireOpEvent(new ImageOpEvent(ImageOpEvent.OpEvent.SeriesChange, series, media, null));
 
             setImage(media);
+            getGraphicIndex().rebuild();
 
             Object tagValue = series.getTagValue(TagO.MID_X);
             if (tagValue instanceof Double) {
@@ -309,6 +373,7 @@ public class OrthoView extends View2d {
      * @param series
      */
     private void includeGraphics(MediaSeries<ImageElement> series) {
+        final GraphicIndex index = getGraphicIndex();
         if (series.containTagKey(TagO.GRAPHIC_PACKS)) {
             //tem graficos loaded
             Object tagValue = series.getTagValue(TagO.GRAPHIC_PACKS);
@@ -320,18 +385,17 @@ public class OrthoView extends View2d {
                         String clazz = pack.getClazz();
                         if (ArcGraphic.class.getName().equals(clazz)) {
                             ArcGraphic arc = new ArcGraphic(pack);
-                            layerModel.getLayer(AbstractLayer.MEASURE).addGraphic(arc);
+                            index.addGraphic(arc);
                         } else if (VectorGraphic.class.getName().equals(clazz)) {
                             VectorGraphic vec = new VectorGraphic(pack);
                             String linkedOwner = vec.getLinkedOwner();
                             if (linkedOwner == null
                                     || !linkedOwner.startsWith("force")) {
-                                layerModel.getLayer(
-                                        AbstractLayer.MEASURE).addGraphic(vec);
+                                index.addGraphic(vec);
                             }
                         } else if (DotGraphic.class.getName().equals(clazz)) {
                             DotGraphic dot = new DotGraphic(pack);
-                            layerModel.getLayer(AbstractLayer.MEASURE).addGraphic(dot);
+                            index.addGraphic(dot);
                         }
                     }
                 }
@@ -0,0 +1,147 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.view;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps outlined strings (black border, white text) pre-rendered in
+ * translucent images, so each paint is one drawImage instead of nine
+ * drawString calls.
+ *
+ * The cache is dropped when the font or the text rendering hints change.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+class OutlinedTextCache {
+
+    /** Max number of strings kept (pixel info changes at every move). */
+    private static final int MAX_ENTRIES = 64;
+
+    /** Rendered strings, in access order. */
+    private final Map<String, BufferedImage> images =
+            new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, BufferedImage> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    /** Font used by the cached images. */
+    private Font font;
+    /** Text antialiasing used by the cached images. */
+    private Object textAntialiasing;
+    /** Ascent of the font used by the cached images. */
+    private int ascent;
+
+    /**
+     * Paints the string with a one pixel black outline.
+     *
+     * @param g2 Graphics to draw on.
+     * @param str Text.
+     * @param x Text x (as in drawString).
+     * @param y Text baseline (as in drawString).
+     */
+    public void paint(final Graphics2D g2, final String str,
+            final float x, final float y) {
+        if (str == null || str.isEmpty()) {
+            return;
+        }
+        validate(g2);
+        BufferedImage image = images.get(str);
+        if (image == null) {
+            image = render(g2, str);
+            images.put(str, image);
+        }
+        g2.drawImage(image, Math.round(x) - 1, Math.round(y) - ascent - 1,
+                null);
+    }
+
+    /** Drops all images. */
+    public void clear() {
+        images.clear();
+        font = null;
+    }
+
+    /**
+     * Drops the cache if font or hints are not the ones used to render it.
+     *
+     * @param g2 Graphics to be drawn on.
+     */
+    private void validate(final Graphics2D g2) {
+        final Font current = g2.getFont();
+        final Object antialiasing = g2.getRenderingHint(
+                RenderingHints.KEY_TEXT_ANTIALIASING);
+        if (!current.equals(font) || (antialiasing == null
+                ? textAntialiasing != null
+                : !antialiasing.equals(textAntialiasing))) {
+            images.clear();
+            font = current;
+            textAntialiasing = antialiasing;
+            ascent = g2.getFontMetrics(current).getAscent();
+        }
+    }
+
+    /**
+     * Renders one outlined string.
+     *
+     * @param g2 Graphics used as reference.
+     * @param str Text.
+     * @return Translucent image with the text.
+     */
+    private BufferedImage render(final Graphics2D g2, final String str) {
+        final FontMetrics metrics = g2.getFontMetrics(font);
+        final int width = Math.max(1, metrics.stringWidth(str) + 2);
+        final int height = metrics.getAscent() + metrics.getDescent() + 2;
+        final BufferedImage image = new BufferedImage(
+                width, height, BufferedImage.TYPE_INT_ARGB);
+
+        final Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHints(g2.getRenderingHints());
+            g.setFont(font);
+            final int x = 1;
+            final int y = 1 + metrics.getAscent();
+            g.setPaint(Color.BLACK);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    if (dx != 0 || dy != 0) {
+                        g.drawString(str, x + dx, y + dy);
+                    }
+                }
+            }
+            g.setPaint(Color.WHITE);
+            g.drawString(str, x, y);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,347 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.view;
+
+import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.sensitivity.GrSensitivity;
+import com.orthodonticpreview.ui.cephalometrics.CephRuleEngine;
+import com.orthodonticpreview.view.internal.Messages;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.weasis.core.api.media.data.MediaSeries;
+import org.weasis.core.api.media.data.MediaSeriesGroup;
+import org.weasis.core.api.media.data.TagW;
+
+/**
+ * Texts of a report (header and results), shared by the report layer and the
+ * PDF export.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class ReportText {
+
+    /**
+     * One block of results: a title and its lines.
+     */
+    public static final class Section {
+
+        private final String title;
+        private final List<String> lines = new ArrayList<String>();
+
+        Section(final String title) {
+            this.title = title;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public List<String> getLines() {
+            return Collections.unmodifiableList(lines);
+        }
+    }
+
+    /** Cephalometric tags for results. */
+    private static final TagW[] CEPH_TAGS = new TagW[] {
+        TagO.ANB, TagO.FAC_ANGLE, //Mandibula: usar somente FacAngle.
+        TagO.SNA, //maxila normal, protruida, retruida
+    };
+
+    private static final String MANDIBLE = "Mandible";
+
+    /** Confidence level of GR uncertainty. */
+    private static final double CONFIDENCE = 0.95;
+
+    private ReportText() {
+    }
+
+    /**
+     * @param series Report series.
+     * @return Study role of the report (Maxilla or Mandible), or null.
+     */
+    public static String getRole(final MediaSeries series) {
+        final Object roleValue = series.getTagValue(TagO.STUDY_ROLE);
+        if (roleValue instanceof String && !"".equals(roleValue)) {
+            return (String) roleValue;
+        }
+        return null;
+    }
+
+    /**
+     * @param patient Patient of the report.
+     * @return Patient line of the header.
+     */
+    public static String getPatientLine(final MediaSeriesGroup patient) {
+        return Messages.getString("OrthoInfoLayer.Patient")
+                + " " + patient.getTagValue(TagW.PatientName);
+    }
+
+    /**
+     * @param series Report series.
+     * @return Date line of the header (the date is the series one).
+     */
+    public static String getDateLine(final MediaSeries series) {
+        return Messages.getString("OrthoInfoLayer.Date")
+                + " " + TagW.formatDate(
+                (Date) series.getTagValue(TagW.SeriesDate));
+    }
+
+    /**
+     * @param series Report series.
+     * @return Role name, as shown on header.
+     */
+    public static String getRoleLine(final MediaSeries series) {
+        return Messages.getString("OrthoReportLayer." + getRole(series));
+    }
+
+    /**
+     * @param patient Patient of the report.
+     * @return Age line of the header, or null if age is unknown.
+     */
+    public static String getAgeLine(final MediaSeriesGroup patient) {
+        final Object ageValue = patient.getTagValue(TagO.PATIENT_AGE);
+        if (ageValue instanceof String) {
+            return Messages.getString("OrthoReportLayer.Age")
+                    + " " + ((String) ageValue);
+        }
+        return null;
+    }
+
+    /**
+     * @param patient Patient of the report.
+     * @return Sex line of the header, or null if sex is unknown.
+     */
+    public static String getSexLine(final MediaSeriesGroup patient) {
+        final Object sexValue = patient.getTagValue(TagW.PatientSex);
+        if (sexValue instanceof String && !"".equals(sexValue)) {
+            return Messages.getString("OrthoReportLayer.Sex")
+                    + " " + ((String) sexValue);
+        }
+        return null;
+    }
+
+    /**
+     * Builds the result sections: cephalometric data, mid line and
+     * biomechanics.
+     *
+     * @param patient Patient of the report.
+     * @param series Report series.
+     * @return The three sections, in report order.
+     */
+    public static List<Section> getResults(final MediaSeriesGroup patient,
+            final MediaSeries series) {
+        final List<Section> sections = new ArrayList<Section>(3);
+        sections.add(getCephResults(patient));
+
+        final String reportRole = getRole(series);
+        sections.add(getMedLineResults(patient, reportRole));
+        sections.add(getBiomechanicsResults(series, reportRole));
+        return sections;
+    }
+
+    private static Section getCephResults(final MediaSeriesGroup patient) {
+        final Section section = new Section(
+                Messages.getString("OrthoReportLayer.CephResults"));
+
+        //tags unicas
+        for (TagW tagW : CEPH_TAGS) {
+            String conclusion = CephRuleEngine.getInstance().getConclusion(
+                    patient, tagW);
+            if (conclusion != null) {
+                section.lines.add(conclusion);
+            }
+        }
+
+        //tags combinadas
+        String result = getIncisorsText(patient.getTagValue(TagO.HIF_NA),
+                patient.getTagValue(TagO.DOT_NA), "Incisivos superiores ",
+                22, 23);
+        if (result != null) {
+            section.lines.add(result);
+        }
+        result = getIncisorsText(patient.getTagValue(TagO.HIF_NB),
+                patient.getTagValue(TagO.DOT_NB), "Incisivos inferiores ",
+                25, 26);
+        if (result != null) {
+            section.lines.add(result);
+        }
+
+        if (section.lines.isEmpty()) {
+            section.lines.add(Messages.getString("OrthoReportLayer.noData"));
+        }
+        return section;
+    }
+
+    /**
+     * Conclusion about incisors position (distance) and inclination (angle).
+     *
+     * @param valTag1 Distance value (mm).
+     * @param valTag2 Angle value (degrees).
+     * @param prefix Text start (which incisors).
+     * @param angleMin Upper angle limit of lingual inclination.
+     * @param angleMax Lower angle limit of buccal inclination.
+     * @return Conclusion, or null if any value is missing.
+     */
+    private static String getIncisorsText(final Object valTag1,
+            final Object valTag2, final String prefix, final int angleMin,
+            final int angleMax) {
+        if (!(valTag1 instanceof Double && valTag2 instanceof Double)) {
+            return null;
+        }
+        final double val1 = (Double) valTag1;
+        final double val2 = (Double) valTag2;
+        if (4 < val1 && val1 < 5 && angleMin < val2 && val2 < angleMax) {
+            return prefix + "Dentro da Norma";
+        }
+        String result = prefix;
+        boolean putE = false;
+        if (val1 <= 4) {
+            result += "retruídos";
+            putE = true;
+        } else if (val1 >= 5) {
+            result += "protruídos";
+            putE = true;
+        }
+        if (val2 <= angleMin) {
+            if (putE) {
+                result += " e ";
+            }
+            result += "linguarizados";
+        } else if (val2 >= angleMax) {
+            if (putE) {
+                result += " e ";
+            }
+            result += "vestibularizados";
+        }
+        return result + ".";
+    }
+
+    private static Section getMedLineResults(final MediaSeriesGroup patient,
+            final String reportRole) {
+        final Section section = new Section(
+                Messages.getString("OrthoReportLayer.MedLineResults")
+                + " (" + Messages.getString("OrthoReportLayer." + reportRole)
+                + ")");
+
+        TagW lineTag = TagO.MED_LINE_SUP;
+        if (MANDIBLE.equals(reportRole)) {
+            lineTag = TagO.MED_LINE_INF;
+        }
+        Object tagValue = patient.getTagValue(lineTag);
+        String lineText = "Linha média correta.";
+        if (tagValue instanceof Double) {
+            double value = Math.abs((Double) tagValue);
+            if (value == 0) {
+                lineText = "Linha média correta.";
+            } else {
+                String side = "direita.";
+                if (value > 0) {
+                    side = "esquerda.";
+                }
+                lineText = "Desviada " + value + "mm para a " + side;
+            }
+        }
+        section.lines.add(lineText);
+        return section;
+    }
+
+    private static Section getBiomechanicsResults(final MediaSeries series,
+            final String reportRole) {
+        final Section section = new Section(
+                Messages.getString("OrthoReportLayer.BMResults")
+                + " (" + Messages.getString("OrthoReportLayer." + reportRole)
+                + ")");
+
+        Object twistSide = series.getTagValue(TagO.TURNING_TENDENCY);
+        if (twistSide instanceof String) {
+            if ("none".equalsIgnoreCase((String) twistSide)) {
+                section.lines.add(Messages.getString(
+                        "OrthoReportLayer.TwistTendencyText.none"));
+            } else {
+                section.lines.add(Messages.getString(
+                        "OrthoReportLayer.TwistTendencyText")
+                        + " " + Messages.getString(
+                                "OrthoReportLayer." + twistSide) + ".");
+            }
+        }
+
+        Object projValue = series.getTagValue(TagO.PROJECTION_TENDENCY);
+        if (projValue instanceof Boolean) {
+            String call = ((Boolean) projValue).toString();
+            section.lines.add(Messages.getString(
+                    "OrthoReportLayer.ProjTenText." + call));
+        } else {
+            section.lines.add(
+                    "Tendência de projeção dos incisicos: não calculada"
+                    + " (Posição dos incisivos não informada).");
+        }
+
+        final Object sensitivity = series.getTagValue(TagO.GR_SENSITIVITY);
+        if (sensitivity instanceof GrSensitivity) {
+            section.lines.addAll(getSensitivityLines(
+                    (GrSensitivity) sensitivity));
+        }
+        return section;
+    }
+
+    /**
+     * Lines about GR uncertainty and how stable the tendencies are.
+     *
+     * @param sensitivity Result of GrSensitivityAnalysis.
+     * @return One or two lines.
+     */
+    private static List<String> getSensitivityLines(
+            final GrSensitivity sensitivity) {
+        final DecimalFormat format = new DecimalFormat("0.0");
+        final List<String> lines = new ArrayList<String>(2);
+        lines.add(Messages.getString("OrthoReportLayer.GrUncertainty") + " "
+                + format.format(sensitivity.getSemiMajor(CONFIDENCE)
+                * sensitivity.getScale()) + " x "
+                + format.format(sensitivity.getSemiMinor(CONFIDENCE)
+                * sensitivity.getScale()) + " mm.");
+
+        final StringBuilder stability = new StringBuilder();
+        if (!Double.isNaN(sensitivity.getTurningStability())) {
+            stability.append(Messages.getString(
+                    "OrthoReportLayer.StabilityTurning")).append(' ')
+                    .append(Math.round(
+                    sensitivity.getTurningStability() * 100)).append('%');
+        }
+        if (!Double.isNaN(sensitivity.getProjectionStability())) {
+            if (stability.length() > 0) {
+                stability.append(", ");
+            }
+            stability.append(Messages.getString(
+                    "OrthoReportLayer.StabilityProjection")).append(' ')
+                    .append(Math.round(
+                    sensitivity.getProjectionStability() * 100)).append('%');
+        }
+        if (stability.length() > 0) {
+            lines.add(stability.append(' ').append(Messages.getString(
+                    "OrthoReportLayer.StabilitySuffix")).toString());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,182 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.view;
+
+import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.ui.persistence.PortableGraphic;
+import com.orthodonticpreview.view.graphics.DotGraphic;
+import com.orthodonticpreview.view.graphics.GraphicIndex;
+import com.orthodonticpreview.view.graphics.VectorGraphic;
+import java.awt.Color;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.weasis.core.api.media.data.MediaSeriesGroup;
+import org.weasis.core.ui.graphic.Graphic;
+
+/**
+ * Keeps the calculation result graphics (GR point, resultant and debug
+ * vectors) on the measure layer: one graphic per result element, found by its linked
+ * owner and updated in place on each new calculation.
+ *
+ * Because the owners are saved with the graphics, results restored from a
+ * file are also reused instead of duplicated.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+final class ResultOverlay {
+
+    /** Prefix of all result owners. */
+    public static final String OWNER_PREFIX = "result.";
+    /** Owner of GR point. */
+    public static final String GR_OWNER = OWNER_PREFIX + "gr";
+    /** Owner of resultant vector. */
+    public static final String RESULTANT_OWNER = OWNER_PREFIX + "resultant";
+    /** Owner of debug resultant. */
+    private static final String DEBUG_RESULTANT_OWNER =
+            OWNER_PREFIX + "debug.resultant";
+    /** Owner of debug GR mark. */
+    private static final String DEBUG_GR_OWNER = OWNER_PREFIX + "debug.gr";
+    /** Owner prefix of debug vectors. */
+    private static final String DEBUG_OWNER = OWNER_PREFIX + "debug.";
+
+    private ResultOverlay() {
+    }
+
+    /**
+     * Shows the results of the given group on the layer, reusing graphics
+     * already there. Result graphics not used anymore are removed.
+     *
+     * @param index Graphic index of the measure layer.
+     * @param group Series with calculation results.
+     * @param debug If debug vectors must be shown.
+     */
+    public static void update(final GraphicIndex index,
+            final MediaSeriesGroup group, final boolean debug) {
+        final Map<String, Graphic> existing = collect(index);
+
+        final Object grValue = group.getTagValue(TagO.POINT_GR);
+        final Object resultValue = group.getTagValue(TagO.RESULTANT);
+
+        if (debug) {
+            if (resultValue instanceof Line2D) {
+                setVector(index, existing, DEBUG_RESULTANT_OWNER,
+                        (Line2D) resultValue, 3, Color.RED);
+            }
+            if (grValue instanceof Point2D) {
+                final Point2D gr = (Point2D) grValue;
+                setVector(index, existing, DEBUG_GR_OWNER,
+                        new Line2D.Double(gr.getX() - 10, gr.getY(),
+                                gr.getX() + 10, gr.getY()), 3, Color.RED);
+            }
+            final Object debugValue = group.getTagValue(TagO.DEBUG);
+            if (debugValue instanceof List) {
+                final List debugList = (List) debugValue;
+                for (int i = 0; i < debugList.size(); i++) {
+                    setVector(index, existing, DEBUG_OWNER + i,
+                            (Line2D) debugList.get(i), 3, Color.ORANGE);
+                }
+            }
+        }
+
+        if (grValue instanceof Point2D) {
+            final Point2D gr = (Point2D) grValue;
+            final Graphic graphic = existing.remove(GR_OWNER);
+            if (graphic instanceof DotGraphic) {
+                ((DotGraphic) graphic).changeShape(gr);
+            } else {
+                final DotGraphic dot = new DotGraphic(4, Color.red, true);
+                //copy: graphic must not change the tag value
+                dot.createShape(new Point2D.Double(gr.getX(), gr.getY()));
+                dot.setLinkedOwner(GR_OWNER);
+                index.addGraphic(dot);
+            }
+        }
+
+        if (resultValue instanceof Line2D) {
+            setVector(index, existing, RESULTANT_OWNER,
+                    (Line2D) resultValue, 2, Color.RED);
+        }
+
+        //what is left is from an old calculation.
+        for (Graphic graphic : existing.values()) {
+            graphic.fireRemoveAction();
+        }
+    }
+
+    /**
+     * Changes the vector of given owner, or adds a new one.
+     *
+     * @param index Graphic index of the layer.
+     * @param existing Result graphics not yet updated (by owner).
+     * @param owner Owner of vector.
+     * @param line Vector shape.
+     * @param thickness Thickness for a new vector.
+     * @param color Color for a new vector.
+     */
+    private static void setVector(final GraphicIndex index,
+            final Map<String, Graphic> existing, final String owner,
+            final Line2D line, final float thickness, final Color color) {
+        final Graphic graphic = existing.remove(owner);
+        if (graphic instanceof VectorGraphic) {
+            ((VectorGraphic) graphic).changeShape(line);
+        } else {
+            final VectorGraphic vector =
+                    new VectorGraphic(thickness, color, true);
+            vector.createShape(line);
+            vector.setLinkedOwner(owner);
+            index.addGraphic(vector);
+        }
+    }
+
+    /**
+     * Finds result graphics on layer, by owner. Duplicates (from older
+     * versions) are removed.
+     *
+     * @param index Graphic index of the layer.
+     * @return Result graphics by owner.
+     */
+    private static Map<String, Graphic> collect(final GraphicIndex index) {
+        final Map<String, Graphic> found = new HashMap<String, Graphic>();
+        final List<Graphic> duplicates = new ArrayList<Graphic>();
+        for (Graphic graphic : index.getOwned()) {
+            if (graphic instanceof PortableGraphic) {
+                final String owner =
+                        ((PortableGraphic) graphic).getLinkedOwner();
+                if (owner.startsWith(OWNER_PREFIX)) {
+                    if (found.containsKey(owner)) {
+                        duplicates.add(graphic);
+                    } else {
+                        found.put(owner, graphic);
+                    }
+                }
+            }
+        }
+        for (Graphic graphic : duplicates) {
+            graphic.fireRemoveAction();
+        }
+        return found;
+    }
+}
@@ -20,12 +20,12 @@
  */
 package com.orthodonticpreview.view;
 
+import com.orthodonticpreview.datamodel.OrthoReport;
 import com.orthodonticpreview.datamodel.OrthodonticModel;
 import com.orthodonticpreview.datamodel.TagO;
 import com.orthodonticpreview.ui.explorer.OrthoExplorerView;
-import com.orthodonticpreview.view.graphics.DotGraphic;
-import com.orthodonticpreview.view.graphics.VectorGraphic;
 import com.orthodonticpreview.view.internal.Messages;
+import com.orthodonticpreview.view.print.ReportPdfExporter;
 import com.orthodonticpreview.view.print.ReportPrintable;
 import com.orthodonticpreview.view.tool.OrthoImageTool;
 import com.orthodonticpreview.view.tool.TeethTool;
@@ -35,21 +35,27 @@ import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
-import java.awt.geom.Line2D;
-import java.awt.geom.Point2D;
 import java.awt.print.PageFormat;
 import java.awt.print.PrinterJob;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
+import javax.swing.JFileChooser;
 import javax.swing.JMenu;
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import org.weasis.core.api.explorer.ObservableEvent;
+import org.weasis.core.api.explorer.model.TreeModel;
+import org.weasis.core.api.gui.util.ActionW;
 import org.weasis.core.api.image.GridBagLayoutModel;
 import org.weasis.core.api.media.data.ImageElement;
 import org.weasis.core.api.media.data.MediaSeries;
@@ -61,7 +67,6 @@ import org.weasis.core.ui.editor.SeriesViewerListener;
 import org.weasis.core.ui.editor.image.DefaultView2d;
 import org.weasis.core.ui.editor.image.ImageViewerPlugin;
 import org.weasis.core.ui.editor.image.SynchView;
-import org.weasis.core.ui.graphic.model.AbstractLayer;
 import org.weasis.core.ui.util.Toolbar;
 import org.weasis.core.ui.util.WtoolBar;
 
@@ -148,7 +153,41 @@ public class ViewContainer extends ImageViewerPlugin<ImageElement>
 
     @Override
     public List<Action> getExportActions() {
-        return null;
+        List<Action> list = new ArrayList<Action>();
+
+        list.add(new AbstractAction(
+                Messages.getString("ViewContainer.exportPatientPdf")) {
+                    @Override
+                    public void actionPerformed(ActionEvent e) {
+                        OrthodonticModel model = (OrthodonticModel)
+                                OrthoExplorerView.getService()
+                                .getDataExplorerModel();
+                        MediaSeriesGroup patient = model.getParent(
+                                getGroupID(), OrthodonticModel.patient);
+                        if (patient != null) {
+                            exportReports(Collections.singletonList(patient));
+                        }
+                    }
+                });
+        list.add(new AbstractAction(
+                Messages.getString("ViewContainer.exportAllPdf")) {
+                    @Override
+                    public void actionPerformed(ActionEvent e) {
+                        OrthodonticModel model = (OrthodonticModel)
+                                OrthoExplorerView.getService()
+                                .getDataExplorerModel();
+                        exportReports(new ArrayList<MediaSeriesGroup>(
+                                model.getChildren(TreeModel.rootNode)));
+                    }
+                });
+        list.add(new AbstractAction(
+                Messages.getString("ViewContainer.exportSvg")) {
+                    @Override
+                    public void actionPerformed(ActionEvent e) {
+                        exportSvgReport();
+                    }
+                });
+        return list;
     }
 
     @Override
@@ -294,43 +333,10 @@ public class ViewContainer extends ImageViewerPlugin<ImageElement>
 
     private void drawResults() {
         DefaultView2d view = view2ds.get(0);
-        AbstractLayer[] layers = view.getLayerModel().getLayers();
-        for (AbstractLayer abstractLayer : layers) {
-            if (abstractLayer.getIdentifier() == AbstractLayer.MEASURE) {
-
-                if (debug) {
-                    VectorGraphic lineGraphic = new VectorGraphic(3, Color.RED, true);
-                    Line2D tagValue = (Line2D) getGroupID().getTagValue(TagO.RESULTANT);
-                    lineGraphic.createShape(tagValue);
-                    abstractLayer.addGraphic(lineGraphic);
-
-                    VectorGraphic lineGraphic2 = new VectorGraphic(3, Color.RED, true);
-                    Point2D tagValue2 = (Point2D) getGroupID().getTagValue(TagO.POINT_GR);
-                    Line2D line = new Line2D.Double(tagValue2.getX() - 10, tagValue2.getY(), tagValue2.getX() + 10, tagValue2.getY());
-                    lineGraphic2.createShape(line);
-                    abstractLayer.addGraphic(lineGraphic2);
-
-                    //debug
-                    List tagVal3 = (List) getGroupID().getTagValue(TagO.DEBUG);
-                    for (int i = 0; i < tagVal3.size(); i++) {
-                        VectorGraphic lineGr = new VectorGraphic(3, Color.ORANGE, true);
-                        Line2D ln = (Line2D) tagVal3.get(i);
-                        lineGr.createShape(ln);
-                        abstractLayer.addGraphic(lineGr);
-                    }
-                }
-
-                DotGraphic dot = new DotGraphic(4, Color.red, true);
-                dot.createShape((Point2D.Double) getGroupID().getTagValue(TagO.POINT_GR));
-                abstractLayer.addGraphic(dot);
-
-                VectorGraphic lineGraphic = new VectorGraphic(2, Color.RED, true);
-                Line2D tagValue = (Line2D) getGroupID().getTagValue(TagO.RESULTANT);
-                lineGraphic.createShape(tagValue);
-                abstractLayer.addGraphic(lineGraphic);
-
-                view.repaint();
-            }
+        if (view instanceof OrthoView) {
+            ResultOverlay.update(((OrthoView) view).getGraphicIndex(),
+                    getGroupID(), debug);
+            view.repaint();
         }
     }
 
@@ -389,6 +395,135 @@ public class ViewContainer extends ImageViewerPlugin<ImageElement>
         }
     }
 
+    /**
+     * Asks for a PDF file and exports there the reports found on given
+     * groups, out of the EDT.
+     *
+     * @param groups Patients, studies or series.
+     */
+    private void exportReports(final List<MediaSeriesGroup> groups) {
+        OrthodonticModel model = (OrthodonticModel) OrthoExplorerView
+                .getService().getDataExplorerModel();
+        final List<MediaSeries> reports
+                = ReportPdfExporter.collectReports(model, groups);
+        if (reports.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    Messages.getString("ViewContainer.noReports"),
+                    Messages.getString("ViewContainer.exportPdf"),
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        final JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(
+                new FileNameExtensionFilter("PDF", "pdf"));
+        if (fileChooser.showSaveDialog(this)
+                != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File selected = fileChooser.getSelectedFile();
+        if (!selected.getName().toLowerCase().endsWith(".pdf")) {
+            selected = new File(selected.getPath() + ".pdf");
+        }
+        final File file = selected;
+
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                final ReportPdfExporter exporter = new ReportPdfExporter(
+                        Runtime.getRuntime().availableProcessors());
+                try {
+                    return exporter.export(reports, file);
+                } finally {
+                    exporter.shutdown();
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    JOptionPane.showMessageDialog(ViewContainer.this,
+                            get() + " " + Messages.getString(
+                                    "ViewContainer.exportDone") + " "
+                            + file.getPath(),
+                            Messages.getString("ViewContainer.exportPdf"),
+                            JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(ViewContainer.this,
+                            String.valueOf(ex.getCause()),
+                            Messages.getString("ViewContainer.exportPdf"),
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Asks for a SVG file and writes there the report of the series on view
+     * (image and results as vectors), out of the EDT.
+     */
+    private void exportSvgReport() {
+        final MediaSeriesGroup group = getGroupID();
+        if (!(group instanceof Series)
+                || group.getTagValue(TagO.RESULT_BOUNDS) == null) {
+            JOptionPane.showMessageDialog(this,
+                    Messages.getString("ViewContainer.noResults"),
+                    Messages.getString("ViewContainer.exportSvg"),
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        //same rotation and flip as the PNG report (see buildReport)
+        final DefaultView2d<ImageElement> view = getSelectedImagePane();
+        final Object rotation = view == null
+                ? null : view.getActionValue(ActionW.ROTATION.cmd());
+        final Object flip = view == null
+                ? null : view.getActionValue(ActionW.FLIP.cmd());
+
+        final JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(
+                new FileNameExtensionFilter("SVG", "svg"));
+        if (fileChooser.showSaveDialog(this)
+                != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File selected = fileChooser.getSelectedFile();
+        if (!selected.getName().toLowerCase().endsWith(".svg")) {
+            selected = new File(selected.getPath() + ".svg");
+        }
+        final File file = selected;
+
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                new OrthoReport((Series) group).createSvgReport(
+                        rotation instanceof Integer ? (Integer) rotation : 0,
+                        Boolean.TRUE.equals(flip), file);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(ViewContainer.this,
+                            Messages.getString("ViewContainer.svgDone")
+                            + " " + file.getPath(),
+                            Messages.getString("ViewContainer.exportSvg"),
+                            JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    JOptionPane.showMessageDialog(ViewContainer.this,
+                            String.valueOf(ex.getCause()),
+                            Messages.getString("ViewContainer.exportSvg"),
+                            JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
     /**
      * Overriden to dispose viewers (if they don't dispose, don't store actions
      * in tag.
@@ -20,6 +20,7 @@
  */
 package com.orthodonticpreview.view.graphics;
 
+import com.orthodonticpreview.datamodel.VectorMath;
 import com.orthodonticpreview.ui.persistence.GraphicPack;
 import com.orthodonticpreview.ui.persistence.PortableGraphic;
 import com.orthodonticpreview.view.internal.Messages;
@@ -97,18 +98,7 @@ public class ArcGraphic extends AbstractDragGraphic
         GeneralPath newShape = null;
 
         if (lineABvalid) {
-            newShape = new GeneralPath();
-            double hDist = ptB.getX() - ptA.getX();
-
-            newShape.moveTo((float) ptA.getX(), (float) ptA.getY());
-            newShape.lineTo((float) ptA.getX(), (float) ptA.getY() - hDist / 5);
-
-            newShape.curveTo((float) ptA.getX(), (float) ptA.getY() - hDist * 1.2,
-                    (float) ptB.getX(), (float) ptB.getY() - hDist * 1.2,
-                    (float) ptB.getX(), (float) ptB.getY() - hDist / 5);
-
-            newShape.lineTo((float) ptB.getX(), (float) ptB.getY());
-
+            newShape = VectorMath.archPath(ptA, ptB);
         }
 
         setShape(newShape, mouseEvent);
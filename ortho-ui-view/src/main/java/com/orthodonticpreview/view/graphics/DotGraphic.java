@@ -79,7 +79,9 @@ public class DotGraphic extends AbstractDragGraphic
      * @param linkedOwner the linkedOwner to set
      */
     public void setLinkedOwner(String linkedOwner) {
+        final String old = this.linkedOwner;
         this.linkedOwner = linkedOwner;
+        firePropertyChange(GraphicIndex.OWNER_PROPERTY, old, linkedOwner);
     }
 
     @Override
@@ -121,6 +123,17 @@ public class DotGraphic extends AbstractDragGraphic
         buildShape(null);
     }
 
+    /**
+     * Moves the dot to given point.
+     *
+     * @param point New center.
+     */
+    public void changeShape(final Point2D point) {
+        handlePointList.get(0).setLocation(point);
+
+        buildShape(null);
+    }
+
     public Point2D getCenter() {
         return center;
     }
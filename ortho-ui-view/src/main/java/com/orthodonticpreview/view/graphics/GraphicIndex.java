@@ -0,0 +1,501 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.view.graphics;
+
+import com.orthodonticpreview.ui.persistence.PortableGraphic;
+import com.orthodonticpreview.view.OrthoView;
+import java.awt.BasicStroke;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.weasis.core.api.image.util.ImageLayer;
+import org.weasis.core.ui.editor.image.DefaultView2d;
+import org.weasis.core.ui.graphic.Graphic;
+import org.weasis.core.ui.graphic.MeasureItem;
+import org.weasis.core.ui.graphic.model.AbstractLayer;
+import org.weasis.core.ui.graphic.model.AbstractLayerModel;
+import org.weasis.core.ui.graphic.model.GraphicsListener;
+
+/**
+ * Index of the graphics of a MEASURE layer: by bounds (uniform grid), by
+ * linked owner and by class.
+ *
+ * Kept by its OrthoView (see OrthoView.getGraphicIndex) and kept up to date
+ * by events only, queries never scan the layer:
+ * <ul>
+ * <li>graphics added by the plugin go through addGraphic;</li>
+ * <li>graphics drawn by the user are picked up when weasis selects them;</li>
+ * <li>"bounds", "remove" and "linkedOwner" events of the indexed graphics
+ * move them on the grid, drop them or move them to another owner;</li>
+ * <li>the view calls rebuild when its series changes.</li>
+ * </ul>
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class GraphicIndex {
+
+    /** Linked owner property (fired by VectorGraphic and DotGraphic). */
+    public static final String OWNER_PROPERTY = "linkedOwner";
+
+    /** Grid cell size, on image coordinates. */
+    private static final double CELL_SIZE = 64;
+    /** Graphics over more cells than this are kept out of the grid. */
+    private static final int MAX_CELLS = 1024;
+
+    /** Layer model whose MEASURE layer is indexed. */
+    private final AbstractLayerModel layerModel;
+
+    /** Grid cells. */
+    private final Map<Long, List<Graphic>> cells =
+            new HashMap<Long, List<Graphic>>();
+    /** Cell range of each graphic on grid. */
+    private final Map<Graphic, Rectangle> ranges =
+            new IdentityHashMap<Graphic, Rectangle>();
+    /** Graphics too big for the grid, or without a shape yet. */
+    private final Set<Graphic> outOfGrid = Collections.newSetFromMap(
+            new IdentityHashMap<Graphic, Boolean>());
+    /** Drawing order of each indexed graphic (later is on top). */
+    private final Map<Graphic, Long> order =
+            new IdentityHashMap<Graphic, Long>();
+    /** Next drawing order. */
+    private long nextOrder;
+    /** Graphics by owner. */
+    private final Map<String, List<Graphic>> byOwner =
+            new HashMap<String, List<Graphic>>();
+    /** Owner of each indexed graphic (null if none). */
+    private final Map<Graphic, String> owners =
+            new IdentityHashMap<Graphic, String>();
+    /** Graphics by class. */
+    private final Map<Class<?>, List<Graphic>> byClass =
+            new HashMap<Class<?>, List<Graphic>>();
+    /** Savable graphics, in drawing order. */
+    private final Set<Graphic> portable = new LinkedHashSet<Graphic>();
+
+    /** Keeps index up to date. */
+    private final PropertyChangeListener listener =
+            new PropertyChangeListener() {
+
+                @Override
+                public void propertyChange(final PropertyChangeEvent evt) {
+                    final String name = evt.getPropertyName();
+                    if ("bounds".equals(name)
+                            && evt.getSource() instanceof Graphic) {
+                        final Graphic graphic = (Graphic) evt.getSource();
+                        if (owners.containsKey(graphic)) {
+                            placeOnGrid(graphic);
+                        }
+                    } else if ("remove".equals(name)
+                            && evt.getNewValue() instanceof Graphic) {
+                        remove((Graphic) evt.getNewValue());
+                    } else if (OWNER_PROPERTY.equals(name)
+                            && evt.getSource() instanceof Graphic) {
+                        final Graphic graphic = (Graphic) evt.getSource();
+                        if (owners.containsKey(graphic)) {
+                            removeOwner(graphic);
+                            addOwner(graphic);
+                        }
+                    }
+                }
+            };
+
+    /** Indexes graphics drawn by the user (weasis selects new graphics). */
+    private final GraphicsListener selectionListener = new GraphicsListener() {
+
+        @Override
+        public void handle(final List<Graphic> selectedGraphics,
+                final ImageLayer layer) {
+            if (selectedGraphics == null) {
+                return;
+            }
+            for (Graphic graphic : selectedGraphics) {
+                if (!owners.containsKey(graphic)) {
+                    final AbstractLayer measure = getLayer();
+                    if (measure != null
+                            && measure.getGraphics().contains(graphic)) {
+                        add(graphic);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void updateMeasuredItems(final List<MeasureItem> measureList) {
+            // Empty
+        }
+    };
+
+    /**
+     * Creates the index of the MEASURE layer of given model.
+     *
+     * @param model Layer model of a view.
+     */
+    public GraphicIndex(final AbstractLayerModel model) {
+        this.layerModel = model;
+        model.addGraphicSelectionListener(selectionListener);
+        rebuild();
+    }
+
+    /**
+     * Adds a graphic to the MEASURE layer of a view, through the view index
+     * if it is an OrthoView.
+     *
+     * @param view View.
+     * @param graphic Graphic to add.
+     */
+    public static void addGraphic(final DefaultView2d view,
+            final Graphic graphic) {
+        if (view instanceof OrthoView) {
+            ((OrthoView) view).getGraphicIndex().addGraphic(graphic);
+        } else {
+            final AbstractLayer layer =
+                    view.getLayerModel().getLayer(AbstractLayer.MEASURE);
+            if (layer != null) {
+                layer.addGraphic(graphic);
+            }
+        }
+    }
+
+    /**
+     * Adds a graphic to the MEASURE layer, and indexes it.
+     *
+     * @param graphic Graphic to add.
+     */
+    public void addGraphic(final Graphic graphic) {
+        final AbstractLayer measure = getLayer();
+        if (measure != null) {
+            measure.addGraphic(graphic);
+            add(graphic);
+        }
+    }
+
+    /**
+     * Drops everything and indexes the graphics of the MEASURE layer. Called
+     * by the view when its series changes (weasis then replaces or clears
+     * the graphics without events).
+     */
+    public final void rebuild() {
+        for (Graphic graphic : owners.keySet()) {
+            graphic.removePropertyChangeListener(listener);
+        }
+        cells.clear();
+        ranges.clear();
+        outOfGrid.clear();
+        order.clear();
+        byOwner.clear();
+        owners.clear();
+        byClass.clear();
+        portable.clear();
+
+        final AbstractLayer measure = getLayer();
+        if (measure != null) {
+            for (Graphic graphic : measure.getGraphics()) {
+                add(graphic);
+            }
+        }
+    }
+
+    private AbstractLayer getLayer() {
+        return layerModel.getLayer(AbstractLayer.MEASURE);
+    }
+
+    /**
+     * Indexes a graphic.
+     *
+     * @param graphic Graphic on the indexed layer.
+     */
+    private void add(final Graphic graphic) {
+        if (owners.containsKey(graphic)) {
+            return;
+        }
+        order.put(graphic, nextOrder++);
+        addOwner(graphic);
+        List<Graphic> sameClass = byClass.get(graphic.getClass());
+        if (sameClass == null) {
+            sameClass = new ArrayList<Graphic>();
+            byClass.put(graphic.getClass(), sameClass);
+        }
+        sameClass.add(graphic);
+        if (graphic instanceof PortableGraphic) {
+            portable.add(graphic);
+        }
+        placeOnGrid(graphic);
+        graphic.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Removes a graphic from index.
+     *
+     * @param graphic Graphic leaving the layer.
+     */
+    private void remove(final Graphic graphic) {
+        if (!owners.containsKey(graphic)) {
+            return;
+        }
+        graphic.removePropertyChangeListener(listener);
+        removeFromGrid(graphic);
+        removeOwner(graphic);
+        owners.remove(graphic);
+        order.remove(graphic);
+        portable.remove(graphic);
+        final List<Graphic> sameClass = byClass.get(graphic.getClass());
+        if (sameClass != null) {
+            sameClass.remove(graphic);
+        }
+    }
+
+    private void addOwner(final Graphic graphic) {
+        String owner = null;
+        if (graphic instanceof PortableGraphic) {
+            owner = ((PortableGraphic) graphic).getLinkedOwner();
+        }
+        owners.put(graphic, owner);
+        if (owner != null) {
+            List<Graphic> owned = byOwner.get(owner);
+            if (owned == null) {
+                owned = new ArrayList<Graphic>(2);
+                byOwner.put(owner, owned);
+            }
+            owned.add(graphic);
+        }
+    }
+
+    private void removeOwner(final Graphic graphic) {
+        final String owner = owners.get(graphic);
+        if (owner != null) {
+            final List<Graphic> owned = byOwner.get(owner);
+            if (owned != null) {
+                owned.remove(graphic);
+                if (owned.isEmpty()) {
+                    byOwner.remove(owner);
+                }
+            }
+            owners.put(graphic, null);
+        }
+    }
+
+    /**
+     * Puts graphic on cells covered by its bounds.
+     *
+     * @param graphic Graphic.
+     */
+    private void placeOnGrid(final Graphic graphic) {
+        final Shape shape = graphic.getShape();
+        final Rectangle range =
+                shape == null ? null : cellRange(shape.getBounds2D());
+        if (range != null && range.equals(ranges.get(graphic))) {
+            //same cells: nothing to move (most drag steps)
+            return;
+        }
+        removeFromGrid(graphic);
+        if (range == null || (long) range.width * range.height > MAX_CELLS) {
+            outOfGrid.add(graphic);
+            return;
+        }
+        for (int x = range.x; x < range.x + range.width; x++) {
+            for (int y = range.y; y < range.y + range.height; y++) {
+                final Long key = cellKey(x, y);
+                List<Graphic> cell = cells.get(key);
+                if (cell == null) {
+                    cell = new ArrayList<Graphic>(4);
+                    cells.put(key, cell);
+                }
+                cell.add(graphic);
+            }
+        }
+        ranges.put(graphic, range);
+    }
+
+    private void removeFromGrid(final Graphic graphic) {
+        outOfGrid.remove(graphic);
+        final Rectangle range = ranges.remove(graphic);
+        if (range != null) {
+            for (int x = range.x; x < range.x + range.width; x++) {
+                for (int y = range.y; y < range.y + range.height; y++) {
+                    final Long key = cellKey(x, y);
+                    final List<Graphic> cell = cells.get(key);
+                    if (cell != null) {
+                        cell.remove(graphic);
+                        if (cell.isEmpty()) {
+                            cells.remove(key);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Rectangle cellRange(final Rectangle2D bounds) {
+        final int minX = (int) Math.floor(bounds.getMinX() / CELL_SIZE);
+        final int minY = (int) Math.floor(bounds.getMinY() / CELL_SIZE);
+        final int maxX = (int) Math.floor(bounds.getMaxX() / CELL_SIZE);
+        final int maxY = (int) Math.floor(bounds.getMaxY() / CELL_SIZE);
+        return new Rectangle(minX, minY, maxX - minX + 1, maxY - minY + 1);
+    }
+
+    private static Long cellKey(final int x, final int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    /**
+     * Graphics whose bounds intersect the given area.
+     *
+     * @param area Area, on image coordinates.
+     * @return Graphics found, in no particular order.
+     */
+    public List<Graphic> getGraphicsIntersecting(final Rectangle2D area) {
+        final Set<Graphic> found = Collections.newSetFromMap(
+                new IdentityHashMap<Graphic, Boolean>());
+        final Rectangle range = cellRange(area);
+        if ((long) range.width * range.height > cells.size()) {
+            for (List<Graphic> cell : cells.values()) {
+                found.addAll(cell);
+            }
+        } else {
+            for (int x = range.x; x < range.x + range.width; x++) {
+                for (int y = range.y; y < range.y + range.height; y++) {
+                    final List<Graphic> cell = cells.get(cellKey(x, y));
+                    if (cell != null) {
+                        found.addAll(cell);
+                    }
+                }
+            }
+        }
+        found.addAll(outOfGrid);
+
+        final List<Graphic> result = new ArrayList<Graphic>(found.size());
+        for (Graphic graphic : found) {
+            final Shape shape = graphic.getShape();
+            if (shape != null && touches(shape.getBounds2D(), area)) {
+                result.add(graphic);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Same as Rectangle2D.intersects, but true also for empty bounds
+     * (horizontal and vertical lines) and shared borders.
+     */
+    private static boolean touches(final Rectangle2D bounds,
+            final Rectangle2D area) {
+        return bounds.getMaxX() >= area.getMinX()
+                && bounds.getMinX() <= area.getMaxX()
+                && bounds.getMaxY() >= area.getMinY()
+                && bounds.getMinY() <= area.getMaxY();
+    }
+
+    /**
+     * Top graphic (last drawn) whose outline, or inside, is within tolerance
+     * of given point.
+     *
+     * @param point Point, on image coordinates.
+     * @param tolerance Distance tolerance, on image coordinates.
+     * @return Graphic found, or null.
+     */
+    public Graphic getGraphicAt(final Point2D point, final double tolerance) {
+        final List<Graphic> candidates = getGraphicsIntersecting(
+                new Rectangle2D.Double(point.getX() - tolerance,
+                        point.getY() - tolerance, tolerance * 2,
+                        tolerance * 2));
+        final BasicStroke stroke = new BasicStroke((float) (tolerance * 2));
+        Graphic top = null;
+        long topOrder = -1;
+        for (Graphic graphic : candidates) {
+            final long graphicOrder = order.get(graphic);
+            if (graphicOrder > topOrder) {
+                final Shape shape = graphic.getShape();
+                if (shape.contains(point)
+                        || stroke.createStrokedShape(shape).contains(point)) {
+                    top = graphic;
+                    topOrder = graphicOrder;
+                }
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Graphics with given linked owner.
+     *
+     * @param owner Linked owner.
+     * @return Graphics with this owner (may be empty).
+     */
+    public List<Graphic> getByOwner(final String owner) {
+        final List<Graphic> owned = byOwner.get(owner);
+        if (owned == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<Graphic>(owned);
+    }
+
+    /**
+     * All graphics having a linked owner.
+     *
+     * @return Graphics with owner.
+     */
+    public List<Graphic> getOwned() {
+        final List<Graphic> result = new ArrayList<Graphic>();
+        for (List<Graphic> owned : byOwner.values()) {
+            result.addAll(owned);
+        }
+        return result;
+    }
+
+    /**
+     * Graphics of given class (subclasses not included).
+     *
+     * @param clazz Graphic class.
+     * @return Graphics of this class (may be empty).
+     */
+    public List<Graphic> getByClass(final Class<? extends Graphic> clazz) {
+        final List<Graphic> sameClass = byClass.get(clazz);
+        if (sameClass == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<Graphic>(sameClass);
+    }
+
+    /**
+     * Savable graphics (PortableGraphic), in drawing order.
+     *
+     * @return Savable graphics.
+     */
+    public List<PortableGraphic> getPortable() {
+        final List<PortableGraphic> result =
+                new ArrayList<PortableGraphic>(portable.size());
+        for (Graphic graphic : portable) {
+            result.add((PortableGraphic) graphic);
+        }
+        return result;
+    }
+}
@@ -22,6 +22,7 @@ package com.orthodonticpreview.view.graphics;
 
 import com.orthodonticpreview.ui.persistence.GraphicPack;
 import com.orthodonticpreview.ui.persistence.PortableGraphic;
+import com.orthodonticpreview.view.OrthoView;
 import com.orthodonticpreview.view.internal.Messages;
 import java.awt.Color;
 import java.awt.Shape;
@@ -33,6 +34,7 @@ import org.weasis.core.api.image.util.Unit;
 import org.weasis.core.ui.graphic.Graphic;
 import org.weasis.core.ui.graphic.LineGraphic;
 import org.weasis.core.ui.graphic.MeasureItem;
+import org.weasis.core.ui.editor.image.DefaultView2d;
 import org.weasis.core.ui.graphic.model.AbstractLayerModel;
 
 /**
@@ -109,7 +111,9 @@ public class VectorGraphic extends LineGraphic implements PortableGraphic {
      * @param linkedOwner the linkedOwner to set
      */
     public void setLinkedOwner(final String linkedOwner) {
+        final String old = this.linkedOwner;
         this.linkedOwner = linkedOwner;
+        firePropertyChange(GraphicIndex.OWNER_PROPERTY, old, linkedOwner);
     }
 
     /**
@@ -135,7 +139,30 @@ public class VectorGraphic extends LineGraphic implements PortableGraphic {
             }
         }
 
-        this.linkedOwner = linkedOwner;
+        setLinkedOwner(linkedOwner);
+    }
+
+    /**
+     * Sets the linked Owner, after cleaning other Vectors with the same owner
+     * on the view (found by its graphic index, if it is an OrthoView).
+     *
+     * @param linkedOwner the linkedOwner to set
+     * @param view View to check
+     */
+    public void setLinkedOwner(final String linkedOwner,
+            final DefaultView2d view) {
+        if (!(view instanceof OrthoView)) {
+            setLinkedOwner(linkedOwner,
+                    view == null ? null : view.getLayerModel());
+            return;
+        }
+        final GraphicIndex index = ((OrthoView) view).getGraphicIndex();
+        for (Graphic graphic : index.getByOwner(linkedOwner)) {
+            if (graphic instanceof VectorGraphic && graphic != this) {
+                ((VectorGraphic) graphic).setLinkedOwner(null);
+            }
+        }
+        setLinkedOwner(linkedOwner);
     }
 
     @Override
@@ -20,16 +20,20 @@
  */
 package com.orthodonticpreview.view.print;
 
+import com.orthodonticpreview.datamodel.cache.RasterCache;
 import com.orthodonticpreview.view.OrthoView;
 import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.Paint;
+import java.awt.Rectangle;
 import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.File;
+import java.io.IOException;
 import javax.media.jai.PlanarImage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +43,7 @@ import org.weasis.core.api.image.ImageOpNode;
 import org.weasis.core.api.image.SimpleOpManager;
 import org.weasis.core.api.image.util.ImageLayer;
 import org.weasis.core.api.media.data.ImageElement;
+import org.weasis.core.api.media.data.TagW;
 import org.weasis.core.ui.editor.image.DefaultView2d;
 import org.weasis.core.ui.editor.image.MouseActions;
 
@@ -152,7 +157,7 @@ public class PrintView<E extends ImageElement> extends DefaultView2d {
         zoom(1);
         //Use this one to get more resolution to the image: #1041
         final PlanarImage image = (PlanarImage) imageLayer.getDisplayImage();
-        if (image != null) {
+        if (image != null && !drawCached(g2d, image, viewScale)) {
             g2d.drawImage(image.getAsBufferedImage(),
                     AffineTransform.getScaleInstance(viewScale, viewScale),
                     null);
@@ -174,6 +179,60 @@ public class PrintView<E extends ImageElement> extends DefaultView2d {
         g2d.setStroke(oldStroke);
     }
 
+    /**
+     * Draws the visible part of the image from RasterCache, instead of
+     * copying all the display image to the heap. Only when display
+     * operations left the source image as it is (otherwise the cached pixels
+     * are not the ones shown).
+     *
+     * @param g2d Graphics, translated to the view offset.
+     * @param image Display image.
+     * @param viewScale View scale.
+     * @return False if the image was not drawn.
+     */
+    private boolean drawCached(final Graphics2D g2d, final PlanarImage image,
+            final double viewScale) {
+        final Object path = getSeries() == null
+                ? null : getSeries().getTagValue(TagW.FilePath);
+        if (image != getSourceImage() || path == null) {
+            return false;
+        }
+        final File file = new File(path.toString());
+        if (!file.isFile()) {
+            return false;
+        }
+        final RasterCache.Handle source;
+        try {
+            source = RasterCache.getInstance().acquire(file);
+        } catch (IOException ex) {
+            LOGGER.debug("Printing image from viewer: {}", ex.getMessage());
+            return false;
+        }
+        try {
+            if (source.getWidth() != image.getWidth()
+                    || source.getHeight() != image.getHeight()) {
+                return false;
+            }
+            final Rectangle visible = new Rectangle(
+                    (int) Math.floor(getViewModel().getModelOffsetX()),
+                    (int) Math.floor(getViewModel().getModelOffsetY()),
+                    (int) Math.ceil(getWidth() / viewScale) + 2,
+                    (int) Math.ceil(getHeight() / viewScale) + 2)
+                    .intersection(new Rectangle(source.getWidth(),
+                                    source.getHeight()));
+            if (!visible.isEmpty()) {
+                final AffineTransform transform
+                        = AffineTransform.getScaleInstance(viewScale,
+                                viewScale);
+                transform.translate(visible.x, visible.y);
+                g2d.drawImage(source.copy(visible), transform, null);
+            }
+            return true;
+        } finally {
+            source.release();
+        }
+    }
+
     private void setInfoLayer(OrthoView view) {
         infoLayer = view.getInfoLayer().getLayerCopy(this);
     }
@@ -0,0 +1,131 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.view.print;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Report page rasterized at printer resolution, and a small cache of them by
+ * report series (so printing the same report again does not render it
+ * again). The cache is bounded by the bytes of its rasters.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+final class ReportPage {
+
+    /**
+     * Maximum bytes of rasters kept: one A4 page at 300 dpi (about 33 MB).
+     */
+    private static final long MAX_BYTES = 36L * 1024 * 1024;
+
+    /**
+     * Pages by report series.
+     */
+    private static final Map<Object, ReportPage> CACHE
+            = new WeakHashMap<Object, ReportPage>();
+
+    /**
+     * Values the page was rendered with (page size, resolution, view state).
+     */
+    private final List<Object> signature;
+    private final BufferedImage image;
+    private final int dpi;
+
+    /**
+     * Creates a page.
+     *
+     * @param signature Values the page was rendered with.
+     * @param image Page image (imageable area).
+     * @param dpi Image resolution.
+     */
+    ReportPage(final List<Object> signature, final BufferedImage image,
+            final int dpi) {
+        this.signature = signature;
+        this.image = image;
+        this.dpi = dpi;
+    }
+
+    BufferedImage getImage() {
+        return image;
+    }
+
+    int getDpi() {
+        return dpi;
+    }
+
+    /**
+     * @return Bytes of the page raster.
+     */
+    long getBytes() {
+        final DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks()
+                * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+
+    /**
+     * Gets a cached page.
+     *
+     * @param series Report series.
+     * @param signature Values the page must have been rendered with.
+     * @return The page, or null if not cached or rendered differently.
+     */
+    static ReportPage get(final Object series, final List<Object> signature) {
+        synchronized (CACHE) {
+            final ReportPage page = CACHE.get(series);
+            if (page != null && page.signature.equals(signature)) {
+                return page;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Caches a page, dropping other pages while the cache is over MAX_BYTES.
+     * A page larger than MAX_BYTES is not cached.
+     *
+     * @param series Report series.
+     * @param page Page rendered for it.
+     */
+    static void put(final Object series, final ReportPage page) {
+        synchronized (CACHE) {
+            CACHE.remove(series);
+            if (page.getBytes() > MAX_BYTES) {
+                return;
+            }
+            long total = page.getBytes();
+            for (ReportPage cached : CACHE.values()) {
+                total += cached.getBytes();
+            }
+            final Iterator<ReportPage> pages = CACHE.values().iterator();
+            while (total > MAX_BYTES && pages.hasNext()) {
+                total -= pages.next().getBytes();
+                pages.remove();
+            }
+            CACHE.put(series, page);
+        }
+    }
+}
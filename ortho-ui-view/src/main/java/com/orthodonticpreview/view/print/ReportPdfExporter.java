@@ -0,0 +1,367 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.view.print;
+
+import com.orthodonticpreview.datamodel.DaemonThreadFactory;
+import com.orthodonticpreview.datamodel.OrthodonticModel;
+import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.cache.RasterCache;
+import com.orthodonticpreview.datamodel.export.PdfDocumentWriter;
+import com.orthodonticpreview.datamodel.export.PdfImage;
+import com.orthodonticpreview.datamodel.export.PdfPage;
+import com.orthodonticpreview.ui.explorer.OrthoExplorerView;
+import com.orthodonticpreview.view.OrthoReportLayer;
+import com.orthodonticpreview.view.ReportText;
+import com.orthodonticpreview.view.internal.Messages;
+import java.awt.Color;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.weasis.core.api.media.data.MediaSeries;
+import org.weasis.core.api.media.data.MediaSeriesGroup;
+import org.weasis.core.api.media.data.TagW;
+
+/**
+ * Exports many reports to one PDF, one A4 page per report.
+ *
+ * Pages (report image and texts) are built on a worker pool and written to
+ * disk in order as soon as they are ready; only a few pages are in memory at
+ * a time.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class ReportPdfExporter {
+
+    /**
+     * Class logger.
+     */
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(ReportPdfExporter.class);
+
+    /** Page margin (pt). */
+    private static final float MARGIN = 40;
+    /** Text size (pt). */
+    private static final float FONT_SIZE = 9;
+    /** Top of report image (pt). */
+    private static final float IMAGE_TOP = 130;
+    /** Bottom of report image (pt). */
+    private static final float IMAGE_BOTTOM = 480;
+    /** Blue of visual identity (as on report layer). */
+    private static final Color OP_BLUE = new Color(0, 152, 218);
+
+    /** Header logo, shared by all pages of all documents. */
+    private static PdfImage logo;
+    /** True after trying to read the logo. */
+    private static boolean logoRead = false;
+
+    /**
+     * Report series and its patient.
+     */
+    private static final class Report {
+
+        private final MediaSeries series;
+        private final MediaSeriesGroup patient;
+
+        Report(final MediaSeries series, final MediaSeriesGroup patient) {
+            this.series = series;
+            this.patient = patient;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final int threads;
+
+    /**
+     * Creates an exporter with a fixed number of threads.
+     *
+     * @param threads Number of worker threads (at least 1).
+     */
+    public ReportPdfExporter(final int threads) {
+        this.threads = Math.max(1, threads);
+        executor = Executors.newFixedThreadPool(this.threads,
+                new DaemonThreadFactory("ortho-pdf"));
+    }
+
+    /**
+     * Finds report series on given groups.
+     *
+     * @param model Data model.
+     * @param groups Patients, studies or series.
+     * @return Report series found, in groups order.
+     */
+    public static List<MediaSeries> collectReports(
+            final OrthodonticModel model,
+            final Collection<? extends MediaSeriesGroup> groups) {
+        final List<MediaSeries> reports = new ArrayList<MediaSeries>();
+        collectReports(model, groups, reports);
+        return reports;
+    }
+
+    private static void collectReports(final OrthodonticModel model,
+            final Collection<? extends MediaSeriesGroup> groups,
+            final List<MediaSeries> reports) {
+        for (MediaSeriesGroup group : groups) {
+            if (group instanceof MediaSeries) {
+                if (isReport(group)) {
+                    reports.add((MediaSeries) group);
+                }
+            } else {
+                collectReports(model, new ArrayList<MediaSeriesGroup>(
+                        model.getChildren(group)), reports);
+            }
+        }
+    }
+
+    private static boolean isReport(final MediaSeriesGroup series) {
+        return OrthoExplorerView.REPORT_IMAGE.equalsIgnoreCase(
+                (String) series.getTagValue(TagO.SERIE_ROLE));
+    }
+
+    /**
+     * Exports reports to a PDF file. A report that can't be read is logged
+     * and left out.
+     *
+     * @param reports Report series.
+     * @param file PDF file to write.
+     * @return Number of pages written.
+     * @throws IOException If can't write the file.
+     * @throws InterruptedException If interrupted (the file is incomplete).
+     */
+    public int export(final List<MediaSeries> reports, final File file)
+            throws IOException, InterruptedException {
+        //tree lookups on caller thread; workers only read tags.
+        final OrthodonticModel model = (OrthodonticModel) OrthoExplorerView
+                .getService().getDataExplorerModel();
+        final List<Report> jobs = new ArrayList<Report>(reports.size());
+        for (MediaSeries series : reports) {
+            jobs.add(new Report(series,
+                    model.getParent(series, OrthodonticModel.patient)));
+        }
+
+        final PdfDocumentWriter writer
+                = new PdfDocumentWriter(new FileOutputStream(file));
+        final LinkedList<Future<PdfPage>> pending
+                = new LinkedList<Future<PdfPage>>();
+        final int maxPending = threads * 2;
+        try {
+            int next = 0;
+            while (next < jobs.size() || !pending.isEmpty()) {
+                while (next < jobs.size() && pending.size() < maxPending) {
+                    final Report report = jobs.get(next++);
+                    pending.add(executor.submit(new Callable<PdfPage>() {
+                        @Override
+                        public PdfPage call() throws IOException {
+                            return buildPage(report);
+                        }
+                    }));
+                }
+                try {
+                    writer.addPage(pending.removeFirst().get());
+                } catch (ExecutionException ex) {
+                    LOGGER.error("Report not exported: {}",
+                            String.valueOf(ex.getCause()));
+                }
+            }
+        } finally {
+            for (Future<PdfPage> future : pending) {
+                future.cancel(true);
+            }
+            writer.close();
+        }
+        return writer.getPageCount();
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Builds the page of one report (on a worker thread).
+     */
+    private PdfPage buildPage(final Report report) throws IOException {
+        final PdfPage page = new PdfPage();
+        final float width = page.getWidth();
+        final float height = page.getHeight();
+        final float lineStep = FONT_SIZE * 1.5F;
+
+        //head
+        float line = MARGIN + FONT_SIZE;
+        page.setColor(Color.BLACK);
+        page.drawString(ReportText.getPatientLine(report.patient), MARGIN,
+                line, FONT_SIZE, true);
+        line += lineStep;
+        page.drawString(ReportText.getDateLine(report.series), MARGIN, line,
+                FONT_SIZE, false);
+        page.drawString(ReportText.getRoleLine(report.series), width / 3,
+                line, FONT_SIZE, false);
+        String str = ReportText.getAgeLine(report.patient);
+        if (str != null) {
+            line += lineStep;
+            page.drawString(str, MARGIN, line, FONT_SIZE, false);
+        }
+        str = ReportText.getSexLine(report.patient);
+        if (str != null) {
+            page.drawString(str, width / 3, line, FONT_SIZE, false);
+        }
+        final PdfImage logoImage = getLogo();
+        if (logoImage != null) {
+            final float logoWid = (width - 2 * MARGIN) / 3;
+            page.drawImage(logoImage, width - MARGIN - logoWid, MARGIN,
+                    logoWid, logoWid * logoImage.getHeight()
+                    / logoImage.getWidth());
+        }
+
+        //report image, fit on its box.
+        final PdfImage image = readImage(report.series);
+        final float boxWidth = width - 2 * MARGIN;
+        final float boxHeight = IMAGE_BOTTOM - IMAGE_TOP;
+        final float scale = Math.min(boxWidth / image.getWidth(),
+                boxHeight / image.getHeight());
+        final float imgWidth = image.getWidth() * scale;
+        final float imgHeight = image.getHeight() * scale;
+        page.drawImage(image, MARGIN + (boxWidth - imgWidth) / 2,
+                IMAGE_TOP + (boxHeight - imgHeight) / 2, imgWidth, imgHeight);
+
+        line = drawCaption(page, IMAGE_BOTTOM + lineStep * 1.5F);
+
+        //results
+        final float resultStep = FONT_SIZE * 1.2F;
+        line += resultStep * 1.7F;
+        boolean first = true;
+        for (ReportText.Section section
+                : ReportText.getResults(report.patient, report.series)) {
+            if (!first) {
+                line += resultStep * 1.7F;
+            }
+            first = false;
+            page.drawString(section.getTitle(), MARGIN, line, FONT_SIZE,
+                    true);
+            for (String text : section.getLines()) {
+                line += resultStep;
+                page.drawString(text, MARGIN, line, FONT_SIZE, false);
+            }
+        }
+
+        //footer
+        final float footer = height - MARGIN - FONT_SIZE * 3;
+        page.setColor(OP_BLUE);
+        page.setStroke(2, null);
+        page.drawLine(MARGIN, footer, width - MARGIN, footer);
+        page.setColor(Color.BLACK);
+        page.drawString(Messages.getString("OrthoReportLayer.footer1"),
+                MARGIN, footer + FONT_SIZE * 1.8F, FONT_SIZE, false);
+        return page;
+    }
+
+    /**
+     * Draws the caption, on two columns.
+     *
+     * @return Baseline of last caption line.
+     */
+    private static float drawCaption(final PdfPage page, final float top) {
+        final float lineStep = FONT_SIZE * 1.2F;
+        page.setColor(Color.BLACK);
+        page.drawString(Messages.getString("OrthoReportLayer.Caption"),
+                MARGIN, top, FONT_SIZE, true);
+
+        final float column = (page.getWidth() - 2 * MARGIN) / 2;
+        page.setColor(OP_BLUE);
+        page.setStroke(2, null);
+        page.drawLine(MARGIN, top + lineStep * 2, MARGIN + FONT_SIZE,
+                top + lineStep * 2 - FONT_SIZE);
+        page.draw(new Ellipse2D.Float(MARGIN + column,
+                top + lineStep * 2 - FONT_SIZE, FONT_SIZE, FONT_SIZE));
+
+        final float xText = MARGIN + FONT_SIZE * 1.5F;
+        page.setColor(Color.BLACK);
+        page.drawString(Messages.getString("OrthoReportLayer.CaptionLine1"),
+                xText, top + lineStep, FONT_SIZE, false);
+        page.drawString(Messages.getString("OrthoReportLayer.CaptionLine2"),
+                xText, top + lineStep * 2, FONT_SIZE, false);
+        page.drawString(Messages.getString("OrthoReportLayer.CaptionPoint1"),
+                xText + column, top + lineStep, FONT_SIZE, false);
+        page.drawString(Messages.getString("OrthoReportLayer.CaptionPoint2"),
+                xText + column, top + lineStep * 2, FONT_SIZE, false);
+        return top + lineStep * 2;
+    }
+
+    /**
+     * Reads the report image from its file (through RasterCache: reports
+     * exported again are not decoded again, and pixels are encoded from
+     * off-heap memory).
+     */
+    private static PdfImage readImage(final MediaSeries series)
+            throws IOException {
+        final Object path = series.getTagValue(TagW.FilePath);
+        if (path == null) {
+            throw new IOException("Report has no file: "
+                    + series.getTagValue(TagW.SeriesDescription));
+        }
+        final File file = path instanceof File
+                ? (File) path : new File(path.toString());
+        final RasterCache.Handle image
+                = RasterCache.getInstance().acquire(file);
+        try {
+            return new PdfImage(image.getImage());
+        } finally {
+            image.release();
+        }
+    }
+
+    /**
+     * Gets the header logo, reading it on first call.
+     *
+     * @return Logo, or null if it could not be read.
+     */
+    private static synchronized PdfImage getLogo() {
+        if (!logoRead) {
+            logoRead = true;
+            try {
+                final BufferedImage image
+                        = ImageIO.read(OrthoReportLayer.LOGO_IMAGE);
+                if (image != null) {
+                    logo = new PdfImage(image);
+                }
+            } catch (IOException ex) {
+                LOGGER.error("Can't read logo: " + ex);
+            }
+        }
+        return logo;
+    }
+}
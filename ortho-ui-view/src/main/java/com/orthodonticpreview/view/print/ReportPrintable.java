@@ -21,19 +21,27 @@
 package com.orthodonticpreview.view.print;
 
 import com.orthodonticpreview.view.OrthoEventManager;
+import com.orthodonticpreview.view.OrthoReportLayer;
 import com.orthodonticpreview.view.OrthoView;
 import com.orthodonticpreview.view.ViewContainer;
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.GraphicsEnvironment;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.awt.print.PageFormat;
 import java.awt.print.Printable;
 import java.awt.print.PrinterException;
 import java.awt.print.PrinterJob;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import javax.print.Doc;
 import javax.print.DocFlavor;
 import javax.print.DocPrintJob;
@@ -44,14 +52,22 @@ import javax.print.ServiceUI;
 import javax.print.SimpleDoc;
 import javax.print.attribute.Attribute;
 import javax.print.attribute.PrintRequestAttributeSet;
+import javax.print.attribute.standard.PrinterResolution;
 import javax.print.event.PrintJobAdapter;
 import javax.print.event.PrintJobEvent;
 import javax.swing.JComponent;
 import javax.swing.SwingWorker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.weasis.core.api.gui.util.ActionW;
 
 /**
+ * Prints the report view.
+ *
+ * The page is rasterized once, at printer resolution, on the worker thread
+ * and cached by report series. It goes to the printer as a Printable that
+ * only draws the cached image on the imageable area, so the service places
+ * and scales it with the chosen page format.
  *
  * @author Gabriela Bauermann (gabriela@animati.com.br)
  * @version 2012, 7 Jan.
@@ -72,6 +88,41 @@ public class ReportPrintable extends SwingWorker<Void, Void>
     private PrintService service;
     private final ViewContainer containerToPrint;
 
+    /**
+     * Resolution used when printer does not tell its own.
+     */
+    private static final int DEFAULT_DPI = 300;
+    /**
+     * Highest resolution used for the page image (an A4 page at 300 dpi is
+     * already about 35 MB).
+     */
+    private static final int MAX_DPI = 300;
+
+    /**
+     * Page format of chosen printer.
+     */
+    private PageFormat pageFormat;
+    /**
+     * Resolution of the page image.
+     */
+    private int dpi;
+    /**
+     * Report series (cache key).
+     */
+    private Object series;
+    /**
+     * Values the page is rendered with.
+     */
+    private List<Object> signature;
+    /**
+     * View to rasterize (null if the page is already cached).
+     */
+    private PrintView printView;
+    /**
+     * Page to print.
+     */
+    private volatile ReportPage page;
+
     public ReportPrintable(
             ViewContainer report, PrintRequestAttributeSet set) {
         aset = set;
@@ -102,6 +153,25 @@ public class ReportPrintable extends SwingWorker<Void, Void>
         }
         OrthoEventManager.getInstance().setLastService(service);
 
+        try {
+            pjob.setPrintService(service);
+        } catch (PrinterException ex) {
+            LOGGER.error("Error trying to print: " + ex);
+            return;
+        }
+        pageFormat = pjob.getPageFormat(aset);
+        dpi = getResolution(service, aset);
+
+        // views must be built on the EDT, the page is rendered later
+        final OrthoView viewPane
+                = (OrthoView) containerToPrint.getSelectedImagePane();
+        series = viewPane.getSeries();
+        signature = buildSignature(viewPane);
+        page = ReportPage.get(series, signature);
+        if (page == null) {
+            printView = new PrintView(viewPane);
+        }
+
         try {
             this.execute();
         } catch (Exception e) {
@@ -113,7 +183,8 @@ public class ReportPrintable extends SwingWorker<Void, Void>
     public int print(Graphics graphics, PageFormat pageFormat, int pageIndex)
             throws PrinterException {
 
-        if (containerToPrint == null || pageIndex > 0) {
+        final ReportPage toPrint = page;
+        if (toPrint == null || pageIndex > 0) {
             return Printable.NO_SUCH_PAGE;
         }
 
@@ -122,25 +193,113 @@ public class ReportPrintable extends SwingWorker<Void, Void>
             Graphics2D g2d = (Graphics2D) graphics;
             g2d.translate(
                     pageFormat.getImageableX(), pageFormat.getImageableY());
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
 
-            OrthoView viewPane = (OrthoView) containerToPrint.getSelectedImagePane();
-            PrintView image = new PrintView(viewPane);
+            // image is already at printer resolution: just scale it back
+            final double scale = 72.0 / toPrint.getDpi();
+            g2d.drawImage(toPrint.getImage(),
+                    AffineTransform.getScaleInstance(scale, scale), null);
+        }
 
-            setZoomAndPosition(pageFormat, image);
+        return Printable.PAGE_EXISTS;
+    }
 
-            boolean wasBuffered = disableDoubleBuffering((JComponent) image);
-            image.draw(g2d, 10);
-            restoreDoubleBuffering((JComponent) image, wasBuffered);
+    /**
+     * Renders the report view on an image of the page imageable area, at
+     * given resolution.
+     *
+     * @param view View to render.
+     * @param format Page format.
+     * @param resolution Resolution (dpi).
+     * @return The page.
+     */
+    private ReportPage rasterize(final PrintView view,
+            final PageFormat format, final int resolution) {
+        final double scale = resolution / 72.0;
+        final int width = (int) Math.ceil(
+                format.getImageableWidth() * scale);
+        final int height = (int) Math.ceil(
+                format.getImageableHeight() * scale);
+        LOGGER.debug("Rasterizing report page: {}x{} at {} dpi",
+                new Object[]{width, height, resolution});
+
+        final BufferedImage image = new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_RGB);
+        final Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setColor(Color.white);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                    RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.scale(scale, scale);
+
+            setZoomAndPosition(format, view);
+
+            boolean wasBuffered = disableDoubleBuffering((JComponent) view);
+            view.draw(g2d, 10);
+            restoreDoubleBuffering((JComponent) view, wasBuffered);
+        } finally {
+            g2d.dispose();
         }
+        return new ReportPage(signature, image, resolution);
+    }
 
-        return Printable.PAGE_EXISTS;
+    /**
+     * Values that change the printed page: page size, resolution, view state
+     * and what the report layer shows (display preferences and tag values).
+     *
+     * @param view Report view.
+     * @return The values.
+     */
+    private List<Object> buildSignature(final OrthoView view) {
+        final List<Object> values = new ArrayList<Object>(Arrays.asList(
+                new Object[]{pageFormat.getImageableWidth(),
+                    pageFormat.getImageableHeight(), dpi, view.getImage(),
+                    view.getActionValue(ActionW.ZOOM.cmd()),
+                    view.getViewModel().getModelOffsetX(),
+                    view.getViewModel().getModelOffsetY(),
+                    view.getWidth(), view.getHeight()}));
+        if (view.getInfoLayer() instanceof OrthoReportLayer) {
+            values.addAll(
+                    ((OrthoReportLayer) view.getInfoLayer()).getContentKey());
+        }
+        return values;
+    }
+
+    /**
+     * Finds out the printer resolution.
+     *
+     * @param printService Chosen printer.
+     * @param attributes Chosen options.
+     * @return Resolution (dpi), between 72 and MAX_DPI.
+     */
+    private static int getResolution(final PrintService printService,
+            final PrintRequestAttributeSet attributes) {
+        Object res = attributes.get(PrinterResolution.class);
+        if (res == null) {
+            res = printService.getDefaultAttributeValue(
+                    PrinterResolution.class);
+        }
+        int result = DEFAULT_DPI;
+        if (res instanceof PrinterResolution) {
+            final PrinterResolution resolution = (PrinterResolution) res;
+            result = Math.min(
+                    resolution.getCrossFeedResolution(PrinterResolution.DPI),
+                    resolution.getFeedResolution(PrinterResolution.DPI));
+        }
+        return Math.max(72, Math.min(MAX_DPI, result));
     }
 
     protected void printToService(PrintService service,
             PrintRequestAttributeSet aset) {
-        // Now create a Doc that encapsulates the Printable object and its type
-        DocFlavor flavor = DocFlavor.SERVICE_FORMATTED.PRINTABLE;
-        Doc doc = new SimpleDoc(this, flavor, null);
+        // Printable that only draws the rasterized page
+        Doc doc = new SimpleDoc(this, DocFlavor.SERVICE_FORMATTED.PRINTABLE,
+                null);
 
         // Java 1.4 uses DocPrintJob. Create one from the service
         DocPrintJob job = service.createPrintJob();
@@ -207,6 +366,12 @@ public class ReportPrintable extends SwingWorker<Void, Void>
 
         LOGGER.debug("service (inside doInBackground) = " + service.getName());
 
+        if (page == null) {
+            page = rasterize(printView, pageFormat, dpi);
+            ReportPage.put(series, page);
+            printView = null;
+        }
+
         //call a method defined below to finish the printing
         printToService(service, aset);
 
@@ -22,11 +22,14 @@ package com.orthodonticpreview.view.tool;
 
 import com.orthodonticpreview.datamodel.TagO;
 import com.orthodonticpreview.datamodel.VectorMath;
+import com.orthodonticpreview.datamodel.monitor.Metrics;
 import com.orthodonticpreview.ui.persistence.PortableGraphic;
 import com.orthodonticpreview.ui.persistence.TeethPlace;
 import com.orthodonticpreview.view.OrthoEventManager;
 import com.orthodonticpreview.view.OrthoView;
+import com.orthodonticpreview.view.graphics.ArcGraphic;
 import com.orthodonticpreview.view.graphics.DotGraphic;
+import com.orthodonticpreview.view.graphics.GraphicIndex;
 import com.orthodonticpreview.view.graphics.VectorGraphic;
 import com.orthodonticpreview.view.internal.Messages;
 import java.awt.Color;
@@ -38,15 +41,18 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.swing.SwingUtilities;
 import javax.swing.table.AbstractTableModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.weasis.core.ui.editor.image.DefaultView2d;
 import org.weasis.core.ui.graphic.Graphic;
-import org.weasis.core.ui.graphic.model.AbstractLayer;
-import org.weasis.core.ui.graphic.model.AbstractLayerModel;
 
 /**
  * Controls the information and operations envolved on TeethTool.
@@ -67,6 +73,50 @@ public class TeethTableModel extends AbstractTableModel {
      */
     private final List<TeethPlace> list;
 
+    /**
+     * Row of each place, by lower case name.
+     */
+    private final Map<String, Integer> placeRows
+            = new HashMap<String, Integer>();
+
+    /*
+     * Values shown on table and used for calculation, one array per column
+     * (NaN or 0 when absent). Kept in sync with the places by syncRow.
+     */
+    /** Length of linked vector, in pixels. */
+    private double[] placeLengths = new double[0];
+    /** Length in mm. */
+    private double[] mmLengths = new double[0];
+    /** Center x. */
+    private double[] centerXs = new double[0];
+    /** Center y. */
+    private double[] centerYs = new double[0];
+    /** Force vector start x. */
+    private double[] forceX1s = new double[0];
+    /** Force vector start y. */
+    private double[] forceY1s = new double[0];
+    /** Force vector end x. */
+    private double[] forceX2s = new double[0];
+    /** Force vector end y. */
+    private double[] forceY2s = new double[0];
+
+    /**
+     * Rows changed and not yet notified to listeners.
+     */
+    private final BitSet dirtyRows = new BitSet();
+    /**
+     * True if the whole table must be notified (rows added or removed).
+     */
+    private boolean allDirty;
+    /**
+     * Depth of open batches (see beginBatch).
+     */
+    private int batchDepth;
+    /**
+     * True when a notification is already queued on the EDT.
+     */
+    private boolean notifyScheduled;
+
     /**
      * Center of arc place.
      */
@@ -136,6 +186,7 @@ public class TeethTableModel extends AbstractTableModel {
                 list.add(new TeethPlace(names[i]));
             }
         }
+        reindex();
     }
 
     /**
@@ -146,7 +197,12 @@ public class TeethTableModel extends AbstractTableModel {
      * @param view Corresponding view.
      */
     public void populateModel(final List plList, final DefaultView2d view) {
-        List<Graphic> allGraphics = view.getLayerModel().getAllGraphics();
+        List<Graphic> allGraphics;
+        if (view instanceof OrthoView) {
+            allGraphics = ((OrthoView) view).getGraphicIndex().getOwned();
+        } else {
+            allGraphics = view.getLayerModel().getAllGraphics();
+        }
         List<PortableGraphic> withLinks = lookForLinks(allGraphics);
 
         list.clear();
@@ -175,6 +231,7 @@ public class TeethTableModel extends AbstractTableModel {
                 }
             }
         }
+        reindex();
         //alimentar escala
         findScale();
     }
@@ -196,32 +253,35 @@ public class TeethTableModel extends AbstractTableModel {
 
     @Override
     public Object getValueAt(final int rowIndex, final int columnIndex) {
-        final TeethPlace place = list.get(rowIndex);
         String result = "";
         switch (columnIndex) {
             case N_COL:
-                result = place.getPlace();
+                result = list.get(rowIndex).getPlace();
                 break;
             case LENPIX_COL:
-                if (place.getPlaceLength() > 0) {
-                    result = dFormat.format(place.getPlaceLength());
+                if (placeLengths[rowIndex] > 0) {
+                    result = dFormat.format(placeLengths[rowIndex]);
                 }
                 break;
             case CENTER_COL:
-                Point2D center = place.getCenter();
-                if (center != null) {
-                    result = "(" + dFormat.format(center.getX()) + ", "
-                            + dFormat.format(center.getY()) + ")";
+                if (!Double.isNaN(centerXs[rowIndex])) {
+                    result = "(" + dFormat.format(centerXs[rowIndex]) + ", "
+                            + dFormat.format(centerYs[rowIndex]) + ")";
                 }
                 break;
             case FORCEVEC_COL:
-                if (place.getForceVectorLen() > 0) {
-                    result = dFormat.format(place.getForceVectorLen());
+                if (!Double.isNaN(forceX1s[rowIndex])) {
+                    final double len = Math.hypot(
+                            forceX2s[rowIndex] - forceX1s[rowIndex],
+                            forceY2s[rowIndex] - forceY1s[rowIndex]);
+                    if (len > 0) {
+                        result = dFormat.format(len);
+                    }
                 }
                 break;
             case MM_COL:
-                if (place.getMmLength() > 0) {
-                    result = dFormat.format(place.getMmLength());
+                if (mmLengths[rowIndex] > 0) {
+                    result = dFormat.format(mmLengths[rowIndex]);
                 }
                 break;
             default:
@@ -261,7 +321,7 @@ public class TeethTableModel extends AbstractTableModel {
                 final VectorGraphic vector = (VectorGraphic) value;
                 row.setLinkedVector(vector, getScale());
                 vector.setLinkedOwner(row.getPlace(), OrthoEventManager
-                        .getInstance().getSelectedViewPane().getLayerModel());
+                        .getInstance().getSelectedViewPane());
                 vector.addPropertyChangeListener(graphicsChangeListener);
                 row.setPlaceLength(vector.getVectorLenght());
                 //updateScale();
@@ -287,7 +347,7 @@ public class TeethTableModel extends AbstractTableModel {
         }
 
         //avisa que os dados mudaram
-        fireTableDataChanged();
+        syncRow(rowIndex);
     }
 
     /**
@@ -299,10 +359,8 @@ public class TeethTableModel extends AbstractTableModel {
      * @return Only arc on view, or null
      */
     public static Graphic findOnlyArc(final OrthoView selView) {
-        final AbstractLayer layer
-                = selView.getLayerModel().getLayer(AbstractLayer.MEASURE);
-
-        final List<Graphic> graphics = layer.getGraphics();
+        final List<Graphic> graphics =
+                selView.getGraphicIndex().getByClass(ArcGraphic.class);
         int arcCount = 0;
         Graphic arc = null;
         for (Graphic graphic : graphics) {
@@ -326,12 +384,170 @@ public class TeethTableModel extends AbstractTableModel {
      * @return The TeethPlace with given name.
      */
     public TeethPlace get(final String string) {
-        for (TeethPlace teethPlace : list) {
-            if (teethPlace.getPlace().equalsIgnoreCase(string)) {
-                return teethPlace;
+        final int row = indexOf(string);
+        if (row < 0) {
+            return null;
+        }
+        return list.get(row);
+    }
+
+    /**
+     * Get the row of a TeethPlace by name.
+     *
+     * @param string name.
+     * @return The row of place with given name, or -1.
+     */
+    public int indexOf(final String string) {
+        if (string == null) {
+            return -1;
+        }
+        final Integer row = placeRows.get(string.toLowerCase(Locale.ENGLISH));
+        if (row == null) {
+            return -1;
+        }
+        return row;
+    }
+
+    /**
+     * Starts a batch of changes: listeners will only be notified after the
+     * matching commitBatch. Batches can be nested.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ends a batch of changes started by beginBatch. The rows changed inside
+     * it are notified (once) on the next EDT cycle.
+     */
+    public void commitBatch() {
+        if (batchDepth > 0) {
+            batchDepth--;
+        }
+        scheduleNotify();
+    }
+
+    /**
+     * Marks a row as changed.
+     *
+     * @param row Row changed.
+     */
+    private void rowChanged(final int row) {
+        dirtyRows.set(row);
+        scheduleNotify();
+    }
+
+    /**
+     * Queues the notification of changed rows, unless a batch is open or one
+     * is already queued: all changes made on the same EDT cycle become one
+     * event per block of contiguous rows.
+     */
+    private void scheduleNotify() {
+        if (batchDepth == 0 && !notifyScheduled
+                && (allDirty || !dirtyRows.isEmpty())) {
+            notifyScheduled = true;
+            SwingUtilities.invokeLater(notifyTask);
+        }
+    }
+
+    /**
+     * Fires the events for the changed rows.
+     */
+    private final Runnable notifyTask = new Runnable() {
+
+        @Override
+        public void run() {
+            notifyScheduled = false;
+            if (batchDepth > 0) {
+                //commitBatch will schedule again
+                return;
+            }
+            if (allDirty) {
+                allDirty = false;
+                dirtyRows.clear();
+                fireTableDataChanged();
+                return;
+            }
+            int first = dirtyRows.nextSetBit(0);
+            while (first >= 0) {
+                final int end = dirtyRows.nextClearBit(first);
+                if (first < getRowCount()) {
+                    fireTableRowsUpdated(first,
+                            Math.min(end, getRowCount()) - 1);
+                }
+                first = dirtyRows.nextSetBit(end);
+            }
+            dirtyRows.clear();
+        }
+    };
+
+    /**
+     * Rebuilds name index and value arrays from the list.
+     */
+    private void reindex() {
+        allDirty = true;
+        placeRows.clear();
+        final int size = list.size();
+        placeLengths = new double[size];
+        mmLengths = new double[size];
+        centerXs = new double[size];
+        centerYs = new double[size];
+        forceX1s = new double[size];
+        forceY1s = new double[size];
+        forceX2s = new double[size];
+        forceY2s = new double[size];
+        for (int i = 0; i < size; i++) {
+            placeRows.put(list.get(i).getPlace().toLowerCase(Locale.ENGLISH),
+                    i);
+            syncRow(i);
+        }
+    }
+
+    /**
+     * Copies the values of a place to the value arrays.
+     *
+     * @param row Row of place.
+     */
+    private void syncRow(final int row) {
+        final TeethPlace place = list.get(row);
+        placeLengths[row] = place.getPlaceLength();
+        mmLengths[row] = place.getMmLength();
+
+        final Point2D center = place.getCenter();
+        if (center == null) {
+            centerXs[row] = centerYs[row] = Double.NaN;
+        } else {
+            centerXs[row] = center.getX();
+            centerYs[row] = center.getY();
+        }
+
+        final Graphic force = place.getForceLinkedVec();
+        final Shape forceShape = force == null ? null : force.getShape();
+        if (forceShape instanceof Line2D) {
+            final Line2D line = (Line2D) forceShape;
+            forceX1s[row] = line.getX1();
+            forceY1s[row] = line.getY1();
+            forceX2s[row] = line.getX2();
+            forceY2s[row] = line.getY2();
+        } else {
+            forceX1s[row] = forceY1s[row] = Double.NaN;
+            forceX2s[row] = forceY2s[row] = Double.NaN;
+        }
+        rowChanged(row);
+    }
+
+    /**
+     * Copies the values of a place to the value arrays.
+     *
+     * @param place Place on this model.
+     */
+    private void syncPlace(final TeethPlace place) {
+        if (place != null) {
+            final int row = indexOf(place.getPlace());
+            if (row >= 0 && list.get(row) == place) {
+                syncRow(row);
             }
         }
-        return null;
     }
 
     //****************************************
@@ -403,13 +619,11 @@ public class TeethTableModel extends AbstractTableModel {
                 force.createShape(line);
                 row.setForceLinkedVec(force);
                 //no viewer
-                AbstractLayerModel layerModel = OrthoEventManager.getInstance()
-                        .getSelectedViewPane().getLayerModel();
-                AbstractLayer layer = layerModel.getLayer(
-                        AbstractLayer.MEASURE);
-                force.setLinkedOwner("force." + row.getPlace(), layerModel);
+                final DefaultView2d pane =
+                        OrthoEventManager.getInstance().getSelectedViewPane();
+                force.setLinkedOwner("force." + row.getPlace(), pane);
                 force.addPropertyChangeListener(graphicsChangeListener);
-                layer.addGraphic(force);
+                GraphicIndex.addGraphic(pane, force);
             }
         } else if (row.getForceLinkedVec() != null) {
             //tem um force mas center ou line foram removidos
@@ -417,6 +631,7 @@ public class TeethTableModel extends AbstractTableModel {
             row.getForceLinkedVec().fireRemoveAction();
             row.setForceLinkedVec(null);
         }
+        syncPlace(row);
     }
 
     /**
@@ -424,10 +639,10 @@ public class TeethTableModel extends AbstractTableModel {
      */
     public List<Line2D> getForceVectorList() {
         List<Line2D> forceList = new ArrayList<Line2D>();
-        for (TeethPlace place : list) {
-            Graphic linkedVec = place.getForceLinkedVec();
-            if (linkedVec != null && linkedVec.getShape() instanceof Line2D) {
-                forceList.add((Line2D) linkedVec.getShape());
+        for (int i = 0; i < forceX1s.length; i++) {
+            if (!Double.isNaN(forceX1s[i])) {
+                forceList.add(new Line2D.Double(forceX1s[i], forceY1s[i],
+                        forceX2s[i], forceY2s[i]));
             }
         }
         return forceList;
@@ -471,15 +686,14 @@ public class TeethTableModel extends AbstractTableModel {
                 linkedVector = new VectorGraphic(1, Color.blue, true);
                 linkedVector.createShape(line);
                 //adiciona ao viewer:
-                AbstractLayerModel layerModel = OrthoEventManager.getInstance()
-                        .getSelectedViewPane().getLayerModel();
-                AbstractLayer layer = layerModel.getLayer(
-                        AbstractLayer.MEASURE);
-                layer.addGraphic(linkedVector);
+                final DefaultView2d pane =
+                        OrthoEventManager.getInstance().getSelectedViewPane();
+                GraphicIndex.addGraphic(pane, linkedVector);
                 //link to place:
                 place.setLinkedVector(linkedVector, getScale());
-                linkedVector.setLinkedOwner(place.getPlace(), layerModel);
+                linkedVector.setLinkedOwner(place.getPlace(), pane);
                 linkedVector.addPropertyChangeListener(graphicsChangeListener);
+                syncPlace(place);
             }
         }
         return linkedVector;
@@ -545,6 +759,7 @@ public class TeethTableModel extends AbstractTableModel {
         if (forceLinkedVec != null) {
             forceLinkedVec.fireRemoveAction();
         }
+        syncPlace(place);
     }
 
     /**
@@ -564,10 +779,18 @@ public class TeethTableModel extends AbstractTableModel {
                             String linkedOwner
                             = ((VectorGraphic) evt.getSource()).getLinkedOwner();
 
+                            if (linkedOwner != null
+                            && linkedOwner.startsWith("force")) {
+                                //force vector moved
+                                syncPlace(get(linkedOwner.substring(
+                                        linkedOwner.indexOf('.') + 1)));
+                                return;
+                            }
+
                             TeethPlace place = get(linkedOwner);
                             if (place != null) {
                                 place.setPlaceLength(line.getP1().distance(line.getP2()));
-                                fireTableDataChanged();
+                                syncPlace(place);
                                 maybeSetForce(place);
                             }
 
@@ -576,7 +799,7 @@ public class TeethTableModel extends AbstractTableModel {
                                     .getLinkedOwner());
                             if (place != null) {
                                 place.setCenter(((DotGraphic) evt.getSource()).getCenter());
-                                fireTableDataChanged();
+                                syncPlace(place);
                                 maybeSetForce(place);
                             }
                         }
@@ -586,10 +809,17 @@ public class TeethTableModel extends AbstractTableModel {
                         if (newValue instanceof VectorGraphic) {
                             final String linkedOwner = ((VectorGraphic) newValue)
                             .getLinkedOwner();
-                            if (linkedOwner.startsWith("force")) {
+                            if (linkedOwner == null) {
+                                //not linked
+                                return;
+                            } else if (linkedOwner.startsWith("force")) {
                                 final String name = linkedOwner.substring(
                                         linkedOwner.indexOf('.') + 1);
-                                get(name).setForceLinkedVec(null);
+                                final TeethPlace place = get(name);
+                                if (place != null) {
+                                    place.setForceLinkedVec(null);
+                                    syncPlace(place);
+                                }
                             } else {
                                 final TeethPlace place = get(linkedOwner);
                                 if (place != null) {
@@ -605,12 +835,11 @@ public class TeethTableModel extends AbstractTableModel {
                                 removeForceVector(place);
                             }
                         }
-                        fireTableDataChanged();
                     } else if ("midX".equals(evt.getPropertyName())
                     && evt.getNewValue() instanceof Double) {
                         midPlace.setCenter(
                                 new Point2D.Double((Double) evt.getNewValue(), 0));
-                        fireTableDataChanged();
+                        syncPlace(midPlace);
                     }
                 }
             };
@@ -618,7 +847,26 @@ public class TeethTableModel extends AbstractTableModel {
     /* -----------------------------------------------------------
      * ----------  Transfer places routine -----------------------
      * ----------------------------------------------------------- */
+    /**
+     * Transfers the teeth lengths to the arc, from the middle point out.
+     *
+     * Table listeners are notified once, at the end.
+     *
+     * @param selView View with arc and teeth graphics.
+     * @throws TransferError if something is missing or can't be placed.
+     */
     public void transferPlaces(OrthoView selView) throws TransferError {
+        final long start = System.nanoTime();
+        beginBatch();
+        try {
+            doTransferPlaces(selView);
+        } finally {
+            commitBatch();
+            Metrics.time(Metrics.TRANSFER_PLACES, start);
+        }
+    }
+
+    private void doTransferPlaces(OrthoView selView) throws TransferError {
         //confere se todos os comprimentos estao medidos e se o ponto médio
         //é conhecido
 
@@ -657,7 +905,7 @@ public class TeethTableModel extends AbstractTableModel {
                 } while (!path.contains(center));
             }
         }
-        fireTableDataChanged();
+        syncPlace(midPlace);
         //esquerda
         //transfere(ou copia?) a linha de 11 para o ponto direito
         //ficar sobre o arco
@@ -728,6 +976,25 @@ public class TeethTableModel extends AbstractTableModel {
         selView.repaint();
     }
 
+    /**
+     * Moves a tooth line to start on refPoint and end on the arch, keeping its
+     * length.
+     *
+     * The other end is searched on the circle of the line length around
+     * refPoint, stepping one pixel in Y (places 1 and 2) or in X (13 and
+     * beyond) until it crosses the arch path. This is a circle against curve
+     * search, not a line intersection, so it does not use LineIntersection:
+     * when the steps leave the circle before reaching the arch,
+     * VectorMath.circumferenceInverseCoorden gives NaN, which is thrown as
+     * ArithmeticException (and shown as TransferError), so no NaN gets to
+     * the places.
+     *
+     * @param place Place to transfer.
+     * @param refPoint Where the line starts (end of the previous place).
+     * @param path Arch path.
+     * @return Where the next place starts.
+     * @throws ArithmeticException If the line can't reach the arch.
+     */
     private Point2D transferLeftPlaceLenght(TeethPlace place, Point2D refPoint,
             GeneralPath path) throws ArithmeticException {
         Shape shape1 = place.getLinkedVector().getShape();
@@ -749,11 +1016,20 @@ public class TeethTableModel extends AbstractTableModel {
 
             //mover graph, nao soh o shape
             ((VectorGraphic) place.getLinkedVector()).changeShape(line11);
-            fireTableDataChanged();
+            syncPlace(place);
         }
         return refPoint;
     }
 
+    /**
+     * Same as transferLeftPlaceLenght, to the right side.
+     *
+     * @param place Place to transfer.
+     * @param refPoint Where the line starts (end of the previous place).
+     * @param path Arch path.
+     * @return Where the next place starts.
+     * @throws ArithmeticException If the line can't reach the arch.
+     */
     private Point2D transferRightPlaceLenght(
             TeethPlace place, Point2D refPoint, GeneralPath path)
             throws ArithmeticException {
@@ -776,12 +1052,12 @@ public class TeethTableModel extends AbstractTableModel {
 
             //quando ocorre NaN nos placeRight...
             if (refPoint == null) {
-                fireTableDataChanged();
+                syncPlace(place);
                 return null;
             }
 
             ((VectorGraphic) place.getLinkedVector()).changeShape(line11);
-            fireTableDataChanged();
+            syncPlace(place);
         }
         return refPoint;
     }
@@ -134,8 +134,7 @@ public class TeethTool extends PluginTool implements SeriesViewerListener,
 
                 model.setScalePixelValue(distance);
                 updateScaleLabel();
-                vector.setLinkedOwner(
-                        "scale", selectedImagePane.getLayerModel());
+                vector.setLinkedOwner("scale", selectedImagePane);
                 vector.addPropertyChangeListener(graphicsChangeListener);
 
                 //remove o listener depois de vincular o
@@ -168,8 +167,7 @@ public class TeethTool extends PluginTool implements SeriesViewerListener,
                 if (series != null) {
                     series.setTag(TagO.FRONT_LIMIT, limit);
                 }
-                vector.setLinkedOwner("frontLine",
-                        selectedImagePane.getLayerModel());
+                vector.setLinkedOwner("frontLine", selectedImagePane);
                 vector.addPropertyChangeListener(graphicsChangeListener);
 
                 //remove o listener depois de vincular o
@@ -373,6 +371,7 @@ public class TeethTool extends PluginTool implements SeriesViewerListener,
 
             @Override
             public void actionPerformed(ActionEvent ae) {
+                model.beginBatch();
                 try {
                     //Twice to solve bug #1318
                     model.transferPlaces((OrthoView) selectedImagePane);
@@ -382,6 +381,8 @@ public class TeethTool extends PluginTool implements SeriesViewerListener,
                             ex.getMessage(),
                             Messages.getString("TeethTool.TransferError"),
                             JOptionPane.ERROR_MESSAGE);
+                } finally {
+                    model.commitBatch();
                 }
             }
         });
@@ -21,9 +21,13 @@
 package com.orthodonticpreview.ui.cephalometrics;
 
 import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.ceph.CephNorm;
+import com.orthodonticpreview.datamodel.ceph.CephNormTable;
 import com.orthodonticpreview.ui.internal.Messages;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.weasis.core.api.media.data.MediaSeriesGroup;
 import org.weasis.core.api.media.data.TagW;
 
@@ -35,40 +39,62 @@ import org.weasis.core.api.media.data.TagW;
  */
 public class CephParameter extends AbstractCephParameter {
 
-    private final double[] concLimits;
-    private final String[] contTexts;
+    /** Norm given on constructor, used if there is none on norm files. */
+    private final CephNorm fallback;
     private MediaSeriesGroup owner;
     private final TagW tagW;
     private static List<CephParameter> list;
+    private static Map<TagW, CephParameter> byTag;
+
+    /**
+     * Creates a parameter classified by the norm files.
+     *
+     * @param tag Parameter tag.
+     * @param name Parameter title.
+     */
+    public CephParameter(TagW tag, String name) {
+        super(name);
+        fallback = null;
+        tagW = tag;
+    }
 
     public CephParameter(TagW tag, String name, double[] limits,
             String[] conclusions) {
         super(name);
-        concLimits = limits.clone();
-        contTexts = conclusions.clone();
+        fallback = new CephNorm(tag.getName(),
+                CephNormTable.DEFAULT_POPULATION, null, null, limits,
+                conclusions);
         tagW = tag;
     }
 
+    public TagW getTag() {
+        return tagW;
+    }
+
     @Override
     public String getConclusion() {
-        return getConclusionFor(value);
+        return getConclusionFor(value, owner == null
+                ? null : owner.getTagValue(TagO.PATIENT_AGE));
     }
 
     public String getConclusionFor(double oneValue) {
-        String conclusion = "";
-        if (concLimits.length == 2) {
-            if (oneValue < concLimits[0]) {
-                conclusion = contTexts[0];
-            } else if (oneValue >= concLimits[0] && oneValue < concLimits[1]) {
-                conclusion = contTexts[1];
-            } else {
-                conclusion = contTexts[2];
-            }
-        } else {
-            throw new IllegalArgumentException(
-                    "Limits cant be different than 2");
+        return getConclusionFor(oneValue, null);
+    }
+
+    /**
+     * Classifies a value.
+     *
+     * @param oneValue Parameter value.
+     * @param age Patient age (TagO.PATIENT_AGE value), or null.
+     * @return Conclusion ("" if there is no norm).
+     */
+    public String getConclusionFor(double oneValue, Object age) {
+        String conclusion = CephRuleEngine.getInstance().getConclusion(
+                tagW, oneValue, age);
+        if (conclusion == null && fallback != null) {
+            conclusion = fallback.classify(oneValue);
         }
-        return conclusion;
+        return conclusion == null ? "" : conclusion;
     }
 
     public void setOwnerGroup(MediaSeriesGroup series) {
@@ -84,118 +110,57 @@ public class CephParameter extends AbstractCephParameter {
         if (val != value) {
             super.setValue(val);
             owner.setTag(tagW, value);
+            CephRuleEngine.getInstance().invalidate(owner);
         }
     }
 
     /* ----------- STATIC UTILS ----------------------------------- */
-    public static List<CephParameter> getCPList() {
+    public static synchronized List<CephParameter> getCPList() {
         if (list == null) {
             ArrayList<CephParameter> arrayList = new ArrayList<CephParameter>();
 
+            //limits and conclusions are on the norms file (CephRuleEngine).
             arrayList.add(new CephParameter(TagO.FAC_ANGLE,
-                    Messages.getString("CephParameter.1"),
-                    new double[]{87, 89}, new String[]{
-                        Messages.getString("CephParameter.1c1"),
-                        Messages.getString("CephParameter.1c2"),
-                        Messages.getString("CephParameter.1c3")
-                    }));
+                    Messages.getString("CephParameter.1")));
             arrayList.add(new CephParameter(TagO.CONV_ANGLE,
-                    Messages.getString("CephParameter.2"),
-                    new double[]{0, 1}, new String[]{
-                        Messages.getString("CephParameter.2c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.2c3")
-                    }));
+                    Messages.getString("CephParameter.2")));
             arrayList.add(new CephParameter(TagO.Y_ANGLE,
-                    Messages.getString("CephParameter.3"),
-                    new double[]{67, 68}, new String[]{
-                        Messages.getString("CephParameter.3c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.3c3")
-                    }));
+                    Messages.getString("CephParameter.3")));
             arrayList.add(new CephParameter(TagO.INTER_ANGLE,
-                    Messages.getString("CephParameter.4"),
-                    new double[]{121, 142}, new String[]{
-                        Messages.getString("CephParameter.4c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.4c3")
-                    }));
+                    Messages.getString("CephParameter.4")));
             arrayList.add(new CephParameter(TagO.SNA,
-                    Messages.getString("CephParameter.5"),
-                    new double[]{82, 83}, new String[]{
-                        Messages.getString("CephParameter.5c1"),
-                        Messages.getString("CephParameter.5c2"),
-                        Messages.getString("CephParameter.5c3")
-                    }));
+                    Messages.getString("CephParameter.5")));
             arrayList.add(new CephParameter(TagO.SNB,
-                    Messages.getString("CephParameter.6"),
-                    new double[]{80, 81}, new String[]{
-                        Messages.getString("CephParameter.6c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.6c3")
-                    }));
+                    Messages.getString("CephParameter.6")));
             arrayList.add(new CephParameter(TagO.ANB,
-                    Messages.getString("CephParameter.7"),
-                    new double[]{2, 3}, new String[]{
-                        Messages.getString("CephParameter.7c1"),
-                        Messages.getString("CephParameter.7c2"),
-                        Messages.getString("CephParameter.7c3")
-                    }));
+                    Messages.getString("CephParameter.7")));
             arrayList.add(new CephParameter(TagO.DOT_NS,
-                    Messages.getString("CephParameter.8"),
-                    new double[]{103, 104}, new String[]{
-                        Messages.getString("CephParameter.8c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.8c3")
-                    }));
+                    Messages.getString("CephParameter.8")));
             arrayList.add(new CephParameter(TagO.DOT_NA,
-                    Messages.getString("CephParameter.9"),
-                    new double[]{22, 23}, new String[]{
-                        Messages.getString("CephParameter.8c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.8c3")
-                    }));
+                    Messages.getString("CephParameter.9")));
             arrayList.add(new CephParameter(TagO.DOT_NB,
-                    Messages.getString("CephParameter.10"),
-                    new double[]{25, 26}, new String[]{
-                        Messages.getString("CephParameter.8c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.8c3")
-                    }));
+                    Messages.getString("CephParameter.10")));
             arrayList.add(new CephParameter(TagO.HIF_NA,
-                    Messages.getString("CephParameter.11"),
-                    new double[]{4, 5}, new String[]{
-                        Messages.getString("CephParameter.11c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.11c3")
-                    }));
+                    Messages.getString("CephParameter.11")));
             arrayList.add(new CephParameter(TagO.HIF_NB,
-                    Messages.getString("CephParameter.12"),
-                    new double[]{4, 5}, new String[]{
-                        Messages.getString("CephParameter.11c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.11c3")
-                    }));
+                    Messages.getString("CephParameter.12")));
             arrayList.add(new CephParameter(TagO.ORBIT,
-                    Messages.getString("CephParameter.13"),
-                    new double[]{5, 6}, new String[]{
-                        Messages.getString("CephParameter.11c1"),
-                        Messages.getString("CephParameter.2c2"),
-                        Messages.getString("CephParameter.11c3")
-                    }));
+                    Messages.getString("CephParameter.13")));
+
+            Map<TagW, CephParameter> map = new HashMap<TagW, CephParameter>();
+            for (CephParameter cephParameter : arrayList) {
+                map.put(cephParameter.tagW, cephParameter);
+            }
+            byTag = map;
             list = arrayList;
         }
 
         return list;
     }
 
-    public static CephParameter getCephParByTag(final TagW tag) {
-        for (CephParameter cephParameter : getCPList()) {
-            if (cephParameter.tagW.equals(tag)) {
-                return cephParameter;
-            }
-        }
-        return null;
+    public static synchronized CephParameter getCephParByTag(final TagW tag) {
+        getCPList();
+        return byTag.get(tag);
     }
 
 }
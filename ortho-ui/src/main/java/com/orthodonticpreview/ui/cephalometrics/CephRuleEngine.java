@@ -0,0 +1,220 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.ui.cephalometrics;
+
+import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.ceph.CephNormTable;
+import com.orthodonticpreview.ui.internal.Messages;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.weasis.core.api.media.data.MediaSeriesGroup;
+import org.weasis.core.api.media.data.TagW;
+
+/**
+ * Classifies cephalometric values with the norms of CephNormTable.
+ *
+ * Default norms come with the application; a clinic can give its own file
+ * (-Dortho.ceph.norms=file) and population (-Dortho.ceph.population=name).
+ * Conclusions of each patient are cached until one of its tags is changed.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class CephRuleEngine {
+
+    /** Class logger. */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(CephRuleEngine.class);
+
+    /** Default norms resource. */
+    public static final String DEFAULT_NORMS = "/cephalometrics/ceph-norms.csv";
+    /** Property with the path of a clinic norms file. */
+    public static final String NORMS_PROPERTY = "ortho.ceph.norms";
+    /** Property with the population name. */
+    public static final String POPULATION_PROPERTY = "ortho.ceph.population";
+
+    private static CephRuleEngine instance;
+
+    /**
+     * A conclusion and the values it was found for.
+     */
+    private static final class Conclusion {
+
+        private final Object value;
+        private final Object age;
+        private final String text;
+
+        Conclusion(final Object value, final Object age, final String text) {
+            this.value = value;
+            this.age = age;
+            this.text = text;
+        }
+
+        boolean isFor(final Object val, final Object ageVal) {
+            return value.equals(val)
+                    && (age == null ? ageVal == null : age.equals(ageVal));
+        }
+    }
+
+    private final CephNormTable table;
+    private final String population;
+    /** Conclusions by owner group and tag. */
+    private final Map<MediaSeriesGroup, Map<TagW, Conclusion>> cache
+            = new WeakHashMap<MediaSeriesGroup, Map<TagW, Conclusion>>();
+
+    /**
+     * Creates an engine.
+     *
+     * @param table Norms.
+     * @param population Population name (null for default).
+     */
+    public CephRuleEngine(final CephNormTable table,
+            final String population) {
+        this.table = table;
+        this.population = population;
+    }
+
+    /**
+     * @return Engine with default and clinic norms (loaded on first call).
+     */
+    public static synchronized CephRuleEngine getInstance() {
+        if (instance == null) {
+            instance = new CephRuleEngine(loadNorms(),
+                    System.getProperty(POPULATION_PROPERTY,
+                    CephNormTable.DEFAULT_POPULATION));
+        }
+        return instance;
+    }
+
+    private static CephNormTable loadNorms() {
+        final CephNormTable table = new CephNormTable();
+        try {
+            final InputStream stream
+                    = CephRuleEngine.class.getResourceAsStream(DEFAULT_NORMS);
+            if (stream == null) {
+                LOGGER.error("Missing " + DEFAULT_NORMS);
+            } else {
+                read(table, DEFAULT_NORMS, stream);
+            }
+        } catch (IOException ex) {
+            LOGGER.error("Can't read default norms: " + ex.getMessage());
+        }
+
+        final String clinicFile = System.getProperty(NORMS_PROPERTY);
+        if (clinicFile != null) {
+            try {
+                read(table, clinicFile, new FileInputStream(
+                        new File(clinicFile)));
+                LOGGER.info("Cephalometric norms read from " + clinicFile);
+            } catch (IOException ex) {
+                LOGGER.error("Can't read norms: " + ex.getMessage());
+            }
+        }
+        return table;
+    }
+
+    private static void read(final CephNormTable table, final String name,
+            final InputStream stream) throws IOException {
+        final InputStreamReader reader
+                = new InputStreamReader(stream, "UTF-8");
+        try {
+            table.read(name, reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Classifies a value.
+     *
+     * @param tag Parameter tag.
+     * @param value Parameter value.
+     * @param age Patient age (TagO.PATIENT_AGE value), or null.
+     * @return Conclusion text, or null if there is no norm.
+     */
+    public String getConclusion(final TagW tag, final double value,
+            final Object age) {
+        final String conclusion = table.classify(tag.getName(), population,
+                CephNormTable.parseAge(age), value);
+        if (conclusion == null) {
+            return null;
+        }
+        final String text = Messages.getString(conclusion);
+        //not a message key: plain text from a clinic file.
+        return text.startsWith("!") ? conclusion : text;
+    }
+
+    /**
+     * Gets the conclusion of a parameter of a patient (cached).
+     *
+     * @param owner Patient group.
+     * @param tag Parameter tag.
+     * @return Conclusion text, or null if patient has no value or there is
+     * no norm.
+     */
+    public String getConclusion(final MediaSeriesGroup owner,
+            final TagW tag) {
+        final Object value = owner.getTagValue(tag);
+        if (!(value instanceof Double)) {
+            return null;
+        }
+        final Object age = owner.getTagValue(TagO.PATIENT_AGE);
+        synchronized (cache) {
+            final Map<TagW, Conclusion> byTag = cache.get(owner);
+            if (byTag != null) {
+                final Conclusion cached = byTag.get(tag);
+                if (cached != null && cached.isFor(value, age)) {
+                    return cached.text;
+                }
+            }
+        }
+
+        final String text = getConclusion(tag, (Double) value, age);
+        synchronized (cache) {
+            Map<TagW, Conclusion> byTag = cache.get(owner);
+            if (byTag == null) {
+                byTag = new HashMap<TagW, Conclusion>();
+                cache.put(owner, byTag);
+            }
+            byTag.put(tag, new Conclusion(value, age, text));
+        }
+        return text;
+    }
+
+    /**
+     * Drops cached conclusions of a patient (call after changing its tags).
+     *
+     * @param owner Patient group.
+     */
+    public void invalidate(final MediaSeriesGroup owner) {
+        synchronized (cache) {
+            cache.remove(owner);
+        }
+    }
+}
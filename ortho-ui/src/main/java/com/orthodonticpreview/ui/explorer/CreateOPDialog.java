@@ -23,6 +23,7 @@ package com.orthodonticpreview.ui.explorer;
 import com.orthodonticpreview.datamodel.OrthodonticModel;
 import com.orthodonticpreview.datamodel.TagO;
 import com.orthodonticpreview.ui.OrthodonticWin;
+import com.orthodonticpreview.ui.cephalometrics.CephRuleEngine;
 import com.orthodonticpreview.ui.internal.Messages;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
@@ -317,6 +318,8 @@ public class CreateOPDialog extends JDialog {
         editPatientData(editingGroup, TagW.PatientName, nameTextArea.getText());
         editPatientData(editingGroup, TagW.PatientSex, sexTextArea.getText());
         editPatientData(editingGroup, TagO.PATIENT_AGE, ageTextArea.getText());
+        //age can change cephalometric conclusions.
+        CephRuleEngine.getInstance().invalidate(editingGroup);
 
         //update combo after change name
         OrthoExplorerView.getService().getDataExplorerModel()
@@ -20,11 +20,24 @@
  */
 package com.orthodonticpreview.ui.explorer;
 
+import com.orthodonticpreview.datamodel.cache.ThumbnailService;
+import java.awt.Component;
+import java.awt.Image;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
+import java.awt.image.BufferedImage;
+import java.io.File;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
 import javax.swing.JComboBox;
+import javax.swing.JList;
+import org.weasis.core.api.media.data.MediaSeries;
 import org.weasis.core.api.media.data.MediaSeriesGroup;
+import org.weasis.core.api.media.data.TagW;
 import org.weasis.core.ui.util.ArrayListComboBoxModel;
 
 /**
@@ -40,6 +53,16 @@ public class GroupComboBox extends JComboBox {
      */
     private final OrthoExplorerView explorer;
 
+    /**
+     * Height of patient thumbnails.
+     */
+    private static final int ICON_HEIGHT = 24;
+
+    /**
+     * Thumbnails by image file (null while loading or if it can't be read).
+     */
+    private final Map<File, Icon> icons = new HashMap<File, Icon>();
+
     /**
      * Patient Comparator.
      */
@@ -81,6 +104,64 @@ public class GroupComboBox extends JComboBox {
         explorer = explorerView;
         setModel(groupModel);
         addItemListener(groupChangeListener);
+        setRenderer(new DefaultListCellRenderer() {
+
+            @Override
+            public Component getListCellRendererComponent(final JList list,
+                    final Object value, final int index,
+                    final boolean isSelected, final boolean cellHasFocus) {
+                super.getListCellRendererComponent(
+                        list, value, index, isSelected, cellHasFocus);
+                if (value instanceof MediaSeriesGroup) {
+                    setIcon(getIcon((MediaSeriesGroup) value));
+                }
+                return this;
+            }
+        });
+    }
+
+    /**
+     * Gets the thumbnail of group calculation image (requested on background
+     * the first time).
+     *
+     * @param group Patient.
+     * @return The thumbnail, or null if not loaded yet.
+     */
+    private Icon getIcon(final MediaSeriesGroup group) {
+        final MediaSeries serie = explorer.getImageSerie(group);
+        final Object path
+                = serie == null ? null : serie.getTagValue(TagW.FilePath);
+        if (path == null) {
+            return null;
+        }
+        final File file = new File(path.toString());
+        if (!icons.containsKey(file)) {
+            icons.put(file, null);
+            ThumbnailService.getInstance().request(file,
+                    new ThumbnailService.Callback() {
+
+                        @Override
+                        public void thumbnailReady(final File img,
+                                final BufferedImage thumbnail) {
+                            icons.put(img, new ImageIcon(
+                                    thumbnail.getScaledInstance(-1,
+                                            ICON_HEIGHT, Image.SCALE_SMOOTH)));
+                            repaint();
+                        }
+
+                        @Override
+                        public void thumbnailFailed(final File img,
+                                final String reason) {
+                            //no thumbnail
+                        }
+
+                        @Override
+                        public void thumbnailUnsupported(final File img) {
+                            //no thumbnail
+                        }
+                    });
+        }
+        return icons.get(file);
     }
 
     public void groupChanged(ItemEvent e) {
@@ -22,10 +22,12 @@ package com.orthodonticpreview.ui.explorer;
 
 import bibliothek.gui.dock.common.CLocation;
 import bibliothek.gui.dock.common.mode.ExtendedMode;
+import com.orthodonticpreview.datamodel.ForceSystemDiff;
 import com.orthodonticpreview.datamodel.MediaSeriesGroupNodeSerial;
 import com.orthodonticpreview.datamodel.OrthodonticModel;
 import com.orthodonticpreview.datamodel.OrthoReport;
 import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.cache.ThumbnailService;
 import com.orthodonticpreview.ui.OrthodonticWin;
 import com.orthodonticpreview.ui.internal.Messages;
 import com.orthodonticpreview.ui.persistence.PersistenceHandler;
@@ -318,6 +320,8 @@ public class OrthoExplorerView extends PluginTool implements DataExplorerView {
                 serie.setTag(TagW.FilePath, file);
 
                 dataModel.addHierarchyNode(study, serie);
+                //ready for wizard and patient list
+                ThumbnailService.getInstance().request(file, null);
 
                 return serie;
 
@@ -424,6 +428,24 @@ public class OrthoExplorerView extends PluginTool implements DataExplorerView {
         return getRoleSerie(group, CALC_IMAGE);
     }
 
+    /**
+     * Compares force systems and results of two studies, for follow-up.
+     *
+     * @param before Earlier study.
+     * @param after Later study.
+     * @return The differences, or null if one of them has no calculation
+     * image.
+     */
+    public ForceSystemDiff compareStudies(final MediaSeriesGroup before,
+            final MediaSeriesGroup after) {
+        final MediaSeries first = getImageSerie(before);
+        final MediaSeries second = getImageSerie(after);
+        if (first == null || second == null) {
+            return null;
+        }
+        return OrthodonticModel.compareSeries(first, second);
+    }
+
     public MediaSeries getReportSerie(MediaSeriesGroup group) {
         return getRoleSerie(group, REPORT_IMAGE);
     }
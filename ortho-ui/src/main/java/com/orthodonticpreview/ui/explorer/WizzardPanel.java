@@ -21,6 +21,7 @@
 package com.orthodonticpreview.ui.explorer;
 
 import com.orthodonticpreview.datamodel.OrthodonticModel;
+import com.orthodonticpreview.datamodel.cache.ThumbnailService;
 import com.orthodonticpreview.ui.HelpDialog;
 import com.orthodonticpreview.ui.OrthodonticDataExtractor;
 import com.orthodonticpreview.ui.OrthodonticWin;
@@ -33,14 +34,18 @@ import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.File;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JDialog;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.weasis.core.api.explorer.ObservableEvent;
 import org.weasis.core.api.gui.util.JMVUtils;
 import org.weasis.core.api.media.data.MediaSeries;
@@ -58,13 +63,43 @@ import org.weasis.core.ui.editor.image.ViewerPlugin;
  */
 public class WizzardPanel extends JPanel {
 
+    /**
+     * Class logger.
+     */
+    private static final Logger LOGGER
+            = LoggerFactory.getLogger(WizzardPanel.class);
+
+    /**
+     * Steps are created when the panel is first shown (not at startup, if
+     * the explorer is not visible).
+     */
+    private boolean stepsCreated;
+    /**
+     * Last patient set, to set on steps when they are created.
+     */
+    private MediaSeriesGroup lastPatient;
+
     public WizzardPanel() {
-        initGUI();
+        setLayout(new GridBagLayout());
     }
 
-    private void initGUI() {
-        setLayout(new GridBagLayout());
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (!stepsCreated) {
+            stepsCreated = true;
+            final long start = System.nanoTime();
+            initGUI();
+            if (lastPatient != null) {
+                changePatient(lastPatient);
+            }
+            revalidate();
+            LOGGER.debug("Wizzard steps created in {} ms",
+                    (System.nanoTime() - start) / 1000000);
+        }
+    }
 
+    private void initGUI() {
         final GridBagConstraints stepsConst = new GridBagConstraints();
         stepsConst.anchor = GridBagConstraints.PAGE_START;
         stepsConst.insets = new Insets(8, 2, 8, 2);
@@ -97,6 +132,7 @@ public class WizzardPanel extends JPanel {
     }
 
     public void changePatient(final MediaSeriesGroup patient) {
+        lastPatient = patient;
         for (Component component : getComponents()) {
             if (component instanceof AbstractWizzardStep) {
                 ((AbstractWizzardStep) component).setPatient(patient);
@@ -257,7 +293,13 @@ public class WizzardPanel extends JPanel {
                     = Messages.getString("WizzardStep.NOImage");
 
                     private JButton openButton;
+                    private JLabel preview;
                     private MediaSeries serie;
+                    /**
+                     * Image file shown (thumbnails of other files, requested
+                     * before, are ignored).
+                     */
+                    private File shownFile;
 
                     @Override
                     public void setPatient(MediaSeriesGroup group) {
@@ -268,6 +310,7 @@ public class WizzardPanel extends JPanel {
                             if (serie != null) {
                                 String tagValue
                                 = serie.getTagValue(TagW.FilePath).toString();
+                                showPreview(new File(tagValue));
                                 if (tagValue.length() > 28) {
                                     tagValue = tagValue.substring(
                                             tagValue.length() - 28);
@@ -279,6 +322,7 @@ public class WizzardPanel extends JPanel {
                             }
                         } else {
                             serie = null;
+                            showPreview(null);
                             openButton.setText(ADD_IMAGE);
                             openButton.setEnabled(false);
                             setStatus(AbstractWizzardStep.ST_INCOMPLETE);
@@ -317,6 +361,52 @@ public class WizzardPanel extends JPanel {
                         gbc.anchor = GridBagConstraints.WEST;
                         add(openButton, gbc);
 
+                        preview = new JLabel();
+                        gbc.gridy = 2;
+                        add(preview, gbc);
+
+                    }
+
+                    /**
+                     * Shows the thumbnail of image (decoded on background),
+                     * and marks the step incomplete if it is missing or
+                     * can't be read. A format without thumbnail is not.
+                     */
+                    private void showPreview(final File file) {
+                        shownFile = file;
+                        preview.setIcon(null);
+                        preview.setToolTipText(null);
+                        if (file == null) {
+                            return;
+                        }
+                        ThumbnailService.getInstance().request(file,
+                                new ThumbnailService.Callback() {
+
+                            @Override
+                            public void thumbnailReady(final File img,
+                                    final BufferedImage thumbnail) {
+                                if (img.equals(shownFile)) {
+                                    preview.setIcon(new ImageIcon(thumbnail));
+                                    revalidate();
+                                }
+                            }
+
+                            @Override
+                            public void thumbnailFailed(final File img,
+                                    final String reason) {
+                                if (img.equals(shownFile)) {
+                                    LOGGER.info("Can't read study image: "
+                                            + reason);
+                                    preview.setToolTipText(reason);
+                                    setStatus(ST_INCOMPLETE);
+                                }
+                            }
+
+                            @Override
+                            public void thumbnailUnsupported(final File img) {
+                                //viewer may still open it: no preview only
+                            }
+                        });
                     }
 
                     private void openImage() {
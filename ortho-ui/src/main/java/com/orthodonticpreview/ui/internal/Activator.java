@@ -20,8 +20,13 @@
  */
 package com.orthodonticpreview.ui.internal;
 
+import com.orthodonticpreview.datamodel.cache.ThumbnailService;
+import com.orthodonticpreview.datamodel.monitor.Metrics;
+import com.orthodonticpreview.ui.cephalometrics.CephRuleEngine;
 import com.orthodonticpreview.ui.explorer.OrthoExplorerView;
 import com.orthodonticpreview.ui.OrthodonticWin;
+import java.lang.management.ManagementFactory;
+import javax.imageio.ImageIO;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
@@ -39,6 +44,9 @@ import org.weasis.core.ui.docking.DockableTool;
 import org.weasis.core.ui.docking.UIManager;
 
 /**
+ * Starts the UI in stages: the empty main window first, then the explorers
+ * and at last the create dialog, while resources are loaded on background.
+ * Each stage is timed on Metrics (startup.*) and logged.
  *
  * @author Gabriela Bauermann (gabriela@animati.com.br)
  * @version 2012 Jul, 18
@@ -51,21 +59,49 @@ public class Activator implements BundleActivator, ServiceListener {
     private static final Logger LOGGER
             = LoggerFactory.getLogger(Activator.class);
 
+    /**
+     * Period of metrics dump on log (s).
+     */
+    private static final long METRICS_PERIOD = 300;
+
+    /** Startup phase: empty main window. */
+    private static final String PHASE_SHELL = "shell";
+    /** Startup phase: explorers (with wizzard) registered. */
+    private static final String PHASE_EXPLORERS = "explorers";
+    /** Startup phase: background loading of resources. */
+    private static final String PHASE_PRELOAD = "preload";
+
+    /**
+     * Classes initialized by the preload.
+     */
+    private static final String[] PRELOAD_CLASSES = {
+        "com.orthodonticpreview.ui.explorer.AbstractWizzardStep",
+        "com.orthodonticpreview.ui.explorer.CreateOPDialog",
+        "com.orthodonticpreview.ui.explorer.WizzardPanel"
+    };
+
     @Override
     public void start(final BundleContext bundleContext) throws Exception {
         LOGGER.info("Starting Orthodontic Preview UI Activator.");
         LOGGER.debug("Showing debug infomation.");
+        final long launch = System.nanoTime();
+
+        Metrics.registerMBean();
+        Metrics.startReporting(METRICS_PERIOD);
+
+        startPreload();
 
+        //1- shell: empty main window, as soon as possible.
         //must be instantiate in the EDT
         GuiExecutor.instance().invokeAndWait(new Runnable() {
 
             @Override
             public void run() {
+                final long start = System.nanoTime();
                 final OrthodonticWin win = OrthodonticWin.getInstance();
                 try {
                     win.createMainPanel();
                     win.showWindow();
-                    win.openCreateOpDialog();
 
                 } catch (Exception ex) {
                     // Nimbus bug, hangs GUI:
@@ -74,14 +110,18 @@ public class Activator implements BundleActivator, ServiceListener {
                     LOGGER.error("Could not start GUI: " + ex);
                     System.exit(-1);
                 }
+                phaseDone(PHASE_SHELL, start);
             }
 
         });
 
+        //2- explorers, then the create dialog (modal: it is opened last, so
+        //it does not hold the start).
         //explorer needs the "execute".
         GuiExecutor.instance().execute(new Runnable() {
             @Override
             public void run() {
+                final long start = System.nanoTime();
                 try {
                     for (ServiceReference<DataExplorerViewFactory> serviceReference : bundleContext
                             .getServiceReferences(DataExplorerViewFactory.class, null)) {
@@ -100,16 +140,78 @@ public class Activator implements BundleActivator, ServiceListener {
                 } catch (InvalidSyntaxException e) {
                     e.printStackTrace();
                 }
+                phaseDone(PHASE_EXPLORERS, start);
+
+                GuiExecutor.instance().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        LOGGER.info("GUI ready in {} ms ({} ms since JVM"
+                                + " start).", toMillis(launch),
+                                ManagementFactory.getRuntimeMXBean()
+                                .getUptime());
+                        OrthodonticWin.getInstance().openCreateOpDialog();
+                    }
+                });
             }
         });
     }
 
+    /**
+     * Loads resources used by the first dialogs (messages, icons, image
+     * readers, cephalometric norms) on a background thread, while the EDT
+     * builds the window.
+     */
+    private static void startPreload() {
+        final Thread preload = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final long start = System.nanoTime();
+                try {
+                    Messages.getString("OrthodonticWin.exit_mes");
+                    ImageIO.getReaderFormatNames();
+                    //icons are loaded on class initialization
+                    for (String name : PRELOAD_CLASSES) {
+                        Class.forName(name, true,
+                                Activator.class.getClassLoader());
+                    }
+                    CephRuleEngine.getInstance();
+                } catch (Exception ex) {
+                    //only a preload: classes will be loaded on use.
+                    LOGGER.warn("Preload failed: {}", ex.toString());
+                }
+                phaseDone(PHASE_PRELOAD, start);
+            }
+        }, "ortho-preload");
+        preload.setDaemon(true);
+        preload.setPriority(Thread.MIN_PRIORITY);
+        preload.start();
+    }
+
+    /**
+     * Records and logs the time of a startup phase.
+     *
+     * @param phase Phase name.
+     * @param start Phase start (System.nanoTime()).
+     */
+    private static void phaseDone(final String phase, final long start) {
+        Metrics.time(Metrics.STARTUP + phase, start);
+        LOGGER.info("Startup phase {}: {} ms", phase, toMillis(start));
+    }
+
+    private static long toMillis(final long start) {
+        return (System.nanoTime() - start) / 1000000;
+    }
+
     @Override
     public void stop(BundleContext bc) throws Exception {
         LOGGER.info("Stopping by Orthodontic Preview UI Activator.");
 
         //close explorer
         OrthoExplorerView.getService().dispose();
+        ThumbnailService.shutdownInstance();
+
+        LOGGER.info("Metrics:\n{}", Metrics.getInstance().getSummary());
+        Metrics.shutdown();
     }
 
     @Override
@@ -0,0 +1,117 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.ui.persistence;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Graphics of a follow-up series, saved as changes from the graphics of
+ * the series it follows: graphics kept are saved as indexes on that list,
+ * and only new or edited graphics are saved.
+ *
+ * Always check for backward compatibility when making changes on this class.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class GraphicPackDelta implements Serializable {
+
+    /**
+     * Serial as required by <code>Serializable</code>.
+     */
+    private static final long serialVersionUID = -4417630257917023618L;
+
+    /**
+     * Index on base list of each graphic, or -1 for the next added one.
+     */
+    private int[] order;
+    /**
+     * Graphics not found on base list.
+     */
+    private ArrayList<GraphicPack> added;
+
+    /**
+     * void Constructor (required by Serializable).
+     */
+    public GraphicPackDelta() {
+        // Empty
+    }
+
+    /**
+     * Creates the changes from a list of graphics to another.
+     *
+     * @param base Graphics of the series followed.
+     * @param packs Graphics of the follow-up series.
+     * @return The changes.
+     */
+    public static GraphicPackDelta create(final List<GraphicPack> base,
+            final List<GraphicPack> packs) {
+        final GraphicPackDelta delta = new GraphicPackDelta();
+        delta.order = new int[packs.size()];
+        delta.added = new ArrayList<GraphicPack>();
+        final boolean[] used = new boolean[base.size()];
+        for (int i = 0; i < packs.size(); i++) {
+            delta.order[i] = indexOf(base, used, packs.get(i));
+            if (delta.order[i] < 0) {
+                delta.added.add(packs.get(i));
+            } else {
+                used[delta.order[i]] = true;
+            }
+        }
+        return delta;
+    }
+
+    private static int indexOf(final List<GraphicPack> base,
+            final boolean[] used, final GraphicPack pack) {
+        for (int i = 0; i < used.length; i++) {
+            if (!used[i] && TagValues.same(base.get(i), pack)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rebuilds the graphics of the follow-up series.
+     *
+     * @param base Graphics of the series followed (may be null if it had
+     * none).
+     * @return Graphics of the follow-up series.
+     */
+    public List<GraphicPack> apply(final List<GraphicPack> base) {
+        final List<GraphicPack> packs
+                = new ArrayList<GraphicPack>(order.length);
+        int next = 0;
+        for (int index : order) {
+            packs.add(index < 0 ? added.get(next++) : base.get(index));
+        }
+        return packs;
+    }
+
+    /**
+     * @return Number of graphics saved (not found on base list).
+     */
+    public int getAddedCount() {
+        return added.size();
+    }
+}
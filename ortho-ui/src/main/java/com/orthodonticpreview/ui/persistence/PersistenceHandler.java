@@ -23,6 +23,7 @@ package com.orthodonticpreview.ui.persistence;
 import com.orthodonticpreview.datamodel.MediaSeriesGroupNodeSerial;
 import com.orthodonticpreview.datamodel.OrthodonticModel;
 import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.monitor.Metrics;
 import com.orthodonticpreview.ui.OrthodonticWin;
 import com.orthodonticpreview.ui.explorer.OrthoExplorerView;
 import com.orthodonticpreview.ui.internal.Messages;
@@ -86,6 +87,14 @@ public class PersistenceHandler {
 
     private File lastPath;
 
+    /**
+     * Saves follow-up series as changes from the series with same role on
+     * previous study (see SeriesBuilder.setPredecessor). Files saved so can't
+     * be read by older versions, so it is off by default;
+     * -Dortho.persistence.delta=true turns it on.
+     */
+    private boolean deltaMode = Boolean.getBoolean("ortho.persistence.delta");
+
     /**
      * Creaters a PersistenceHandler object.
      *
@@ -98,6 +107,18 @@ public class PersistenceHandler {
         lastPath = lastPa;
     }
 
+    public boolean isDeltaMode() {
+        return deltaMode;
+    }
+
+    /**
+     * @param delta True to save follow-up series as changes from previous
+     * study.
+     */
+    public void setDeltaMode(final boolean delta) {
+        deltaMode = delta;
+    }
+
     /**
      * Save a patient (ask user for location if true).
      *
@@ -115,6 +136,7 @@ public class PersistenceHandler {
             LOGGER.info("Saving action canceled by user.");
             return lastPath;
         }
+        final long start = System.nanoTime();
 
         PortablePreview portable = new PortablePreview();
         portable.setPatient(patient);
@@ -133,6 +155,9 @@ public class PersistenceHandler {
             File imgsDirectory = new File(name);
             imgsDirectory.mkdirs();
 
+            //last saved series of each role, for delta mode
+            final Map<Object, SeriesBuilder> previous
+                    = new HashMap<Object, SeriesBuilder>();
             final Iterator<MediaSeriesGroup> iterator = studies.iterator();
             while (iterator.hasNext()) {
                 final MediaSeriesGroup next = iterator.next();
@@ -142,12 +167,13 @@ public class PersistenceHandler {
                     portable.addStudy(stSerial);
 
                     //este estudo tem series?
-                    saveSeries(portable, stSerial, imgsDirectory);
+                    saveSeries(portable, stSerial, imgsDirectory, previous);
                 }
             }
         }
 
         saveObject(file, portable);
+        Metrics.time(Metrics.SAVE_PATIENT, start);
         return lastPath;
     }
 
@@ -158,6 +184,7 @@ public class PersistenceHandler {
         if (file == null) {
             return null;
         }
+        final long start = System.nanoTime();
 
         final Object obj = loadFile(file);
         if (obj instanceof PortablePreview) {
@@ -190,6 +217,7 @@ public class PersistenceHandler {
             }
         }
 
+        Metrics.time(Metrics.OPEN_PATIENT, start);
         return lastPath;
     }
 
@@ -314,16 +342,23 @@ public class PersistenceHandler {
             LOGGER.debug("found one viewer jfor: " + selectedImagePane);
 
             //graphics layer
-            List<Graphic> allGraphics
-                    = selectedImagePane.getLayerModel().getAllGraphics();
-            LOGGER.debug("allGraphics = " + allGraphics.size());
             List<GraphicPack> packList = new ArrayList<GraphicPack>();
-            for (Graphic graphic : allGraphics) {
-
-                if (graphic instanceof PortableGraphic) {
-                    PortableGraphic portGraph = (PortableGraphic) graphic;
-                    GraphicPack pack = new GraphicPack(portGraph);
-                    packList.add(pack);
+            if (selectedImagePane instanceof PortableGraphicSource) {
+                for (PortableGraphic portGraph : ((PortableGraphicSource)
+                        selectedImagePane).getPortableGraphics()) {
+                    packList.add(new GraphicPack(portGraph));
+                }
+            } else {
+                List<Graphic> allGraphics
+                        = selectedImagePane.getLayerModel().getAllGraphics();
+                LOGGER.debug("allGraphics = " + allGraphics.size());
+                for (Graphic graphic : allGraphics) {
+
+                    if (graphic instanceof PortableGraphic) {
+                        PortableGraphic portGraph = (PortableGraphic) graphic;
+                        GraphicPack pack = new GraphicPack(portGraph);
+                        packList.add(pack);
+                    }
                 }
             }
             LOGGER.debug("packList = " + packList.size());
@@ -431,7 +466,8 @@ public class PersistenceHandler {
     }
 
     private void saveSeries(final PortablePreview portable,
-            final MediaSeriesGroupNodeSerial stSerial, File imgsDir) {
+            final MediaSeriesGroupNodeSerial stSerial, File imgsDir,
+            final Map<Object, SeriesBuilder> previous) {
         final Collection<MediaSeriesGroup> series
                 = dataModel.getChildren(stSerial);
         if (series != null && !series.isEmpty()) {
@@ -469,6 +505,10 @@ public class PersistenceHandler {
                     final SeriesBuilder builder
                             = SeriesBuilder.createSeriesBuilder(
                                     savebleSerie);
+                    if (deltaMode) {
+                        builder.setPredecessor(previous.get(role));
+                        previous.put(role, builder);
+                    }
 
                     portable.addSeries(stSerial, builder);
                 }
@@ -0,0 +1,39 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.ui.persistence;
+
+import java.util.List;
+
+/**
+ * A view that keeps its savable graphics, so saving does not scan all the
+ * graphics of its layers.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public interface PortableGraphicSource {
+
+    /**
+     * @return Savable graphics of the view, in drawing order.
+     */
+    List<PortableGraphic> getPortableGraphics();
+
+}
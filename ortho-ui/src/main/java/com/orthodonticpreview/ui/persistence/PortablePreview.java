@@ -21,6 +21,11 @@
 package com.orthodonticpreview.ui.persistence;
 
 import com.orthodonticpreview.datamodel.MediaSeriesGroupNodeSerial;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -105,4 +110,28 @@ public class PortablePreview implements Serializable {
             MediaSeriesGroupNodeSerial study, SeriesBuilder serie) {
         series.put(serie, study);
     }
+
+    /**
+     * Reads a saved preview (.orp file).
+     *
+     * @param file File to read.
+     * @return The preview.
+     * @throws IOException If can't read or file is not a preview.
+     */
+    public static PortablePreview read(final File file) throws IOException {
+        final ObjectInputStream objIn = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(file)));
+        try {
+            final Object obj = objIn.readObject();
+            if (!(obj instanceof PortablePreview)) {
+                throw new IOException("Not a preview file: " + file);
+            }
+            return (PortablePreview) obj;
+        } catch (ClassNotFoundException ex) {
+            throw new IOException("Can't read " + file + ": "
+                    + ex.getMessage(), ex);
+        } finally {
+            objIn.close();
+        }
+    }
 }
@@ -22,9 +22,16 @@ package com.orthodonticpreview.ui.persistence;
 
 import com.orthodonticpreview.datamodel.TagO;
 import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import javax.swing.table.AbstractTableModel;
@@ -42,6 +49,11 @@ import org.weasis.core.ui.editor.ViewerPluginBuilder;
  * Always check for backward compatibility when making changes on this
  * class.
  *
+ * A follow-up serie can be saved as changes from the serie it follows (see
+ * setPredecessor): only changed tags, removed tag keys and the graphics
+ * not found on predecessor are written. Reading rebuilds all tags, so
+ * loaded builders are always complete.
+ *
  * @author Gabriela Bauermann (gabriela@animati.com.br)
  * @version 2012, 10 Nov.
  */
@@ -54,11 +66,31 @@ public class SeriesBuilder implements Serializable {
     private static transient final Logger LOGGER =
             LoggerFactory.getLogger(SeriesBuilder.class);
 
+    /**
+     * Saved fields. Files written before delta saving have only the first
+     * five; predecessor, removedTags and graphicPacks are written only for
+     * series saved as changes.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("tagID", TagW.class),
+        new ObjectStreamField("displayTag", TagW.class),
+        new ObjectStreamField("imgRefference", File.class),
+        new ObjectStreamField("tags", HashMap.class),
+        new ObjectStreamField("identifier", String.class),
+        new ObjectStreamField("predecessor", SeriesBuilder.class),
+        new ObjectStreamField("removedTags", HashSet.class),
+        new ObjectStreamField("graphicPacks", GraphicPackDelta.class)
+    };
+
     private TagW tagID;
     private TagW displayTag;
     private File imgRefference;
     private HashMap<TagW, Object> tags;
     private String identifier;
+    /**
+     * Serie this one is saved as changes from (null to save all tags).
+     */
+    private SeriesBuilder predecessor;
 
     /** Serializable must have a void constructor. */
     public SeriesBuilder() {
@@ -135,6 +167,25 @@ public class SeriesBuilder implements Serializable {
         this.identifier = identifier;
     }
     
+    /**
+     * @return Serie this one is saved as changes from (null if all tags are
+     * saved).
+     */
+    public SeriesBuilder getPredecessor() {
+        return predecessor;
+    }
+
+    /**
+     * Saves this serie as changes from another one (usually the serie with
+     * same role on previous study). The predecessor must be saved on the
+     * same stream, and can't follow this serie.
+     *
+     * @param predecessor Serie to save changes from (null to save all tags).
+     */
+    public void setPredecessor(final SeriesBuilder predecessor) {
+        this.predecessor = predecessor;
+    }
+
     public void setTag(TagW tag, Object value) {
         if (tag != null) {
             tags.put(tag, value);
@@ -195,4 +246,90 @@ public class SeriesBuilder implements Serializable {
         }
         return null;
     }
+
+    private void writeObject(final ObjectOutputStream out)
+            throws IOException {
+        final ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("tagID", tagID);
+        fields.put("displayTag", displayTag);
+        fields.put("imgRefference", imgRefference);
+        fields.put("identifier", identifier);
+        if (predecessor == null) {
+            fields.put("tags", tags);
+        } else {
+            final HashMap<TagW, Object> baseTags = predecessor.tags;
+            final HashMap<TagW, Object> changed = new HashMap<TagW, Object>();
+            for (Entry<TagW, Object> entry : tags.entrySet()) {
+                if (!baseTags.containsKey(entry.getKey())
+                        || !TagValues.same(entry.getValue(),
+                                baseTags.get(entry.getKey()))) {
+                    changed.put(entry.getKey(), entry.getValue());
+                }
+            }
+            final HashSet<TagW> removed = new HashSet<TagW>();
+            for (TagW tag : baseTags.keySet()) {
+                if (!tags.containsKey(tag)) {
+                    removed.add(tag);
+                }
+            }
+            final List<GraphicPack> basePacks
+                    = getPacks(baseTags.get(TagO.GRAPHIC_PACKS));
+            final Object packs = changed.get(TagO.GRAPHIC_PACKS);
+            if (packs instanceof List && basePacks != null) {
+                changed.remove(TagO.GRAPHIC_PACKS);
+                fields.put("graphicPacks", GraphicPackDelta.create(
+                        basePacks, (List<GraphicPack>) packs));
+            }
+            fields.put("tags", changed);
+            fields.put("removedTags", removed);
+            fields.put("predecessor", predecessor);
+        }
+        out.writeFields();
+    }
+
+    private void readObject(final ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        final ObjectInputStream.GetField fields = in.readFields();
+        tagID = (TagW) fields.get("tagID", null);
+        displayTag = (TagW) fields.get("displayTag", null);
+        imgRefference = (File) fields.get("imgRefference", null);
+        identifier = (String) fields.get("identifier", null);
+        tags = (HashMap<TagW, Object>) fields.get("tags", null);
+        if (tags == null) {
+            tags = new HashMap<TagW, Object>();
+        }
+
+        //predecessor is already complete (read before this one ends)
+        final SeriesBuilder base
+                = (SeriesBuilder) fields.get("predecessor", null);
+        if (base != null) {
+            final HashMap<TagW, Object> all = new HashMap<TagW, Object>(
+                    (base.tags.size() + tags.size()) * 4 / 3 + 1);
+            for (Entry<TagW, Object> entry : base.tags.entrySet()) {
+                all.put(entry.getKey(), TagValues.copy(entry.getValue()));
+            }
+            final HashSet<TagW> removed
+                    = (HashSet<TagW>) fields.get("removedTags", null);
+            if (removed != null) {
+                all.keySet().removeAll(removed);
+            }
+            final GraphicPackDelta packs
+                    = (GraphicPackDelta) fields.get("graphicPacks", null);
+            if (packs != null) {
+                all.put(TagO.GRAPHIC_PACKS, packs.apply(
+                        getPacks(base.tags.get(TagO.GRAPHIC_PACKS))));
+            }
+            all.putAll(tags);
+            LOGGER.debug("Rebuilt {} tags of {} from {} changes",
+                    new Object[]{all.size(), identifier, tags.size()});
+            tags = all;
+        }
+    }
+
+    private static List<GraphicPack> getPacks(final Object value) {
+        if (value instanceof List) {
+            return (List<GraphicPack>) value;
+        }
+        return value == null ? Collections.<GraphicPack>emptyList() : null;
+    }
 }
@@ -0,0 +1,175 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.ui.persistence;
+
+import java.awt.Shape;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares and copies saved tag values by content.
+ *
+ * Most geometry classes (Line2D, GeneralPath) don't implement equals, and
+ * each study has its own copies of them, so equals would find every shape
+ * changed. They are also changed in place (calculations move force lines),
+ * so a follow-up rebuilt from its base series gets its own copies.
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+final class TagValues {
+
+    private TagValues() {
+    }
+
+    /**
+     * @param one A value (may be null).
+     * @param two Other value (may be null).
+     * @return True if both values would rebuild the same tag.
+     */
+    static boolean same(final Object one, final Object two) {
+        if (one == two) {
+            return true;
+        }
+        if (one == null || two == null || one.getClass() != two.getClass()) {
+            return false;
+        }
+        if (one instanceof Shape) {
+            return sameShape((Shape) one, (Shape) two);
+        }
+        if (one instanceof GraphicPack) {
+            return samePack((GraphicPack) one, (GraphicPack) two);
+        }
+        if (one instanceof List) {
+            return sameList((List<?>) one, (List<?>) two);
+        }
+        if (one instanceof Map) {
+            return sameMap((Map<?, ?>) one, (Map<?, ?>) two);
+        }
+        return one.equals(two);
+    }
+
+    private static boolean sameShape(final Shape one, final Shape two) {
+        final PathIterator iter1 = one.getPathIterator(null);
+        final PathIterator iter2 = two.getPathIterator(null);
+        if (iter1.getWindingRule() != iter2.getWindingRule()) {
+            return false;
+        }
+        final double[] coords1 = new double[6];
+        final double[] coords2 = new double[6];
+        while (!iter1.isDone() && !iter2.isDone()) {
+            if (iter1.currentSegment(coords1)
+                    != iter2.currentSegment(coords2)
+                    || !Arrays.equals(coords1, coords2)) {
+                return false;
+            }
+            iter1.next();
+            iter2.next();
+        }
+        return iter1.isDone() && iter2.isDone();
+    }
+
+    private static boolean samePack(final GraphicPack one,
+            final GraphicPack two) {
+        return one.getLineThickness() == two.getLineThickness()
+                && same(one.getClazz(), two.getClazz())
+                && same(one.getOwner(), two.getOwner())
+                && same(one.getPaintColor(), two.getPaintColor())
+                && same(one.getMainShape(), two.getMainShape());
+    }
+
+    private static boolean sameList(final List<?> one, final List<?> two) {
+        if (one.size() != two.size()) {
+            return false;
+        }
+        final Iterator<?> iter1 = one.iterator();
+        final Iterator<?> iter2 = two.iterator();
+        while (iter1.hasNext()) {
+            if (!same(iter1.next(), iter2.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameMap(final Map<?, ?> one, final Map<?, ?> two) {
+        if (one.size() != two.size()) {
+            return false;
+        }
+        for (Map.Entry<?, ?> entry : one.entrySet()) {
+            if (!two.containsKey(entry.getKey())
+                    || !same(entry.getValue(), two.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies a value, so changing the copy does not change the original.
+     *
+     * Geometry, lists and maps are copied; other values (strings, numbers,
+     * files, colors, GraphicPack) are kept, as they are not changed in
+     * place.
+     *
+     * @param value Value to copy (may be null).
+     * @return The copy.
+     */
+    static Object copy(final Object value) {
+        if (value instanceof Line2D) {
+            return ((Line2D) value).clone();
+        }
+        if (value instanceof Path2D) {
+            return ((Path2D) value).clone();
+        }
+        if (value instanceof RectangularShape) {
+            return ((RectangularShape) value).clone();
+        }
+        if (value instanceof Point2D) {
+            return ((Point2D) value).clone();
+        }
+        if (value instanceof List) {
+            final List<Object> list
+                    = new ArrayList<Object>(((List<?>) value).size());
+            for (Object item : (List<?>) value) {
+                list.add(copy(item));
+            }
+            return list;
+        }
+        if (value instanceof Map) {
+            final Map<Object, Object> map = new HashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), copy(entry.getValue()));
+            }
+            return map;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.ui.statistics;
+
+import com.orthodonticpreview.datamodel.MediaSeriesGroupNodeSerial;
+import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.ceph.CephNormTable;
+import com.orthodonticpreview.datamodel.stats.CephStatistics;
+import com.orthodonticpreview.ui.cephalometrics.CephParameter;
+import com.orthodonticpreview.ui.persistence.PortablePreview;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.weasis.core.api.media.data.TagW;
+
+/**
+ * Statistics of cephalometric values over an archive of patient files
+ * (.orp), to calibrate the norms (see CephRuleEngine).
+ *
+ * Files are read one at a time, and only their values are kept; the archive
+ * can have any number of patients.
+ *
+ * <pre>
+ * CephArchiveStatistics &lt;archive dir&gt; &lt;output dir&gt;
+ *     [-by age|role|all]
+ * </pre>
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public class CephArchiveStatistics {
+
+    /** Class logger. */
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(CephArchiveStatistics.class);
+
+    /** Extension of patient files. */
+    public static final String EXTENSION = ".orp";
+    /** Summary file, on output dir. */
+    public static final String SUMMARY_FILE = "ceph-stats.csv";
+    /** Histograms file, on output dir. */
+    public static final String HISTOGRAM_FILE = "ceph-histograms.csv";
+
+    /** Limits of age bands (years). */
+    private static final int[] AGE_LIMITS = {6, 9, 12, 15, 18, 30, 50};
+    /** Histogram bin width (degrees or mm). */
+    private static final double BIN_WIDTH = 1;
+    /** Group name when not grouping. */
+    private static final String ALL_GROUP = "all";
+    /** Group name of studies without role. */
+    private static final String NO_ROLE = "none";
+
+    /**
+     * How patients are grouped.
+     */
+    public enum GroupBy {
+        /** Age bands. */
+        AGE,
+        /** Study role (a patient counts on the role of each study). */
+        STUDY_ROLE,
+        /** One group. */
+        ALL
+    }
+
+    private final GroupBy groupBy;
+    private final List<TagW> tags = new ArrayList<TagW>();
+    private final CephStatistics statistics
+            = new CephStatistics(BIN_WIDTH);
+    private int patients;
+    private int skipped;
+
+    /**
+     * Creates empty statistics.
+     *
+     * @param groupBy How to group patients.
+     */
+    public CephArchiveStatistics(final GroupBy groupBy) {
+        this.groupBy = groupBy;
+        for (CephParameter parameter : CephParameter.getCPList()) {
+            tags.add(parameter.getTag());
+        }
+        tags.add(TagO.MED_LINE_SUP);
+        tags.add(TagO.MED_LINE_INF);
+    }
+
+    /**
+     * Adds all patient files under a directory (recursive). A file that
+     * can't be read is logged and skipped.
+     *
+     * @param dir Archive directory.
+     */
+    public void scan(final File dir) {
+        for (File file : listArchive(dir)) {
+            try {
+                add(PortablePreview.read(file));
+            } catch (IOException ex) {
+                LOGGER.warn("Skipped {}: {}", file, ex.getMessage());
+                skipped++;
+            }
+        }
+    }
+
+    /**
+     * Lists patient files under a directory (recursive), in name order.
+     *
+     * @param dir Archive directory.
+     * @return Patient files.
+     */
+    public static List<File> listArchive(final File dir) {
+        final List<File> found = new ArrayList<File>();
+        final LinkedList<File> dirs = new LinkedList<File>();
+        dirs.add(dir);
+        while (!dirs.isEmpty()) {
+            final File[] files = dirs.removeFirst().listFiles();
+            if (files == null) {
+                continue;
+            }
+            Arrays.sort(files);
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    dirs.add(file);
+                } else if (file.getName().toLowerCase().endsWith(EXTENSION)) {
+                    found.add(file);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Adds the values of one patient.
+     *
+     * @param preview Patient file content.
+     */
+    public void add(final PortablePreview preview) {
+        final MediaSeriesGroupNodeSerial patient = preview.getPatient();
+        if (patient == null) {
+            skipped++;
+            return;
+        }
+        patients++;
+        final Set<String> groups = getGroups(preview);
+        for (TagW tag : tags) {
+            final Object value = patient.getTagValue(tag);
+            if (value instanceof Double) {
+                for (String group : groups) {
+                    statistics.add(group, tag.getName(), (Double) value);
+                }
+            }
+        }
+    }
+
+    private Set<String> getGroups(final PortablePreview preview) {
+        final Set<String> groups = new LinkedHashSet<String>();
+        if (groupBy == GroupBy.AGE) {
+            groups.add(CephStatistics.ageGroup(CephNormTable.parseAge(
+                    preview.getPatient().getTagValue(TagO.PATIENT_AGE)),
+                    AGE_LIMITS));
+        } else if (groupBy == GroupBy.STUDY_ROLE) {
+            final List<MediaSeriesGroupNodeSerial> studies
+                    = preview.getStudies();
+            if (studies != null) {
+                for (MediaSeriesGroupNodeSerial study : studies) {
+                    final Object role = study.getTagValue(TagO.STUDY_ROLE);
+                    if (role instanceof String && !"".equals(role)) {
+                        groups.add((String) role);
+                    }
+                }
+            }
+            if (groups.isEmpty()) {
+                groups.add(NO_ROLE);
+            }
+        } else {
+            groups.add(ALL_GROUP);
+        }
+        return groups;
+    }
+
+    public CephStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * @return Number of patients added.
+     */
+    public int getPatients() {
+        return patients;
+    }
+
+    /**
+     * @return Number of files that could not be read.
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Writes summary and histograms.
+     *
+     * @param dir Output directory.
+     * @throws IOException If can't write.
+     */
+    public void write(final File dir) throws IOException {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new FileOutputStream(new File(dir, SUMMARY_FILE)), "UTF-8"));
+        try {
+            statistics.writeSummary(writer);
+        } finally {
+            writer.close();
+        }
+        writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(
+                new File(dir, HISTOGRAM_FILE)), "UTF-8"));
+        try {
+            statistics.writeHistograms(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Scans an archive and writes its statistics.
+     *
+     * @param args Command line arguments.
+     * @throws IOException If can't write output.
+     */
+    public static void main(final String[] args) throws IOException {
+        File input = null;
+        File output = null;
+        GroupBy groupBy = GroupBy.AGE;
+        for (int i = 0; i < args.length; i++) {
+            if ("-by".equals(args[i]) && i + 1 < args.length) {
+                final String by = args[++i];
+                if ("role".equals(by)) {
+                    groupBy = GroupBy.STUDY_ROLE;
+                } else if ("all".equals(by)) {
+                    groupBy = GroupBy.ALL;
+                }
+            } else if (input == null) {
+                input = new File(args[i]);
+            } else if (output == null) {
+                output = new File(args[i]);
+            }
+        }
+        if (input == null || output == null || !input.isDirectory()) {
+            System.err.println("Usage: CephArchiveStatistics <archive dir>"
+                    + " <output dir> [-by age|role|all]");
+            System.exit(2);
+            return;
+        }
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("Can't create " + output);
+        }
+
+        final CephArchiveStatistics stats = new CephArchiveStatistics(groupBy);
+        stats.scan(input);
+        stats.write(output);
+        System.out.println(stats.getPatients() + " patient(s), "
+                + stats.getSkipped() + " file(s) skipped.");
+    }
+}
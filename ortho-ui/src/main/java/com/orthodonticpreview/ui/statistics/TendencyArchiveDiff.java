@@ -0,0 +1,223 @@
+/**
+ * *****************************************************************************
+ * Copyright (c) 2012 Cesar Moreira.
+ *
+ * This file is part of Orthodontic Preview.
+ *
+ * Orthodontic Preview is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Orthodontic Preview is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Orthodontic Preview. If not, see <http://www.gnu.org/licenses/>.
+ * ****************************************************************************
+ */
+package com.orthodonticpreview.ui.statistics;
+
+import com.orthodonticpreview.datamodel.MediaSeriesGroupNodeSerial;
+import com.orthodonticpreview.datamodel.TagO;
+import com.orthodonticpreview.datamodel.Tendencies;
+import com.orthodonticpreview.datamodel.TendencyRule;
+import com.orthodonticpreview.datamodel.batch.TendencyCase;
+import com.orthodonticpreview.datamodel.batch.TendencyDiff;
+import com.orthodonticpreview.datamodel.batch.TendencyDiffJob;
+import com.orthodonticpreview.ui.explorer.OrthoExplorerView;
+import com.orthodonticpreview.ui.persistence.PortablePreview;
+import com.orthodonticpreview.ui.persistence.SeriesBuilder;
+import java.awt.geom.Point2D;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.weasis.core.api.media.data.TagW;
+
+/**
+ * Recalculates the tendencies of all calculated studies of an archive with
+ * another turning tolerance, and lists the cases whose conclusion changes.
+ *
+ * <pre>
+ * TendencyArchiveDiff &lt;archive dir&gt; &lt;output dir&gt; -tolerance T
+ *     [-base T0] [-threads N] [-all]
+ * </pre>
+ *
+ * Base tolerance is Tendencies.TURNING_TOLERANCE by default. Writes
+ * tendency-diff.csv on output dir (only changed cases and errors, unless
+ * -all is given).
+ *
+ * @author agent (agent@local)
+ * @version 2026, 19 Oct.
+ */
+public final class TendencyArchiveDiff {
+
+    /** Diff file, on output dir. */
+    public static final String DIFF_FILE = "tendency-diff.csv";
+
+    /**
+     * Reads the calculated studies of a patient file.
+     */
+    public static final TendencyDiffJob.CaseLoader LOADER
+            = new TendencyDiffJob.CaseLoader() {
+                @Override
+                public List<TendencyCase> load(final File file)
+                        throws IOException {
+                    return getCases(file.getName(),
+                            PortablePreview.read(file));
+                }
+            };
+
+    private TendencyArchiveDiff() {
+    }
+
+    /**
+     * Gets the tendency inputs of each calculated study, with the values on
+     * its report (if any).
+     *
+     * @param fileName Name of patient file.
+     * @param preview Patient file content.
+     * @return Cases, one per calculated study.
+     */
+    public static List<TendencyCase> getCases(final String fileName,
+            final PortablePreview preview) {
+        final List<TendencyCase> cases = new ArrayList<TendencyCase>();
+        final Map<SeriesBuilder, MediaSeriesGroupNodeSerial> series
+                = preview.getSeries();
+        if (series == null) {
+            return cases;
+        }
+        final String patient = getPatientName(fileName, preview);
+        for (Map.Entry<SeriesBuilder, MediaSeriesGroupNodeSerial> entry
+                : series.entrySet()) {
+            final SeriesBuilder calc = entry.getKey();
+            if (!OrthoExplorerView.CALC_IMAGE.equals(
+                    calc.getTagValue(TagO.SERIE_ROLE))) {
+                continue;
+            }
+            final Object point = calc.getTagValue(TagO.POINT_GR);
+            final TendencyCase data = new TendencyCase(
+                    getCaseName(patient, entry.getValue()),
+                    point instanceof Point2D ? (Point2D) point : null);
+            data.setMidX(toDouble(calc.getTagValue(TagO.MID_X)));
+            data.setFrontLimit(toDouble(calc.getTagValue(TagO.FRONT_LIMIT)));
+            final Double scale = toDouble(calc.getTagValue(TagO.VECTORS_SCALE));
+            if (scale != null) {
+                data.setScale(scale);
+            }
+
+            final SeriesBuilder report = getReport(series, entry.getValue());
+            if (report != null) {
+                final Object turning
+                        = report.getTagValue(TagO.TURNING_TENDENCY);
+                final Object projection
+                        = report.getTagValue(TagO.PROJECTION_TENDENCY);
+                data.setStoredTurning(
+                        turning instanceof String ? (String) turning : null);
+                data.setStoredProjection(projection instanceof Boolean
+                        ? (Boolean) projection : null);
+            }
+            cases.add(data);
+        }
+        return cases;
+    }
+
+    private static SeriesBuilder getReport(
+            final Map<SeriesBuilder, MediaSeriesGroupNodeSerial> series,
+            final MediaSeriesGroupNodeSerial study) {
+        for (Map.Entry<SeriesBuilder, MediaSeriesGroupNodeSerial> entry
+                : series.entrySet()) {
+            if (entry.getValue() == study
+                    && OrthoExplorerView.REPORT_IMAGE.equals(
+                    entry.getKey().getTagValue(TagO.SERIE_ROLE))) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static String getPatientName(final String fileName,
+            final PortablePreview preview) {
+        final MediaSeriesGroupNodeSerial patient = preview.getPatient();
+        if (patient != null) {
+            final Object name = patient.getTagValue(TagW.PatientName);
+            if (name != null) {
+                return fileName + " " + name;
+            }
+        }
+        return fileName;
+    }
+
+    private static String getCaseName(final String patient,
+            final MediaSeriesGroupNodeSerial study) {
+        final Object role
+                = study == null ? null : study.getTagValue(TagO.STUDY_ROLE);
+        return role == null ? patient : patient + " / " + role;
+    }
+
+    private static Double toDouble(final Object value) {
+        return value instanceof Number
+                ? Double.valueOf(((Number) value).doubleValue()) : null;
+    }
+
+    /**
+     * Runs the diff over an archive.
+     *
+     * @param args Command line arguments.
+     * @throws Exception On IO errors or interruption.
+     */
+    public static void main(final String[] args) throws Exception {
+        File input = null;
+        File output = null;
+        Double tolerance = null;
+        double base = Tendencies.TURNING_TOLERANCE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean all = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("-tolerance".equals(args[i]) && i + 1 < args.length) {
+                tolerance = Double.valueOf(args[++i]);
+            } else if ("-base".equals(args[i]) && i + 1 < args.length) {
+                base = Double.parseDouble(args[++i]);
+            } else if ("-threads".equals(args[i]) && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("-all".equals(args[i])) {
+                all = true;
+            } else if (input == null) {
+                input = new File(args[i]);
+            } else if (output == null) {
+                output = new File(args[i]);
+            }
+        }
+        if (input == null || output == null || tolerance == null
+                || !input.isDirectory()) {
+            System.err.println("Usage: TendencyArchiveDiff <archive dir>"
+                    + " <output dir> -tolerance T [-base T0] [-threads N]"
+                    + " [-all]");
+            System.exit(2);
+            return;
+        }
+        if (!output.isDirectory() && !output.mkdirs()) {
+            throw new IOException("Can't create " + output);
+        }
+
+        final TendencyRule baseRule = Tendencies.rule(base);
+        final TendencyRule newRule = Tendencies.rule(tolerance);
+        final TendencyDiffJob job
+                = new TendencyDiffJob(threads, baseRule, newRule);
+        final List<TendencyDiff> diffs;
+        try {
+            diffs = job.run(CephArchiveStatistics.listArchive(input), LOADER);
+        } finally {
+            job.shutdown();
+        }
+        final int changed = TendencyDiffJob.writeDiff(diffs,
+                new File(output, DIFF_FILE), !all);
+        System.out.println(diffs.size() + " case(s), " + changed
+                + " changed from " + baseRule.getName() + " to "
+                + newRule.getName() + ".");
+    }
+}